@@ -0,0 +1,66 @@
+package com.portfolio.api_gateway.accesslog;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Codifica um {@link AccessLogRecord} como uma linha JSON, sem alocações intermediárias
+ * além do timestamp. Executado apenas na thread do writer.
+ *
+ * Campos equivalentes aos do antigo log "Request completed" (event, request_id, trace_id, ...).
+ */
+final class AccessLogEncoder {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private AccessLogEncoder() {
+    }
+
+    static void encode(AccessLogRecord record, StringBuilder out) {
+        out.append("{\"@timestamp\":\"");
+        DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(record.timestamp), out);
+        out.append('"');
+        field(out, "event", record.event);
+        field(out, "request_id", record.requestId);
+        field(out, "trace_id", record.traceId);
+        field(out, "span_id", record.spanId);
+        field(out, "route_id", record.routeId);
+        field(out, "method", record.method);
+        field(out, "path", record.path);
+        out.append(",\"status\":").append(record.status);
+        out.append(",\"duration_ms\":").append(record.durationMs);
+        field(out, "client_ip", record.clientIp);
+        if (record.errorType != null) {
+            field(out, "error_type", record.errorType);
+            field(out, "error_message", record.errorMessage);
+        }
+        out.append("}\n");
+    }
+
+    private static void field(StringBuilder out, String name, String value) {
+        out.append(",\"").append(name).append("\":");
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append("\\u00").append(HEX[c >> 4]).append(HEX[c & 0xF]);
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,164 @@
+package com.portfolio.api_gateway.accesslog;
+
+import com.portfolio.api_gateway.filter.ClientIp;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pipeline assíncrono de access log.
+ *
+ * Thread da requisição: decide a amostragem, reserva um slot do {@link AccessLogRingBuffer},
+ * copia os campos para o registro pré-alocado e publica. Nenhum StructuredArgument,
+ * encoder ou I/O no caminho da requisição; com o buffer cheio o registro é descartado
+ * e contabilizado em gateway.accesslog.dropped.
+ *
+ * Thread "access-log-writer": drena lotes do buffer, codifica em JSON (uma linha por registro)
+ * e entrega o lote inteiro em uma única chamada ao logger dedicado "gateway.access". O
+ * logback-spring.xml liga esse logger a um appender próprio com layout {@code %msg%n}
+ * (additivity=false): o lote sai como linhas JSON puras, sem o prefixo do console, em uma
+ * escrita por lote.
+ */
+@Component
+@EnableConfigurationProperties(AccessLogProperties.class)
+public class AccessLogPipeline {
+
+    private static final Logger ACCESS_LOGGER = LoggerFactory.getLogger("gateway.access");
+
+    private final AccessLogProperties properties;
+    private final AccessLogRingBuffer ringBuffer;
+    private final Counter droppedCounter;
+    private final Counter writtenCounter;
+
+    private final StringBuilder batch = new StringBuilder(64 * 1024);
+    private Thread writerThread;
+    private volatile boolean running;
+
+    public AccessLogPipeline(AccessLogProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.ringBuffer = new AccessLogRingBuffer(properties.getBufferSize());
+
+        this.droppedCounter = Counter.builder("gateway.accesslog.dropped")
+                .description("Registros de access log descartados com o buffer cheio")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("gateway.accesslog.written")
+                .description("Registros de access log escritos")
+                .register(meterRegistry);
+        Gauge.builder("gateway.accesslog.pending", ringBuffer, AccessLogRingBuffer::pending)
+                .description("Registros aguardando escrita no buffer")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::runWriter, "access-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (writerThread != null) {
+            LockSupport.unpark(writerThread);
+            writerThread.join(2000);
+        }
+    }
+
+    /**
+     * Registra a requisição concluída (error == null) ou com falha.
+     * Respostas sem erro (status < 400) são amostradas conforme success-sample-rate; sem status
+     * definido (conexão abortada antes da resposta) o registro é sempre mantido.
+     */
+    public void log(ServerWebExchange exchange, String requestId, String traceId, String spanId,
+                    long startTime, Throwable error) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        HttpStatusCode statusCode = exchange.getResponse().getStatusCode();
+        int status = statusCode != null ? statusCode.value() : 0;
+        boolean success = error == null && status > 0 && status < 400;
+        if (success && !sampled()) {
+            return;
+        }
+
+        long sequence = ringBuffer.tryClaim();
+        if (sequence < 0) {
+            droppedCounter.increment();
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+
+        AccessLogRecord record = ringBuffer.get(sequence);
+        record.timestamp = now;
+        record.event = error == null ? "request_completed" : "request_failed";
+        record.requestId = requestId;
+        record.traceId = traceId;
+        record.spanId = spanId;
+        record.routeId = route != null ? route.getId() : "unknown_route";
+        record.method = exchange.getRequest().getMethod().name();
+        record.path = exchange.getRequest().getPath().value();
+        record.status = status;
+        record.durationMs = now - startTime;
+        record.clientIp = ClientIp.resolve(exchange);
+        record.errorType = error != null ? error.getClass().getSimpleName() : null;
+        record.errorMessage = error != null ? error.getMessage() : null;
+        ringBuffer.publish(sequence);
+    }
+
+    private boolean sampled() {
+        double rate = properties.getSuccessSampleRate();
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    private void runWriter() {
+        long idleNanos = properties.getIdleWait().toNanos();
+        int batchSize = properties.getBatchSize();
+
+        while (running || ringBuffer.pending() > 0) {
+            int drained = ringBuffer.drain(this::encode, batchSize);
+            if (drained == 0) {
+                if (!running) {
+                    break;
+                }
+                LockSupport.parkNanos(idleNanos);
+                continue;
+            }
+            flush(drained);
+        }
+    }
+
+    private void encode(AccessLogRecord record) {
+        AccessLogEncoder.encode(record, batch);
+        record.clear();
+    }
+
+    private void flush(int drained) {
+        writtenCounter.increment(drained);
+        if (ACCESS_LOGGER.isInfoEnabled()) {
+            // sem o '\n' final: o layout do appender adiciona a quebra de linha
+            ACCESS_LOGGER.info(batch.substring(0, batch.length() - 1));
+        }
+        batch.setLength(0);
+    }
+}
@@ -0,0 +1,45 @@
+package com.portfolio.api_gateway.accesslog;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Propriedades do access log assíncrono.
+ *
+ * Exemplo de configuração em application.yaml:
+ *
+ * gateway:
+ *   access-log:
+ *     enabled: true
+ *     success-sample-rate: 0.1
+ *     buffer-size: 16384
+ *     batch-size: 512
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.access-log")
+public class AccessLogProperties {
+
+    /** Habilita o access log. */
+    private boolean enabled = true;
+
+    /** Fração das respostas sem erro (status < 400) registradas; erros são sempre registrados. */
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    private double successSampleRate = 1.0;
+
+    /** Capacidade do ring buffer (arredondada para potência de 2); cheio, novos registros são descartados. */
+    @Min(2)
+    private int bufferSize = 16_384;
+
+    /** Máximo de registros drenados do buffer por ciclo do writer. */
+    @Min(1)
+    private int batchSize = 512;
+
+    /** Espera do writer quando o buffer está vazio. */
+    private Duration idleWait = Duration.ofMillis(10);
+}
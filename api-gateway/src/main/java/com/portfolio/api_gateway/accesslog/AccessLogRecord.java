@@ -0,0 +1,37 @@
+package com.portfolio.api_gateway.accesslog;
+
+/**
+ * Registro de access log pré-alocado no ring buffer e reutilizado a cada volta.
+ *
+ * Preenchido pela thread da requisição e lido pelo writer apenas após a publicação
+ * do slot; limpo após a codificação para não reter referências da requisição.
+ */
+final class AccessLogRecord {
+
+    long timestamp;
+    String event;
+    String requestId;
+    String traceId;
+    String spanId;
+    String routeId;
+    String method;
+    String path;
+    int status;
+    long durationMs;
+    String clientIp;
+    String errorType;
+    String errorMessage;
+
+    void clear() {
+        event = null;
+        requestId = null;
+        traceId = null;
+        spanId = null;
+        routeId = null;
+        method = null;
+        path = null;
+        clientIp = null;
+        errorType = null;
+        errorMessage = null;
+    }
+}
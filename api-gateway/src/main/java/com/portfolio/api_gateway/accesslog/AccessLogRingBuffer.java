@@ -0,0 +1,91 @@
+package com.portfolio.api_gateway.accesslog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * Ring buffer lock-free de múltiplos produtores e um consumidor, com registros pré-alocados.
+ *
+ * Produtor: {@link #tryClaim()} reserva uma sequência por CAS (ou falha se o buffer está cheio),
+ * preenche o registro do slot e o libera com {@link #publish(long)}.
+ * Consumidor: {@link #drain(Consumer, int)} lê os slots publicados em ordem e só então
+ * avança o cursor, liberando os slots para reuso.
+ */
+final class AccessLogRingBuffer {
+
+    private final AccessLogRecord[] records;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final int capacity;
+
+    private final AtomicLong producerCursor = new AtomicLong();
+    private volatile long consumerCursor;
+
+    AccessLogRingBuffer(int requestedCapacity) {
+        this.capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.mask = capacity - 1;
+        this.records = new AccessLogRecord[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            records[i] = new AccessLogRecord();
+            published.set(i, -1);
+        }
+    }
+
+    /**
+     * Reserva o próximo slot.
+     *
+     * @return sequência reservada, ou -1 se o buffer está cheio
+     */
+    long tryClaim() {
+        while (true) {
+            long sequence = producerCursor.get();
+            if (sequence - consumerCursor >= capacity) {
+                return -1;
+            }
+            if (producerCursor.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    AccessLogRecord get(long sequence) {
+        return records[(int) (sequence & mask)];
+    }
+
+    void publish(long sequence) {
+        published.setRelease((int) (sequence & mask), sequence);
+    }
+
+    /**
+     * Consome até {@code max} registros publicados, em ordem de sequência.
+     *
+     * @return quantidade consumida
+     */
+    int drain(Consumer<AccessLogRecord> handler, int max) {
+        long next = consumerCursor;
+        int count = 0;
+        while (count < max) {
+            int index = (int) (next & mask);
+            if (published.getAcquire(index) != next) {
+                break;
+            }
+            handler.accept(records[index]);
+            next++;
+            count++;
+        }
+        if (count > 0) {
+            consumerCursor = next;
+        }
+        return count;
+    }
+
+    long pending() {
+        return producerCursor.get() - consumerCursor;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,119 @@
+package com.portfolio.api_gateway.admission;
+
+import com.portfolio.api_gateway.admission.AdmissionControlProperties.Threshold;
+import com.portfolio.api_gateway.exception.LoadSheddingException;
+import com.portfolio.api_gateway.runtime.EventLoopLagMonitor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.NonNull;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * WebFilter de admission control: descarta requisições por prioridade quando o gateway está sobrecarregado.
+ *
+ * Posição: logo antes da cadeia do Spring Security (order -100). Sob sobrecarga a requisição
+ * é descartada antes da validação do JWT ou da API key e da autorização; o tier do consumidor
+ * é lido sem validação pelo {@link PriorityResolver}, só para escolher a classe de prioridade.
+ *
+ * Sinais de sobrecarga:
+ * - Lag de agendamento dos event loops Netty ({@link EventLoopLagMonitor})
+ * - Requisições em processamento (in-flight) no gateway
+ *
+ * Cada prioridade tem seus próprios limites; ao cruzar qualquer um deles a requisição falha
+ * imediatamente com {@link LoadSheddingException} (503 + Retry-After via GlobalErrorFilter).
+ * CRITICAL nunca é descartada.
+ */
+@Component
+@EnableConfigurationProperties(AdmissionControlProperties.class)
+public class AdmissionControlFilter implements WebFilter, Ordered {
+
+    private static final int SECURITY_WEB_FILTER_CHAIN_ORDER = -100;
+
+    private final AdmissionControlProperties properties;
+    private final PriorityResolver priorityResolver;
+    private final EventLoopLagMonitor lagMonitor;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<Priority, Counter> admittedCounters = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counter> shedCounters = new EnumMap<>(Priority.class);
+
+    public AdmissionControlFilter(AdmissionControlProperties properties,
+                                  PriorityResolver priorityResolver,
+                                  EventLoopLagMonitor lagMonitor,
+                                  MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.priorityResolver = priorityResolver;
+        this.lagMonitor = lagMonitor;
+
+        for (Priority priority : Priority.values()) {
+            admittedCounters.put(priority, Counter.builder("gateway.admission.admitted")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+            shedCounters.put(priority, Counter.builder("gateway.admission.shed")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+
+        Gauge.builder("gateway.admission.in_flight", inFlight, AtomicInteger::get)
+                .description("Requisições em processamento no gateway")
+                .register(meterRegistry);
+        Gauge.builder("gateway.admission.event_loop_lag", lagMonitor, EventLoopLagMonitor::maxLagMillis)
+                .description("Maior lag de agendamento entre os event loops")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public @NonNull Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        return priorityResolver.resolve(exchange)
+                .flatMap(priority -> {
+                    if (shouldShed(priority)) {
+                        shedCounters.get(priority).increment();
+                        return Mono.error(new LoadSheddingException(
+                                priority, Math.max(1, properties.getRetryAfter().toSeconds())));
+                    }
+
+                    admittedCounters.get(priority).increment();
+                    inFlight.incrementAndGet();
+                    return chain.filter(exchange)
+                            .doFinally(signal -> inFlight.decrementAndGet());
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return SECURITY_WEB_FILTER_CHAIN_ORDER - 1;
+    }
+
+    private boolean shouldShed(Priority priority) {
+        if (priority == Priority.CRITICAL) {
+            return false;
+        }
+
+        Threshold threshold = properties.getThresholds().get(priority);
+        if (threshold == null) {
+            return false;
+        }
+
+        if (threshold.getMaxInFlight() != null && inFlight.get() >= threshold.getMaxInFlight()) {
+            return true;
+        }
+        return threshold.getMaxEventLoopLag() != null
+                && lagMonitor.maxLagMillis() >= threshold.getMaxEventLoopLag().toMillis();
+    }
+}
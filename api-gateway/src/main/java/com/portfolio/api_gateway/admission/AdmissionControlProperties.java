@@ -0,0 +1,69 @@
+package com.portfolio.api_gateway.admission;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Propriedades do admission control (load shedding por prioridade).
+ *
+ * Exemplo de configuração em application.yaml:
+ *
+ * gateway:
+ *   admission:
+ *     enabled: true
+ *     critical-paths:
+ *       - /actuator/health/**
+ *     priority-claim: tier
+ *     claim-priorities:
+ *       premium: HIGH
+ *       free: LOW
+ *     thresholds:
+ *       LOW:
+ *         max-event-loop-lag: 50ms
+ *         max-in-flight: 2000
+ *
+ * A prioridade de uma rota vem do metadata "priority" (CRITICAL, HIGH, NORMAL, LOW), em rotas
+ * YAML ou Java DSL. O tier do consumidor vem do claim do JWT ou do tier da API key.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.admission")
+public class AdmissionControlProperties {
+
+    /** Habilita o load shedding. */
+    private boolean enabled = true;
+
+    /** Paths sempre admitidos como CRITICAL. */
+    private List<String> criticalPaths = new ArrayList<>(List.of("/actuator/health/**"));
+
+    /** Claim do JWT com o tier do consumidor. */
+    private String priorityClaim = "tier";
+
+    /** Mapeamento tier (claim do JWT ou tier da API key) -> prioridade. */
+    private Map<String, Priority> claimPriorities = new HashMap<>();
+
+    /** Prioridade quando nem rota nem claim definem uma. */
+    private Priority defaultPriority = Priority.NORMAL;
+
+    /** Limites a partir dos quais cada prioridade é descartada (CRITICAL nunca é descartada). */
+    private Map<Priority, Threshold> thresholds = new EnumMap<>(Priority.class);
+
+    /** Valor do header Retry-After nas respostas descartadas. */
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    @Data
+    public static class Threshold {
+
+        /** Lag máximo de agendamento dos event loops. */
+        private Duration maxEventLoopLag;
+
+        /** Máximo de requisições em processamento no gateway. */
+        private Integer maxInFlight;
+    }
+}
@@ -0,0 +1,26 @@
+package com.portfolio.api_gateway.admission;
+
+/**
+ * Classes de prioridade para admission control, da mais para a menos importante.
+ */
+public enum Priority {
+
+    /** Health checks e tráfego de controle: nunca descartado. */
+    CRITICAL,
+
+    /** Tenants premium e rotas essenciais. */
+    HIGH,
+
+    /** Tráfego padrão. */
+    NORMAL,
+
+    /** Tráfego descartável primeiro sob sobrecarga (batch, tier gratuito). */
+    LOW;
+
+    /**
+     * Retorna a mais importante entre as duas prioridades.
+     */
+    public Priority max(Priority other) {
+        return other != null && other.ordinal() < ordinal() ? other : this;
+    }
+}
@@ -0,0 +1,170 @@
+package com.portfolio.api_gateway.admission;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.portfolio.api_gateway.security.apikey.ApiKeyProperties;
+import com.portfolio.api_gateway.security.apikey.ApiKeyResolver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.handler.AsyncPredicate;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Resolve a classe de prioridade de uma requisição para o admission control.
+ *
+ * Roda como WebFilter antes da cadeia do Spring Security e do matching de rotas do gateway:
+ * - Prioridade de rota: predicates das rotas com metadata "priority" (YAML e Java DSL, lidas
+ *   do {@link RouteLocator}), avaliados na ordem das rotas; tabela reconstruída a cada refresh
+ * - Tier do consumidor: claim de tier do Bearer token lido sem validar a assinatura, ou tier da
+ *   API key se ela já estiver no cache local do {@link ApiKeyResolver} (sem consulta ao Redis).
+ *   Só escolhe a classe de prioridade; a credencial continua sendo validada pela cadeia de
+ *   segurança, e um token forjado apenas troca um 503 barato por um 401
+ *
+ * Ordem de resolução:
+ * 1. Paths críticos (health checks) -> CRITICAL
+ * 2. A mais importante entre a prioridade da rota e a do tier do consumidor
+ * 3. Prioridade padrão
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PriorityResolver {
+
+    static final String PRIORITY_METADATA = "priority";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    /** Tokens maiores não são inspecionados (a requisição fica com a prioridade da rota). */
+    private static final int MAX_TOKEN_LENGTH = 8 * 1024;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final AdmissionControlProperties properties;
+    private final RouteLocator routeLocator;
+    private final ApiKeyResolver apiKeyResolver;
+    private final ApiKeyProperties apiKeyProperties;
+
+    private volatile List<PathPattern> criticalPatterns = List.of();
+    private volatile List<RoutePriority> routePriorities = List.of();
+
+    @EventListener({ApplicationReadyEvent.class, RefreshRoutesResultEvent.class})
+    public void refresh() {
+        criticalPatterns = properties.getCriticalPaths().stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+
+        routeLocator.getRoutes()
+                .filter(route -> route.getMetadata().get(PRIORITY_METADATA) != null)
+                .sort(Comparator.comparingInt(Route::getOrder))
+                .flatMapIterable(this::toRoutePriority)
+                .collectList()
+                .subscribe(priorities -> routePriorities = priorities);
+    }
+
+    public Mono<Priority> resolve(ServerWebExchange exchange) {
+        PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+
+        for (PathPattern pattern : criticalPatterns) {
+            if (pattern.matches(path)) {
+                return Mono.just(Priority.CRITICAL);
+            }
+        }
+
+        Priority consumerPriority = consumerPriority(exchange.getRequest());
+        return routePriority(exchange)
+                .map(routePriority -> consumerPriority != null ? consumerPriority.max(routePriority) : routePriority);
+    }
+
+    private Mono<Priority> routePriority(ServerWebExchange exchange) {
+        List<RoutePriority> priorities = routePriorities;
+        if (priorities.isEmpty()) {
+            return Mono.just(properties.getDefaultPriority());
+        }
+        return Flux.fromIterable(priorities)
+                .concatMap(route -> Mono.from(route.predicate().apply(exchange))
+                        .filter(Boolean::booleanValue)
+                        .map(matched -> route.priority()))
+                .next()
+                .defaultIfEmpty(properties.getDefaultPriority());
+    }
+
+    /**
+     * Prioridade do tier do consumidor, ou null se a requisição não informa tier mapeado.
+     * Com o header de API key presente a requisição é autenticada pela key, então o Bearer é ignorado.
+     */
+    private Priority consumerPriority(ServerHttpRequest request) {
+        String tier;
+        String apiKey = apiKeyProperties.isEnabled() ? request.getHeaders().getFirst(apiKeyProperties.getHeader()) : null;
+        if (apiKey != null && !apiKey.isBlank()) {
+            tier = apiKeyResolver.cachedTier(apiKey.trim());
+        } else {
+            String authorization = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            tier = authorization != null && authorization.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())
+                    ? unverifiedClaim(authorization.substring(BEARER_PREFIX.length()).trim(), properties.getPriorityClaim())
+                    : null;
+        }
+        return tier != null ? properties.getClaimPriorities().get(tier) : null;
+    }
+
+    /**
+     * Valor string de um claim de primeiro nível do payload do JWT, sem validar assinatura nem
+     * expiração; null se o token não tiver o formato esperado ou o claim não for string.
+     */
+    static String unverifiedClaim(String token, String claim) {
+        int first = token.indexOf('.');
+        int second = first < 0 ? -1 : token.indexOf('.', first + 1);
+        if (second < 0 || token.length() > MAX_TOKEN_LENGTH) {
+            return null;
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(
+                Base64.getUrlDecoder().decode(token.substring(first + 1, second)))) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (claim.equals(name)) {
+                    return value == JsonToken.VALUE_STRING ? parser.getText() : null;
+                }
+                parser.skipChildren();
+            }
+            return null;
+        } catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private List<RoutePriority> toRoutePriority(Route route) {
+        try {
+            Priority priority = Priority.valueOf(route.getMetadata().get(PRIORITY_METADATA).toString().toUpperCase());
+            return List.of(new RoutePriority(route.getPredicate(), priority));
+        } catch (IllegalArgumentException e) {
+            log.warn("Prioridade inválida no metadata da rota {}: {}",
+                    route.getId(), route.getMetadata().get(PRIORITY_METADATA));
+            return List.of();
+        }
+    }
+
+    private record RoutePriority(AsyncPredicate<ServerWebExchange> predicate, Priority priority) {
+    }
+}
@@ -0,0 +1,65 @@
+package com.portfolio.api_gateway.aggregation;
+
+import lombok.Data;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Filtro de rota Aggregate: responde a requisição com a composição das pernas da agregação
+ * ({@link AggregationExecutor}) em vez de rotear para um único downstream.
+ *
+ * Adicionado automaticamente às rotas geradas pelo {@link AggregationRegistry}:
+ *
+ * filters:
+ *   - Aggregate=mobile-home
+ *
+ * Ordem fixa logo antes do load balancer, depois dos filtros globais de deadline, rate limiting,
+ * quotas e header de identidade; a cadeia não continua (a rota não tem downstream próprio).
+ */
+@Component
+public class AggregateGatewayFilterFactory extends AbstractGatewayFilterFactory<AggregateGatewayFilterFactory.Config> {
+
+    static final int ORDER = ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 3;
+
+    private final AggregationRegistry registry;
+    private final AggregationExecutor executor;
+
+    public AggregateGatewayFilterFactory(AggregationRegistry registry, AggregationExecutor executor) {
+        super(Config.class);
+        this.registry = registry;
+        this.executor = executor;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("name");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            AggregationDefinition definition = registry.get(config.getName());
+            if (definition == null) {
+                return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND));
+            }
+            ServerWebExchangeUtils.setAlreadyRouted(exchange);
+            return executor.execute(exchange, config.getName(), definition);
+        }, ORDER);
+    }
+
+    @Data
+    public static class Config {
+
+        /** ID da agregação no {@link AggregationRegistry}. */
+        private String name;
+    }
+}
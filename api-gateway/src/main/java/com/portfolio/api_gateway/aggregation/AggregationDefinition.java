@@ -0,0 +1,81 @@
+package com.portfolio.api_gateway.aggregation;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import lombok.Data;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rota de agregação: um path do gateway que chama várias pernas lb:// em paralelo e devolve
+ * um único JSON com um campo por perna.
+ *
+ * As URIs das pernas aceitam as variáveis do path ({@code /bff/users/{id}/home}) e {@code {principal}}.
+ * A rota em si só exige autenticação; cada perna declara a authority do recurso que chama.
+ */
+@Data
+public class AggregationDefinition {
+
+    /** Path da rota (mesma sintaxe do predicate Path). */
+    @NotBlank(message = "O path da agregação é obrigatório")
+    private String path;
+
+    /** Método HTTP aceito. */
+    private String method = "GET";
+
+    /** Tratamento de falhas das pernas não obrigatórias. */
+    private PartialPolicy partialPolicy = PartialPolicy.NULL_FIELD;
+
+    /** Metadata da rota gerada (ex.: priority). */
+    private Map<String, Object> metadata = new HashMap<>();
+
+    @Valid
+    @NotEmpty(message = "Pelo menos uma perna é obrigatória")
+    private List<Leg> legs = new ArrayList<>();
+
+    @Data
+    public static class Leg {
+
+        /** Nome do campo na resposta agregada. */
+        @NotBlank(message = "O nome da perna é obrigatório")
+        @Pattern(regexp = "[A-Za-z0-9_-]+", message = "O nome da perna deve conter apenas letras, números, _ e -")
+        private String name;
+
+        /** URI template da perna (ex.: lb://orders-service/orders?user={principal}). */
+        @NotBlank(message = "A URI da perna é obrigatória")
+        private String uri;
+
+        /**
+         * Authority exigida do chamador para a perna, a mesma do acesso direto ao serviço
+         * (ex.: SCOPE_orders:read). Sem ela a perna não é chamada; se for obrigatória, 403.
+         */
+        @NotBlank(message = "A authority da perna é obrigatória")
+        private String authority;
+
+        /** Timeout da perna (fila do bulkhead + chamada); limitado pelo deadline da requisição. */
+        private Duration timeout;
+
+        /** Perna obrigatória: a falha dela resulta em 502 qualquer que seja a política. */
+        private boolean required;
+
+        /**
+         * Rota cujos circuit breaker e bulkhead a perna compartilha; padrão: o serviço da URI
+         * (lb://users-service/... usa os de users-service).
+         */
+        private String route;
+
+        public String routeName() {
+            if (route != null && !route.isBlank()) {
+                return route;
+            }
+            return uri != null ? URI.create(uri.replace("{", "%7B").replace("}", "%7D")).getHost() : null;
+        }
+    }
+}
@@ -0,0 +1,342 @@
+package com.portfolio.api_gateway.aggregation;
+
+import com.portfolio.api_gateway.bulkhead.CoDelBulkheadGatewayFilterFactory;
+import com.portfolio.api_gateway.deadline.Deadlines;
+import com.portfolio.api_gateway.exception.AggregationFailedException;
+import com.portfolio.api_gateway.exception.BulkheadRejectedException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.BodyExtractors;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Executa uma rota de agregação: chama as pernas em paralelo e escreve a resposta combinada.
+ *
+ * Cada perna:
+ * - usa o circuit breaker Resilience4j e o bulkhead CoDel da rota correspondente (mesmas
+ *   instâncias e métricas do tráfego direto: perna de users-service disputa a capacidade de
+ *   users-service); como no caminho direto, só 5xx, timeout e erro de I/O contam no circuito
+ * - tem timeout próprio (fila do bulkhead + chamada), limitado pelo deadline da requisição
+ * - recebe os headers da requisição original (já com o header de identidade, se habilitado)
+ * - só é chamada se o chamador tiver a authority declarada na perna; faltando a authority de uma
+ *   perna obrigatória, a requisição é negada (403) antes de qualquer chamada
+ * - falha com not_json se a resposta 2xx não for JSON (o corpo seria copiado como está)
+ *
+ * Resposta: {@code {"perna1": <corpo>, "perna2": <corpo>, "_errors": {...}}}. Os corpos das
+ * pernas são copiados sem parse nem reserialização e escritos na ordem em que as pernas
+ * terminam; o status (200 ou 502) é decidido assim que as pernas obrigatórias terminam, e as
+ * demais continuam sendo escritas à medida que chegam.
+ *
+ * Métricas: {@code gateway.aggregation.leg.duration{aggregation,leg,outcome}} e
+ * {@code gateway.aggregation.partial{aggregation}}.
+ */
+@Slf4j
+@Component
+public class AggregationExecutor {
+
+    private static final byte[] NULL = "null".getBytes(StandardCharsets.US_ASCII);
+
+    private static final Principal ANONYMOUS = () -> "";
+
+    /** Headers da requisição original que não são repassados às pernas. */
+    private static final Set<String> EXCLUDED_HEADERS = Set.of(
+            "host", "content-length", "content-type", "transfer-encoding", "connection", "keep-alive",
+            "upgrade", "te", "trailer", "accept", "accept-encoding");
+
+    private final WebClient webClient;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final CoDelBulkheadGatewayFilterFactory bulkheads;
+    private final AggregationProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public AggregationExecutor(WebClient.Builder webClientBuilder,
+                               ReactorLoadBalancerExchangeFilterFunction loadBalancer,
+                               CircuitBreakerRegistry circuitBreakerRegistry,
+                               CoDelBulkheadGatewayFilterFactory bulkheads,
+                               AggregationProperties properties,
+                               MeterRegistry meterRegistry) {
+        this(webClientBuilder.clone().filter(loadBalancer).build(),
+                circuitBreakerRegistry, bulkheads, properties, meterRegistry);
+    }
+
+    AggregationExecutor(WebClient webClient,
+                        CircuitBreakerRegistry circuitBreakerRegistry,
+                        CoDelBulkheadGatewayFilterFactory bulkheads,
+                        AggregationProperties properties,
+                        MeterRegistry meterRegistry) {
+        this.webClient = webClient;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheads = bulkheads;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    Mono<Void> execute(ServerWebExchange exchange, String aggregationId, AggregationDefinition definition) {
+        return exchange.getPrincipal()
+                .defaultIfEmpty(ANONYMOUS)
+                .flatMap(principal -> {
+                    Set<String> authorities = authorities(principal);
+                    Map<String, String> variables = new HashMap<>(ServerWebExchangeUtils.getUriTemplateVariables(exchange));
+                    variables.put("principal", principal.getName());
+
+                    Set<String> required = new HashSet<>();
+                    for (AggregationDefinition.Leg leg : definition.getLegs()) {
+                        if (leg.isRequired() || definition.getPartialPolicy() == PartialPolicy.FAIL) {
+                            if (!authorities.contains(leg.getAuthority())) {
+                                return Mono.error(new AccessDeniedException(
+                                        "Authority " + leg.getAuthority() + " ausente para a perna " + leg.getName()));
+                            }
+                            required.add(leg.getName());
+                        }
+                    }
+
+                    // cache(): o resultado é compartilhado entre a espera das obrigatórias e o corpo
+                    List<Mono<LegResult>> legs = new ArrayList<>(definition.getLegs().size());
+                    for (AggregationDefinition.Leg leg : definition.getLegs()) {
+                        legs.add(callLeg(exchange, aggregationId, leg, variables, authorities).cache());
+                    }
+
+                    // status decidido antes do primeiro byte: 502 se uma perna obrigatória falhar.
+                    // O merge dispara todas as pernas; take() encerra a espera sem cancelá-las.
+                    Mono<Void> requiredGate = required.isEmpty() ? Mono.empty() : Flux.merge(legs)
+                            .filter(result -> required.contains(result.name()))
+                            .take(required.size())
+                            .filter(LegResult::failed)
+                            .next()
+                            .flatMap(failed -> Mono.<Void>error(
+                                    new AggregationFailedException(aggregationId, failed.name(), failed.error())));
+
+                    ServerHttpResponse response = exchange.getResponse();
+                    response.setStatusCode(HttpStatus.OK);
+                    response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+                    return response.writeWith(requiredGate.thenMany(Flux.defer(() ->
+                            body(response.bufferFactory(), aggregationId, definition.getPartialPolicy(), Flux.merge(legs)))));
+                });
+    }
+
+    /**
+     * Escreve os campos na ordem de término das pernas; {@code Flux.merge} entrega os resultados
+     * em série, então o estado por requisição não precisa de sincronização.
+     */
+    private Flux<DataBuffer> body(DataBufferFactory factory, String aggregationId, PartialPolicy policy,
+                                  Flux<LegResult> results) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        boolean[] first = {true};
+
+        Flux<DataBuffer> fields = results.concatMap(result -> {
+            if (result.failed()) {
+                errors.put(result.name(), result.error());
+                if (policy == PartialPolicy.OMIT) {
+                    return Flux.empty();
+                }
+            }
+            String prefix = (first[0] ? "" : ",") + "\"" + result.name() + "\":";
+            first[0] = false;
+            return Flux.just(
+                    factory.wrap(prefix.getBytes(StandardCharsets.UTF_8)),
+                    factory.wrap(result.failed() ? NULL : result.body()));
+        });
+
+        Mono<DataBuffer> close = Mono.fromSupplier(() -> {
+            StringBuilder tail = new StringBuilder();
+            if (!errors.isEmpty()) {
+                meterRegistry.counter("gateway.aggregation.partial", "aggregation", aggregationId).increment();
+                tail.append(first[0] ? "" : ",").append("\"_errors\":{");
+                boolean firstError = true;
+                for (Map.Entry<String, String> error : errors.entrySet()) {
+                    tail.append(firstError ? "" : ",")
+                            .append('"').append(error.getKey()).append("\":\"").append(error.getValue()).append('"');
+                    firstError = false;
+                }
+                tail.append('}');
+            }
+            return factory.wrap(tail.append('}').toString().getBytes(StandardCharsets.UTF_8));
+        });
+
+        return Flux.concat(Mono.fromSupplier(() -> factory.wrap(new byte[]{'{'})), fields, close);
+    }
+
+    private Mono<LegResult> callLeg(ServerWebExchange exchange, String aggregationId,
+                                    AggregationDefinition.Leg leg, Map<String, String> variables,
+                                    Set<String> authorities) {
+        if (!authorities.contains(leg.getAuthority())) {
+            return Mono.just(LegResult.failure(leg.getName(), "forbidden"));
+        }
+        String route = leg.routeName();
+        long timeoutMillis = Math.min(
+                (leg.getTimeout() != null ? leg.getTimeout() : properties.getDefaultLegTimeout()).toMillis(),
+                Deadlines.remainingMillis(exchange));
+        if (timeoutMillis <= 0) {
+            return Mono.just(LegResult.failure(leg.getName(), "deadline"));
+        }
+
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(route);
+        CoDelBulkheadGatewayFilterFactory.RouteBulkhead bulkhead = bulkheads.bulkheadFor(route, route);
+        Long deadline = exchange.getAttribute(Deadlines.DEADLINE_ATTR);
+        HttpHeaders original = exchange.getRequest().getHeaders();
+        int maxBytes = (int) properties.getMaxLegSize().toBytes();
+
+        Mono<LegResult> call = webClient.get()
+                .uri(toHttp(leg.getUri()), variables)
+                .headers(headers -> copyHeaders(original, headers))
+                .accept(MediaType.APPLICATION_JSON)
+                .exchangeToMono(response -> result(leg.getName(), response, maxBytes));
+
+        long start = System.nanoTime();
+        return bulkhead.acquire(deadline != null ? deadline : Long.MAX_VALUE)
+                .flatMap(permit -> call.doFinally(signal -> permit.release()))
+                .timeout(Duration.ofMillis(timeoutMillis))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .onErrorResume(e -> Mono.just(LegResult.failure(leg.getName(), reason(e))))
+                .doOnNext(result -> {
+                    if (result.failed()) {
+                        log.debug("Perna de agregação falhou",
+                                kv("event", "aggregation_leg_failed"),
+                                kv("aggregation", aggregationId),
+                                kv("leg", leg.getName()),
+                                kv("reason", result.error()));
+                    }
+                    legTimer(aggregationId, leg.getName(), result.failed() ? result.error() : "success")
+                            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                });
+    }
+
+    /**
+     * Resultado da perna a partir da resposta. Como no caminho direto do gateway, só 5xx (além de
+     * timeout e erro de I/O) chega ao circuit breaker como erro; 4xx, conteúdo não JSON e corpo
+     * acima de max-leg-size são respostas do downstream e viram falha da perna sem contar no circuito.
+     */
+    private static Mono<LegResult> result(String name, ClientResponse response, int maxBytes) {
+        HttpStatusCode status = response.statusCode();
+        if (status.is5xxServerError()) {
+            return response.createError();
+        }
+        if (!status.is2xxSuccessful()) {
+            return response.releaseBody().thenReturn(LegResult.failure(name, "status_" + status.value()));
+        }
+        if (status.value() == HttpStatus.NO_CONTENT.value()) {
+            return response.releaseBody().thenReturn(LegResult.success(name, NULL));
+        }
+        if (!isJson(response.headers().contentType().orElse(null))) {
+            return response.releaseBody().thenReturn(LegResult.failure(name, "not_json"));
+        }
+        return DataBufferUtils.join(response.body(BodyExtractors.toDataBuffers()), maxBytes)
+                .map(buffer -> LegResult.success(name, toBytes(buffer)))
+                .defaultIfEmpty(LegResult.success(name, NULL))
+                .onErrorResume(DataBufferLimitException.class, e -> Mono.just(LegResult.failure(name, "too_large")));
+    }
+
+    private static boolean isJson(MediaType contentType) {
+        return contentType != null && (MediaType.APPLICATION_JSON.isCompatibleWith(contentType)
+                || contentType.getSubtype().endsWith("+json"));
+    }
+
+    private static Set<String> authorities(Principal principal) {
+        if (!(principal instanceof Authentication authentication)) {
+            return Set.of();
+        }
+        Set<String> authorities = new HashSet<>();
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            authorities.add(authority.getAuthority());
+        }
+        return authorities;
+    }
+
+    private static void copyHeaders(HttpHeaders source, HttpHeaders target) {
+        source.forEach((name, values) -> {
+            if (!EXCLUDED_HEADERS.contains(name.toLowerCase())) {
+                target.addAll(name, values);
+            }
+        });
+    }
+
+    /** O filtro do load balancer resolve o host como service ID; o esquema lb:// vira http://. */
+    private static String toHttp(String uri) {
+        return uri.startsWith("lb://") ? "http://" + uri.substring(5) : uri;
+    }
+
+    private static byte[] toBytes(DataBuffer buffer) {
+        try {
+            byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            return bytes.length > 0 ? bytes : NULL;
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    private static String reason(Throwable e) {
+        return switch (e) {
+            case TimeoutException ignored -> "timeout";
+            case CallNotPermittedException ignored -> "circuit_open";
+            case BulkheadRejectedException ignored -> "bulkhead_full";
+            case WebClientResponseException wcre -> "status_" + wcre.getStatusCode().value();
+            default -> "error";
+        };
+    }
+
+    private Timer legTimer(String aggregationId, String leg, String outcome) {
+        return Timer.builder("gateway.aggregation.leg.duration")
+                .description("Duração das pernas das rotas de agregação")
+                .tag("aggregation", aggregationId)
+                .tag("leg", leg)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record LegResult(String name, byte[] body, String error) {
+
+        static LegResult success(String name, byte[] body) {
+            return new LegResult(name, body, null);
+        }
+
+        static LegResult failure(String name, String error) {
+            return new LegResult(name, null, error);
+        }
+
+        boolean failed() {
+            return error != null;
+        }
+    }
+}
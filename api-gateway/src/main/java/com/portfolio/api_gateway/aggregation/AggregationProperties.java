@@ -0,0 +1,46 @@
+package com.portfolio.api_gateway.aggregation;
+
+import jakarta.validation.Valid;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Propriedades das rotas de agregação (composição backend-for-frontend).
+ *
+ * Exemplo de configuração em application.yaml:
+ *
+ * gateway:
+ *   aggregation:
+ *     routes:
+ *       mobile-home:
+ *         path: /api/v1/bff/home
+ *         partial-policy: NULL_FIELD
+ *         legs:
+ *           - name: user
+ *             uri: lb://users-service/users/{principal}
+ *             authority: SCOPE_users:read
+ *             timeout: 800ms
+ *             required: true
+ *           - name: orders
+ *             uri: lb://orders-service/orders?user={principal}
+ *             authority: SCOPE_orders:read
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.aggregation")
+public class AggregationProperties {
+
+    /** Timeout das pernas sem timeout próprio. */
+    private Duration defaultLegTimeout = Duration.ofSeconds(2);
+
+    /** Tamanho máximo da resposta de uma perna (acima disso a perna falha com too_large). */
+    private DataSize maxLegSize = DataSize.ofMegabytes(1);
+
+    /** Rotas de agregação por ID (também o ID da rota no gateway); nenhuma por padrão. */
+    @Valid
+    private Map<String, AggregationDefinition> routes = new LinkedHashMap<>();
+}
@@ -0,0 +1,117 @@
+package com.portfolio.api_gateway.aggregation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.cloud.gateway.filter.FilterDefinition;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Registro das rotas de agregação (YAML + API de administração).
+ *
+ * Cada agregação vira uma rota do gateway (Path + Method, filtro {@code Aggregate}), de modo que
+ * segurança, rate limiting, quotas, admission control e o header de identidade se aplicam como
+ * em qualquer outra rota. Alterações via API publicam {@link RefreshRoutesEvent}; como as rotas
+ * dinâmicas, ficam apenas em memória.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(AggregationProperties.class)
+public class AggregationRegistry implements RouteDefinitionLocator {
+
+    private static final URI NO_OP_URI = URI.create("no://op");
+    private static final String ERRORS_FIELD = "_errors";
+
+    private final Map<String, AggregationDefinition> definitions = new ConcurrentHashMap<>();
+    private final ApplicationEventPublisher eventPublisher;
+
+    public AggregationRegistry(AggregationProperties properties, ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+        properties.getRoutes().forEach((id, definition) -> {
+            validate(id, definition);
+            definitions.put(id, definition);
+        });
+    }
+
+    public AggregationDefinition get(String id) {
+        return definitions.get(id);
+    }
+
+    public Map<String, AggregationDefinition> list() {
+        return new TreeMap<>(definitions);
+    }
+
+    /**
+     * @throws IllegalArgumentException pernas com nomes repetidos, sem authority ou sem serviço identificável
+     */
+    public void save(String id, AggregationDefinition definition) {
+        validate(id, definition);
+        definitions.put(id, definition);
+        eventPublisher.publishEvent(new RefreshRoutesEvent(this));
+        log.info("Rota de agregação salva",
+                kv("event", "aggregation_saved"),
+                kv("aggregation", id),
+                kv("path", definition.getPath()),
+                kv("legs", definition.getLegs().size()));
+    }
+
+    public boolean delete(String id) {
+        if (definitions.remove(id) == null) {
+            return false;
+        }
+        eventPublisher.publishEvent(new RefreshRoutesEvent(this));
+        log.info("Rota de agregação removida", kv("event", "aggregation_deleted"), kv("aggregation", id));
+        return true;
+    }
+
+    @Override
+    public Flux<RouteDefinition> getRouteDefinitions() {
+        return Flux.fromIterable(definitions.entrySet())
+                .map(entry -> toRouteDefinition(entry.getKey(), entry.getValue()));
+    }
+
+    private static RouteDefinition toRouteDefinition(String id, AggregationDefinition definition) {
+        RouteDefinition route = new RouteDefinition();
+        route.setId(id);
+        route.setUri(NO_OP_URI);
+        route.setPredicates(List.of(
+                new PredicateDefinition("Path=" + definition.getPath()),
+                new PredicateDefinition("Method=" + definition.getMethod())));
+        route.setFilters(List.of(new FilterDefinition("Aggregate=" + id)));
+        route.setMetadata(definition.getMetadata() != null ? definition.getMetadata() : Map.of());
+        return route;
+    }
+
+    private static void validate(String id, AggregationDefinition definition) {
+        if (definition.getLegs() == null || definition.getLegs().isEmpty()) {
+            throw new IllegalArgumentException("Agregação " + id + " sem pernas");
+        }
+        Set<String> names = new HashSet<>();
+        for (AggregationDefinition.Leg leg : definition.getLegs()) {
+            if (ERRORS_FIELD.equals(leg.getName()) || !names.add(leg.getName())) {
+                throw new IllegalArgumentException("Nome de perna inválido ou repetido em " + id + ": " + leg.getName());
+            }
+            if (leg.getAuthority() == null || leg.getAuthority().isBlank()) {
+                throw new IllegalArgumentException("Perna " + leg.getName() + " de " + id + " sem authority");
+            }
+            if (leg.routeName() == null) {
+                throw new IllegalArgumentException("Perna " + leg.getName() + " de " + id + " sem serviço na URI");
+            }
+        }
+    }
+}
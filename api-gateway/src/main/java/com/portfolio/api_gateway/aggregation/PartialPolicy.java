@@ -0,0 +1,16 @@
+package com.portfolio.api_gateway.aggregation;
+
+/**
+ * Comportamento de uma rota de agregação quando uma perna não obrigatória falha.
+ */
+public enum PartialPolicy {
+
+    /** Qualquer falha resulta em 502 (todas as pernas são tratadas como obrigatórias). */
+    FAIL,
+
+    /** O campo da perna vem como null e a falha é descrita em "_errors". */
+    NULL_FIELD,
+
+    /** O campo da perna é omitido e a falha é descrita em "_errors". */
+    OMIT
+}
@@ -0,0 +1,272 @@
+package com.portfolio.api_gateway.bulkhead;
+
+import com.portfolio.api_gateway.exception.BulkheadRejectedException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bulkhead com fila de espera controlada por atraso (CoDel) e LIFO adaptativo.
+ *
+ * Até {@code maxConcurrentCalls} chamadas executam ao mesmo tempo; as excedentes aguardam na fila.
+ *
+ * Controle da fila:
+ * - Fila que esvaziou no último {@code interval}: normal, espera máxima = interval, atendimento FIFO
+ * - Fila que não esvazia há mais de {@code interval}: sobrecarga, espera máxima = target,
+ *   atendimento LIFO (requisições novas ainda têm chance de cumprir seu timeout) e descarte
+ *   das requisições mais antigas que já excederam o target
+ * - A espera nunca ultrapassa o deadline da requisição: quem não pode mais cumprir
+ *   o timeout da rota é rejeitado em vez de ocupar a capacidade do downstream
+ *
+ * Rejeições falham com {@link BulkheadRejectedException}.
+ */
+public class CoDelBulkhead {
+
+    static final String REASON_QUEUE_FULL = "queue_full";
+    static final String REASON_QUEUE_TIMEOUT = "queue_timeout";
+    static final String REASON_DEADLINE = "deadline";
+
+    private static final int WAITING = 0;
+    private static final int GRANTED = 1;
+    private static final int REJECTED = 2;
+
+    private final String routeId;
+    private final int maxConcurrentCalls;
+    private final int maxQueueSize;
+    private final long targetNanos;
+    private final long intervalNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Deque<Waiter> queue = new ArrayDeque<>();
+    private long lastEmptyNanos = System.nanoTime();
+
+    private volatile int active;
+    private volatile int queued;
+
+    public CoDelBulkhead(String routeId, int maxConcurrentCalls, int maxQueueSize,
+                         long targetNanos, long intervalNanos) {
+        this.routeId = routeId;
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxQueueSize = maxQueueSize;
+        this.targetNanos = targetNanos;
+        this.intervalNanos = intervalNanos;
+    }
+
+    /**
+     * Obtém uma permissão de execução, aguardando na fila se necessário.
+     *
+     * @param deadlineNanos deadline da requisição em {@link System#nanoTime()}, ou {@link Long#MAX_VALUE}
+     */
+    public Mono<Permit> acquire(long deadlineNanos) {
+        return Mono.create(sink -> {
+            long now = System.nanoTime();
+            boolean granted = false;
+            Waiter waiter = null;
+            String rejection = null;
+            long maxWait = 0;
+
+            lock.lock();
+            try {
+                if (queue.isEmpty()) {
+                    lastEmptyNanos = now;
+                }
+
+                if (queue.isEmpty() && active < maxConcurrentCalls) {
+                    active++;
+                    granted = true;
+                } else if (queue.size() >= maxQueueSize) {
+                    rejection = REASON_QUEUE_FULL;
+                } else {
+                    long queueLimit = overloaded(now) ? targetNanos : intervalNanos;
+                    long untilDeadline = deadlineNanos == Long.MAX_VALUE ? Long.MAX_VALUE : deadlineNanos - now;
+                    maxWait = Math.min(queueLimit, untilDeadline);
+                    if (maxWait <= 0) {
+                        rejection = REASON_DEADLINE;
+                    } else {
+                        waiter = new Waiter(sink, now, deadlineNanos,
+                                untilDeadline <= queueLimit ? REASON_DEADLINE : REASON_QUEUE_TIMEOUT);
+                        queue.addLast(waiter);
+                        queued = queue.size();
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            if (rejection != null) {
+                sink.error(new BulkheadRejectedException(routeId, rejection));
+            } else if (granted) {
+                sink.success(new Permit(0));
+            } else {
+                Waiter queuedWaiter = waiter;
+                queuedWaiter.timer = Schedulers.parallel().schedule(
+                        () -> expire(queuedWaiter), maxWait, TimeUnit.NANOSECONDS);
+                sink.onCancel(() -> cancel(queuedWaiter));
+            }
+        });
+    }
+
+    public int activeCalls() {
+        return active;
+    }
+
+    public int queueDepth() {
+        return queued;
+    }
+
+    private boolean overloaded(long now) {
+        return !queue.isEmpty() && now - lastEmptyNanos > intervalNanos;
+    }
+
+    /**
+     * Libera uma permissão e a repassa ao próximo da fila (FIFO ou LIFO conforme a sobrecarga).
+     */
+    private void release() {
+        long now = System.nanoTime();
+        Waiter next = null;
+        List<Waiter> dropped = new ArrayList<>(0);
+
+        lock.lock();
+        try {
+            active--;
+            boolean overloaded = overloaded(now);
+
+            if (overloaded) {
+                // CoDel: descarta pela cabeça quem já esperou mais que o target
+                Waiter oldest;
+                while ((oldest = queue.peekFirst()) != null && now - oldest.enqueuedAt > targetNanos) {
+                    queue.pollFirst();
+                    if (oldest.state.compareAndSet(WAITING, REJECTED)) {
+                        oldest.reason = REASON_QUEUE_TIMEOUT;
+                        dropped.add(oldest);
+                    }
+                }
+            }
+
+            Waiter candidate;
+            while ((candidate = overloaded ? queue.pollLast() : queue.pollFirst()) != null) {
+                if (candidate.deadlineNanos != Long.MAX_VALUE && candidate.deadlineNanos - now <= 0) {
+                    if (candidate.state.compareAndSet(WAITING, REJECTED)) {
+                        candidate.reason = REASON_DEADLINE;
+                        dropped.add(candidate);
+                    }
+                    continue;
+                }
+                // permissão criada antes da transição: um cancelamento concorrente a encontra para liberar
+                candidate.permit = new Permit(now - candidate.enqueuedAt);
+                if (candidate.state.compareAndSet(WAITING, GRANTED)) {
+                    active++;
+                    next = candidate;
+                    break;
+                }
+            }
+
+            if (queue.isEmpty()) {
+                lastEmptyNanos = now;
+            }
+            queued = queue.size();
+        } finally {
+            lock.unlock();
+        }
+
+        for (Waiter waiter : dropped) {
+            waiter.disposeTimer();
+            waiter.sink.error(new BulkheadRejectedException(routeId, waiter.reason));
+        }
+        if (next != null) {
+            next.disposeTimer();
+            next.sink.success(next.permit);
+        }
+    }
+
+    private void expire(Waiter waiter) {
+        if (!waiter.state.compareAndSet(WAITING, REJECTED)) {
+            return;
+        }
+        remove(waiter);
+        waiter.sink.error(new BulkheadRejectedException(routeId, waiter.reason));
+    }
+
+    private void cancel(Waiter waiter) {
+        if (waiter.state.compareAndSet(WAITING, REJECTED)) {
+            waiter.disposeTimer();
+            remove(waiter);
+        } else if (waiter.state.get() == GRANTED) {
+            // permissão concedida concorrentemente com o cancelamento
+            waiter.permit.release();
+        }
+    }
+
+    private void remove(Waiter waiter) {
+        lock.lock();
+        try {
+            queue.remove(waiter);
+            if (queue.isEmpty()) {
+                lastEmptyNanos = System.nanoTime();
+            }
+            queued = queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Permissão de execução. {@link #release()} é idempotente.
+     */
+    public final class Permit {
+
+        private final long sojournNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(long sojournNanos) {
+            this.sojournNanos = sojournNanos;
+        }
+
+        /** Tempo de espera na fila até a concessão. */
+        public long sojournNanos() {
+            return sojournNanos;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                CoDelBulkhead.this.release();
+            }
+        }
+    }
+
+    private static final class Waiter {
+
+        private final MonoSink<Permit> sink;
+        private final long enqueuedAt;
+        private final long deadlineNanos;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        private volatile String reason;
+        private volatile Disposable timer;
+        private volatile Permit permit;
+
+        private Waiter(MonoSink<Permit> sink, long enqueuedAt, long deadlineNanos, String reason) {
+            this.sink = sink;
+            this.enqueuedAt = enqueuedAt;
+            this.deadlineNanos = deadlineNanos;
+            this.reason = reason;
+        }
+
+        private void disposeTimer() {
+            Disposable current = timer;
+            if (current != null) {
+                current.dispose();
+            }
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.portfolio.api_gateway.bulkhead;
+
+import com.portfolio.api_gateway.deadline.Deadlines;
+import com.portfolio.api_gateway.exception.BulkheadRejectedException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Filtro de rota CoDelBulkhead: limita a concorrência da rota com fila de espera CoDel ({@link CoDelBulkhead}).
+ *
+ * O limite de chamadas concorrentes vem da instância Resilience4j de mesmo nome
+ * (resilience4j.bulkhead.instances.{name}.max-concurrent-calls); o max-wait-duration
+ * do Resilience4j é substituído pela política de fila configurada em gateway.bulkhead.
+ *
+ * Uso em application.yaml:
+ *
+ * filters:
+ *   - name: CoDelBulkhead
+ *     args:
+ *       name: orders-service
+ *
+ * Posicionado após o CircuitBreaker: rejeições seguem para o fallbackUri da rota.
+ *
+ * Métricas por rota:
+ * - gateway.bulkhead.sojourn: tempo de espera na fila (histograma)
+ * - gateway.bulkhead.queue.depth / gateway.bulkhead.active: profundidade da fila e chamadas em execução
+ * - gateway.bulkhead.rejected: rejeições por motivo (queue_full, queue_timeout, deadline)
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(CoDelBulkheadProperties.class)
+public class CoDelBulkheadGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<CoDelBulkheadGatewayFilterFactory.Config> {
+
+    private final BulkheadRegistry bulkheadRegistry;
+    private final CoDelBulkheadProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, RouteBulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    public CoDelBulkheadGatewayFilterFactory(BulkheadRegistry bulkheadRegistry,
+                                             CoDelBulkheadProperties properties,
+                                             MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("name");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            String routeId = route != null ? route.getId() : config.getName();
+            RouteBulkhead routeBulkhead = bulkheads.computeIfAbsent(routeId,
+                    id -> createBulkhead(id, config.getName()));
+
+            Long deadline = exchange.getAttribute(Deadlines.DEADLINE_ATTR);
+
+            return routeBulkhead.acquire(deadline != null ? deadline : Long.MAX_VALUE)
+                    .flatMap(permit -> chain.filter(exchange)
+                            .doFinally(signal -> permit.release()));
+        };
+    }
+
+    /**
+     * Bulkhead CoDel da rota, criado se ainda não existir; usado pelas pernas das rotas de
+     * agregação para disputar a mesma capacidade (e registrar as mesmas métricas) que o
+     * tráfego direto da rota.
+     */
+    public RouteBulkhead bulkheadFor(String routeId, String name) {
+        return bulkheads.computeIfAbsent(routeId, id -> createBulkhead(id, name));
+    }
+
+    private RouteBulkhead createBulkhead(String routeId, String name) {
+        int maxConcurrentCalls = bulkheadRegistry.bulkhead(name).getBulkheadConfig().getMaxConcurrentCalls();
+
+        CoDelBulkhead bulkhead = new CoDelBulkhead(
+                routeId,
+                maxConcurrentCalls,
+                properties.getMaxQueueSize(),
+                properties.getTarget().toNanos(),
+                properties.getInterval().toNanos());
+
+        Gauge.builder("gateway.bulkhead.queue.depth", bulkhead, CoDelBulkhead::queueDepth)
+                .description("Requisições aguardando na fila do bulkhead")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.bulkhead.active", bulkhead, CoDelBulkhead::activeCalls)
+                .description("Chamadas em execução no bulkhead")
+                .tag("route", routeId)
+                .register(meterRegistry);
+
+        Timer sojourn = Timer.builder("gateway.bulkhead.sojourn")
+                .description("Tempo de espera na fila do bulkhead")
+                .tag("route", routeId)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        log.info("Bulkhead CoDel criado",
+                kv("event", "bulkhead_created"),
+                kv("route_id", routeId),
+                kv("bulkhead", name),
+                kv("max_concurrent_calls", maxConcurrentCalls),
+                kv("max_queue_size", properties.getMaxQueueSize()));
+
+        return new RouteBulkhead(routeId, bulkhead, sojourn);
+    }
+
+    private Counter rejectedCounter(String routeId, String reason) {
+        return Counter.builder("gateway.bulkhead.rejected")
+                .tag("route", routeId)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Bulkhead CoDel de uma rota com as métricas de espera (sojourn) e rejeição.
+     */
+    public final class RouteBulkhead {
+
+        private final String routeId;
+        private final CoDelBulkhead bulkhead;
+        private final Timer sojourn;
+
+        private RouteBulkhead(String routeId, CoDelBulkhead bulkhead, Timer sojourn) {
+            this.routeId = routeId;
+            this.bulkhead = bulkhead;
+            this.sojourn = sojourn;
+        }
+
+        /**
+         * Permissão do bulkhead; registra o tempo de fila ao obtê-la e o motivo ao ser rejeitado.
+         */
+        public Mono<CoDelBulkhead.Permit> acquire(long deadlineNanos) {
+            return bulkhead.acquire(deadlineNanos)
+                    .doOnError(BulkheadRejectedException.class, e -> rejectedCounter(routeId, e.getReason()).increment())
+                    .doOnNext(permit -> sojourn.record(permit.sojournNanos(), TimeUnit.NANOSECONDS));
+        }
+    }
+
+    @Data
+    public static class Config {
+
+        /** Nome da instância Resilience4j que define max-concurrent-calls. */
+        private String name;
+    }
+}
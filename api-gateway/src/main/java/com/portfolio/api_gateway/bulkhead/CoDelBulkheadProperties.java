@@ -0,0 +1,39 @@
+package com.portfolio.api_gateway.bulkhead;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Propriedades da fila do bulkhead CoDel (filtro CoDelBulkhead).
+ *
+ * O número de chamadas concorrentes continua vindo de resilience4j.bulkhead (max-concurrent-calls);
+ * aqui ficam apenas os parâmetros da fila de espera.
+ *
+ * Exemplo de configuração em application.yaml:
+ *
+ * gateway:
+ *   bulkhead:
+ *     target: 5ms
+ *     interval: 100ms
+ *     max-queue-size: 200
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.bulkhead")
+public class CoDelBulkheadProperties {
+
+    /** Tempo máximo de espera na fila quando a fila está em sobrecarga. */
+    private Duration target = Duration.ofMillis(5);
+
+    /**
+     * Janela do CoDel: fila que não esvazia há mais que este intervalo está em sobrecarga.
+     * Também é o tempo máximo de espera fora de sobrecarga.
+     */
+    private Duration interval = Duration.ofMillis(100);
+
+    /** Tamanho máximo da fila de espera por rota. */
+    @Min(0)
+    private int maxQueueSize = 200;
+}
@@ -0,0 +1,73 @@
+package com.portfolio.api_gateway.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalListener;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Mapas em memória limitados por tamanho, usados pelos caches locais do gateway (headers de
+ * identidade, API keys, respostas stale e contadores do rate limiting por gossip).
+ *
+ * Baseados no Caffeine: leituras sem lock, despejo amortizado O(1) por escrita (W-TinyLFU,
+ * mantém as entradas mais usadas) e manutenção fora da thread da requisição, sem varreduras
+ * nem ordenações do mapa inteiro.
+ */
+public final class BoundedCaches {
+
+    private BoundedCaches() {
+    }
+
+    /**
+     * Cache com no máximo {@code maximumSize} entradas.
+     */
+    public static <K, V> Cache<K, V> bounded(long maximumSize) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    /**
+     * Cache com no máximo {@code maximumSize} entradas; {@code onEviction} é chamado de forma
+     * atômica com a remoção de cada entrada despejada pelo limite (não em remoções explícitas).
+     */
+    public static <K, V> Cache<K, V> bounded(long maximumSize, RemovalListener<K, V> onEviction) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .evictionListener(onEviction)
+                .build();
+    }
+
+    /**
+     * Cache com no máximo {@code maximumSize} entradas, cada uma expirando no instante
+     * (epoch millis) informado pelo próprio valor.
+     */
+    public static <K, V> Cache<K, V> expiringAt(long maximumSize, ToLongFunction<V> deadlineMillis) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new DeadlineExpiry<K, V>(deadlineMillis))
+                .build();
+    }
+
+    private record DeadlineExpiry<K, V>(ToLongFunction<V> deadlineMillis) implements Expiry<K, V> {
+
+        @Override
+        public long expireAfterCreate(K key, V value, long currentTime) {
+            long remaining = deadlineMillis.applyAsLong(value) - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remaining));
+        }
+
+        @Override
+        public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.portfolio.api_gateway.circuitbreaker;
+
+/**
+ * Mensagem trocada entre instâncias no canal de sincronização de circuit breakers.
+ *
+ * - STATE: transição de estado de um circuit breaker (state preenchido)
+ * - STATS: chamadas e falhas registradas pela instância desde a última publicação
+ *
+ * @param type     STATE ou STATS
+ * @param node     identificador da instância que publicou (descarta o eco da própria mensagem)
+ * @param name     nome do circuit breaker
+ * @param state    novo estado (apenas STATE)
+ * @param calls    chamadas no intervalo (apenas STATS)
+ * @param failures falhas no intervalo (apenas STATS)
+ */
+public record CircuitBreakerSyncMessage(
+        String type,
+        String node,
+        String name,
+        String state,
+        long calls,
+        long failures
+) {
+
+    static final String STATE = "STATE";
+    static final String STATS = "STATS";
+
+    static CircuitBreakerSyncMessage state(String node, String name, String state) {
+        return new CircuitBreakerSyncMessage(STATE, node, name, state, 0, 0);
+    }
+
+    static CircuitBreakerSyncMessage stats(String node, String name, long calls, long failures) {
+        return new CircuitBreakerSyncMessage(STATS, node, name, null, calls, failures);
+    }
+}
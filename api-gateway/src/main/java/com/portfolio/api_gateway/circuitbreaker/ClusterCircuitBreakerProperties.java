@@ -0,0 +1,46 @@
+package com.portfolio.api_gateway.circuitbreaker;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Propriedades da sincronização de circuit breakers entre instâncias do gateway via Redis pub/sub.
+ *
+ * Exemplo de configuração em application.yaml:
+ *
+ * gateway:
+ *   circuit-breaker-sync:
+ *     enabled: true
+ *     channel: gateway:circuit-breakers
+ *     stats-interval: 1s
+ *     stats-window: 10s
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.circuit-breaker-sync")
+public class ClusterCircuitBreakerProperties {
+
+    /** Habilita a sincronização (desabilitado, cada instância decide apenas com suas chamadas). */
+    private boolean enabled = false;
+
+    /** Canal Redis pub/sub compartilhado pelas instâncias. */
+    private String channel = "gateway:circuit-breakers";
+
+    /** Intervalo de publicação das contagens locais de chamadas e falhas. */
+    private Duration statsInterval = Duration.ofSeconds(1);
+
+    /** Janela deslizante das contagens agregadas do cluster. */
+    private Duration statsWindow = Duration.ofSeconds(10);
+
+    /** Número de buckets da janela. */
+    @Min(1)
+    private int statsBuckets = 10;
+
+    /** Espera antes de reassinar o canal após falha do Redis. */
+    private Duration reconnectBackoff = Duration.ofSeconds(1);
+
+    /** Espera máxima entre tentativas de reassinatura. */
+    private Duration maxReconnectBackoff = Duration.ofSeconds(30);
+}
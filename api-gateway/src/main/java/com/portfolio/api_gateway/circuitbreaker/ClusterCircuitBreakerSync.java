@@ -0,0 +1,290 @@
+package com.portfolio.api_gateway.circuitbreaker;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.api_gateway.retry.SlidingWindowCounter;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker.State;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.circuitbreaker.IllegalStateTransitionException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Sincroniza os circuit breakers Resilience4j entre as instâncias do gateway via Redis pub/sub.
+ *
+ * Cada instância continua com seus circuit breakers locais; a sincronização apenas acelera decisões:
+ * - Transições locais para OPEN são publicadas e aplicadas imediatamente pelas demais instâncias
+ * - Um HALF_OPEN que fecha em uma instância fecha os HALF_OPEN das demais (evita flapping independente)
+ * - Contagens de chamadas e falhas são publicadas periodicamente; com a taxa de falha agregada do
+ *   cluster acima do failure-rate-threshold (e o mínimo de chamadas atingido) o circuito abre
+ *   mesmo que a janela local ainda não tenha chamadas suficientes
+ *
+ * Transições aplicadas a partir de mensagens remotas não são republicadas (sem eco).
+ *
+ * Falhas do Redis não afetam o tráfego: publicações falhas são descartadas, a assinatura é refeita
+ * com backoff e as contagens remotas expiram da janela, restando apenas o comportamento local.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(ClusterCircuitBreakerProperties.class)
+@ConditionalOnProperty(prefix = "gateway.circuit-breaker-sync", name = "enabled", havingValue = "true")
+public class ClusterCircuitBreakerSync {
+
+    private final ClusterCircuitBreakerProperties properties;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ThreadLocal<Boolean> applyingRemote = ThreadLocal.withInitial(() -> false);
+    private final Map<String, LocalStats> localStats = new ConcurrentHashMap<>();
+    private final Map<String, ClusterWindow> clusterWindows = new ConcurrentHashMap<>();
+    private final Disposable.Composite subscriptions = Disposables.composite();
+
+    public ClusterCircuitBreakerSync(ClusterCircuitBreakerProperties properties,
+                                     CircuitBreakerRegistry circuitBreakerRegistry,
+                                     ReactiveStringRedisTemplate redisTemplate,
+                                     ObjectMapper objectMapper,
+                                     MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void start() {
+        circuitBreakerRegistry.getAllCircuitBreakers().forEach(this::register);
+        circuitBreakerRegistry.getEventPublisher().onEntryAdded(event -> register(event.getAddedEntry()));
+
+        subscriptions.add(redisTemplate.listenToChannel(properties.getChannel())
+                .doOnError(e -> {
+                    errorCounter("subscribe").increment();
+                    log.warn("Assinatura do canal de circuit breakers falhou, operando localmente",
+                            kv("event", "circuit_breaker_sync_disconnected"),
+                            kv("error", e.getMessage()));
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, properties.getReconnectBackoff())
+                        .maxBackoff(properties.getMaxReconnectBackoff()))
+                .subscribe(message -> onMessage(message.getMessage())));
+
+        subscriptions.add(Flux.interval(properties.getStatsInterval())
+                .subscribe(tick -> publishStats()));
+
+        log.info("Sincronização de circuit breakers iniciada",
+                kv("event", "circuit_breaker_sync_started"),
+                kv("node_id", nodeId),
+                kv("channel", properties.getChannel()));
+    }
+
+    @PreDestroy
+    void stop() {
+        subscriptions.dispose();
+    }
+
+    private void register(CircuitBreaker circuitBreaker) {
+        String name = circuitBreaker.getName();
+        LocalStats stats = localStats.computeIfAbsent(name, n -> new LocalStats());
+
+        circuitBreaker.getEventPublisher()
+                .onSuccess(event -> stats.calls.increment())
+                .onError(event -> {
+                    stats.calls.increment();
+                    stats.failures.increment();
+                })
+                .onStateTransition(event -> {
+                    if (applyingRemote.get()) {
+                        return;
+                    }
+                    State to = event.getStateTransition().getToState();
+                    State from = event.getStateTransition().getFromState();
+                    if (to == State.OPEN || (from == State.HALF_OPEN && to == State.CLOSED)) {
+                        publish(CircuitBreakerSyncMessage.state(nodeId, name, to.name()));
+                    }
+                });
+    }
+
+    private void publishStats() {
+        localStats.forEach((name, stats) -> {
+            long calls = stats.calls.sumThenReset();
+            long failures = stats.failures.sumThenReset();
+            if (calls == 0) {
+                return;
+            }
+            clusterWindow(name).add(calls, failures, false);
+            publish(CircuitBreakerSyncMessage.stats(nodeId, name, calls, failures));
+        });
+    }
+
+    private void publish(CircuitBreakerSyncMessage message) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            log.error("Erro ao serializar mensagem de circuit breaker", e);
+            return;
+        }
+
+        redisTemplate.convertAndSend(properties.getChannel(), payload)
+                .subscribe(
+                        receivers -> { },
+                        e -> {
+                            errorCounter("publish").increment();
+                            log.debug("Falha ao publicar mensagem de circuit breaker",
+                                    kv("event", "circuit_breaker_sync_publish_failed"),
+                                    kv("circuit_breaker", message.name()),
+                                    kv("error", e.getMessage()));
+                        });
+    }
+
+    private void onMessage(String payload) {
+        CircuitBreakerSyncMessage message;
+        try {
+            message = objectMapper.readValue(payload, CircuitBreakerSyncMessage.class);
+        } catch (JsonProcessingException e) {
+            errorCounter("decode").increment();
+            return;
+        }
+
+        if (nodeId.equals(message.node()) || message.name() == null) {
+            return;
+        }
+
+        // apenas circuit breakers já existentes localmente: a mensagem não cria instâncias
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.find(message.name()).orElse(null);
+        if (circuitBreaker == null) {
+            return;
+        }
+
+        switch (message.type()) {
+            case CircuitBreakerSyncMessage.STATE -> applyRemoteState(circuitBreaker, message);
+            case CircuitBreakerSyncMessage.STATS -> {
+                clusterWindow(message.name()).add(message.calls(), message.failures(), true);
+                evaluateClusterFailureRate(circuitBreaker);
+            }
+            default -> errorCounter("decode").increment();
+        }
+    }
+
+    private void applyRemoteState(CircuitBreaker circuitBreaker, CircuitBreakerSyncMessage message) {
+        State local = circuitBreaker.getState();
+        if (State.OPEN.name().equals(message.state()) && (local == State.CLOSED || local == State.HALF_OPEN)) {
+            transition(circuitBreaker, State.OPEN, "remote_open", message.node());
+        } else if (State.CLOSED.name().equals(message.state()) && local == State.HALF_OPEN) {
+            transition(circuitBreaker, State.CLOSED, "remote_close", message.node());
+        }
+    }
+
+    private void evaluateClusterFailureRate(CircuitBreaker circuitBreaker) {
+        if (circuitBreaker.getState() != State.CLOSED) {
+            return;
+        }
+
+        ClusterWindow window = clusterWindow(circuitBreaker.getName());
+        long now = System.currentTimeMillis();
+        long calls = window.calls.sum(now);
+        CircuitBreakerConfig config = circuitBreaker.getCircuitBreakerConfig();
+
+        if (window.remoteCalls.sum(now) == 0 || calls < config.getMinimumNumberOfCalls()) {
+            return;
+        }
+
+        float failureRate = window.failures.sum(now) * 100f / calls;
+        if (failureRate >= config.getFailureRateThreshold()) {
+            transition(circuitBreaker, State.OPEN, "cluster_failure_rate", nodeId);
+        }
+    }
+
+    private void transition(CircuitBreaker circuitBreaker, State target, String cause, String sourceNode) {
+        applyingRemote.set(true);
+        try {
+            if (target == State.OPEN) {
+                circuitBreaker.transitionToOpenState();
+            } else {
+                circuitBreaker.transitionToClosedState();
+            }
+        } catch (IllegalStateTransitionException e) {
+            // transição concorrente já alterou o estado
+            return;
+        } finally {
+            applyingRemote.set(false);
+        }
+
+        Counter.builder("gateway.circuitbreaker.sync.transitions")
+                .tag("name", circuitBreaker.getName())
+                .tag("state", target.name().toLowerCase())
+                .tag("cause", cause)
+                .register(meterRegistry)
+                .increment();
+
+        log.info("Circuit breaker sincronizado com o cluster",
+                kv("event", "circuit_breaker_synced"),
+                kv("circuit_breaker", circuitBreaker.getName()),
+                kv("state", target),
+                kv("cause", cause),
+                kv("source_node", sourceNode));
+    }
+
+    private ClusterWindow clusterWindow(String name) {
+        return clusterWindows.computeIfAbsent(name, n -> new ClusterWindow(
+                properties.getStatsWindow().toMillis(), properties.getStatsBuckets()));
+    }
+
+    private Counter errorCounter(String operation) {
+        return Counter.builder("gateway.circuitbreaker.sync.errors")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static final class LocalStats {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+    }
+
+    /**
+     * Contagens agregadas do cluster (locais + remotas) na janela deslizante.
+     */
+    private static final class ClusterWindow {
+
+        private final SlidingWindowCounter calls;
+        private final SlidingWindowCounter failures;
+        private final SlidingWindowCounter remoteCalls;
+
+        private ClusterWindow(long windowMillis, int buckets) {
+            this.calls = new SlidingWindowCounter(windowMillis, buckets);
+            this.failures = new SlidingWindowCounter(windowMillis, buckets);
+            this.remoteCalls = new SlidingWindowCounter(windowMillis, buckets);
+        }
+
+        private void add(long callCount, long failureCount, boolean remote) {
+            long now = System.currentTimeMillis();
+            calls.add(now, callCount);
+            failures.add(now, failureCount);
+            if (remote) {
+                remoteCalls.add(now, callCount);
+            }
+        }
+    }
+}
@@ -16,7 +16,8 @@ import java.time.Duration;
  *
  * As rotas YAML (application.yaml) definem os endpoints públicos da API (/api/v1/**).
  * Esta classe define rotas programáticas para endpoints internos (/api/v1/.../internal/**)
- * que possuem configurações especificas de resiliência e timeout diferenciadas.
+ * que possuem configurações especificas de resiliência e timeout diferenciadas, e prioridade
+ * HIGH no admission control.
  */
 @Configuration
 public class GatewayRoutesConfig {
@@ -67,6 +68,7 @@ public class GatewayRoutesConfig {
                         )
 
                 )
+                .metadata("priority", "HIGH") // chamadas entre serviços: descartá-las propaga a falha
                 .uri("lb://" + serviceName);
 
     }
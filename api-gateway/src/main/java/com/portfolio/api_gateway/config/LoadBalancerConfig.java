@@ -0,0 +1,14 @@
+package com.portfolio.api_gateway.config;
+
+import com.portfolio.api_gateway.loadbalancer.GatewayLoadBalancerClientConfiguration;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registra a configuração padrão de todos os clientes do Spring Cloud LoadBalancer
+ * usados pelas rotas lb:// (ver {@link GatewayLoadBalancerClientConfiguration}).
+ */
+@Configuration
+@LoadBalancerClients(defaultConfiguration = GatewayLoadBalancerClientConfiguration.class)
+public class LoadBalancerConfig {
+}
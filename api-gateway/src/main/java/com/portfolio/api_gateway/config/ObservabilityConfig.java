@@ -1,27 +1,154 @@
 package com.portfolio.api_gateway.config;
 
+import com.portfolio.api_gateway.runtime.EventLoopLagMonitor;
+import com.portfolio.api_gateway.runtime.EventLoopStallDetector;
+import com.portfolio.api_gateway.runtime.NettyRuntimeMetrics;
+import com.portfolio.api_gateway.runtime.RuntimeProperties;
+import com.portfolio.api_gateway.runtime.SchedulerMetrics;
+import com.portfolio.api_gateway.tracing.TailSamplingProperties;
+import com.portfolio.api_gateway.tracing.TailSamplingSpanProcessor;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.config.MeterFilter;
 import io.micrometer.tracing.Tracer;
 import io.micrometer.tracing.otel.bridge.OtelCurrentTraceContext;
 import io.micrometer.tracing.otel.bridge.OtelTracer;
 import io.opentelemetry.api.OpenTelemetry;
 import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
 import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
 import io.opentelemetry.sdk.OpenTelemetrySdk;
 import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.reactor.netty.NettyServerCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 @Configuration
+@EnableConfigurationProperties({TailSamplingProperties.class, RuntimeProperties.class})
 public class ObservabilityConfig {
 
+    /** Segmentos de path mantidos na tag uri das métricas do servidor Reactor Netty (/api/v1/orders). */
+    private static final int SERVER_URI_TAG_SEGMENTS = 3;
+
+    /** Limite de valores distintos da tag uri nas métricas do servidor. */
+    private static final int SERVER_MAX_URI_TAGS = 100;
+
+    /** Valor da tag uri para os paths acima de {@link #SERVER_MAX_URI_TAGS}. */
+    private static final String SERVER_OVERFLOW_URI_TAG = "OTHER";
+
+    /**
+     * Event loops (tarefas pendentes, lag) e alocador de ByteBuf do Netty.
+     */
+    @Bean
+    public NettyRuntimeMetrics nettyRuntimeMetrics(EventLoopLagMonitor lagMonitor) {
+        return new NettyRuntimeMetrics(lagMonitor);
+    }
+
+    /**
+     * Saturação dos Schedulers do Reactor (workers, tarefas ativas e enfileiradas).
+     */
+    @Bean(destroyMethod = "close")
+    public SchedulerMetrics schedulerMetrics() {
+        return new SchedulerMetrics();
+    }
+
+    /**
+     * Log da stack de event loops travados acima de gateway.runtime.stall-detection.threshold.
+     */
+    @Bean
+    public EventLoopStallDetector eventLoopStallDetector(EventLoopLagMonitor lagMonitor,
+                                                         RuntimeProperties properties,
+                                                         MeterRegistry meterRegistry) {
+        return new EventLoopStallDetector(lagMonitor, properties, meterRegistry);
+    }
+
+    /**
+     * Métricas reactor.netty.http.server.* (conexões, bytes, tempos) com a uri reduzida
+     * aos primeiros segmentos para não explodir a cardinalidade.
+     */
+    @Bean
+    public NettyServerCustomizer nettyServerMetricsCustomizer() {
+        return httpServer -> httpServer.metrics(true, ObservabilityConfig::serverUriTag);
+    }
+
+    /**
+     * Teto de valores da tag uri: paths inexistentes (scanners) ainda gerariam séries novas.
+     * Acima do teto as requisições continuam medidas, agrupadas em uri=OTHER.
+     */
+    @Bean
+    public MeterFilter nettyServerUriTagLimit() {
+        Set<String> uris = ConcurrentHashMap.newKeySet();
+        return new MeterFilter() {
+            @Override
+            public Meter.Id map(Meter.Id id) {
+                String uri = id.getTag("uri");
+                if (uri == null || !id.getName().startsWith("reactor.netty.http.server") || uris.contains(uri)) {
+                    return id;
+                }
+                // aproximado: registros concorrentes podem passar alguns valores do teto
+                if (uris.size() < SERVER_MAX_URI_TAGS) {
+                    uris.add(uri);
+                    return id;
+                }
+                return id.withTag(Tag.of("uri", SERVER_OVERFLOW_URI_TAG));
+            }
+        };
+    }
+
+    /**
+     * Métricas reactor.netty.http.client.* e reactor.netty.connection.provider.* (inclui tempo
+     * de aquisição de conexão) do HttpClient padrão do gateway. Os pools isolados por rota
+     * já habilitam as suas no UpstreamConnectionPoolRegistry.
+     */
+    @Bean
+    public HttpClientCustomizer gatewayHttpClientMetricsCustomizer() {
+        return httpClient -> httpClient.metrics(true, uri -> "default");
+    }
+
+    /**
+     * Exportador OTLP/HTTP dos traces mantidos pelo tail sampling.
+     * Sem endpoint configurado, os spans são descartados.
+     */
+    @Bean
+    public SpanExporter spanExporter(TailSamplingProperties properties) {
+        String endpoint = properties.getExport().getEndpoint();
+        if (endpoint == null || endpoint.isBlank()) {
+            return SpanExporter.composite();
+        }
+        return OtlpHttpSpanExporter.builder()
+                .setEndpoint(endpoint)
+                .setTimeout(properties.getExport().getTimeout())
+                .build();
+    }
+
+    /**
+     * Tail sampling: spans ficam em buffer até o resultado do trace ser conhecido
+     * e só os traces relevantes (erros, 429, fallback, lentos + amostra) são exportados.
+     */
+    @Bean
+    public TailSamplingSpanProcessor tailSamplingSpanProcessor(TailSamplingProperties properties,
+                                                               SpanExporter spanExporter,
+                                                               MeterRegistry meterRegistry) {
+        return new TailSamplingSpanProcessor(properties, spanExporter, meterRegistry);
+    }
+
     /**
      * Cria manualmente o bean OpenTelemetry exigido pelo Micrometer Tracing.
      * Isso resolve o erro "No beans of 'OpenTelemetry' type found".
      */
     @Bean
-    public OpenTelemetry openTelemetry() {
-        // Cria um provedor de rastreamento básico (necessário para o SDK)
-        SdkTracerProvider tracerProvider = SdkTracerProvider.builder().build();
+    public OpenTelemetry openTelemetry(TailSamplingSpanProcessor tailSamplingSpanProcessor) {
+        // Todos os spans são gravados (sem head sampling); a decisão de exportar é do tail sampling
+        SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+                .addSpanProcessor(tailSamplingSpanProcessor)
+                .build();
 
         // Inicializa o OpenTelemetry SDK com propagação de contexto W3C (padrão web)
         return OpenTelemetrySdk.builder()
@@ -46,4 +173,17 @@ public class ObservabilityConfig {
                 }
         );
     }
+
+    static String serverUriTag(String uri) {
+        int end = uri.indexOf('?');
+        String path = end >= 0 ? uri.substring(0, end) : uri;
+
+        int segments = 0;
+        for (int i = 0; i < path.length(); i++) {
+            if (path.charAt(i) == '/' && i > 0 && ++segments == SERVER_URI_TAG_SEGMENTS) {
+                return path.substring(0, i);
+            }
+        }
+        return path;
+    }
 }
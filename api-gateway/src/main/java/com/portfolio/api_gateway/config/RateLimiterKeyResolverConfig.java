@@ -1,12 +1,11 @@
 package com.portfolio.api_gateway.config;
 
+import com.portfolio.api_gateway.filter.ClientIp;
 import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
-import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.server.ServerWebExchange;
 
-import java.net.InetSocketAddress;
 import java.security.Principal;
 
 /**
@@ -16,15 +15,14 @@ import java.security.Principal;
  * key-resolver: "#{@userKeyResolver}"
  *
  * Estratégia de resolução de chave:
- * 1. User ID extraído do JWT (Principal name) para requisições autenticadas
+ * 1. Principal da requisição autenticada: usuário do JWT ou principal da API key
+ *    ({@code ApiKeyAuthenticationToken#getName()}), de modo que todas as keys de um parceiro
+ *    compartilham o mesmo limite
  * 2. Fallback para IP do cliente quando não há autenticação
  */
 @Configuration
 public class RateLimiterKeyResolverConfig {
 
-    // Resolver nativo do Spring para lidar com X-Forwarded-For
-    private final XForwardedRemoteAddressResolver ipResolver = XForwardedRemoteAddressResolver.maxTrustedIndex(1);
-
     @Bean
     public KeyResolver userKeyResolver() {
         return exchange -> exchange.getPrincipal()
@@ -33,14 +31,10 @@ public class RateLimiterKeyResolverConfig {
     }
 
     private String getClientIp(ServerWebExchange exchange) {
-        // Tenta resolver o IP considerando proxies (X-Forwarded-For)
-        InetSocketAddress address = ipResolver.resolve(exchange);
-
-        if (address != null && address.getAddress() != null) {
-            return address.getAddress().getHostAddress();
-        }
+        // IP considerando proxies (X-Forwarded-For), resolvido uma vez por requisição
+        String ip = ClientIp.resolve(exchange);
 
         // Fallback final se não conseguir resolver nada
-        return "anonymous";
+        return ClientIp.UNKNOWN.equals(ip) ? "anonymous" : ip;
     }
 }
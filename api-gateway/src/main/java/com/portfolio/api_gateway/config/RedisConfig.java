@@ -11,7 +11,8 @@ import java.util.List;
 
 /**
  * Configuração do Redis para o rate limiting.
- * Registry o script Lua como bean para ser injetado no RedisRateLimiter.
+ * Registra o script Lua como bean; o RateLimitRedisClient usa o texto e o SHA1 para SCRIPT LOAD e EVALSHA.
+ * O script de flush das quotas é executado pelo QuotaService via ReactiveStringRedisTemplate.
  */
 @Configuration
 public class RedisConfig {
@@ -26,4 +27,15 @@ public class RedisConfig {
         script.setResultType(resultType);
         return script;
     }
+
+    @Bean
+    public RedisScript<List<Long>> quotaFlushScript() {
+        DefaultRedisScript<List<Long>> script = new DefaultRedisScript<>();
+        script.setScriptSource(new ResourceScriptSource(
+                new ClassPathResource("scripts/quota_flush.lua")));
+        @SuppressWarnings("unchecked")
+        Class<List<Long>> resultType = (Class<List<Long>>) (Class<?>) List.class;
+        script.setResultType(resultType);
+        return script;
+    }
 }
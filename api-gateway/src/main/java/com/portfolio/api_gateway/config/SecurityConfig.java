@@ -1,18 +1,21 @@
 package com.portfolio.api_gateway.config;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.portfolio.api_gateway.dto.ErrorResponse;
+import com.portfolio.api_gateway.filter.error.ErrorResponseWriter;
+import com.portfolio.api_gateway.requestid.RequestIds;
+import com.portfolio.api_gateway.security.apikey.ApiKeyAuthenticationConverter;
+import com.portfolio.api_gateway.security.apikey.ApiKeyAuthenticationManager;
+import com.portfolio.api_gateway.security.apikey.ApiKeyAuthenticationToken;
+import com.portfolio.api_gateway.security.apikey.ApiKeyProperties;
+import com.portfolio.api_gateway.security.apikey.ApiKeyResolver;
 import com.portfolio.api_gateway.security.jwt.GatewayReactiveJwtAuthenticationConverter;
+import com.portfolio.api_gateway.timing.TimedReactiveJwtDecoder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
-import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
 import org.springframework.security.oauth2.jwt.JwtValidators;
@@ -20,14 +23,14 @@ import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
 import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 import org.springframework.security.web.server.ServerAuthenticationEntryPoint;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.authentication.ServerAuthenticationEntryPointFailureHandler;
 import org.springframework.security.web.server.authorization.ServerAccessDeniedHandler;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.reactive.CorsConfigurationSource;
 import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
-import reactor.core.publisher.Mono;
 
 import java.util.List;
-import java.util.UUID;
 
 /**
  * Configuração de segurança do API Gateway.
@@ -35,22 +38,36 @@ import java.util.UUID;
  * Implementa OAuth2 Resource Server com JWT para autenticação centralizada.
  * Autorização baseada em scopes (SCOPE_*) por recurso e método HTTP,
  * e RBAC (ROLE_*) para endpoints administrativos.
+ *
+ * Clientes máquina podem autenticar com API key (header {@code X-API-Key}) quando
+ * {@code gateway.api-key.enabled=true}: os scopes da key viram as mesmas authorities SCOPE_*
+ * e o principal da key alimenta o rate limiting e as quotas.
  */
 @Configuration
 @EnableWebFluxSecurity
 public class SecurityConfig {
 
     private final GatewayReactiveJwtAuthenticationConverter jwtAuthenticationConverter;
-    private final ObjectMapper objectMapper;
+    private final ErrorResponseWriter errorResponseWriter;
+    private final ApiKeyResolver apiKeyResolver;
+    private final ApiKeyProperties apiKeyProperties;
 
     public SecurityConfig(GatewayReactiveJwtAuthenticationConverter jwtAuthenticationConverter,
-                          ObjectMapper objectMapper) {
+                          ErrorResponseWriter errorResponseWriter,
+                          ApiKeyResolver apiKeyResolver,
+                          ApiKeyProperties apiKeyProperties) {
         this.jwtAuthenticationConverter = jwtAuthenticationConverter;
-        this.objectMapper = objectMapper;
+        this.errorResponseWriter = errorResponseWriter;
+        this.apiKeyResolver = apiKeyResolver;
+        this.apiKeyProperties = apiKeyProperties;
     }
 
     @Bean
     public SecurityWebFilterChain securityFilterChain(ServerHttpSecurity http) {
+        if (apiKeyProperties.isEnabled()) {
+            http.addFilterAt(apiKeyAuthenticationFilter(), SecurityWebFiltersOrder.AUTHENTICATION);
+        }
+
         return http
                 .csrf(ServerHttpSecurity.CsrfSpec::disable)
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
@@ -58,6 +75,7 @@ public class SecurityConfig {
                         // --- Endpoints públicos ---
                         .pathMatchers("/actuator/health/**", "/actuator/info").permitAll()
                         .pathMatchers("/actuator/prometheus", "/actuator/metrics").permitAll()
+                        .pathMatchers("/actuator/heavyhitters/**").hasAuthority("ROLE_ADMIN")
                         .pathMatchers("/api/v1/auth/**").permitAll()
                         .pathMatchers("/fallback/**").permitAll()
 
@@ -116,6 +134,7 @@ public class SecurityConfig {
     /**
      * Decoder JWT customizado com validação de issuer e tolerância de clock skew (60s).
      * Sobrescreve o auto-configurado pelo Spring Boot para controle explícito dos validators.
+     * Decorado com {@link TimedReactiveJwtDecoder} para a latência por fase.
      */
     @Bean
     public ReactiveJwtDecoder jwtDecoder(
@@ -130,61 +149,47 @@ public class SecurityConfig {
                 JwtValidators.createDefaultWithIssuer(issuerUri)
         ));
 
-        return decoder;
+        return new TimedReactiveJwtDecoder(decoder);
+    }
+
+    /**
+     * Autenticação por API key: sem o header a requisição segue para o JWT; key inválida
+     * responde 401 pelo mesmo entry point. O tier da key fica na exchange para o rate limiting.
+     */
+    private AuthenticationWebFilter apiKeyAuthenticationFilter() {
+        AuthenticationWebFilter filter = new AuthenticationWebFilter(new ApiKeyAuthenticationManager(apiKeyResolver));
+        filter.setServerAuthenticationConverter(new ApiKeyAuthenticationConverter(apiKeyProperties.getHeader()));
+        filter.setAuthenticationFailureHandler(new ServerAuthenticationEntryPointFailureHandler(authenticationEntryPoint()));
+        filter.setAuthenticationSuccessHandler((webFilterExchange, authentication) -> {
+            if (authentication instanceof ApiKeyAuthenticationToken apiKey && apiKey.getTier() != null) {
+                webFilterExchange.getExchange().getAttributes()
+                        .put(ApiKeyAuthenticationToken.TIER_ATTRIBUTE, apiKey.getTier());
+            }
+            return webFilterExchange.getChain().filter(webFilterExchange.getExchange());
+        });
+        return filter;
     }
 
     private ServerAuthenticationEntryPoint authenticationEntryPoint() {
         return (exchange, ex) -> {
             String path = exchange.getRequest().getPath().value();
-            String requestId = resolveRequestId(exchange.getRequest());
-
-            ErrorResponse errorResponse = ErrorResponse.of(
-                    HttpStatus.UNAUTHORIZED,
-                    "UNAUTHORIZED",
-                    "Autenticacao necessaria para acessar este recurso.",
-                    path,
-                    requestId
-            );
+            String requestId = RequestIds.resolve(exchange);
 
-            return writeErrorResponse(exchange.getResponse(), HttpStatus.UNAUTHORIZED, errorResponse);
+            return errorResponseWriter.write(exchange.getResponse(), HttpStatus.UNAUTHORIZED, "UNAUTHORIZED",
+                    "Autenticacao necessaria para acessar este recurso.", path, requestId);
         };
     }
 
     private ServerAccessDeniedHandler accessDeniedHandler() {
         return (exchange, ex) -> {
             String path = exchange.getRequest().getPath().value();
-            String requestId = resolveRequestId(exchange.getRequest());
+            String requestId = RequestIds.resolve(exchange);
 
-            ErrorResponse errorResponse = ErrorResponse.of(
-                    HttpStatus.FORBIDDEN,
-                    "ACCESS_DENIED",
-                    "Permissao insuficiente para acessar este recurso.",
-                    path,
-                    requestId
-            );
-
-            return writeErrorResponse(exchange.getResponse(), HttpStatus.FORBIDDEN, errorResponse);
+            return errorResponseWriter.write(exchange.getResponse(), HttpStatus.FORBIDDEN, "ACCESS_DENIED",
+                    "Permissao insuficiente para acessar este recurso.", path, requestId);
         };
     }
 
-    private Mono<Void> writeErrorResponse(ServerHttpResponse response, HttpStatus status, ErrorResponse errorResponse) {
-        response.setStatusCode(status);
-        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-
-        try {
-            byte[] bytes = objectMapper.writeValueAsBytes(errorResponse);
-            DataBuffer buffer = response.bufferFactory().wrap(bytes);
-            return response.writeWith(Mono.just(buffer));
-        } catch (JsonProcessingException e) {
-            return response.setComplete();
-        }
-    }
-
-    private String resolveRequestId(org.springframework.http.server.reactive.ServerHttpRequest request) {
-        String requestId = request.getHeaders().getFirst("X-Request-Id");
-        return (requestId != null && !requestId.isBlank()) ? requestId : UUID.randomUUID().toString();
-    }
-
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration config = new CorsConfiguration();
@@ -0,0 +1,56 @@
+package com.portfolio.api_gateway.config;
+
+import com.portfolio.api_gateway.upstream.PooledNettyRoutingFilter;
+import com.portfolio.api_gateway.upstream.UpstreamConnectionPoolRegistry;
+import com.portfolio.api_gateway.upstream.UpstreamPoolProperties;
+import com.portfolio.api_gateway.upstream.UpstreamPoolWarmer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+/**
+ * Pools de conexão upstream isolados por rota/serviço.
+ *
+ * Registra o {@link PooledNettyRoutingFilter} à frente do NettyRoutingFilter padrão
+ * e o pré-aquecimento dos pools. Com gateway.upstream-pools.enabled=false nada é
+ * registrado e todas as rotas voltam a compartilhar o HttpClient padrão.
+ */
+@Configuration
+@EnableConfigurationProperties(UpstreamPoolProperties.class)
+@ConditionalOnProperty(prefix = "gateway.upstream-pools", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class UpstreamPoolConfig {
+
+    @Bean
+    public UpstreamConnectionPoolRegistry upstreamConnectionPoolRegistry(UpstreamPoolProperties properties,
+                                                                         HttpClientProperties httpClientProperties,
+                                                                         HttpClientSslConfigurer sslConfigurer,
+                                                                         List<HttpClientCustomizer> customizers) {
+        return new UpstreamConnectionPoolRegistry(properties, httpClientProperties, sslConfigurer, customizers);
+    }
+
+    @Bean
+    public PooledNettyRoutingFilter pooledNettyRoutingFilter(HttpClient httpClient,
+                                                             ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+                                                             HttpClientProperties httpClientProperties,
+                                                             UpstreamConnectionPoolRegistry poolRegistry) {
+        return new PooledNettyRoutingFilter(httpClient, headersFilters, httpClientProperties, poolRegistry);
+    }
+
+    @Bean
+    public UpstreamPoolWarmer upstreamPoolWarmer(UpstreamConnectionPoolRegistry poolRegistry,
+                                                 RouteLocator routeLocator,
+                                                 ReactiveDiscoveryClient discoveryClient) {
+        return new UpstreamPoolWarmer(poolRegistry, routeLocator, discoveryClient);
+    }
+}
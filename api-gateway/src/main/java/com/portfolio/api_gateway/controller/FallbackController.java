@@ -1,35 +1,104 @@
 package com.portfolio.api_gateway.controller;
 
 import com.portfolio.api_gateway.exception.ServiceUnavailableException;
+import com.portfolio.api_gateway.stale.StaleIfErrorProperties;
+import com.portfolio.api_gateway.stale.StaleResponseRecordingFilter;
+import com.portfolio.api_gateway.stale.StaleResponseStore;
+import com.portfolio.api_gateway.stale.StoredResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
 /**
  * Controller de fallback para quando o CircuitBreaker esta aberto
  * ou o serviço downstream esta indisponível.
  *
- * Lança {@link ServiceUnavailableException} que é tratada centralmente
+ * Stale-if-error: se a rota declara metadata "max-staleness" e existe uma resposta boa
+ * armazenada dentro desse limite ({@link StaleResponseStore}), ela é servida com status 200
+ * e headers de staleness (Age, Warning, X-Stale-Response). Vale para circuito aberto,
+ * bulkhead rejeitado e timeout, pois todos seguem para o fallbackUri do CircuitBreaker.
+ *
+ * Sem resposta stale, lança {@link ServiceUnavailableException} que é tratada centralmente
  * pelo {@link com.portfolio.api_gateway.filter.error.GlobalErrorFilter},
  * garantindo resposta padronizada via {@link com.portfolio.api_gateway.dto.ErrorResponse}.
  */
+@Slf4j
 @RestController
 @RequestMapping("/fallback")
+@RequiredArgsConstructor
 public class FallbackController {
 
+    private static final String WARNING_HEADER = "Warning";
+    private static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+    private final StaleIfErrorProperties staleIfErrorProperties;
+    private final StaleResponseStore staleResponseStore;
+    private final MeterRegistry meterRegistry;
+
     @GetMapping("/orders")
-    public Mono<Void> ordersFallback() {
-        return Mono.error(new ServiceUnavailableException("orders-service"));
+    public Mono<ResponseEntity<byte[]>> ordersFallback(ServerWebExchange exchange) {
+        return staleOrUnavailable(exchange, "orders-service");
     }
 
     @GetMapping("/users")
-    public Mono<Void> usersFallback() {
-        return Mono.error(new ServiceUnavailableException("users-service"));
+    public Mono<ResponseEntity<byte[]>> usersFallback(ServerWebExchange exchange) {
+        return staleOrUnavailable(exchange, "users-service");
     }
 
     @GetMapping("/products")
-    public Mono<Void> productsFallback() {
-        return Mono.error(new ServiceUnavailableException("products-service"));
+    public Mono<ResponseEntity<byte[]>> productsFallback(ServerWebExchange exchange) {
+        return staleOrUnavailable(exchange, "products-service");
+    }
+
+    private Mono<ResponseEntity<byte[]>> staleOrUnavailable(ServerWebExchange exchange, String serviceName) {
+        String key = exchange.getAttribute(StaleResponseStore.CACHE_KEY_ATTR);
+        Long maxStaleness = exchange.getAttribute(StaleResponseStore.MAX_STALENESS_ATTR);
+
+        if (!staleIfErrorProperties.isEnabled() || key == null || maxStaleness == null) {
+            return Mono.error(new ServiceUnavailableException(serviceName));
+        }
+
+        return staleResponseStore.get(key, maxStaleness)
+                .map(stored -> staleResponse(stored, serviceName, key))
+                .switchIfEmpty(Mono.defer(() -> {
+                    staleCounter("gateway.stale.misses", serviceName).increment();
+                    return Mono.error(new ServiceUnavailableException(serviceName));
+                }));
+    }
+
+    private ResponseEntity<byte[]> staleResponse(StoredResponse stored, String serviceName, String key) {
+        long ageSeconds = stored.ageMillis(System.currentTimeMillis()) / 1000;
+
+        HttpHeaders headers = new HttpHeaders();
+        stored.headers().forEach(headers::set);
+        headers.set(HttpHeaders.AGE, String.valueOf(ageSeconds));
+        headers.set(WARNING_HEADER, STALE_WARNING);
+        headers.set(StaleResponseRecordingFilter.STALE_RESPONSE_HEADER, "true");
+
+        staleCounter("gateway.stale.served", serviceName).increment();
+        log.info("Resposta stale servida no fallback",
+                kv("event", "stale_response_served"),
+                kv("service", serviceName),
+                kv("key", key),
+                kv("age_seconds", ageSeconds));
+
+        return ResponseEntity.status(HttpStatus.OK).headers(headers).body(stored.body());
+    }
+
+    private Counter staleCounter(String name, String serviceName) {
+        return Counter.builder(name)
+                .tag("service", serviceName)
+                .register(meterRegistry);
     }
-}
\ No newline at end of file
+}
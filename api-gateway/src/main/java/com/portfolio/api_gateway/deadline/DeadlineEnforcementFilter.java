@@ -0,0 +1,90 @@
+package com.portfolio.api_gateway.deadline;
+
+import com.portfolio.api_gateway.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.filter.factory.RetryGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Filtro global que aplica o deadline imediatamente antes de cada tentativa ao downstream.
+ *
+ * Posição na cadeia de filtros: antes do load balancer e do orçamento de retries, portanto
+ * é reexecutado a cada tentativa do filtro Retry.
+ *
+ * Fluxo:
+ * 1. Orçamento restante abaixo de min-remaining: descarta com {@link DeadlineExceededException} (504)
+ *    sem chamar o downstream nem consumir orçamento de retry
+ * 2. Propaga o orçamento restante no header configurado (X-Request-Timeout)
+ * 3. Limita a tentativa ao orçamento restante: retries recebem timeouts cada vez menores
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DeadlineEnforcementFilter implements GlobalFilter, Ordered {
+
+    private final DeadlineProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public @NonNull Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull GatewayFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        long remaining = Deadlines.remainingMillis(exchange);
+        if (remaining == Long.MAX_VALUE) {
+            return chain.filter(exchange);
+        }
+
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "unknown_route";
+
+        if (remaining < properties.getMinRemaining().toMillis()) {
+            boolean isRetry = exchange.getAttribute(RetryGatewayFilterFactory.RETRY_ITERATION_KEY) != null;
+            droppedCounter(routeId, isRetry ? "retry" : "first_attempt").increment();
+            log.debug("Requisição descartada por deadline esgotado",
+                    kv("event", "deadline_exceeded"),
+                    kv("route_id", routeId),
+                    kv("remaining_ms", remaining),
+                    kv("retry", isRetry));
+            return Mono.error(new DeadlineExceededException(routeId));
+        }
+
+        ServerHttpRequest request = exchange.getRequest().mutate()
+                .header(properties.getHeader(), String.valueOf(remaining))
+                .build();
+
+        return chain.filter(exchange.mutate().request(request).build())
+                .timeout(Duration.ofMillis(remaining));
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 2;
+    }
+
+    private Counter droppedCounter(String routeId, String attempt) {
+        return Counter.builder("gateway.deadline.dropped")
+                .description("Requisições descartadas com deadline esgotado antes da chamada upstream")
+                .tag("route", routeId)
+                .tag("attempt", attempt)
+                .register(meterRegistry);
+    }
+}
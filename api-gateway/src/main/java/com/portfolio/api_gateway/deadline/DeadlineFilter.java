@@ -0,0 +1,84 @@
+package com.portfolio.api_gateway.deadline;
+
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NonNull;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Filtro global que estabelece o deadline da requisição.
+ *
+ * Posição na cadeia de filtros: order=0 (primeiro filtro global, o relógio começa o mais cedo possível).
+ *
+ * O deadline é o menor entre:
+ * - o orçamento informado pelo cliente no header configurado (ms restantes)
+ * - o response-timeout do metadata da rota
+ *
+ * A verificação e a propagação ao downstream ficam no {@link DeadlineEnforcementFilter}.
+ */
+@Component
+@RequiredArgsConstructor
+@EnableConfigurationProperties(DeadlineProperties.class)
+public class DeadlineFilter implements GlobalFilter, Ordered {
+
+    private final DeadlineProperties properties;
+
+    @Override
+    public @NonNull Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull GatewayFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        long budgetMs = Math.min(
+                clientBudget(exchange),
+                routeTimeout(exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR)));
+
+        if (budgetMs != Long.MAX_VALUE) {
+            exchange.getAttributes().put(Deadlines.DEADLINE_ATTR, System.nanoTime() + budgetMs * 1_000_000);
+        }
+
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return 0;
+    }
+
+    private long clientBudget(ServerWebExchange exchange) {
+        String value = exchange.getRequest().getHeaders().getFirst(properties.getHeader());
+        if (value == null || value.isBlank()) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            return Math.max(0, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private long routeTimeout(Route route) {
+        if (route == null) {
+            return Long.MAX_VALUE;
+        }
+        Object timeout = route.getMetadata().get(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR);
+        if (timeout == null) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            long value = Long.parseLong(timeout.toString());
+            // response-timeout negativo desabilita o timeout da rota
+            return value >= 0 ? value : Long.MAX_VALUE;
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
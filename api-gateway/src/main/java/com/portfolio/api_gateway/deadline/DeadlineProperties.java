@@ -0,0 +1,34 @@
+package com.portfolio.api_gateway.deadline;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Propriedades de propagação de deadline.
+ *
+ * Exemplo de configuração em application.yaml:
+ *
+ * gateway:
+ *   deadline:
+ *     enabled: true
+ *     header: X-Request-Timeout
+ *     min-remaining: 5ms
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.deadline")
+public class DeadlineProperties {
+
+    /** Habilita o cálculo, a propagação e o descarte por deadline. */
+    private boolean enabled = true;
+
+    /**
+     * Header com o orçamento restante em milissegundos. Lido do cliente e reescrito
+     * para o downstream com o valor restante (relativo, imune a diferença de relógio).
+     */
+    private String header = "X-Request-Timeout";
+
+    /** Orçamento mínimo para ainda valer a pena chamar o downstream. */
+    private Duration minRemaining = Duration.ofMillis(5);
+}
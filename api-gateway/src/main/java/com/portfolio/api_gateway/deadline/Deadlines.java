@@ -0,0 +1,28 @@
+package com.portfolio.api_gateway.deadline;
+
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Acesso ao deadline da requisição armazenado como atributo da exchange.
+ *
+ * O deadline é um instante em {@link System#nanoTime()}; ausência do atributo significa
+ * que a requisição não tem deadline (sem header do cliente e sem response-timeout na rota).
+ */
+public final class Deadlines {
+
+    public static final String DEADLINE_ATTR = "gatewayRequestDeadline";
+
+    private Deadlines() {
+    }
+
+    /**
+     * Milissegundos restantes até o deadline, ou {@link Long#MAX_VALUE} se não houver deadline.
+     */
+    public static long remainingMillis(ServerWebExchange exchange) {
+        Long deadline = exchange.getAttribute(DEADLINE_ATTR);
+        if (deadline == null) {
+            return Long.MAX_VALUE;
+        }
+        return (deadline - System.nanoTime()) / 1_000_000;
+    }
+}
@@ -0,0 +1,106 @@
+package com.portfolio.api_gateway.discovery;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.portfolio.api_gateway.discovery.DiscoverySnapshot.InstanceRecord;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Cliente HTTP mínimo para blocking queries do endpoint /v1/health/service/{service} do Consul.
+ *
+ * A requisição é mantida aberta pelo Consul até que o índice do serviço mude
+ * ou o wait-time expire; o novo índice volta no header X-Consul-Index.
+ */
+class ConsulBlockingQueryClient {
+
+    private static final String CONSUL_INDEX_HEADER = "X-Consul-Index";
+    private static final String CONSUL_TOKEN_HEADER = "X-Consul-Token";
+
+    private final WebClient webClient;
+    private final ConsulWatchProperties properties;
+
+    ConsulBlockingQueryClient(WebClient.Builder builder, ConsulWatchProperties properties) {
+        this.properties = properties;
+        this.webClient = builder
+                .baseUrl(properties.getConsulUrl())
+                .defaultHeaders(headers -> {
+                    if (properties.getAclToken() != null && !properties.getAclToken().isBlank()) {
+                        headers.set(CONSUL_TOKEN_HEADER, properties.getAclToken());
+                    }
+                })
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(4 * 1024 * 1024))
+                .build();
+    }
+
+    /**
+     * Executa uma blocking query. Com index=0 a resposta é imediata.
+     */
+    Mono<WatchResult> fetch(String serviceId, long index) {
+        Duration wait = properties.getWaitTime();
+
+        return webClient.get()
+                .uri(uri -> uri.path("/v1/health/service/{service}")
+                        .queryParamIfPresent("passing", properties.isPassingOnly()
+                                ? Optional.of("true") : Optional.empty())
+                        .queryParam("index", index)
+                        .queryParam("wait", wait.toSeconds() + "s")
+                        .build(serviceId))
+                .retrieve()
+                .toEntity(JsonNode.class)
+                // O Consul adiciona até wait/16 de jitter ao tempo de espera
+                .timeout(wait.plus(wait.dividedBy(16)).plusSeconds(5))
+                .map(entity -> new WatchResult(
+                        parseIndex(entity.getHeaders()),
+                        parseInstances(entity.getBody())));
+    }
+
+    private long parseIndex(HttpHeaders headers) {
+        String value = headers.getFirst(CONSUL_INDEX_HEADER);
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private List<InstanceRecord> parseInstances(JsonNode body) {
+        if (body == null || !body.isArray()) {
+            return List.of();
+        }
+
+        List<InstanceRecord> instances = new ArrayList<>(body.size());
+        for (JsonNode entry : body) {
+            JsonNode service = entry.path("Service");
+            String host = service.path("Address").asText("");
+            if (host.isBlank()) {
+                host = entry.path("Node").path("Address").asText("");
+            }
+
+            Map<String, String> metadata = new HashMap<>();
+            service.path("Meta").fields()
+                    .forEachRemaining(field -> metadata.put(field.getKey(), field.getValue().asText()));
+
+            instances.add(new InstanceRecord(
+                    service.path("ID").asText(null),
+                    host,
+                    service.path("Port").asInt(),
+                    Boolean.parseBoolean(metadata.get("secure")),
+                    metadata));
+        }
+        return instances;
+    }
+
+    record WatchResult(long index, List<InstanceRecord> instances) {
+    }
+}
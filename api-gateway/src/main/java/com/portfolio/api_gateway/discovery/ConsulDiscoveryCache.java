@@ -0,0 +1,235 @@
+package com.portfolio.api_gateway.discovery;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.api_gateway.discovery.ConsulBlockingQueryClient.WatchResult;
+import com.portfolio.api_gateway.discovery.DiscoverySnapshot.InstanceRecord;
+import com.portfolio.api_gateway.discovery.DiscoverySnapshot.ServiceEntry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Cache de service discovery alimentado por blocking queries do Consul (push em vez de polling).
+ *
+ * Fluxo:
+ * 1. No startup carrega o último catálogo persistido em disco e já o disponibiliza ao load balancer
+ * 2. Inicia um watch (blocking query em loop) para cada serviço conhecido ou configurado
+ * 3. Cada resposta com índice novo gera um novo {@link DiscoverySnapshot} imutável (copy-on-write)
+ * 4. Mudanças publicam {@link DiscoverySnapshotChangedEvent}, métricas e agendam a gravação em disco
+ * 5. Falhas do Consul mantêm o último snapshot conhecido e o watch é retomado com backoff exponencial
+ *
+ * Leituras ({@link #instances(String)}) apenas consultam a AtomicReference, sem lock.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(ConsulWatchProperties.class)
+@ConditionalOnProperty(prefix = "gateway.discovery.watch", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ConsulDiscoveryCache {
+
+    private final ConsulWatchProperties properties;
+    private final ConsulBlockingQueryClient client;
+    private final DiscoverySnapshotStore store;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicReference<DiscoverySnapshot> snapshot = new AtomicReference<>(DiscoverySnapshot.EMPTY);
+    private final Map<String, Sinks.Many<List<ServiceInstance>>> updates = new ConcurrentHashMap<>();
+    private final Map<String, Disposable> watches = new ConcurrentHashMap<>();
+    private final Disposable.Composite subscriptions = Disposables.composite();
+    private final Sinks.Many<DiscoverySnapshot> persistRequests = Sinks.many().unicast().onBackpressureBuffer();
+
+    public ConsulDiscoveryCache(ConsulWatchProperties properties,
+                                WebClient.Builder webClientBuilder,
+                                ObjectMapper objectMapper,
+                                ApplicationEventPublisher eventPublisher,
+                                MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.client = new ConsulBlockingQueryClient(webClientBuilder.clone(), properties);
+        this.store = new DiscoverySnapshotStore(objectMapper, properties.getSnapshotFile());
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void start() {
+        snapshot.set(store.load());
+
+        subscriptions.add(persistRequests.asFlux()
+                .sample(properties.getSnapshotWriteInterval())
+                .publishOn(Schedulers.boundedElastic())
+                .subscribe(store::save));
+
+        Gauge.builder("gateway.discovery.snapshot.age", snapshot,
+                        s -> (System.currentTimeMillis() - s.get().updatedAt().toEpochMilli()) / 1000.0)
+                .description("Idade do snapshot de discovery em segundos")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+
+        snapshot.get().services().keySet().forEach(this::watch);
+        properties.getServices().forEach(this::watch);
+    }
+
+    @PreDestroy
+    void stop() {
+        subscriptions.dispose();
+        watches.values().forEach(Disposable::dispose);
+        store.save(snapshot.get());
+    }
+
+    /**
+     * Lista atual de instâncias de um serviço.
+     *
+     * Com o serviço já presente no snapshot, retorna imediatamente. Caso contrário inicia
+     * o watch e aguarda a primeira resposta do Consul até initialFetchTimeout.
+     */
+    public Flux<List<ServiceInstance>> instances(String serviceId) {
+        ServiceEntry entry = snapshot.get().service(serviceId);
+        if (entry != null) {
+            return Flux.just(entry.serviceInstances());
+        }
+
+        watch(serviceId);
+        return updatesOf(serviceId).asFlux()
+                .take(1)
+                .timeout(properties.getInitialFetchTimeout(), Mono.just(List.of()));
+    }
+
+    public DiscoverySnapshot snapshot() {
+        return snapshot.get();
+    }
+
+    private void watch(String serviceId) {
+        watches.computeIfAbsent(serviceId, this::startWatch);
+    }
+
+    private Disposable startWatch(String serviceId) {
+        ServiceEntry existing = snapshot.get().service(serviceId);
+        // O índice persistido não é reaproveitado: o primeiro fetch deve retornar na hora
+        AtomicLong index = new AtomicLong(0);
+
+        Gauge.builder("gateway.discovery.instances", snapshot, s -> {
+                    ServiceEntry e = s.get().service(serviceId);
+                    return e != null ? e.instances().size() : 0;
+                })
+                .description("Instâncias conhecidas no snapshot de discovery")
+                .tag("service", serviceId)
+                .register(meterRegistry);
+
+        log.info("Iniciando watch do Consul",
+                kv("event", "discovery_watch_started"),
+                kv("service", serviceId),
+                kv("from_snapshot", existing != null));
+
+        return Mono.defer(() -> client.fetch(serviceId, index.get()))
+                .doOnNext(result -> {
+                    // Conforme a documentação do Consul, índice regredido exige reset para 0
+                    index.set(result.index() < index.get() ? 0 : result.index());
+                    apply(serviceId, result);
+                })
+                .doOnError(e -> {
+                    watchErrorCounter(serviceId).increment();
+                    log.warn("Falha no watch do Consul, mantendo último snapshot",
+                            kv("event", "discovery_watch_failed"),
+                            kv("service", serviceId),
+                            kv("error_message", e.getMessage()));
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, properties.getErrorBackoff())
+                        .maxBackoff(properties.getMaxErrorBackoff())
+                        .transientErrors(true))
+                // Sem índice válido o Consul não bloqueia: espaça as consultas para não girar em loop
+                .repeatWhen(repeats -> repeats.concatMap(r -> index.get() > 0
+                        ? Mono.just(r)
+                        : Mono.delay(properties.getErrorBackoff())))
+                .subscribe();
+    }
+
+    private void apply(String serviceId, WatchResult result) {
+        ServiceEntry previous = snapshot.get().service(serviceId);
+        List<InstanceRecord> previousInstances = previous != null ? previous.instances() : List.of();
+
+        if (previous != null && new HashSet<>(previousInstances).equals(new HashSet<>(result.instances()))) {
+            return;
+        }
+
+        ServiceEntry entry = ServiceEntry.of(serviceId, result.index(), result.instances());
+        DiscoverySnapshot updated = snapshot.updateAndGet(s -> s.with(serviceId, entry));
+
+        updatesOf(serviceId).tryEmitNext(entry.serviceInstances());
+        persistRequests.emitNext(updated, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+
+        List<ServiceInstance> added = diff(entry, result.instances(), previousInstances);
+        List<ServiceInstance> removed = previous != null
+                ? diff(previous, previousInstances, result.instances())
+                : List.of();
+
+        Counter.builder("gateway.discovery.snapshot.changes")
+                .description("Alterações de instâncias recebidas do Consul")
+                .tag("service", serviceId)
+                .register(meterRegistry)
+                .increment();
+
+        log.info("Instâncias do serviço atualizadas",
+                kv("event", "discovery_snapshot_changed"),
+                kv("service", serviceId),
+                kv("instances", entry.instances().size()),
+                kv("added", added.size()),
+                kv("removed", removed.size()),
+                kv("consul_index", result.index()));
+
+        eventPublisher.publishEvent(new DiscoverySnapshotChangedEvent(
+                this, serviceId, entry.serviceInstances(), added, removed));
+    }
+
+    /**
+     * Instâncias de {@code entry} cujo registro não aparece em {@code other}.
+     */
+    private List<ServiceInstance> diff(ServiceEntry entry, List<InstanceRecord> records, List<InstanceRecord> other) {
+        Set<InstanceRecord> otherSet = new HashSet<>(other);
+        List<ServiceInstance> result = new ArrayList<>();
+        for (int i = 0; i < records.size(); i++) {
+            if (!otherSet.contains(records.get(i))) {
+                result.add(entry.serviceInstances().get(i));
+            }
+        }
+        return result;
+    }
+
+    private Sinks.Many<List<ServiceInstance>> updatesOf(String serviceId) {
+        return updates.computeIfAbsent(serviceId, id -> Sinks.many().replay().latest());
+    }
+
+    private Counter watchErrorCounter(String serviceId) {
+        return Counter.builder("gateway.discovery.watch.errors")
+                .description("Falhas nas blocking queries ao Consul")
+                .tag("service", serviceId)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,61 @@
+package com.portfolio.api_gateway.discovery;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Propriedades do cache de service discovery baseado em blocking queries do Consul.
+ *
+ * Exemplo de configuração em application.yaml:
+ *
+ * gateway:
+ *   discovery:
+ *     watch:
+ *       enabled: true
+ *       consul-url: http://localhost:8500
+ *       wait-time: 55s
+ *       snapshot-file: data/discovery-snapshot.json
+ *       services:
+ *         - orders-service
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.discovery.watch")
+public class ConsulWatchProperties {
+
+    /** Habilita o cache com watch (quando desabilitado, o LoadBalancer consulta o DiscoveryClient padrão). */
+    private boolean enabled = true;
+
+    /** URL base da API HTTP do Consul. */
+    private String consulUrl = "http://localhost:8500";
+
+    /** Token ACL do Consul (opcional). */
+    private String aclToken;
+
+    /** Tempo máximo que o Consul segura cada blocking query (máx. 10m no Consul). */
+    private Duration waitTime = Duration.ofSeconds(55);
+
+    /** Considera apenas instâncias com health checks passando. */
+    private boolean passingOnly = true;
+
+    /** Backoff inicial após erro de comunicação com o Consul. */
+    private Duration errorBackoff = Duration.ofSeconds(1);
+
+    /** Backoff máximo após erros consecutivos. */
+    private Duration maxErrorBackoff = Duration.ofSeconds(30);
+
+    /** Tempo máximo de espera pela primeira lista de um serviço sem snapshot. */
+    private Duration initialFetchTimeout = Duration.ofSeconds(3);
+
+    /** Arquivo com o último catálogo conhecido (vazio desabilita a persistência). */
+    private String snapshotFile = "data/discovery-snapshot.json";
+
+    /** Intervalo mínimo entre gravações do snapshot em disco. */
+    private Duration snapshotWriteInterval = Duration.ofSeconds(5);
+
+    /** Serviços observados desde o startup (os demais passam a ser observados no primeiro uso). */
+    private List<String> services = new ArrayList<>();
+}
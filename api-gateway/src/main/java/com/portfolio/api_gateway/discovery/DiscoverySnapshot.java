@@ -0,0 +1,69 @@
+package com.portfolio.api_gateway.discovery;
+
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Snapshot imutável do catálogo de instâncias conhecido pelo gateway.
+ *
+ * Cada alteração gera um novo snapshot (copy-on-write), publicado via AtomicReference
+ * pelo {@link ConsulDiscoveryCache}; leituras do load balancer não usam lock.
+ *
+ * @param services   entradas por service ID
+ * @param updatedAt  instante da última alteração
+ */
+public record DiscoverySnapshot(Map<String, ServiceEntry> services, Instant updatedAt) {
+
+    public static final DiscoverySnapshot EMPTY = new DiscoverySnapshot(Map.of(), Instant.EPOCH);
+
+    public DiscoverySnapshot {
+        services = Map.copyOf(services);
+    }
+
+    public ServiceEntry service(String serviceId) {
+        return services.get(serviceId);
+    }
+
+    public DiscoverySnapshot with(String serviceId, ServiceEntry entry) {
+        Map<String, ServiceEntry> copy = new HashMap<>(services);
+        copy.put(serviceId, entry);
+        return new DiscoverySnapshot(copy, Instant.now());
+    }
+
+    /**
+     * Instâncias de um serviço e o índice Consul (X-Consul-Index) que as produziu.
+     * A lista de {@link ServiceInstance} é materializada uma única vez, na criação da entrada.
+     */
+    public record ServiceEntry(long index, List<InstanceRecord> instances, List<ServiceInstance> serviceInstances) {
+
+        public ServiceEntry {
+            instances = List.copyOf(instances);
+        }
+
+        public static ServiceEntry of(String serviceId, long index, List<InstanceRecord> instances) {
+            List<ServiceInstance> serviceInstances = instances.stream()
+                    .map(i -> i.toServiceInstance(serviceId))
+                    .toList();
+            return new ServiceEntry(index, instances, serviceInstances);
+        }
+    }
+
+    /**
+     * Representação persistível de uma instância.
+     */
+    public record InstanceRecord(String instanceId, String host, int port, boolean secure, Map<String, String> metadata) {
+
+        public InstanceRecord {
+            metadata = metadata != null ? Map.copyOf(metadata) : Map.of();
+        }
+
+        ServiceInstance toServiceInstance(String serviceId) {
+            return new DefaultServiceInstance(instanceId, serviceId, host, port, secure, metadata);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.portfolio.api_gateway.discovery;
+
+import lombok.Getter;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.context.ApplicationEvent;
+
+import java.io.Serial;
+import java.util.List;
+
+/**
+ * Evento publicado quando a lista de instâncias de um serviço muda no snapshot de discovery.
+ */
+@Getter
+public class DiscoverySnapshotChangedEvent extends ApplicationEvent {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final String serviceId;
+    private final transient List<ServiceInstance> instances;
+    private final transient List<ServiceInstance> added;
+    private final transient List<ServiceInstance> removed;
+
+    public DiscoverySnapshotChangedEvent(Object source, String serviceId, List<ServiceInstance> instances,
+                                         List<ServiceInstance> added, List<ServiceInstance> removed) {
+        super(source);
+        this.serviceId = serviceId;
+        this.instances = instances;
+        this.added = added;
+        this.removed = removed;
+    }
+}
@@ -0,0 +1,95 @@
+package com.portfolio.api_gateway.discovery;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.api_gateway.discovery.DiscoverySnapshot.InstanceRecord;
+import com.portfolio.api_gateway.discovery.DiscoverySnapshot.ServiceEntry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Persistência do último catálogo conhecido em disco.
+ *
+ * A gravação usa arquivo temporário + rename atômico, de modo que um crash
+ * durante a escrita nunca deixa um snapshot corrompido para o próximo startup.
+ */
+@Slf4j
+class DiscoverySnapshotStore {
+
+    private final ObjectMapper objectMapper;
+    private final Path file;
+
+    DiscoverySnapshotStore(ObjectMapper objectMapper, String file) {
+        this.objectMapper = objectMapper;
+        this.file = (file == null || file.isBlank()) ? null : Path.of(file);
+    }
+
+    DiscoverySnapshot load() {
+        if (file == null || !Files.isReadable(file)) {
+            return DiscoverySnapshot.EMPTY;
+        }
+
+        try {
+            PersistedSnapshot persisted = objectMapper.readValue(file.toFile(), PersistedSnapshot.class);
+            Map<String, ServiceEntry> services = new HashMap<>();
+            persisted.services().forEach((serviceId, service) ->
+                    services.put(serviceId, ServiceEntry.of(serviceId, service.index(), service.instances())));
+
+            log.info("Snapshot de discovery carregado do disco",
+                    kv("event", "discovery_snapshot_loaded"),
+                    kv("file", file.toString()),
+                    kv("services", services.size()),
+                    kv("saved_at", persisted.savedAt()));
+            return new DiscoverySnapshot(services, persisted.savedAt());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Falha ao carregar snapshot de discovery, iniciando vazio",
+                    kv("event", "discovery_snapshot_load_failed"),
+                    kv("file", file.toString()),
+                    kv("error_message", e.getMessage()));
+            return DiscoverySnapshot.EMPTY;
+        }
+    }
+
+    void save(DiscoverySnapshot snapshot) {
+        if (file == null) {
+            return;
+        }
+
+        Map<String, PersistedService> services = new HashMap<>();
+        snapshot.services().forEach((serviceId, entry) ->
+                services.put(serviceId, new PersistedService(entry.index(), entry.instances())));
+
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            objectMapper.writeValue(tmp.toFile(), new PersistedSnapshot(snapshot.updatedAt(), services));
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            log.warn("Falha ao gravar snapshot de discovery",
+                    kv("event", "discovery_snapshot_save_failed"),
+                    kv("file", file.toString()),
+                    kv("error_message", e.getMessage()));
+        }
+    }
+
+    record PersistedSnapshot(Instant savedAt, Map<String, PersistedService> services) {
+    }
+
+    record PersistedService(long index, List<InstanceRecord> instances) {
+    }
+}
@@ -0,0 +1,32 @@
+package com.portfolio.api_gateway.discovery;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * Supplier base do Spring Cloud LoadBalancer que lê as instâncias do {@link ConsulDiscoveryCache}
+ * em vez de consultar o Consul a cada expiração de cache.
+ */
+public class SnapshotServiceInstanceListSupplier implements ServiceInstanceListSupplier {
+
+    private final String serviceId;
+    private final ConsulDiscoveryCache discoveryCache;
+
+    public SnapshotServiceInstanceListSupplier(String serviceId, ConsulDiscoveryCache discoveryCache) {
+        this.serviceId = serviceId;
+        this.discoveryCache = discoveryCache;
+    }
+
+    @Override
+    public String getServiceId() {
+        return serviceId;
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return discoveryCache.instances(serviceId);
+    }
+}
@@ -0,0 +1,34 @@
+package com.portfolio.api_gateway.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.io.Serial;
+
+/**
+ * Exceção lançada quando uma perna obrigatória de uma rota de agregação falha
+ * (ou qualquer perna, com a política FAIL). Nada da resposta foi enviado ao cliente.
+ */
+@Getter
+public class AggregationFailedException extends GatewayException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final String aggregationId;
+    private final String leg;
+    private final String reason;
+
+    public AggregationFailedException(String aggregationId, String leg, String reason) {
+        super(HttpStatus.BAD_GATEWAY, "AGGREGATION_FAILED",
+                "Nao foi possivel compor a resposta agregada. Tente novamente em alguns instantes.");
+        this.aggregationId = aggregationId;
+        this.leg = leg;
+        this.reason = reason;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
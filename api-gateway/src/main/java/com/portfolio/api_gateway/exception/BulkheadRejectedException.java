@@ -0,0 +1,34 @@
+package com.portfolio.api_gateway.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.io.Serial;
+
+/**
+ * Exceção lançada quando o bulkhead de uma rota rejeita a requisição: fila cheia,
+ * espera acima do limite do CoDel ou deadline da requisição incompatível com a espera.
+ *
+ * Não preenche stack trace: é criada em alto volume justamente quando a rota está saturada.
+ */
+@Getter
+public class BulkheadRejectedException extends GatewayException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final String routeId;
+    private final String reason;
+
+    public BulkheadRejectedException(String routeId, String reason) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "BULKHEAD_FULL",
+                "Capacidade da rota " + routeId + " esgotada. Tente novamente em alguns instantes.");
+        this.routeId = routeId;
+        this.reason = reason;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
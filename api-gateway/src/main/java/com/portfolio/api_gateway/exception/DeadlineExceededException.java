@@ -0,0 +1,25 @@
+package com.portfolio.api_gateway.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.io.Serial;
+
+/**
+ * Exceção lançada quando o deadline da requisição já se esgotou antes da chamada ao downstream.
+ * A requisição é descartada sem consumir capacidade do serviço de destino.
+ */
+@Getter
+public class DeadlineExceededException extends GatewayException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final String routeId;
+
+    public DeadlineExceededException(String routeId) {
+        super(HttpStatus.GATEWAY_TIMEOUT, "DEADLINE_EXCEEDED",
+                "O tempo limite da requisicao se esgotou antes da chamada ao servico downstream.");
+        this.routeId = routeId;
+    }
+}
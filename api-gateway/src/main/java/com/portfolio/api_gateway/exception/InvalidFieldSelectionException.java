@@ -0,0 +1,24 @@
+package com.portfolio.api_gateway.exception;
+
+import org.springframework.http.HttpStatus;
+
+import java.io.Serial;
+
+/**
+ * Exceção lançada quando o parâmetro de projeção de campos ({@code fields}) é inválido.
+ * Validado antes do roteamento: o downstream não chega a ser chamado.
+ */
+public class InvalidFieldSelectionException extends GatewayException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public InvalidFieldSelectionException(String message) {
+        super(HttpStatus.BAD_REQUEST, "INVALID_FIELD_SELECTION", message);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,34 @@
+package com.portfolio.api_gateway.exception;
+
+import com.portfolio.api_gateway.admission.Priority;
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.io.Serial;
+
+/**
+ * Exceção lançada pelo admission control quando a requisição é descartada por sobrecarga do gateway.
+ *
+ * Não preenche stack trace: é criada em alto volume justamente quando o gateway está sobrecarregado.
+ */
+@Getter
+public class LoadSheddingException extends GatewayException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final Priority priority;
+    private final long retryAfterSeconds;
+
+    public LoadSheddingException(Priority priority, long retryAfterSeconds) {
+        super(HttpStatus.SERVICE_UNAVAILABLE, "GATEWAY_OVERLOADED",
+                "Gateway sobrecarregado. Tente novamente em " + retryAfterSeconds + " segundos.");
+        this.priority = priority;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
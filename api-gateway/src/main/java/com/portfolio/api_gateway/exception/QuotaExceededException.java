@@ -0,0 +1,40 @@
+package com.portfolio.api_gateway.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.io.Serial;
+import java.time.Instant;
+
+/**
+ * Exceção lançada quando o consumidor esgota a quota diária ou mensal.
+ * A mensagem é fixa por período (sem valores variáveis), reaproveitando o template pré-codificado.
+ *
+ * Não preenche stack trace: consumidores acima da quota continuam chamando até a virada do período.
+ */
+@Getter
+public class QuotaExceededException extends GatewayException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final String period;
+    private final long limit;
+    private final Instant resetAt;
+    private final long retryAfterSeconds;
+
+    public QuotaExceededException(String period, String periodDescription, long limit, Instant resetAt,
+                                  long retryAfterSeconds) {
+        super(HttpStatus.TOO_MANY_REQUESTS, "QUOTA_EXCEEDED",
+                "Quota " + periodDescription + " excedida.");
+        this.period = period;
+        this.limit = limit;
+        this.resetAt = resetAt;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -9,6 +9,8 @@ import java.time.Instant;
 /**
  * Exceção lançada quando o rate limit de uma rota é excedido.
  * Contém informações para popular os headers de resposta (X-RateLimit-*, Retry-After).
+ *
+ * Não preenche stack trace: é criada a cada requisição rejeitada, em alto volume durante ataques.
  */
 @Getter
 public class RateLimitExceededException extends GatewayException {
@@ -29,4 +31,9 @@ public class RateLimitExceededException extends GatewayException {
         this.resetAt = resetAt;
         this.retryAfterSeconds = retryAfterSeconds;
     }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
 }
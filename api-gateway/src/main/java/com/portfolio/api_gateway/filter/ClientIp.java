@@ -0,0 +1,41 @@
+package com.portfolio.api_gateway.filter;
+
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Resolução do IP do cliente (considerando X-Forwarded-For com 1 proxy confiável),
+ * feita uma única vez por requisição e guardada como atributo da exchange.
+ */
+public final class ClientIp {
+
+    public static final String CLIENT_IP_ATTR = "gatewayClientIp";
+
+    /** Valor do atributo quando o IP não pôde ser resolvido. */
+    public static final String UNKNOWN = "unknown";
+
+    private static final XForwardedRemoteAddressResolver IP_RESOLVER
+            = XForwardedRemoteAddressResolver.maxTrustedIndex(1);
+
+    private ClientIp() {
+    }
+
+    /**
+     * IP do cliente, ou {@link #UNKNOWN} se não resolvido.
+     */
+    public static String resolve(ServerWebExchange exchange) {
+        String cached = exchange.getAttribute(CLIENT_IP_ATTR);
+        if (cached != null) {
+            return cached;
+        }
+
+        InetSocketAddress address = IP_RESOLVER.resolve(exchange);
+        String ip = (address != null && address.getAddress() != null)
+                ? address.getAddress().getHostAddress()
+                : UNKNOWN;
+        exchange.getAttributes().put(CLIENT_IP_ATTR, ip);
+        return ip;
+    }
+}
@@ -1,5 +1,8 @@
 package com.portfolio.api_gateway.filter;
 
+import com.portfolio.api_gateway.accesslog.AccessLogPipeline;
+import com.portfolio.api_gateway.requestid.RequestIds;
+import com.portfolio.api_gateway.tracing.TailSamplingSpanProcessor;
 import io.micrometer.tracing.Span;
 import io.micrometer.tracing.Tracer;
 import lombok.RequiredArgsConstructor;
@@ -9,21 +12,15 @@ import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.cloud.gateway.route.Route;
 import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
-import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
 import org.springframework.core.Ordered;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.server.reactive.ServerHttpRequest;
-import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 import reactor.util.context.Context;
 
-import java.net.InetSocketAddress;
-import java.util.Optional;
-import java.util.UUID;
-
 import static net.logstash.logback.argument.StructuredArguments.kv;
 
 /**
@@ -32,31 +29,34 @@ import static net.logstash.logback.argument.StructuredArguments.kv;
  * Posição na cadeia de filtros: order=1 (primeiro filtro, antes do rate limiting).
  *
  * Fluxo:
- * 1. Gera ou propaga um Request ID único (header X-Request-Id)
+ * 1. Propaga ao downstream o Request ID da requisição ({@link RequestIds}, header X-Request-Id)
  * 2. Registra log estruturado de entrada da requisição (método, path, client IP)
  * 3. Adiciona o Request ID como header de resposta para rastreabilidade
- * 4. Ao completar, registra log com status HTTP e duração em milissegundos
- * 5. Em caso de erro, registra log de falha com detalhes da exceção
+ * 4. Ao completar, registra no access log ({@link AccessLogPipeline}) o status HTTP e a duração
+ * 5. Em caso de erro, registra no access log a falha com o tipo e a mensagem da exceção
+ * 6. Informa o resultado (status, duração, fallback) ao tail sampling de traces
+ *
+ * O access log é assíncrono e amostrado para respostas de sucesso; o IP do cliente é resolvido
+ * uma única vez por requisição ({@link ClientIp}).
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class RequestLoggingFilter implements GlobalFilter, Ordered {
 
-    private static final String REQUEST_ID_HEADER = "X-Request-Id";
+    private static final String REQUEST_ID_HEADER = RequestIds.HEADER;
     private static final String START_TIME_ATTR = "requestLoggingStartTime";
 
     private final Tracer tracer;
-
-    private final XForwardedRemoteAddressResolver ipResolver
-            = XForwardedRemoteAddressResolver.maxTrustedIndex(1);
+    private final AccessLogPipeline accessLog;
+    private final TailSamplingSpanProcessor tailSampling;
 
     @Override
     public @NonNull Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull GatewayFilterChain chain) {
         long startTime = System.currentTimeMillis();
 
         // 1. Resolver IDs
-        String requestId = resolveRequestId(exchange);
+        String requestId = RequestIds.resolve(exchange);
         String traceId = getTraceId();
         String spanId = getSpanId();
 
@@ -81,8 +81,8 @@ public class RequestLoggingFilter implements GlobalFilter, Ordered {
         return chain.filter(mutatedExchange)
                 // Escreve o requestId no Contexto Reativo para propagação (MDC)
                 .contextWrite(Context.of(REQUEST_ID_HEADER, requestId))
-                .doOnSuccess(v -> logCompletion(mutatedExchange, requestId, traceId, spanId, startTime))
-                .doOnError(e -> logError(mutatedExchange, requestId, traceId, spanId, startTime, e));
+                .doOnSuccess(v -> onComplete(mutatedExchange, requestId, traceId, spanId, startTime, null))
+                .doOnError(e -> onComplete(mutatedExchange, requestId, traceId, spanId, startTime, e));
     }
 
     @Override
@@ -91,9 +91,22 @@ public class RequestLoggingFilter implements GlobalFilter, Ordered {
         return 1;
     }
 
-    private String resolveRequestId(ServerWebExchange exchange) {
-        String existingId = exchange.getRequest().getHeaders().getFirst(REQUEST_ID_HEADER);
-        return (existingId != null && !existingId.isBlank()) ? existingId : UUID.randomUUID().toString();
+    private void onComplete(ServerWebExchange exchange, String requestId, String traceId, String spanId,
+                            long startTime, Throwable error) {
+        accessLog.log(exchange, requestId, traceId, spanId, startTime, error);
+
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        // atributo presente quando o CircuitBreaker desviou a requisição para o fallbackUri
+        boolean fallback = exchange.getAttribute(ServerWebExchangeUtils.CIRCUITBREAKER_EXECUTION_EXCEPTION_ATTR) != null;
+
+        tailSampling.recordOutcome(
+                traceId,
+                route != null ? route.getId() : "unknown_route",
+                status != null ? status.value() : 0,
+                System.currentTimeMillis() - startTime,
+                fallback,
+                error != null);
     }
 
     private String getTraceId() {
@@ -113,60 +126,8 @@ public class RequestLoggingFilter implements GlobalFilter, Ordered {
                 kv("trace_id", traceId),
                 kv("method", request.getMethod().name()),
                 kv("path", request.getPath().value()),
-                kv("client_ip", getClientIp(exchange)),
+                kv("client_ip", ClientIp.resolve(exchange)),
                 kv("user_agent", request.getHeaders().getFirst(HttpHeaders.USER_AGENT))
         );
     }
-
-    private void logCompletion(ServerWebExchange exchange, String requestId, String traceId, String spanId, long startTime) {
-        long duration = System.currentTimeMillis() - startTime;
-        ServerHttpResponse response = exchange.getResponse();
-
-        // Null safety para StatusCode (pode ser nulo se a conexão cair)
-        int statusCode = Optional.ofNullable(response.getStatusCode())
-                .map(HttpStatusCode::value)
-                .orElse(0);
-
-        // Verifica se a rota foi encontrada (evita logar 'null' se der 404 antes do route matching)
-        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
-        String routeId = (route != null) ? route.getId() : "unknown_route";
-
-        log.info("Request completed",
-                kv("event", "request_completed"),
-                kv("request_id", requestId),
-                kv("trace_id", traceId),
-                kv("span_id", spanId),
-                kv("route_id", routeId),
-                kv("method", exchange.getRequest().getMethod().name()),
-                kv("path", exchange.getRequest().getPath().value()),
-                kv("status", statusCode),
-                kv("duration_ms", duration),
-                kv("client_ip", getClientIp(exchange))
-        );
-    }
-
-    private void logError(ServerWebExchange exchange, String requestId, String traceId, String spanId, long startTime, Throwable error) {
-        long duration = System.currentTimeMillis() - startTime;
-
-        log.error("Request failed",
-                kv("event", "request_failed"),
-                kv("request_id", requestId),
-                kv("trace_id", traceId),
-                kv("span_id", spanId),
-                kv("method", exchange.getRequest().getMethod().name()),
-                kv("path", exchange.getRequest().getPath().value()),
-                kv("duration_ms", duration),
-                kv("client_ip", getClientIp(exchange)),
-                kv("error_type", error.getClass().getSimpleName()),
-                kv("error_message", error.getMessage()),
-                error
-        );
-    }
-
-    private String getClientIp(ServerWebExchange exchange) {
-        InetSocketAddress address = ipResolver.resolve(exchange);
-        return (address != null && address.getAddress() != null) ?
-                address.getAddress().getHostAddress()
-                : "unknown";
-    }
 }
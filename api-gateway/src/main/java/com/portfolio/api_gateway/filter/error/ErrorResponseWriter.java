@@ -0,0 +1,272 @@
+package com.portfolio.api_gateway.filter.error;
+
+import com.portfolio.api_gateway.dto.ErrorResponse;
+import com.portfolio.api_gateway.exception.RateLimitExceededException;
+import com.portfolio.api_gateway.exception.ServiceUnavailableException;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Escrita das respostas de erro do gateway sem passar pelo Jackson.
+ *
+ * Produz o mesmo JSON de {@link ErrorResponse} (mesma ordem de campos, nulos omitidos), mas a parte
+ * fixa de cada erro (status, error, errorCode, message) é pré-codificada uma única vez por código e
+ * mensagem. Por requisição apenas path, requestId, timestamp e os detalhes numéricos são escritos,
+ * direto no DataBuffer do response (pooled no Netty).
+ *
+ * Usado pelo {@link GlobalErrorFilter} e pelos handlers 401/403 do SecurityConfig, que concentram
+ * o volume de rejeições (429, 401, 503) durante ataques.
+ *
+ * O timestamp tem precisão de milissegundos; o prefixo "yyyy-MM-ddTHH:mm:ss" é recalculado
+ * apenas quando o segundo muda.
+ */
+@Component
+public class ErrorResponseWriter {
+
+    /** Limite de mensagens distintas por código (mensagens com valores variáveis, ex.: Retry-After). */
+    private static final int MAX_TEMPLATES_PER_CODE = 256;
+
+    /** Espaço reservado além do template para os campos variáveis. */
+    private static final int VARIABLE_FIELDS_ESTIMATE = 128;
+
+    private static final byte[] PATH_FIELD = ascii(",\"path\":");
+    private static final byte[] REQUEST_ID_FIELD = ascii(",\"requestId\":");
+    private static final byte[] TIMESTAMP_FIELD = ascii(",\"timestamp\":\"");
+    private static final byte[] LIMIT_DETAILS = ascii(",\"details\":{\"limit\":");
+    private static final byte[] REMAINING_DETAIL = ascii(",\"remaining\":");
+    private static final byte[] RETRY_AFTER_DETAIL = ascii(",\"retryAfterSeconds\":");
+    private static final byte[] SERVICE_DETAILS = ascii(",\"details\":{\"service\":");
+    private static final byte[] HEX = ascii("0123456789abcdef");
+
+    private final Map<String, Map<String, Template>> templates = new ConcurrentHashMap<>();
+
+    private volatile SecondPrefix secondPrefix = SecondPrefix.of(0);
+
+    /**
+     * Escreve a resposta de erro. {@code cause} define os detalhes: limites do rate limit
+     * ({@link RateLimitExceededException}) ou serviço ({@link ServiceUnavailableException}).
+     */
+    public Mono<Void> write(ServerHttpResponse response, HttpStatus status, String errorCode, String message,
+                            String path, String requestId, Throwable cause) {
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+        DataBuffer buffer = encode(response.bufferFactory(), status, errorCode, message, path, requestId, cause);
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    public Mono<Void> write(ServerHttpResponse response, HttpStatus status, String errorCode, String message,
+                            String path, String requestId) {
+        return write(response, status, errorCode, message, path, requestId, null);
+    }
+
+    DataBuffer encode(DataBufferFactory factory, HttpStatus status, String errorCode, String message,
+                      String path, String requestId, Throwable cause) {
+        byte[] prefix = template(status, errorCode, message);
+        int estimate = prefix.length + VARIABLE_FIELDS_ESTIMATE
+                + (path != null ? path.length() : 0) + (requestId != null ? requestId.length() : 0);
+
+        DataBuffer buffer = factory.allocateBuffer(estimate);
+        try {
+            buffer.write(prefix);
+            if (path != null) {
+                buffer.write(PATH_FIELD);
+                writeString(buffer, path);
+            }
+            if (requestId != null) {
+                buffer.write(REQUEST_ID_FIELD);
+                writeString(buffer, requestId);
+            }
+            writeTimestamp(buffer, System.currentTimeMillis());
+            writeDetails(buffer, cause);
+            buffer.write((byte) '}');
+            return buffer;
+        } catch (RuntimeException e) {
+            DataBufferUtils.release(buffer);
+            throw e;
+        }
+    }
+
+    private byte[] template(HttpStatus status, String errorCode, String message) {
+        Map<String, Template> byMessage = templates.computeIfAbsent(
+                errorCode != null ? errorCode : "", code -> new ConcurrentHashMap<>());
+        String messageKey = message != null ? message : "";
+
+        Template template = byMessage.get(messageKey);
+        if (template != null && template.status() == status) {
+            return template.prefix();
+        }
+
+        byte[] prefix = encodePrefix(status, errorCode, message);
+        if (template == null && byMessage.size() < MAX_TEMPLATES_PER_CODE) {
+            byMessage.putIfAbsent(messageKey, new Template(status, prefix));
+        }
+        return prefix;
+    }
+
+    private static byte[] encodePrefix(HttpStatus status, String errorCode, String message) {
+        DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.allocateBuffer(256);
+        buffer.write(ascii("{\"status\":"));
+        writeLong(buffer, status.value());
+        buffer.write(ascii(",\"error\":"));
+        writeString(buffer, status.getReasonPhrase());
+        if (errorCode != null) {
+            buffer.write(ascii(",\"errorCode\":"));
+            writeString(buffer, errorCode);
+        }
+        if (message != null) {
+            buffer.write(ascii(",\"message\":"));
+            writeString(buffer, message);
+        }
+
+        byte[] bytes = new byte[buffer.readableByteCount()];
+        buffer.read(bytes);
+        return bytes;
+    }
+
+    private static void writeDetails(DataBuffer buffer, Throwable cause) {
+        switch (cause) {
+            case RateLimitExceededException rle -> {
+                buffer.write(LIMIT_DETAILS);
+                writeLong(buffer, rle.getLimit());
+                buffer.write(REMAINING_DETAIL);
+                writeLong(buffer, rle.getRemaining());
+                buffer.write(RETRY_AFTER_DETAIL);
+                writeLong(buffer, rle.getRetryAfterSeconds());
+                buffer.write((byte) '}');
+            }
+            case ServiceUnavailableException sue when sue.getServiceName() != null -> {
+                buffer.write(SERVICE_DETAILS);
+                writeString(buffer, sue.getServiceName());
+                buffer.write((byte) '}');
+            }
+            case null, default -> {
+                // sem detalhes
+            }
+        }
+    }
+
+    private void writeTimestamp(DataBuffer buffer, long epochMillis) {
+        long epochSecond = Math.floorDiv(epochMillis, 1000);
+        SecondPrefix prefix = secondPrefix;
+        if (prefix.epochSecond() != epochSecond) {
+            prefix = SecondPrefix.of(epochSecond);
+            secondPrefix = prefix;
+        }
+
+        int millis = (int) Math.floorMod(epochMillis, 1000);
+        buffer.write(TIMESTAMP_FIELD);
+        buffer.write(prefix.bytes());
+        buffer.write((byte) '.');
+        buffer.write((byte) ('0' + millis / 100));
+        buffer.write((byte) ('0' + millis / 10 % 10));
+        buffer.write((byte) ('0' + millis % 10));
+        buffer.write((byte) 'Z');
+        buffer.write((byte) '"');
+    }
+
+    static void writeLong(DataBuffer buffer, long value) {
+        if (value < 0) {
+            buffer.write((byte) '-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            buffer.write((byte) ('0' + (value / divisor) % 10));
+            divisor /= 10;
+        }
+    }
+
+    /**
+     * String JSON entre aspas, com escape de aspas, barra invertida e caracteres de controle,
+     * codificada em UTF-8 sem alocação intermediária.
+     */
+    static void writeString(DataBuffer buffer, String value) {
+        buffer.write((byte) '"');
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c == '"' || c == '\\') {
+                    buffer.write((byte) '\\');
+                    buffer.write((byte) c);
+                } else if (c < 0x20) {
+                    writeControl(buffer, c);
+                } else {
+                    buffer.write((byte) c);
+                }
+            } else if (c < 0x800) {
+                buffer.write((byte) (0xC0 | (c >> 6)));
+                buffer.write((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.write((byte) (0xF0 | (codePoint >> 18)));
+                buffer.write((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.write((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.write((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                buffer.write((byte) '?');
+            } else {
+                buffer.write((byte) (0xE0 | (c >> 12)));
+                buffer.write((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.write((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+        buffer.write((byte) '"');
+    }
+
+    private static void writeControl(DataBuffer buffer, char c) {
+        buffer.write((byte) '\\');
+        switch (c) {
+            case '\n' -> buffer.write((byte) 'n');
+            case '\r' -> buffer.write((byte) 'r');
+            case '\t' -> buffer.write((byte) 't');
+            case '\b' -> buffer.write((byte) 'b');
+            case '\f' -> buffer.write((byte) 'f');
+            default -> {
+                buffer.write((byte) 'u');
+                buffer.write((byte) '0');
+                buffer.write((byte) '0');
+                buffer.write(HEX[c >> 4]);
+                buffer.write(HEX[c & 0xF]);
+            }
+        }
+    }
+
+    private static byte[] ascii(String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private record Template(HttpStatus status, byte[] prefix) {
+    }
+
+    /**
+     * "yyyy-MM-ddTHH:mm:ss" (UTC) de um segundo epoch.
+     */
+    private record SecondPrefix(long epochSecond, byte[] bytes) {
+
+        static SecondPrefix of(long epochSecond) {
+            LocalDateTime time = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+            String formatted = String.format("%04d-%02d-%02dT%02d:%02d:%02d",
+                    time.getYear(), time.getMonthValue(), time.getDayOfMonth(),
+                    time.getHour(), time.getMinute(), time.getSecond());
+            return new SecondPrefix(epochSecond, ascii(formatted));
+        }
+    }
+}
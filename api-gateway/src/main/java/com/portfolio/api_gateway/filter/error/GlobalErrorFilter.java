@@ -1,19 +1,17 @@
 package com.portfolio.api_gateway.filter.error;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.portfolio.api_gateway.dto.ErrorResponse;
 import com.portfolio.api_gateway.exception.GatewayException;
+import com.portfolio.api_gateway.exception.LoadSheddingException;
+import com.portfolio.api_gateway.exception.QuotaExceededException;
 import com.portfolio.api_gateway.exception.RateLimitExceededException;
 import com.portfolio.api_gateway.exception.ServiceUnavailableException;
+import com.portfolio.api_gateway.requestid.RequestIds;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.webflux.error.ErrorWebExceptionHandler;
 import org.springframework.core.annotation.Order;
-import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
-import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.AuthenticationCredentialsNotFoundException;
@@ -26,8 +24,6 @@ import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 import java.net.ConnectException;
-import java.util.Map;
-import java.util.UUID;
 import java.util.concurrent.TimeoutException;
 
 import static net.logstash.logback.argument.StructuredArguments.kv;
@@ -36,12 +32,13 @@ import static net.logstash.logback.argument.StructuredArguments.kv;
  * Tratamento centralizado de erros do API Gateway.
  *
  * Intercepta todas as exceções não tratadas e converte em respostas
- * padronizadas ({@link ErrorResponse}) com status HTTP apropriado.
+ * padronizadas ({@link ErrorResponse}) com status HTTP apropriado,
+ * escritas pelo {@link ErrorResponseWriter} (JSON pré-codificado por código de erro).
  *
  * Ordem de prioridade: -2 (executa antes do handler de erro padrão do Spring Boot).
  *
  * Exceções tratadas:
- * - {@link GatewayException} e subtipos (RateLimit, ServiceUnavailable, Unauthorized)
+ * - {@link GatewayException} e subtipos (RateLimit, Quota, ServiceUnavailable, LoadShedding, Unauthorized)
  * - {@link AuthenticationException} / {@link AccessDeniedException} (Spring Security)
  * - {@link ResponseStatusException} (Spring WebFlux)
  * - {@link ConnectException} (falha de conexão com downstream)
@@ -54,9 +51,7 @@ import static net.logstash.logback.argument.StructuredArguments.kv;
 @RequiredArgsConstructor
 public class GlobalErrorFilter implements ErrorWebExceptionHandler {
 
-    private static final String REQUEST_ID_HEADER = "X-Request-Id";
-
-    private final ObjectMapper objectMapper;
+    private final ErrorResponseWriter errorResponseWriter;
 
     @Override
     public Mono<Void> handle(ServerWebExchange exchange, Throwable ex) {
@@ -67,20 +62,17 @@ public class GlobalErrorFilter implements ErrorWebExceptionHandler {
         }
 
         String path = exchange.getRequest().getPath().value();
-        String requestId = resolveRequestId(exchange.getRequest());
+        String requestId = RequestIds.resolve(exchange);
 
-        ErrorResponse errorResponse;
         HttpStatus status;
+        String errorCode;
+        String message;
 
         switch (ex) {
             case RateLimitExceededException rle -> {
                 status = rle.getStatus();
-                errorResponse = buildErrorResponse(rle, path, requestId);
-                errorResponse.setDetails(Map.of(
-                        "limit", rle.getLimit(),
-                        "remaining", rle.getRemaining(),
-                        "retryAfterSeconds", rle.getRetryAfterSeconds()
-                ));
+                errorCode = rle.getErrorCode();
+                message = rle.getMessage();
                 response.getHeaders().set("X-RateLimit-Limit", String.valueOf(rle.getLimit()));
                 response.getHeaders().set("X-RateLimit-Remaining", String.valueOf(rle.getRemaining()));
                 response.getHeaders().set("X-RateLimit-Reset", String.valueOf(rle.getResetAt().toEpochMilli()));
@@ -93,10 +85,26 @@ public class GlobalErrorFilter implements ErrorWebExceptionHandler {
                         kv("retry_after_seconds", rle.getRetryAfterSeconds()));
             }
 
+            case QuotaExceededException qe -> {
+                status = qe.getStatus();
+                errorCode = qe.getErrorCode();
+                message = qe.getMessage();
+                response.getHeaders().set("X-Quota-Limit", String.valueOf(qe.getLimit()));
+                response.getHeaders().set("X-Quota-Remaining", "0");
+                response.getHeaders().set("X-Quota-Reset", String.valueOf(qe.getResetAt().toEpochMilli()));
+                response.getHeaders().set("Retry-After", String.valueOf(qe.getRetryAfterSeconds()));
+                log.warn("Quota excedida",
+                        kv("event", "quota_exceeded"),
+                        kv("path", path),
+                        kv("request_id", requestId),
+                        kv("period", qe.getPeriod()),
+                        kv("limit", qe.getLimit()));
+            }
+
             case ServiceUnavailableException sue -> {
                 status = sue.getStatus();
-                errorResponse = buildErrorResponse(sue, path, requestId);
-                errorResponse.setDetails(Map.of("service", sue.getServiceName()));
+                errorCode = sue.getErrorCode();
+                message = sue.getMessage();
                 response.getHeaders().set("X-Fallback-Response", "true");
                 log.warn("Serviço indisponível",
                         kv("event", "service_unavailable"),
@@ -105,9 +113,23 @@ public class GlobalErrorFilter implements ErrorWebExceptionHandler {
                         kv("service", sue.getServiceName()));
             }
 
+            case LoadSheddingException lse -> {
+                status = lse.getStatus();
+                errorCode = lse.getErrorCode();
+                message = lse.getMessage();
+                response.getHeaders().set("Retry-After", String.valueOf(lse.getRetryAfterSeconds()));
+                // debug: sob sobrecarga, logar cada descarte agravaria o problema (métrica gateway.admission.shed)
+                log.debug("Requisição descartada por sobrecarga",
+                        kv("event", "load_shed"),
+                        kv("path", path),
+                        kv("request_id", requestId),
+                        kv("priority", lse.getPriority()));
+            }
+
             case GatewayException ge -> {
                 status = ge.getStatus();
-                errorResponse = buildErrorResponse(ge, path, requestId);
+                errorCode = ge.getErrorCode();
+                message = ge.getMessage();
                 log.warn("Gateway exception",
                         kv("event", "gateway_exception"),
                         kv("path", path),
@@ -118,8 +140,8 @@ public class GlobalErrorFilter implements ErrorWebExceptionHandler {
 
             case InvalidBearerTokenException ignored -> {
                 status = HttpStatus.UNAUTHORIZED;
-                errorResponse = ErrorResponse.of(status, "INVALID_TOKEN",
-                        "Token de acesso invalido ou expirado.", path, requestId);
+                errorCode = "INVALID_TOKEN";
+                message = "Token de acesso invalido ou expirado.";
                 log.warn("Token invalido",
                         kv("event", "authentication_failed"),
                         kv("path", path),
@@ -129,8 +151,8 @@ public class GlobalErrorFilter implements ErrorWebExceptionHandler {
 
             case AuthenticationCredentialsNotFoundException ignored -> {
                 status = HttpStatus.UNAUTHORIZED;
-                errorResponse = ErrorResponse.of(status, "CREDENTIALS_NOT_FOUND",
-                        "Credenciais de autenticação não encontradas.", path, requestId);
+                errorCode = "CREDENTIALS_NOT_FOUND";
+                message = "Credenciais de autenticação não encontradas.";
                 log.warn("Credenciais não encontradas",
                         kv("event", "authentication_failed"),
                         kv("path", path),
@@ -139,8 +161,8 @@ public class GlobalErrorFilter implements ErrorWebExceptionHandler {
 
             case AuthenticationException ignored -> {
                 status = HttpStatus.UNAUTHORIZED;
-                errorResponse = ErrorResponse.of(status, "UNAUTHORIZED",
-                        "Autenticação necessaria para acessar este recurso.", path, requestId);
+                errorCode = "UNAUTHORIZED";
+                message = "Autenticação necessaria para acessar este recurso.";
                 log.warn("Autenticação falhou",
                         kv("event", "authentication_failed"),
                         kv("path", path),
@@ -150,8 +172,8 @@ public class GlobalErrorFilter implements ErrorWebExceptionHandler {
 
             case AccessDeniedException ignored -> {
                 status = HttpStatus.FORBIDDEN;
-                errorResponse = ErrorResponse.of(status, "ACCESS_DENIED",
-                        "Permissão insuficiente para acessar este recurso.", path, requestId);
+                errorCode = "ACCESS_DENIED";
+                message = "Permissão insuficiente para acessar este recurso.";
                 log.warn("Acesso negado",
                         kv("event", "access_denied"),
                         kv("path", path),
@@ -160,8 +182,8 @@ public class GlobalErrorFilter implements ErrorWebExceptionHandler {
 
             case JwtException ignored -> {
                 status = HttpStatus.UNAUTHORIZED;
-                errorResponse = ErrorResponse.of(status, "JWT_ERROR",
-                        "Erro ao processar token JWT.", path, requestId);
+                errorCode = "JWT_ERROR";
+                message = "Erro ao processar token JWT.";
                 log.warn("Erro JWT",
                         kv("event", "jwt_error"),
                         kv("path", path),
@@ -171,9 +193,8 @@ public class GlobalErrorFilter implements ErrorWebExceptionHandler {
 
             case ResponseStatusException rse -> {
                 status = HttpStatus.valueOf(rse.getStatusCode().value());
-                String errorCode = status.name();
-                String message = rse.getReason() != null ? rse.getReason() : status.getReasonPhrase();
-                errorResponse = ErrorResponse.of(status, errorCode, message, path, requestId);
+                errorCode = status.name();
+                message = rse.getReason() != null ? rse.getReason() : status.getReasonPhrase();
                 log.warn("Response status exception",
                         kv("event", "response_status_exception"),
                         kv("path", path),
@@ -183,8 +204,8 @@ public class GlobalErrorFilter implements ErrorWebExceptionHandler {
 
             case ConnectException ignored -> {
                 status = HttpStatus.BAD_GATEWAY;
-                errorResponse = ErrorResponse.of(status, "BAD_GATEWAY",
-                        "Não foi possível conectar ao serviço downstream.", path, requestId);
+                errorCode = "BAD_GATEWAY";
+                message = "Não foi possível conectar ao serviço downstream.";
                 log.error("Falha de conexão com downstream",
                         kv("event", "connection_failed"),
                         kv("path", path),
@@ -194,8 +215,8 @@ public class GlobalErrorFilter implements ErrorWebExceptionHandler {
 
             case TimeoutException ignored -> {
                 status = HttpStatus.GATEWAY_TIMEOUT;
-                errorResponse = ErrorResponse.of(status, "GATEWAY_TIMEOUT",
-                        "O serviço downstream não respondeu dentro do tempo limite.", path, requestId);
+                errorCode = "GATEWAY_TIMEOUT";
+                message = "O serviço downstream não respondeu dentro do tempo limite.";
                 log.error("Timeout de downstream",
                         kv("event", "gateway_timeout"),
                         kv("path", path),
@@ -204,8 +225,8 @@ public class GlobalErrorFilter implements ErrorWebExceptionHandler {
 
             default -> {
                 status = HttpStatus.INTERNAL_SERVER_ERROR;
-                errorResponse = ErrorResponse.of(status, "INTERNAL_ERROR",
-                        "Erro interno do gateway. Tente novamente mais tarde.", path, requestId);
+                errorCode = "INTERNAL_ERROR";
+                message = "Erro interno do gateway. Tente novamente mais tarde.";
                 log.error("Erro interno não tratado",
                         kv("event", "internal_error"),
                         kv("path", path),
@@ -216,29 +237,6 @@ public class GlobalErrorFilter implements ErrorWebExceptionHandler {
             }
         }
 
-        return writeResponse(response, status, errorResponse);
-    }
-
-    private ErrorResponse buildErrorResponse(GatewayException ex, String path, String requestId) {
-        return ErrorResponse.of(ex.getStatus(), ex.getErrorCode(), ex.getMessage(), path, requestId);
-    }
-
-    private Mono<Void> writeResponse(ServerHttpResponse response, HttpStatus status, ErrorResponse errorResponse) {
-        response.setStatusCode(status);
-        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
-
-        try {
-            byte[] bytes = objectMapper.writeValueAsBytes(errorResponse);
-            DataBuffer buffer = response.bufferFactory().wrap(bytes);
-            return response.writeWith(Mono.just(buffer));
-        } catch (JsonProcessingException e) {
-            log.error("Erro ao serializar ErrorResponse", e);
-            return response.setComplete();
-        }
-    }
-
-    private String resolveRequestId(ServerHttpRequest request) {
-        String requestId = request.getHeaders().getFirst(REQUEST_ID_HEADER);
-        return (requestId != null && !requestId.isBlank()) ? requestId : UUID.randomUUID().toString();
+        return errorResponseWriter.write(response, status, errorCode, message, path, requestId, ex);
     }
 }
@@ -0,0 +1,26 @@
+package com.portfolio.api_gateway.heavyhitter;
+
+import java.util.Locale;
+
+/**
+ * Dimensões rastreadas pelo {@link HeavyHitterTracker}.
+ */
+public enum Dimension {
+
+    /** Chave composta do rate limit: {@code routeId:userId} ou {@code routeId:ip}. */
+    CONSUMER,
+
+    /** IP do cliente (X-Forwarded-For ou endereço remoto). */
+    CLIENT_IP,
+
+    /** Route ID. */
+    ROUTE;
+
+    public String tagValue() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static Dimension fromTagValue(String value) {
+        return valueOf(value.toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+}
@@ -0,0 +1,7 @@
+package com.portfolio.api_gateway.heavyhitter;
+
+/**
+ * Chave com sua frequência estimada em uma janela e a fração do tráfego da dimensão.
+ */
+public record HeavyHitter(String key, long count, double share) {
+}
@@ -0,0 +1,81 @@
+package com.portfolio.api_gateway.heavyhitter;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Propriedades da detecção de heavy hitters (top-K por consumidor, IP e rota).
+ *
+ * Exemplo de configuração em application.yaml:
+ *
+ * gateway:
+ *   heavy-hitters:
+ *     enabled: true
+ *     capacity: 200
+ *     top-k: 20
+ *     bucket: 10s
+ *     windows: [1m, 5m]
+ *     auto-throttle:
+ *       enabled: false
+ *       max-share: 0.25
+ *       min-requests: 1000
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.heavy-hitters")
+public class HeavyHitterProperties {
+
+    /** Habilita o rastreamento. */
+    private boolean enabled = true;
+
+    /** Máximo de chaves candidatas mantidas por dimensão. */
+    @Min(1)
+    private int capacity = 200;
+
+    /** Quantidade de chaves devolvidas pelo endpoint, por janela. */
+    @Min(1)
+    private int topK = 20;
+
+    /** Colunas do count-min sketch (arredondado para potência de 2). */
+    @Min(16)
+    private int sketchWidth = 1024;
+
+    /** Linhas (funções de hash) do count-min sketch. */
+    @Min(1)
+    private int sketchDepth = 4;
+
+    /** Granularidade das janelas deslizantes. */
+    private Duration bucket = Duration.ofSeconds(10);
+
+    /** Janelas reportadas; a primeira também seleciona os candidatos e alimenta o auto-throttle. */
+    private List<Duration> windows = new ArrayList<>(List.of(Duration.ofMinutes(1), Duration.ofMinutes(5)));
+
+    private AutoThrottle autoThrottle = new AutoThrottle();
+
+    @Data
+    public static class AutoThrottle {
+
+        /** Rejeita com 429 as chaves que dominam o tráfego da dimensão. */
+        private boolean enabled = false;
+
+        /** Dimensões sujeitas ao throttle. */
+        private Set<Dimension> dimensions = EnumSet.of(Dimension.CONSUMER, Dimension.CLIENT_IP);
+
+        /** Fração do tráfego da dimensão, na primeira janela, a partir da qual a chave é limitada. */
+        @DecimalMin("0.0")
+        @DecimalMax("1.0")
+        private double maxShare = 0.25;
+
+        /** Mínimo de requisições da chave na janela antes de considerar o throttle. */
+        @Min(1)
+        private long minRequests = 1000;
+    }
+}
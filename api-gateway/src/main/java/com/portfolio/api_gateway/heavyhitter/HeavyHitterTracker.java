@@ -0,0 +1,246 @@
+package com.portfolio.api_gateway.heavyhitter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Rastreador de heavy hitters por dimensão (consumidor, IP, rota) com memória limitada.
+ *
+ * Por dimensão:
+ * - {@link WindowedCountMinSketch} conta todas as chaves em buckets de tempo (incrementos atômicos)
+ * - Um conjunto limitado de candidatos guarda as chaves que podem estar no top-K; uma chave nova
+ *   só entra quando sua estimativa supera a do candidato mais fraco da última rotação
+ *
+ * A thread "heavy-hitter-tick" roda a cada bucket: avança os sketches, poda os candidatos
+ * de volta à capacidade (pela primeira janela) e recalcula as chaves sob auto-throttle.
+ * O caminho da requisição nunca bloqueia nem ordena nada.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(HeavyHitterProperties.class)
+public class HeavyHitterTracker {
+
+    private final HeavyHitterProperties properties;
+    private final Map<Dimension, DimensionState> states = new EnumMap<>(Dimension.class);
+    private final int[] windowBuckets;
+
+    private ScheduledExecutorService scheduler;
+
+    public HeavyHitterTracker(HeavyHitterProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+
+        long bucketMillis = Math.max(1, properties.getBucket().toMillis());
+        this.windowBuckets = properties.getWindows().stream()
+                .mapToInt(window -> (int) Math.max(1, (window.toMillis() + bucketMillis - 1) / bucketMillis))
+                .toArray();
+        int buckets = windowBuckets.length == 0 ? 1 : Arrays.stream(windowBuckets).max().getAsInt();
+
+        for (Dimension dimension : Dimension.values()) {
+            DimensionState state = new DimensionState(new WindowedCountMinSketch(
+                    properties.getSketchWidth(), properties.getSketchDepth(), buckets));
+            states.put(dimension, state);
+
+            Gauge.builder("gateway.heavyhitters.candidates", state.candidates, Map::size)
+                    .tag("dimension", dimension.tagValue())
+                    .description("Chaves candidatas a heavy hitter")
+                    .register(meterRegistry);
+            state.throttledCounter = Counter.builder("gateway.heavyhitters.throttled")
+                    .tag("dimension", dimension.tagValue())
+                    .description("Requisições rejeitadas pelo auto-throttle de heavy hitters")
+                    .register(meterRegistry);
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "heavy-hitter-tick");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long bucketMillis = Math.max(1, properties.getBucket().toMillis());
+        scheduler.scheduleAtFixedRate(this::tick, bucketMillis, bucketMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Conta uma ocorrência de {@code key} na dimensão.
+     */
+    public void record(Dimension dimension, String key) {
+        if (!properties.isEnabled() || key == null) {
+            return;
+        }
+        DimensionState state = states.get(dimension);
+        state.sketch.add(key);
+
+        if (state.candidates.containsKey(key)) {
+            return;
+        }
+        int size = state.candidates.size();
+        int capacity = properties.getCapacity();
+        if (size < capacity
+                || (size < capacity * 2 && state.sketch.estimate(key, primaryWindowBuckets()) > state.admissionThreshold)) {
+            state.candidates.putIfAbsent(key, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Indica se a chave está sob auto-throttle (conjunto recalculado a cada bucket).
+     * Incrementa gateway.heavyhitters.throttled quando verdadeiro.
+     */
+    public boolean isThrottled(Dimension dimension, String key) {
+        DimensionState state = states.get(dimension);
+        if (key == null || !state.throttled.contains(key)) {
+            return false;
+        }
+        state.throttledCounter.increment();
+        return true;
+    }
+
+    /**
+     * Top-K da dimensão em cada janela configurada, na ordem de {@code gateway.heavy-hitters.windows}.
+     */
+    public Map<Duration, List<HeavyHitter>> topK(Dimension dimension) {
+        DimensionState state = states.get(dimension);
+        Map<Duration, List<HeavyHitter>> result = new LinkedHashMap<>();
+        List<Duration> windows = properties.getWindows();
+        for (int i = 0; i < windows.size(); i++) {
+            result.put(windows.get(i), rank(state, windowBuckets[i], properties.getTopK()));
+        }
+        return result;
+    }
+
+    /** Total de eventos da dimensão por janela. */
+    public Map<Duration, Long> totals(Dimension dimension) {
+        DimensionState state = states.get(dimension);
+        Map<Duration, Long> result = new LinkedHashMap<>();
+        List<Duration> windows = properties.getWindows();
+        for (int i = 0; i < windows.size(); i++) {
+            result.put(windows.get(i), state.sketch.total(windowBuckets[i]));
+        }
+        return result;
+    }
+
+    /** Retry-After sugerido para chaves sob throttle: o conjunto é reavaliado a cada bucket. */
+    public Duration throttleRetryAfter() {
+        return properties.getBucket();
+    }
+
+    /** Chaves atualmente sob auto-throttle. */
+    public Set<String> throttled(Dimension dimension) {
+        return states.get(dimension).throttled;
+    }
+
+    private int primaryWindowBuckets() {
+        return windowBuckets.length == 0 ? 1 : windowBuckets[0];
+    }
+
+    private void tick() {
+        try {
+            for (Map.Entry<Dimension, DimensionState> entry : states.entrySet()) {
+                DimensionState state = entry.getValue();
+                state.sketch.advance();
+                prune(state);
+                updateThrottled(entry.getKey(), state);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Falha na rotação dos heavy hitters",
+                    kv("event", "heavy_hitter_tick_failed"),
+                    kv("error", e.getMessage()));
+        }
+    }
+
+    private void prune(DimensionState state) {
+        List<HeavyHitter> ranked = rank(state, primaryWindowBuckets(), Integer.MAX_VALUE);
+        int capacity = properties.getCapacity();
+
+        for (int i = capacity; i < ranked.size(); i++) {
+            state.candidates.remove(ranked.get(i).key());
+        }
+        state.admissionThreshold = ranked.size() >= capacity ? ranked.get(capacity - 1).count() : 0;
+    }
+
+    private void updateThrottled(Dimension dimension, DimensionState state) {
+        HeavyHitterProperties.AutoThrottle config = properties.getAutoThrottle();
+        if (!config.isEnabled() || !config.getDimensions().contains(dimension)) {
+            if (!state.throttled.isEmpty()) {
+                state.throttled = Set.of();
+            }
+            return;
+        }
+
+        Set<String> throttled = new HashSet<>();
+        for (HeavyHitter hitter : rank(state, primaryWindowBuckets(), properties.getCapacity())) {
+            if (hitter.count() >= config.getMinRequests() && hitter.share() >= config.getMaxShare()) {
+                throttled.add(hitter.key());
+            }
+        }
+
+        for (String key : throttled) {
+            if (!state.throttled.contains(key)) {
+                log.warn("Heavy hitter sob auto-throttle",
+                        kv("event", "heavy_hitter_throttled"),
+                        kv("dimension", dimension.tagValue()),
+                        kv("key", key));
+            }
+        }
+        state.throttled = Set.copyOf(throttled);
+    }
+
+    private List<HeavyHitter> rank(DimensionState state, int buckets, int limit) {
+        long total = state.sketch.total(buckets);
+        List<HeavyHitter> ranked = new ArrayList<>(state.candidates.size());
+        for (String key : state.candidates.keySet()) {
+            long count = Math.min(state.sketch.estimate(key, buckets), total);
+            ranked.add(new HeavyHitter(key, count, total > 0 ? (double) count / total : 0.0));
+        }
+        ranked.sort(Comparator.comparingLong(HeavyHitter::count).reversed());
+        return ranked.size() > limit ? ranked.subList(0, limit) : ranked;
+    }
+
+    private static final class DimensionState {
+
+        final WindowedCountMinSketch sketch;
+        final Map<String, Boolean> candidates = new ConcurrentHashMap<>();
+
+        volatile long admissionThreshold;
+        volatile Set<String> throttled = Set.of();
+        Counter throttledCounter;
+
+        DimensionState(WindowedCountMinSketch sketch) {
+            this.sketch = sketch;
+        }
+    }
+}
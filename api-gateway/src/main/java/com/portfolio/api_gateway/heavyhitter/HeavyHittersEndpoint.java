@@ -0,0 +1,59 @@
+package com.portfolio.api_gateway.heavyhitter;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Endpoint do Actuator com os heavy hitters correntes.
+ *
+ * GET /actuator/heavyhitters              -> todas as dimensões
+ * GET /actuator/heavyhitters/{dimension}  -> consumer, client_ip ou route
+ *
+ * Contagens são estimativas do count-min sketch (nunca abaixo do valor real).
+ */
+@Component
+@Endpoint(id = "heavyhitters")
+public class HeavyHittersEndpoint {
+
+    private final HeavyHitterTracker tracker;
+
+    public HeavyHittersEndpoint(HeavyHitterTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @ReadOperation
+    public Map<String, DimensionReport> heavyHitters() {
+        Map<String, DimensionReport> result = new LinkedHashMap<>();
+        for (Dimension dimension : Dimension.values()) {
+            result.put(dimension.tagValue(), report(dimension));
+        }
+        return result;
+    }
+
+    @ReadOperation
+    public DimensionReport dimension(@Selector String dimension) {
+        return report(Dimension.fromTagValue(dimension));
+    }
+
+    private DimensionReport report(Dimension dimension) {
+        Map<Duration, Long> totals = tracker.totals(dimension);
+        Map<String, WindowReport> windows = new LinkedHashMap<>();
+        tracker.topK(dimension).forEach((window, top) ->
+                windows.put(window.toString(), new WindowReport(totals.getOrDefault(window, 0L), top)));
+        return new DimensionReport(windows, tracker.throttled(dimension));
+    }
+
+    public record DimensionReport(Map<String, WindowReport> windows, Set<String> throttled) {
+    }
+
+    public record WindowReport(long total, List<HeavyHitter> top) {
+    }
+}
@@ -0,0 +1,122 @@
+package com.portfolio.api_gateway.heavyhitter;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch particionado em buckets de tempo, para estimar a frequência de uma chave
+ * em janelas deslizantes com memória fixa (buckets × depth × width contadores int).
+ *
+ * Escritas são apenas incrementos atômicos no bucket corrente. A rotação é feita por uma
+ * única thread ({@link #advance()}): o bucket mais antigo é zerado e passa a ser o corrente.
+ * Uma janela de n buckets inclui o bucket corrente (parcial) e os n-1 anteriores.
+ *
+ * A estimativa nunca subestima; superestima no máximo em ~e/width do total da janela
+ * com probabilidade 1 - e^-depth.
+ *
+ * Cada linha usa SipHash com uma chave própria gerada na inicialização: as chaves (IP do
+ * X-Forwarded-For, consumidor) vêm do cliente, e colisões escolhidas em um hash fixo
+ * inflariam a estimativa de uma vítima em todas as linhas ao mesmo tempo.
+ */
+final class WindowedCountMinSketch {
+
+    private static final int MAX_DEPTH = 8;
+
+    private final int width;
+    private final int depth;
+    private final int mask;
+    private final int buckets;
+    private final int bucketSize;
+    /** Chave SipHash de 128 bits por linha: {k0, k1} em [2 * row], [2 * row + 1]. */
+    private final long[] rowKeys;
+
+    private final AtomicIntegerArray cells;
+    private final AtomicLongArray totals;
+
+    private volatile int current;
+
+    WindowedCountMinSketch(int width, int depth, int buckets) {
+        this.width = Integer.highestOneBit(Math.max(16, width) - 1) << 1;
+        this.depth = Math.clamp(depth, 1, MAX_DEPTH);
+        this.mask = this.width - 1;
+        this.buckets = Math.max(1, buckets);
+        this.bucketSize = this.width * this.depth;
+        this.cells = new AtomicIntegerArray(this.buckets * bucketSize);
+        this.totals = new AtomicLongArray(this.buckets);
+        SecureRandom random = new SecureRandom();
+        this.rowKeys = new long[this.depth * 2];
+        for (int i = 0; i < rowKeys.length; i++) {
+            rowKeys[i] = random.nextLong();
+        }
+    }
+
+    void add(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int bucket = current;
+        int base = bucket * bucketSize;
+        for (int row = 0; row < depth; row++) {
+            cells.incrementAndGet(base + row * width + index(bytes, row));
+        }
+        totals.incrementAndGet(bucket);
+    }
+
+    /**
+     * Frequência estimada de {@code key} nos últimos {@code windowBuckets} buckets.
+     */
+    long estimate(String key, int windowBuckets) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        int n = Math.min(windowBuckets, buckets);
+        int bucket = current;
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int offset = row * width + index(bytes, row);
+            long sum = 0;
+            for (int i = 0; i < n; i++) {
+                sum += cells.get(bucketIndex(bucket, i) * bucketSize + offset);
+            }
+            min = Math.min(min, sum);
+        }
+        return min;
+    }
+
+    /**
+     * Total de eventos nos últimos {@code windowBuckets} buckets.
+     */
+    long total(int windowBuckets) {
+        int n = Math.min(windowBuckets, buckets);
+        int bucket = current;
+        long sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += totals.get(bucketIndex(bucket, i));
+        }
+        return sum;
+    }
+
+    /**
+     * Avança para o próximo bucket, descartando o mais antigo. Chamado por uma única thread.
+     */
+    void advance() {
+        int next = (current + 1) % buckets;
+        int base = next * bucketSize;
+        for (int i = 0; i < bucketSize; i++) {
+            cells.set(base + i, 0);
+        }
+        totals.set(next, 0);
+        current = next;
+    }
+
+    int buckets() {
+        return buckets;
+    }
+
+    private int bucketIndex(int bucket, int age) {
+        return (bucket - age + buckets) % buckets;
+    }
+
+    private int index(byte[] key, int row) {
+        long h = SipHash.hash(rowKeys[2 * row], rowKeys[2 * row + 1], key);
+        return (int) (h >>> 32) & mask;
+    }
+}
@@ -0,0 +1,44 @@
+package com.portfolio.api_gateway.loadbalancer;
+
+import com.portfolio.api_gateway.discovery.ConsulDiscoveryCache;
+import com.portfolio.api_gateway.discovery.SnapshotServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Configuração padrão dos clientes do Spring Cloud LoadBalancer (um contexto filho por serviço).
+ *
+ * Não é anotada com @Configuration de propósito: é registrada apenas via
+ * {@code @LoadBalancerClients(defaultConfiguration = ...)} em
+ * {@link com.portfolio.api_gateway.config.LoadBalancerConfig}, para não ser
+ * capturada pelo component scan do contexto principal.
+ *
+ * Cadeia de suppliers:
+ * - Com gateway.discovery.watch habilitado: snapshot do Consul (push) -> ejeção de outliers
+ * - Sem watch: Consul (DiscoveryClient) -> cache -> ejeção de outliers
+ */
+public class GatewayLoadBalancerClientConfiguration {
+
+    @Bean
+    public ServiceInstanceListSupplier discoveryClientServiceInstanceListSupplier(
+            ConfigurableApplicationContext context) {
+
+        ConsulDiscoveryCache discoveryCache = context.getBeanProvider(ConsulDiscoveryCache.class).getIfAvailable();
+
+        ServiceInstanceListSupplier discovery;
+        if (discoveryCache != null) {
+            String serviceId = context.getEnvironment().getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+            discovery = new SnapshotServiceInstanceListSupplier(serviceId, discoveryCache);
+        } else {
+            discovery = ServiceInstanceListSupplier.builder()
+                    .withDiscoveryClient()
+                    .withCaching()
+                    .build(context);
+        }
+
+        return new OutlierEjectionServiceInstanceListSupplier(
+                discovery, context.getBean(InstanceHealthRegistry.class));
+    }
+}
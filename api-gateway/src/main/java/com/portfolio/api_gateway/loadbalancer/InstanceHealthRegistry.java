@@ -0,0 +1,194 @@
+package com.portfolio.api_gateway.loadbalancer;
+
+import com.portfolio.api_gateway.discovery.DiscoverySnapshotChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Registro de saúde passiva por instância downstream (outlier detection).
+ *
+ * Alimentado pelo {@link OutlierDetectionFilter} com o resultado de cada chamada
+ * e consultado pelo {@link OutlierEjectionServiceInstanceListSupplier} a cada seleção
+ * de instância do load balancer.
+ *
+ * Regras:
+ * 1. N falhas consecutivas ejetam a instância por baseEjectionTime * 2^(ejeções - 1), limitado a maxEjectionTime
+ * 2. Após o tempo de ejeção a instância é readmitida automaticamente
+ * 3. Nunca mais que maxEjectionPercent das instâncias de um serviço ficam fora da lista
+ *    (as ejeções mais antigas são readmitidas primeiro)
+ * 4. O contador de ejeções é zerado quando a instância fica saudável por maxEjectionTime
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@EnableConfigurationProperties(OutlierDetectionProperties.class)
+public class InstanceHealthRegistry {
+
+    private final OutlierDetectionProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, InstanceHealth> instances = new ConcurrentHashMap<>();
+
+    public void recordSuccess(ServiceInstance instance) {
+        InstanceHealth health = instances.get(instanceKey(instance));
+        if (health != null) {
+            health.onSuccess(System.currentTimeMillis(), properties.getMaxEjectionTime().toMillis());
+        }
+    }
+
+    public void recordFailure(ServiceInstance instance) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        String key = instanceKey(instance);
+        InstanceHealth health = instances.computeIfAbsent(key, k -> new InstanceHealth());
+        long ejectionMs = health.onFailure(System.currentTimeMillis(), properties);
+
+        if (ejectionMs > 0) {
+            ejectionCounter(instance.getServiceId()).increment();
+            log.warn("Instância ejetada do balanceamento",
+                    kv("event", "outlier_ejected"),
+                    kv("service", instance.getServiceId()),
+                    kv("instance", key),
+                    kv("ejection_ms", ejectionMs));
+        }
+    }
+
+    /**
+     * Remove da lista as instâncias ejetadas, respeitando o limite de maxEjectionPercent.
+     * Retorna a própria lista recebida quando nada precisa ser removido.
+     */
+    public List<ServiceInstance> filter(List<ServiceInstance> candidates) {
+        if (!properties.isEnabled() || candidates.size() <= 1 || instances.isEmpty()) {
+            return candidates;
+        }
+
+        long now = System.currentTimeMillis();
+        List<Ejected> ejected = null;
+
+        for (ServiceInstance instance : candidates) {
+            InstanceHealth health = instances.get(instanceKey(instance));
+            if (health != null && health.ejectedUntil > now) {
+                if (ejected == null) {
+                    ejected = new ArrayList<>();
+                }
+                ejected.add(new Ejected(instance, health.ejectedUntil));
+            }
+        }
+
+        if (ejected == null) {
+            return candidates;
+        }
+
+        int maxEjected = candidates.size() * properties.getMaxEjectionPercent() / 100;
+        if (ejected.size() > maxEjected) {
+            // Readmite primeiro as instâncias cuja ejeção termina antes
+            ejected.sort(Comparator.comparingLong(Ejected::until));
+            ejected = ejected.subList(ejected.size() - maxEjected, ejected.size());
+        }
+
+        if (ejected.isEmpty()) {
+            return candidates;
+        }
+
+        List<ServiceInstance> healthy = new ArrayList<>(candidates.size() - ejected.size());
+        for (ServiceInstance instance : candidates) {
+            if (ejected.stream().noneMatch(e -> e.instance() == instance)) {
+                healthy.add(instance);
+            }
+        }
+        return healthy;
+    }
+
+    /**
+     * Esquece o estado de uma instância (ex.: removida do service discovery).
+     */
+    public void forget(ServiceInstance instance) {
+        instances.remove(instanceKey(instance));
+    }
+
+    @EventListener
+    public void onDiscoveryChange(DiscoverySnapshotChangedEvent event) {
+        event.getRemoved().forEach(this::forget);
+    }
+
+    private Counter ejectionCounter(String serviceId) {
+        return Counter.builder("gateway.outlier.ejections")
+                .description("Instâncias ejetadas por falhas consecutivas")
+                .tag("service", serviceId)
+                .register(meterRegistry);
+    }
+
+    static String instanceKey(ServiceInstance instance) {
+        String instanceId = instance.getInstanceId();
+        return instanceId != null
+                ? instance.getServiceId() + "/" + instanceId
+                : instance.getServiceId() + "/" + instance.getHost() + ":" + instance.getPort();
+    }
+
+    private record Ejected(ServiceInstance instance, long until) {
+    }
+
+    /**
+     * Estado de saúde de uma instância. Falhas são contadas sem lock;
+     * apenas a transição para ejetado é sincronizada.
+     */
+    private static final class InstanceHealth {
+
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile long ejectedUntil;
+        private int ejectionCount;
+
+        void onSuccess(long now, long maxEjectionMs) {
+            if (consecutiveFailures.get() != 0) {
+                consecutiveFailures.set(0);
+            }
+            if (ejectionCount > 0 && now - ejectedUntil > maxEjectionMs) {
+                synchronized (this) {
+                    ejectionCount = 0;
+                }
+            }
+        }
+
+        /**
+         * @return duração da ejeção em ms, ou 0 se a instância não foi ejetada
+         */
+        long onFailure(long now, OutlierDetectionProperties properties) {
+            if (consecutiveFailures.incrementAndGet() < properties.getConsecutiveFailures()) {
+                return 0;
+            }
+
+            synchronized (this) {
+                if (ejectedUntil > now) {
+                    return 0;
+                }
+                consecutiveFailures.set(0);
+                ejectionCount++;
+
+                long base = properties.getBaseEjectionTime().toMillis();
+                long max = properties.getMaxEjectionTime().toMillis();
+                long duration = base << Math.min(ejectionCount - 1, 20);
+                duration = Math.min(duration, max);
+
+                ejectedUntil = now + duration;
+                return duration;
+            }
+        }
+    }
+}
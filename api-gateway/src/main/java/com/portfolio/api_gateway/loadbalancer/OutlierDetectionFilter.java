@@ -0,0 +1,81 @@
+package com.portfolio.api_gateway.loadbalancer;
+
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NonNull;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Filtro global que alimenta o {@link InstanceHealthRegistry} com o resultado
+ * de cada chamada à instância escolhida pelo load balancer.
+ *
+ * Posição na cadeia de filtros: logo após o ReactiveLoadBalancerClientFilter,
+ * por isso cada tentativa do filtro Retry é contabilizada na instância correta.
+ *
+ * Conta como falha:
+ * - Resposta 5xx do downstream
+ * - Falha de conexão / conexão encerrada prematuramente (IOException)
+ * - Timeout de resposta (TimeoutException ou 504 gerado pelo NettyRoutingFilter)
+ */
+@Component
+@RequiredArgsConstructor
+public class OutlierDetectionFilter implements GlobalFilter, Ordered {
+
+    private final InstanceHealthRegistry healthRegistry;
+
+    @Override
+    public @NonNull Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull GatewayFilterChain chain) {
+        Response<ServiceInstance> lbResponse =
+                exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return chain.filter(exchange);
+        }
+
+        ServiceInstance instance = lbResponse.getServer();
+
+        return chain.filter(exchange)
+                .doOnSuccess(v -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (status != null && status.is5xxServerError()) {
+                        healthRegistry.recordFailure(instance);
+                    } else {
+                        healthRegistry.recordSuccess(instance);
+                    }
+                })
+                .doOnError(e -> {
+                    if (isInstanceFailure(e)) {
+                        healthRegistry.recordFailure(instance);
+                    }
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER + 1;
+    }
+
+    private boolean isInstanceFailure(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof IOException || t instanceof TimeoutException) {
+                return true;
+            }
+            if (t instanceof ResponseStatusException rse && rse.getStatusCode().is5xxServerError()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
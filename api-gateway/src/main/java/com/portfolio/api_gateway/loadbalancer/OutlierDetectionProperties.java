@@ -0,0 +1,44 @@
+package com.portfolio.api_gateway.loadbalancer;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Propriedades da detecção passiva de outliers por instância downstream.
+ *
+ * Exemplo de configuração em application.yaml:
+ *
+ * gateway:
+ *   outlier-detection:
+ *     enabled: true
+ *     consecutive-failures: 5
+ *     base-ejection-time: 30s
+ *     max-ejection-time: 300s
+ *     max-ejection-percent: 50
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.outlier-detection")
+public class OutlierDetectionProperties {
+
+    /** Habilita ou desabilita a ejeção de instâncias. */
+    private boolean enabled = true;
+
+    /** Falhas consecutivas (5xx, falha de conexão, timeout) que disparam a ejeção. */
+    @Min(1)
+    private int consecutiveFailures = 5;
+
+    /** Tempo base de ejeção. Dobra a cada nova ejeção da mesma instância. */
+    private Duration baseEjectionTime = Duration.ofSeconds(30);
+
+    /** Teto do tempo de ejeção (backoff exponencial). */
+    private Duration maxEjectionTime = Duration.ofMinutes(5);
+
+    /** Percentual máximo de instâncias de um serviço que podem estar ejetadas ao mesmo tempo. */
+    @Min(0)
+    @Max(100)
+    private int maxEjectionPercent = 50;
+}
@@ -0,0 +1,31 @@
+package com.portfolio.api_gateway.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.DelegatingServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+
+/**
+ * Supplier do Spring Cloud LoadBalancer que remove da lista do Consul
+ * as instâncias ejetadas pelo {@link InstanceHealthRegistry}.
+ *
+ * O filtro é aplicado a cada seleção (não apenas quando o cache do Consul
+ * é renovado), de modo que ejeções e readmissões valem imediatamente.
+ */
+public class OutlierEjectionServiceInstanceListSupplier extends DelegatingServiceInstanceListSupplier {
+
+    private final InstanceHealthRegistry healthRegistry;
+
+    public OutlierEjectionServiceInstanceListSupplier(ServiceInstanceListSupplier delegate,
+                                                      InstanceHealthRegistry healthRegistry) {
+        super(delegate);
+        this.healthRegistry = healthRegistry;
+    }
+
+    @Override
+    public Flux<List<ServiceInstance>> get() {
+        return getDelegate().get().map(healthRegistry::filter);
+    }
+}
@@ -0,0 +1,295 @@
+package com.portfolio.api_gateway.projection;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.StreamReadConstraints;
+import com.portfolio.api_gateway.exception.InvalidFieldSelectionException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Filtro de rota FieldProjection: devolve apenas os campos pedidos no query parameter de projeção
+ * ({@code GET /api/v1/orders?fields=id,status,items.sku}), reduzindo o payload para o cliente.
+ *
+ * Uso em application.yaml:
+ *
+ * filters:
+ *   - FieldProjection
+ *
+ * O corpo é projetado em streaming ({@link JsonFieldProjector}): cada DataBuffer recebido do
+ * downstream é consumido pelo parser não bloqueante e o que já foi projetado segue ao cliente
+ * no mesmo passo, sem acumular a resposta. Aplica-se apenas a respostas 2xx JSON sem
+ * Content-Encoding; como o corpo muda, Content-Length e ETag são removidos. O Accept-Encoding
+ * é retirado da requisição ao downstream para que a resposta venha sem compressão.
+ *
+ * Posicionado antes do StaleResponseRecordingFilter: o decorator deste filtro envolve o da
+ * gravação, que continua armazenando a resposta completa do downstream.
+ *
+ * Métricas por rota: {@code gateway.projection.bytes{direction=in|out}} e
+ * {@code gateway.projection.failures} (JSON malformado ou acima dos limites).
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(FieldProjectionProperties.class)
+public class FieldProjectionGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<FieldProjectionGatewayFilterFactory.Config> {
+
+    static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+
+    private final FieldProjectionProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final JsonFactory jsonFactory;
+    private final Map<String, RouteMeters> metersByRoute = new ConcurrentHashMap<>();
+
+    public FieldProjectionGatewayFilterFactory(FieldProjectionProperties properties, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.jsonFactory = createJsonFactory(properties);
+    }
+
+    static JsonFactory createJsonFactory(FieldProjectionProperties properties) {
+        return JsonFactory.builder()
+                .streamReadConstraints(StreamReadConstraints.builder()
+                        .maxNestingDepth(properties.getMaxNestingDepth())
+                        .maxStringLength((int) Math.min(Integer.MAX_VALUE, properties.getMaxStringLength().toBytes()))
+                        .build())
+                .build();
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            String fields = exchange.getRequest().getQueryParams().getFirst(properties.getParameter());
+            if (!properties.isEnabled() || fields == null || fields.isBlank()) {
+                return chain.filter(exchange);
+            }
+
+            FieldSelection selection;
+            try {
+                selection = FieldSelection.parse(fields, properties.getMaxFields(), properties.getMaxFieldDepth());
+            } catch (InvalidFieldSelectionException e) {
+                return Mono.error(e);
+            }
+
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            String routeId = route != null ? route.getId() : "unknown";
+
+            ServerHttpRequest request = exchange.getRequest().mutate()
+                    .headers(headers -> headers.remove(HttpHeaders.ACCEPT_ENCODING))
+                    .build();
+            RouteMeters meters = metersByRoute.computeIfAbsent(routeId, this::createMeters);
+            ProjectingResponse response = new ProjectingResponse(exchange.getResponse(), selection, routeId, meters);
+            return chain.filter(exchange.mutate().request(request).response(response).build());
+        }, ORDER);
+    }
+
+    private RouteMeters createMeters(String routeId) {
+        return new RouteMeters(
+                bytesCounter(routeId, "in"),
+                bytesCounter(routeId, "out"),
+                Counter.builder("gateway.projection.failures")
+                        .description("Projeções interrompidas por JSON malformado ou acima dos limites")
+                        .tag("route", routeId)
+                        .register(meterRegistry));
+    }
+
+    private Counter bytesCounter(String routeId, String direction) {
+        return Counter.builder("gateway.projection.bytes")
+                .description("Bytes de respostas JSON antes (in) e depois (out) da projeção")
+                .baseUnit("bytes")
+                .tag("route", routeId)
+                .tag("direction", direction)
+                .register(meterRegistry);
+    }
+
+    private class ProjectingResponse extends ServerHttpResponseDecorator {
+
+        private final FieldSelection selection;
+        private final String routeId;
+        private final RouteMeters meters;
+
+        ProjectingResponse(ServerHttpResponse delegate, FieldSelection selection, String routeId, RouteMeters meters) {
+            super(delegate);
+            this.selection = selection;
+            this.routeId = routeId;
+            this.meters = meters;
+        }
+
+        @Override
+        public @NonNull Mono<Void> writeWith(@NonNull Publisher<? extends DataBuffer> body) {
+            if (!isProjectable()) {
+                return super.writeWith(body);
+            }
+            getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+            getHeaders().remove(HttpHeaders.ETAG);
+
+            Projection projection;
+            try {
+                projection = new Projection(jsonFactory, selection, bufferFactory());
+            } catch (IOException e) {
+                return Mono.error(e);
+            }
+
+            Flux<DataBuffer> projected = Flux.from(body)
+                    .<DataBuffer>handle((buffer, sink) -> {
+                        try {
+                            DataBuffer output = projection.feed(buffer);
+                            if (output != null) {
+                                sink.next(output);
+                            }
+                        } catch (IOException e) {
+                            sink.error(e);
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                    })
+                    .concatWith(Mono.fromCallable(projection::finish))
+                    .doOnError(IOException.class, e -> {
+                        meters.failures().increment();
+                        log.warn("Falha na projeção de campos; resposta interrompida",
+                                kv("event", "projection_failed"),
+                                kv("route_id", routeId),
+                                kv("bytes_in", projection.bytesIn),
+                                kv("error", e.getMessage()));
+                    })
+                    .doFinally(signal -> {
+                        meters.bytesIn().increment(projection.bytesIn);
+                        meters.bytesOut().increment(projection.bytesOut);
+                        projection.close();
+                    });
+            return super.writeWith(projected);
+        }
+
+        private boolean isProjectable() {
+            HttpStatusCode status = getStatusCode();
+            if (status == null || !status.is2xxSuccessful()) {
+                return false;
+            }
+            String encoding = getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING);
+            if (encoding != null && !"identity".equalsIgnoreCase(encoding)) {
+                return false;
+            }
+            MediaType contentType = getHeaders().getContentType();
+            return contentType != null
+                    && (contentType.isCompatibleWith(MediaType.APPLICATION_JSON)
+                    || contentType.getSubtype().endsWith("+json"));
+        }
+    }
+
+    private record RouteMeters(Counter bytesIn, Counter bytesOut, Counter failures) {
+    }
+
+    /**
+     * Estado da projeção de uma resposta: o {@link JsonFieldProjector} escreve no DataBuffer de
+     * saída do pedaço corrente, entregue ao cliente assim que o pedaço de entrada é consumido.
+     */
+    private static final class Projection extends OutputStream {
+
+        private final DataBufferFactory bufferFactory;
+        private final JsonFieldProjector projector;
+        private DataBuffer target;
+        private long bytesIn;
+        private long bytesOut;
+
+        Projection(JsonFactory jsonFactory, FieldSelection selection, DataBufferFactory bufferFactory)
+                throws IOException {
+            this.bufferFactory = bufferFactory;
+            this.projector = new JsonFieldProjector(jsonFactory, selection, this);
+        }
+
+        DataBuffer feed(DataBuffer input) throws IOException {
+            int readable = input.readableByteCount();
+            bytesIn += readable;
+            target = bufferFactory.allocateBuffer(readable);
+            try (DataBuffer.ByteBufferIterator buffers = input.readableByteBuffers()) {
+                while (buffers.hasNext()) {
+                    ByteBuffer buffer = buffers.next();
+                    if (buffer.hasRemaining()) {
+                        projector.feed(buffer);
+                    }
+                }
+            }
+            return take();
+        }
+
+        DataBuffer finish() throws IOException {
+            target = bufferFactory.allocateBuffer(256);
+            projector.finish();
+            return take();
+        }
+
+        /** Saída do pedaço corrente; {@code null} se nada foi projetado (ex.: subárvore descartada). */
+        private DataBuffer take() {
+            DataBuffer output = target;
+            target = null;
+            if (output.readableByteCount() == 0) {
+                DataBufferUtils.release(output);
+                return null;
+            }
+            bytesOut += output.readableByteCount();
+            return output;
+        }
+
+        // sem pedaço corrente (close após erro), o que o gerador ainda tiver em buffer é descartado
+        @Override
+        public void write(int b) {
+            if (target != null) {
+                target.write((byte) b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (target != null) {
+                target.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (target != null) {
+                DataBufferUtils.release(target);
+                target = null;
+            }
+            try {
+                projector.close();
+            } catch (IOException ignored) {
+                // parser e gerador só liberam buffers internos
+            }
+        }
+    }
+
+    /** Sem argumentos: parâmetro e limites vêm de gateway.projection. */
+    public static class Config {
+    }
+}
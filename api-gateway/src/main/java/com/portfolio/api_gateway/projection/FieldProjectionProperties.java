@@ -0,0 +1,43 @@
+package com.portfolio.api_gateway.projection;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Propriedades da projeção de campos em respostas JSON (filtro de rota FieldProjection).
+ *
+ * Exemplo de configuração em application.yaml:
+ *
+ * gateway:
+ *   projection:
+ *     parameter: fields
+ *     max-fields: 50
+ *     max-string-length: 8MB
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.projection")
+public class FieldProjectionProperties {
+
+    /** Habilita a projeção nas rotas com o filtro FieldProjection. */
+    private boolean enabled = true;
+
+    /** Query parameter com a seleção de campos (ex.: ?fields=id,status,items.sku). */
+    private String parameter = "fields";
+
+    /** Máximo de campos na seleção. */
+    @Min(1)
+    private int maxFields = 50;
+
+    /** Máximo de segmentos em um campo (a.b.c = 3). */
+    @Min(1)
+    private int maxFieldDepth = 8;
+
+    /** Aninhamento máximo aceito no corpo da resposta; acima disso a resposta é interrompida. */
+    @Min(1)
+    private int maxNestingDepth = 256;
+
+    /** Maior string aceita no corpo: limita a memória de um único token mantido pelo parser. */
+    private DataSize maxStringLength = DataSize.ofMegabytes(8);
+}
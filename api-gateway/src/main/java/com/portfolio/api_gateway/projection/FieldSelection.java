@@ -0,0 +1,82 @@
+package com.portfolio.api_gateway.projection;
+
+import com.portfolio.api_gateway.exception.InvalidFieldSelectionException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Seleção de campos em árvore, montada a partir do parâmetro de projeção
+ * ({@code fields=id,status,items.sku,customer.name}).
+ *
+ * Um nó folha seleciona o valor inteiro (objeto, array ou escalar). Arrays são transparentes:
+ * a seleção do array se aplica a cada elemento, então {@code items.sku} projeta todos os itens
+ * e, com um array na raiz, cada elemento é projetado pela seleção da raiz.
+ */
+final class FieldSelection {
+
+    private final Map<String, FieldSelection> children = new HashMap<>();
+
+    private FieldSelection() {
+    }
+
+    /**
+     * @throws InvalidFieldSelectionException seleção vazia, com segmentos vazios ou acima dos limites
+     */
+    static FieldSelection parse(String fields, int maxFields, int maxDepth) {
+        FieldSelection root = new FieldSelection();
+        int count = 0;
+        for (String field : fields.split(",")) {
+            String path = field.strip();
+            if (path.isEmpty()) {
+                continue;
+            }
+            if (++count > maxFields) {
+                throw new InvalidFieldSelectionException("No máximo " + maxFields + " campos podem ser selecionados.");
+            }
+            String[] segments = path.split("\\.", -1);
+            if (segments.length > maxDepth) {
+                throw new InvalidFieldSelectionException("Campo " + path + " excede a profundidade máxima de " + maxDepth + ".");
+            }
+            root.add(path, segments);
+        }
+        if (root.isLeaf()) {
+            throw new InvalidFieldSelectionException("Nenhum campo selecionado.");
+        }
+        return root;
+    }
+
+    private void add(String path, String[] segments) {
+        FieldSelection node = this;
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i].strip();
+            if (segment.isEmpty()) {
+                throw new InvalidFieldSelectionException("Campo inválido: " + path + ".");
+            }
+            FieldSelection child = node.children.get(segment);
+            if (child == null) {
+                child = new FieldSelection();
+                node.children.put(segment, child);
+            } else if (child.isLeaf()) {
+                // "customer" já seleciona o objeto inteiro: "customer.name" não restringe nada
+                return;
+            }
+            if (i == segments.length - 1) {
+                child.children.clear();
+            }
+            node = child;
+        }
+    }
+
+    boolean isLeaf() {
+        return children.isEmpty();
+    }
+
+    /**
+     * Seleção aplicada ao valor do campo {@code name}; {@code null} se o campo não foi selecionado.
+     * Dentro de um nó folha todos os campos são mantidos.
+     */
+    FieldSelection child(String name) {
+        return children.isEmpty() ? this : children.get(name);
+    }
+}
@@ -0,0 +1,164 @@
+package com.portfolio.api_gateway.projection;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Projeção incremental de um documento JSON: os bytes chegam em pedaços arbitrários
+ * ({@link #feed}), o parser não bloqueante do Jackson emite os tokens disponíveis e apenas os
+ * campos selecionados são escritos no {@link OutputStream}. Subárvores não selecionadas são
+ * descartadas token a token, sem materialização.
+ *
+ * Memória por documento: buffers do parser e do gerador, o maior token (string ou número) e
+ * uma entrada por nível de aninhamento aberto; nunca o documento inteiro.
+ *
+ * Não é thread-safe: uma instância por resposta, alimentada sequencialmente.
+ */
+final class JsonFieldProjector implements Closeable {
+
+    private final JsonParser parser;
+    private final ByteBufferFeeder feeder;
+    private final JsonGenerator generator;
+    private final FieldSelection root;
+
+    /** Seleção de cada container aberto; arrays herdam a seleção do campo que os contém. */
+    private FieldSelection[] stack = new FieldSelection[16];
+    private boolean[] inArray = new boolean[16];
+    private int depth;
+
+    /** Seleção do valor que segue o último FIELD_NAME mantido. */
+    private FieldSelection nextValue;
+    /** O próximo valor pertence a um campo descartado. */
+    private boolean skipNextValue;
+    /** Profundidade dentro de uma subárvore descartada (0 = não descartando). */
+    private int skipDepth;
+
+    JsonFieldProjector(JsonFactory factory, FieldSelection root, OutputStream out) throws IOException {
+        this.parser = factory.createNonBlockingByteBufferParser();
+        this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+        this.generator = factory.createGenerator(out);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+        this.root = root;
+    }
+
+    /**
+     * Processa um pedaço do documento e descarrega no {@link OutputStream} tudo o que já pode ser
+     * escrito. O buffer é totalmente consumido antes do retorno.
+     */
+    void feed(ByteBuffer input) throws IOException {
+        feeder.feedInput(input);
+        drain();
+        generator.flush();
+    }
+
+    /**
+     * Sinaliza o fim do documento.
+     *
+     * @throws IOException documento truncado ou malformado
+     */
+    void finish() throws IOException {
+        feeder.endOfInput();
+        drain();
+        generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            parser.close();
+        } finally {
+            generator.close();
+        }
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            process(token);
+        }
+    }
+
+    private void process(JsonToken token) throws IOException {
+        if (skipDepth > 0) {
+            if (token.isStructStart()) {
+                skipDepth++;
+            } else if (token.isStructEnd()) {
+                skipDepth--;
+            }
+            return;
+        }
+        if (skipNextValue) {
+            skipNextValue = false;
+            if (token.isStructStart()) {
+                skipDepth = 1;
+            }
+            return;
+        }
+
+        switch (token) {
+            case FIELD_NAME -> {
+                String name = parser.currentName();
+                FieldSelection child = stack[depth - 1].child(name);
+                if (child == null) {
+                    skipNextValue = true;
+                } else {
+                    generator.writeFieldName(name);
+                    nextValue = child;
+                }
+            }
+            case START_OBJECT -> {
+                push(valueSelection(), false);
+                generator.writeStartObject();
+            }
+            case START_ARRAY -> {
+                push(valueSelection(), true);
+                generator.writeStartArray();
+            }
+            case END_OBJECT -> {
+                depth--;
+                generator.writeEndObject();
+            }
+            case END_ARRAY -> {
+                depth--;
+                generator.writeEndArray();
+            }
+            case VALUE_STRING -> generator.writeString(
+                    parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+            // texto original: preserva precisão e formato sem converter para double/BigDecimal
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> generator.writeNumber(
+                    parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+            case VALUE_TRUE -> generator.writeBoolean(true);
+            case VALUE_FALSE -> generator.writeBoolean(false);
+            case VALUE_NULL -> generator.writeNull();
+            default -> throw new IOException("Token JSON inesperado: " + token);
+        }
+    }
+
+    /** Seleção do valor que começa agora: raiz, elemento de array ou valor de campo mantido. */
+    private FieldSelection valueSelection() {
+        if (depth == 0) {
+            return root;
+        }
+        return inArray[depth - 1] ? stack[depth - 1] : nextValue;
+    }
+
+    private void push(FieldSelection selection, boolean array) {
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+            inArray = Arrays.copyOf(inArray, depth * 2);
+        }
+        stack[depth] = selection;
+        inArray[depth] = array;
+        depth++;
+    }
+}
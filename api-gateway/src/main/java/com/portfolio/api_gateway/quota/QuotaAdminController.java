@@ -0,0 +1,31 @@
+package com.portfolio.api_gateway.quota;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Consulta do uso de quota de um consumidor (total global no Redis + deltas locais ainda não
+ * enviados por esta instância).
+ */
+@RestController
+@RequestMapping("/admin/quotas")
+@RequiredArgsConstructor
+public class QuotaAdminController {
+
+    private final QuotaService quotaService;
+
+    @GetMapping("/{consumer}")
+    public Mono<ConsumerQuotaUsage> usage(@PathVariable String consumer) {
+        return quotaService.usage(consumer)
+                .map(quotas -> new ConsumerQuotaUsage(consumer, quotas));
+    }
+
+    public record ConsumerQuotaUsage(String consumer, List<QuotaService.QuotaUsage> quotas) {
+    }
+}
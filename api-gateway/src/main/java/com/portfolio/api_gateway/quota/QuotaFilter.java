@@ -0,0 +1,76 @@
+package com.portfolio.api_gateway.quota;
+
+import com.portfolio.api_gateway.exception.QuotaExceededException;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NonNull;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+import java.time.Instant;
+
+/**
+ * Filtro global de quotas diárias/mensais por consumidor autenticado.
+ *
+ * Posição na cadeia de filtros: order=3 (logo após o rate limiting de curto prazo).
+ *
+ * A decisão é local ({@link QuotaService}): sem chamada ao Redis por requisição.
+ * Requisições anônimas não têm quota (continuam sujeitas ao rate limiting por IP).
+ *
+ * Headers informativos do período mais restrito: X-Quota-Limit, X-Quota-Remaining, X-Quota-Reset.
+ */
+@Component
+@RequiredArgsConstructor
+public class QuotaFilter implements GlobalFilter, Ordered {
+
+    private final QuotaService quotaService;
+    private final QuotaProperties properties;
+
+    @Override
+    public @NonNull Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull GatewayFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        return exchange.getPrincipal()
+                .map(Principal::getName)
+                .map(quotaService::tryConsume)
+                .flatMap(decision -> apply(exchange, decision))
+                .then(Mono.defer(() -> chain.filter(exchange)));
+    }
+
+    private Mono<Void> apply(ServerWebExchange exchange, QuotaService.QuotaDecision decision) {
+        if (decision.period() == null) {
+            return Mono.empty();
+        }
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        headers.set("X-Quota-Limit", String.valueOf(decision.limit()));
+        headers.set("X-Quota-Remaining", String.valueOf(decision.remaining()));
+        headers.set("X-Quota-Reset", String.valueOf(decision.resetAt().toEpochMilli()));
+
+        if (decision.allowed()) {
+            return Mono.empty();
+        }
+
+        long retryAfterSeconds = Math.max(1,
+                decision.resetAt().getEpochSecond() - Instant.now().getEpochSecond());
+        return Mono.error(new QuotaExceededException(
+                decision.period().tagValue(),
+                decision.period().description(),
+                decision.limit(),
+                decision.resetAt(),
+                retryAfterSeconds
+        ));
+    }
+
+    @Override
+    public int getOrder() {
+        return 3;
+    }
+}
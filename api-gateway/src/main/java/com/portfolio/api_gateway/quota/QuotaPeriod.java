@@ -0,0 +1,47 @@
+package com.portfolio.api_gateway.quota;
+
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Períodos de quota de longo prazo, alinhados ao calendário no fuso configurado.
+ */
+public enum QuotaPeriod {
+
+    DAILY("daily", "diária"),
+    MONTHLY("monthly", "mensal");
+
+    private final String tagValue;
+    private final String description;
+
+    QuotaPeriod(String tagValue, String description) {
+        this.tagValue = tagValue;
+        this.description = description;
+    }
+
+    public String tagValue() {
+        return tagValue;
+    }
+
+    public String description() {
+        return description;
+    }
+
+    /** Identificador do período corrente (ex.: 2026-10-18, 2026-10), usado na key do Redis. */
+    String periodId(ZonedDateTime now) {
+        return switch (this) {
+            case DAILY -> now.toLocalDate().toString();
+            case MONTHLY -> now.getYear() + "-" + (now.getMonthValue() < 10 ? "0" : "") + now.getMonthValue();
+        };
+    }
+
+    /** Início do próximo período. */
+    ZonedDateTime resetAt(ZonedDateTime now) {
+        ZonedDateTime startOfDay = now.truncatedTo(ChronoUnit.DAYS);
+        return switch (this) {
+            case DAILY -> startOfDay.plusDays(1);
+            case MONTHLY -> startOfDay.with(TemporalAdjusters.firstDayOfNextMonth());
+        };
+    }
+}
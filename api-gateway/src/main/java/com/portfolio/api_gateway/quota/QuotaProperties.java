@@ -0,0 +1,86 @@
+package com.portfolio.api_gateway.quota;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Propriedades das quotas de longo prazo (diária/mensal) por consumidor autenticado.
+ *
+ * Exemplo de configuração em application.yaml:
+ *
+ * gateway:
+ *   quota:
+ *     enabled: true
+ *     flush-interval: 1s
+ *     overshoot-tolerance: 0.001
+ *     default-limits:
+ *       monthly: 1000000
+ *     consumers:
+ *       partner-acme:
+ *         daily: 200000
+ *         monthly: 5000000
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.quota")
+public class QuotaProperties {
+
+    /** Habilita a verificação de quotas. */
+    private boolean enabled = false;
+
+    /** Intervalo do flush dos deltas locais para o Redis (e leitura do total global). */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * Uso local ainda não sincronizado tolerado por contador, como fração do limite. Ao atingi-lo,
+     * o flush é antecipado; limita o quanto cada instância decide "às cegas" entre flushes.
+     */
+    private double overshootTolerance = 0.001;
+
+    /** Keys por EVAL no flush. */
+    @Min(1)
+    private int flushBatchSize = 500;
+
+    /** Consumidores sem uso por este tempo saem da memória (deltas pendentes seguem no flush). */
+    private Duration idleEviction = Duration.ofMinutes(10);
+
+    /** Fuso das viradas de dia e mês. */
+    private ZoneId zone = ZoneId.of("UTC");
+
+    /** Prefixo das keys no Redis. */
+    private String keyPrefix = "quota:";
+
+    /** Limites aplicados a consumidores sem configuração específica. */
+    private Limits defaultLimits = new Limits();
+
+    /** Limites por consumidor (principal). */
+    private Map<String, Limits> consumers = new HashMap<>();
+
+    public Limits limitsFor(String consumer) {
+        return consumers.getOrDefault(consumer, defaultLimits);
+    }
+
+    @Data
+    public static class Limits {
+
+        /** Requisições por dia; 0 = sem quota diária. */
+        @Min(0)
+        private long daily = 0;
+
+        /** Requisições por mês; 0 = sem quota mensal. */
+        @Min(0)
+        private long monthly = 1_000_000;
+
+        public long limit(QuotaPeriod period) {
+            return switch (period) {
+                case DAILY -> daily;
+                case MONTHLY -> monthly;
+            };
+        }
+    }
+}
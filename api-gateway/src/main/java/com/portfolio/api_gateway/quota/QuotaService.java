@@ -0,0 +1,510 @@
+package com.portfolio.api_gateway.quota;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Quotas diárias/mensais com escrita adiada (write-behind) no Redis.
+ *
+ * O caminho da requisição não acessa o Redis:
+ * - Uso acumulado localmente em {@link LongAdder} (striped) por consumidor e período
+ * - A decisão compara o total global conhecido no último flush + o uso local ainda não enviado
+ *   com o limite
+ *
+ * A cada {@code flush-interval} a thread "quota-flush" envia os deltas em lote (um EVAL de
+ * scripts/quota_flush.lua por {@code flush-batch-size} keys) e recebe de volta o total global de
+ * cada contador, que passa a ser a base das decisões locais. Contadores ativos sem delta também
+ * entram no lote (delta 0) para atualizar a visão do uso feito por outras instâncias.
+ *
+ * Entre flushes cada instância decide sem ver as demais; quando o uso local não sincronizado de um
+ * contador atinge {@code overshoot-tolerance} do limite o flush é antecipado. Falhas do Redis
+ * devolvem os deltas ao acumulador (nada é perdido) e as decisões seguem com a última visão.
+ *
+ * No shutdown o flush em curso é aguardado antes do flush final, que envia o que restou.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(QuotaProperties.class)
+public class QuotaService {
+
+    private static final Duration SHUTDOWN_FLUSH_TIMEOUT = Duration.ofSeconds(5);
+
+    /** Folga do TTL além do fim do período (consulta do uso do período anterior). */
+    private static final long TTL_SLACK_SECONDS = Duration.ofDays(1).toSeconds();
+
+    private final QuotaProperties properties;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final RedisScript<List<Long>> flushScript;
+    private final LongSupplier clock;
+
+    private final Map<String, ConsumerQuota> consumers = new ConcurrentHashMap<>();
+    private final Queue<QuotaCounter> retired = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+    private final AtomicBoolean earlyFlushRequested = new AtomicBoolean();
+
+    private final Map<QuotaPeriod, Counter> rejected = new EnumMap<>(QuotaPeriod.class);
+    private final Timer flushTimer;
+    private final Counter flushFailures;
+
+    private ScheduledExecutorService scheduler;
+
+    /** Flush em curso (resultado compartilhado), aguardado pelo shutdown. */
+    private volatile Mono<Void> inFlightFlush;
+
+    @Autowired
+    public QuotaService(QuotaProperties properties,
+                        ReactiveStringRedisTemplate redisTemplate,
+                        @Qualifier("quotaFlushScript") RedisScript<List<Long>> flushScript,
+                        MeterRegistry meterRegistry) {
+        this(properties, redisTemplate, flushScript, meterRegistry, System::currentTimeMillis);
+    }
+
+    QuotaService(QuotaProperties properties,
+                 ReactiveStringRedisTemplate redisTemplate,
+                 RedisScript<List<Long>> flushScript,
+                 MeterRegistry meterRegistry,
+                 LongSupplier clock) {
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.flushScript = flushScript;
+        this.clock = clock;
+
+        for (QuotaPeriod period : QuotaPeriod.values()) {
+            rejected.put(period, Counter.builder("gateway.quota.rejected")
+                    .description("Requisições rejeitadas por quota esgotada")
+                    .tag("period", period.tagValue())
+                    .register(meterRegistry));
+        }
+        this.flushTimer = Timer.builder("gateway.quota.flush.duration")
+                .description("Duração do flush em lote dos contadores de quota")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("gateway.quota.flush.failures")
+                .description("Lotes de flush de quota que falharam (deltas devolvidos ao acumulador)")
+                .register(meterRegistry);
+        Gauge.builder("gateway.quota.consumers", consumers, Map::size)
+                .description("Consumidores com contadores de quota em memória")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "quota-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getFlushInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        try {
+            // flush() já iniciado termina de preparar o lote e publica inFlightFlush
+            scheduler.awaitTermination(SHUTDOWN_FLUSH_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            Mono<Void> running = inFlightFlush;
+            if (running != null) {
+                running.block(SHUTDOWN_FLUSH_TIMEOUT);
+            }
+            // último flush: deltas pendentes não se perdem em deploys
+            Mono<Void> last = flushBatches();
+            if (last != null) {
+                last.block(SHUTDOWN_FLUSH_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Falha no flush final de quotas", kv("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Consome uma unidade de todas as quotas do consumidor, se nenhuma estiver esgotada.
+     */
+    public QuotaDecision tryConsume(String consumer) {
+        long now = clock.getAsLong();
+        ConsumerQuota quota = consumers.computeIfAbsent(consumer,
+                c -> new ConsumerQuota(c, properties.limitsFor(c)));
+        quota.lastAccess = now;
+        QuotaCounter[] counters = quota.counters(now);
+
+        QuotaCounter tightest = null;
+        long tightestRemaining = Long.MAX_VALUE;
+        for (QuotaCounter counter : counters) {
+            if (counter == null) {
+                continue;
+            }
+            long remaining = counter.limit - counter.used();
+            if (remaining <= 0) {
+                rejected.get(counter.period).increment();
+                return QuotaDecision.exceeded(counter.period, counter.limit, counter.resetAt);
+            }
+            if (remaining < tightestRemaining) {
+                tightest = counter;
+                tightestRemaining = remaining;
+            }
+        }
+        if (tightest == null) {
+            return QuotaDecision.UNLIMITED;
+        }
+
+        for (QuotaCounter counter : counters) {
+            if (counter != null) {
+                counter.pending.increment();
+                // contador aposentado (virada de período ou consumidor removido) depois de obtido
+                if (counter.retiredFlag) {
+                    requeue(counter);
+                }
+                if (counter.pending.sum() >= counter.overshootAllowance) {
+                    requestEarlyFlush();
+                }
+            }
+        }
+        return QuotaDecision.allowed(tightest.period, tightest.limit, tightestRemaining - 1, tightest.resetAt);
+    }
+
+    /**
+     * Uso atual do consumidor: total global lido do Redis + uso local ainda não enviado.
+     */
+    public Mono<List<QuotaUsage>> usage(String consumer) {
+        ZonedDateTime now = ZonedDateTime.now(properties.getZone());
+        QuotaProperties.Limits limits = properties.limitsFor(consumer);
+        ConsumerQuota tracked = consumers.get(consumer);
+
+        List<QuotaPeriod> periods = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        for (QuotaPeriod period : QuotaPeriod.values()) {
+            if (limits.limit(period) > 0) {
+                periods.add(period);
+                keys.add(redisKey(consumer, period, period.periodId(now)));
+            }
+        }
+        if (keys.isEmpty()) {
+            return Mono.just(List.of());
+        }
+
+        return redisTemplate.opsForValue().multiGet(keys)
+                .map(values -> {
+                    List<QuotaUsage> usage = new ArrayList<>(periods.size());
+                    for (int i = 0; i < periods.size(); i++) {
+                        QuotaPeriod period = periods.get(i);
+                        String value = values.get(i);
+                        long global = value != null ? Long.parseLong(value) : 0;
+                        long local = tracked != null ? tracked.unflushed(period, keys.get(i)) : 0;
+                        long limit = limits.limit(period);
+                        long used = global + local;
+                        usage.add(new QuotaUsage(period.tagValue(), period.periodId(now), limit, used,
+                                Math.max(0, limit - used), local, period.resetAt(now).toInstant()));
+                    }
+                    return usage;
+                });
+    }
+
+    /**
+     * Aposenta um contador: não recebe mais uso novo, mas o que já acumulou segue no próximo flush.
+     * A flag é escrita antes de ler pending e o tryConsume faz o inverso (incrementa, depois lê a
+     * flag): um incremento concorrente é visto aqui ou recoloca o contador na fila ele mesmo.
+     */
+    private void retire(QuotaCounter counter) {
+        counter.retiredFlag = true;
+        if (counter.pending.sum() > 0) {
+            requeue(counter);
+        }
+    }
+
+    /** Enfileira um contador aposentado para o próximo flush, no máximo uma vez por ciclo. */
+    private void requeue(QuotaCounter counter) {
+        if (counter.queued.compareAndSet(false, true)) {
+            retired.add(counter);
+        }
+    }
+
+    private void requestEarlyFlush() {
+        if (scheduler != null && !scheduler.isShutdown() && earlyFlushRequested.compareAndSet(false, true)) {
+            scheduler.execute(this::flush);
+        }
+    }
+
+    void flush() {
+        earlyFlushRequested.set(false);
+        try {
+            Mono<Void> batches = flushBatches();
+            if (batches != null) {
+                Mono<Void> running = batches.cache();
+                inFlightFlush = running;
+                running.subscribe();
+            }
+        } catch (Exception e) {
+            log.warn("Falha ao preparar flush de quotas", kv("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Retira os deltas acumulados e envia em lotes. Devolve null quando um flush já está em curso.
+     */
+    private Mono<Void> flushBatches() {
+        if (!flushing.compareAndSet(false, true)) {
+            return null;
+        }
+        long now = clock.getAsLong();
+        List<QuotaCounter> counters = new ArrayList<>();
+
+        long idleMillis = properties.getIdleEviction().toMillis();
+        for (String consumer : consumers.keySet()) {
+            consumers.computeIfPresent(consumer, (c, quota) -> {
+                if (now - quota.lastAccess < idleMillis) {
+                    return quota;
+                }
+                quota.retireAll();
+                return null;
+            });
+        }
+        QuotaCounter retiredCounter;
+        while ((retiredCounter = retired.poll()) != null) {
+            counters.add(retiredCounter);
+        }
+        int drained = counters.size();
+        for (ConsumerQuota quota : consumers.values()) {
+            for (QuotaCounter counter : quota.active) {
+                // aposentados em paralelo (virada de período) chegam pela fila
+                if (counter != null && !counter.retiredFlag) {
+                    counters.add(counter);
+                }
+            }
+        }
+        for (int i = 0; i < counters.size(); i++) {
+            QuotaCounter counter = counters.get(i);
+            if (i < drained) {
+                // liberado antes de ler pending: incrementos posteriores voltam a enfileirar
+                counter.queued.set(false);
+            }
+            counter.inFlight = counter.pending.sumThenReset();
+        }
+
+        int batchSize = properties.getFlushBatchSize();
+        List<List<QuotaCounter>> batches = new ArrayList<>();
+        for (int i = 0; i < counters.size(); i += batchSize) {
+            batches.add(counters.subList(i, Math.min(counters.size(), i + batchSize)));
+        }
+
+        long start = System.nanoTime();
+        Runnable done = () -> {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            flushing.set(false);
+        };
+        // doOnTerminate (e não doFinally): a flag é liberada antes de quem aguarda o flush ser notificado
+        return Flux.fromIterable(batches)
+                .concatMap(this::flushBatch)
+                .then()
+                .doOnTerminate(done)
+                .doOnCancel(done);
+    }
+
+    private Mono<Void> flushBatch(List<QuotaCounter> batch) {
+        List<String> keys = new ArrayList<>(batch.size());
+        List<String> args = new ArrayList<>(batch.size() * 2);
+        for (QuotaCounter counter : batch) {
+            keys.add(counter.redisKey);
+            args.add(Long.toString(counter.inFlight));
+            args.add(Long.toString(counter.ttlSeconds));
+        }
+
+        return redisTemplate.execute(flushScript, keys, args)
+                .next()
+                .doOnNext(totals -> {
+                    for (int i = 0; i < batch.size() && i < totals.size(); i++) {
+                        QuotaCounter counter = batch.get(i);
+                        counter.flushedTotal = totals.get(i);
+                        counter.inFlight = 0;
+                    }
+                })
+                .then()
+                .onErrorResume(e -> {
+                    flushFailures.increment();
+                    for (QuotaCounter counter : batch) {
+                        counter.pending.add(counter.inFlight);
+                        counter.inFlight = 0;
+                        if (counter.retiredFlag) {
+                            requeue(counter);
+                        }
+                    }
+                    log.warn("Falha no flush de quotas; deltas mantidos para o próximo ciclo",
+                            kv("keys", batch.size()), kv("error", e.getMessage()));
+                    return Mono.empty();
+                });
+    }
+
+    private String redisKey(String consumer, QuotaPeriod period, String periodId) {
+        // hash tag por consumidor: os contadores de um consumidor ficam no mesmo slot
+        return properties.getKeyPrefix() + "{" + consumer + "}:" + period.tagValue() + ":" + periodId;
+    }
+
+    /**
+     * Resultado da verificação de quota; {@code period} é o período mais restrito (ou o esgotado).
+     */
+    public record QuotaDecision(boolean allowed, QuotaPeriod period, long limit, long remaining, Instant resetAt) {
+
+        static final QuotaDecision UNLIMITED = new QuotaDecision(true, null, 0, 0, null);
+
+        static QuotaDecision allowed(QuotaPeriod period, long limit, long remaining, Instant resetAt) {
+            return new QuotaDecision(true, period, limit, remaining, resetAt);
+        }
+
+        static QuotaDecision exceeded(QuotaPeriod period, long limit, Instant resetAt) {
+            return new QuotaDecision(false, period, limit, 0, resetAt);
+        }
+    }
+
+    /**
+     * Uso de um período para o endpoint administrativo.
+     */
+    public record QuotaUsage(String period, String periodId, long limit, long used, long remaining,
+                             long unflushedLocal, Instant resetAt) {
+    }
+
+    /**
+     * Contadores correntes de um consumidor (um por período com limite); trocados na virada do período.
+     */
+    private final class ConsumerQuota {
+
+        private final String consumer;
+        private final QuotaProperties.Limits limits;
+        private volatile QuotaCounter[] active = new QuotaCounter[QuotaPeriod.values().length];
+        private volatile long validUntil;
+        private volatile long lastAccess;
+
+        ConsumerQuota(String consumer, QuotaProperties.Limits limits) {
+            this.consumer = consumer;
+            this.limits = limits;
+        }
+
+        QuotaCounter[] counters(long nowMillis) {
+            if (nowMillis < validUntil) {
+                return active;
+            }
+            synchronized (this) {
+                if (nowMillis < validUntil) {
+                    return active;
+                }
+                ZonedDateTime now = Instant.ofEpochMilli(nowMillis).atZone(properties.getZone());
+                QuotaCounter[] next = new QuotaCounter[QuotaPeriod.values().length];
+                long nextValidUntil = Long.MAX_VALUE;
+                for (QuotaPeriod period : QuotaPeriod.values()) {
+                    long limit = limits.limit(period);
+                    if (limit <= 0) {
+                        continue;
+                    }
+                    String periodId = period.periodId(now);
+                    QuotaCounter previous = active[period.ordinal()];
+                    if (previous != null && previous.periodId.equals(periodId)) {
+                        next[period.ordinal()] = previous;
+                    } else {
+                        if (previous != null) {
+                            retire(previous);
+                        }
+                        next[period.ordinal()] = new QuotaCounter(period, periodId,
+                                redisKey(consumer, period, periodId), limit, now.toInstant(),
+                                period.resetAt(now).toInstant(), properties.getOvershootTolerance());
+                    }
+                    nextValidUntil = Math.min(nextValidUntil, next[period.ordinal()].resetAt.toEpochMilli());
+                }
+                active = next;
+                validUntil = nextValidUntil;
+                return next;
+            }
+        }
+
+        long unflushed(QuotaPeriod period, String redisKey) {
+            QuotaCounter counter = active[period.ordinal()];
+            return counter != null && counter.redisKey.equals(redisKey)
+                    ? counter.pending.sum() + counter.inFlight
+                    : 0;
+        }
+
+        /** Consumidor removido por ociosidade: deltas restantes e incrementos tardios seguem pela fila. */
+        void retireAll() {
+            for (QuotaCounter counter : active) {
+                if (counter != null) {
+                    retire(counter);
+                }
+            }
+        }
+    }
+
+    private static final class QuotaCounter {
+
+        private final QuotaPeriod period;
+        private final String periodId;
+        private final String redisKey;
+        private final long limit;
+        private final Instant resetAt;
+        private final long ttlSeconds;
+        private final long overshootAllowance;
+        private final LongAdder pending = new LongAdder();
+
+        /** Total global retornado pelo último flush (inclui os deltas desta instância). */
+        private volatile long flushedTotal;
+
+        /** Delta retirado do acumulador e ainda sem confirmação do Redis. */
+        private volatile long inFlight;
+
+        private volatile boolean retiredFlag;
+
+        /** Presente na fila de aposentados (evita a mesma key duas vezes num lote). */
+        private final AtomicBoolean queued = new AtomicBoolean();
+
+        QuotaCounter(QuotaPeriod period, String periodId, String redisKey, long limit, Instant now, Instant resetAt,
+                     double overshootTolerance) {
+            this.period = period;
+            this.periodId = periodId;
+            this.redisKey = redisKey;
+            this.limit = limit;
+            this.resetAt = resetAt;
+            this.ttlSeconds = Math.max(1, Duration.between(now, resetAt).toSeconds()) + TTL_SLACK_SECONDS;
+            this.overshootAllowance = Math.max(1, (long) (limit * overshootTolerance));
+        }
+
+        long used() {
+            return flushedTotal + inFlight + pending.sum();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.portfolio.api_gateway.ratelimit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Anel de hash consistente imutável com nós virtuais.
+ *
+ * Cada membro ocupa {@code virtualNodes} posições no anel (hash de "id#i"); a key pertence ao
+ * primeiro ponto no sentido horário. Remover um membro move apenas as keys dele (≈ 1/N), que se
+ * espalham entre os demais; adicionar move apenas as keys que passam a ser dele.
+ *
+ * Keys com hash tag do Redis Cluster ({@code prefix:{tag}:suffix}) são posicionadas pelo conteúdo
+ * da tag, de modo que keys relacionadas de um script ficam no mesmo nó.
+ *
+ * Alterações de membros criam um novo anel ({@link #of}); a leitura é lock-free.
+ */
+final class ConsistentHashRing<T> {
+
+    private final long[] points;
+    private final Object[] owners;
+    private final List<T> members;
+
+    private ConsistentHashRing(long[] points, Object[] owners, List<T> members) {
+        this.points = points;
+        this.owners = owners;
+        this.members = members;
+    }
+
+    static <T> ConsistentHashRing<T> of(List<T> members, Function<T, String> id, int virtualNodes) {
+        int size = members.size() * virtualNodes;
+        long[] hashes = new long[size];
+        int[] memberIndex = new int[size];
+        Integer[] order = new Integer[size];
+
+        int n = 0;
+        for (int m = 0; m < members.size(); m++) {
+            String memberId = id.apply(members.get(m));
+            for (int v = 0; v < virtualNodes; v++) {
+                byte[] label = (memberId + "#" + v).getBytes(StandardCharsets.UTF_8);
+                hashes[n] = hash(label, 0, label.length);
+                memberIndex[n] = m;
+                order[n] = n;
+                n++;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(hashes[a], hashes[b]));
+
+        long[] points = new long[size];
+        Object[] owners = new Object[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = hashes[order[i]];
+            owners[i] = members.get(memberIndex[order[i]]);
+        }
+        return new ConsistentHashRing<>(points, owners, List.copyOf(members));
+    }
+
+    List<T> members() {
+        return members;
+    }
+
+    boolean isEmpty() {
+        return points.length == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    T locate(byte[] key) {
+        if (points.length == 0) {
+            throw new IllegalStateException("Anel sem membros");
+        }
+        long hash = hashKey(key);
+        int index = Arrays.binarySearch(points, hash);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return (T) owners[index == points.length ? 0 : index];
+    }
+
+    /**
+     * Hash da key respeitando hash tags: se houver "{...}" não vazio, apenas o conteúdo da
+     * primeira tag é considerado (mesma regra do Redis Cluster).
+     */
+    static long hashKey(byte[] key) {
+        for (int open = 0; open < key.length; open++) {
+            if (key[open] == '{') {
+                for (int close = open + 1; close < key.length; close++) {
+                    if (key[close] == '}') {
+                        return close > open + 1
+                                ? hash(key, open + 1, close)
+                                : hash(key, 0, key.length);
+                    }
+                }
+                break;
+            }
+        }
+        return hash(key, 0, key.length);
+    }
+
+    /**
+     * FNV-1a 64 bits seguido do finalizador do MurmurHash3 (melhor avalanche nos bits altos).
+     */
+    static long hash(byte[] data, int from, int to) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = from; i < to; i++) {
+            h ^= data[i] & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
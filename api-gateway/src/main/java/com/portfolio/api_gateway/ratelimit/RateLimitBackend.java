@@ -0,0 +1,16 @@
+package com.portfolio.api_gateway.ratelimit;
+
+/**
+ * Backend que aplica uma política de rate limiting.
+ */
+public enum RateLimitBackend {
+
+    /** Sliding window exato no Redis ({@link RedisRateLimiter}). */
+    REDIS,
+
+    /**
+     * Contadores em memória trocados entre as instâncias por gossip (G-counters). Limite global
+     * aproximado, sem Redis no caminho da requisição.
+     */
+    GOSSIP
+}
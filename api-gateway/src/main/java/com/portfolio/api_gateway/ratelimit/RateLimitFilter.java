@@ -1,6 +1,12 @@
 package com.portfolio.api_gateway.ratelimit;
 
 import com.portfolio.api_gateway.exception.RateLimitExceededException;
+import com.portfolio.api_gateway.filter.ClientIp;
+import com.portfolio.api_gateway.heavyhitter.Dimension;
+import com.portfolio.api_gateway.heavyhitter.HeavyHitterTracker;
+import com.portfolio.api_gateway.security.apikey.ApiKeyAuthenticationToken;
+import com.portfolio.api_gateway.timing.Phase;
+import com.portfolio.api_gateway.timing.PhaseTimings;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NonNull;
@@ -26,9 +32,13 @@ import java.time.Instant;
  * Fluxo:
  * 1. Extrai a chave identificadora via KeyResolver (User ID do JWT ou IP)
  * 2. Identifica a rota e seleciona a política de rate limiting correspondente
+ *    (tier da API key, se houver política para ele; senão a política da rota)
  * 3. Executa o script Lua atómico no Redis (Sliding Window)
  * 4. Se permitido: adiciona headers informativos e continua o chain
  * 5. Se bloqueado: retorna 429 Too Many Requests com Retry-After
+ *
+ * A chave composta, o IP do cliente e a rota alimentam o {@link HeavyHitterTracker};
+ * chaves sob auto-throttle são rejeitadas antes da chamada ao Redis.
  */
 @Slf4j
 @Component
@@ -39,6 +49,7 @@ public class RateLimitFilter implements GlobalFilter, Ordered {
     private final RateLimiterService rateLimiterService;
     private final RateLimitProperties properties;
     private final KeyResolver userKeyResolver;
+    private final HeavyHitterTracker heavyHitters;
 
     @Override
     public @NonNull Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull GatewayFilterChain chain) {
@@ -52,12 +63,29 @@ public class RateLimitFilter implements GlobalFilter, Ordered {
         }
 
         String routeId = route.getId();
-        RateLimitPolicy policy = resolvePolicy(routeId);
+        RateLimitPolicy policy = resolvePolicy(routeId, exchange.getAttribute(ApiKeyAuthenticationToken.TIER_ATTRIBUTE));
+        PhaseTimings timings = PhaseTimings.of(exchange);
 
         return userKeyResolver.resolve(exchange)
                 .flatMap(key -> {
                     String compositeKey = routeId + ":" + key;
-                    return rateLimiterService.isAllowed(compositeKey, policy);
+                    String clientIp = ClientIp.resolve(exchange);
+
+                    heavyHitters.record(Dimension.CONSUMER, compositeKey);
+                    heavyHitters.record(Dimension.CLIENT_IP, clientIp);
+                    heavyHitters.record(Dimension.ROUTE, routeId);
+
+                    if (heavyHitters.isThrottled(Dimension.CONSUMER, compositeKey)
+                            || heavyHitters.isThrottled(Dimension.CLIENT_IP, clientIp)) {
+                        return Mono.<RateLimitResult>error(heavyHitterThrottled(policy));
+                    }
+
+                    if (timings == null) {
+                        return rateLimiterService.isAllowed(compositeKey, policy);
+                    }
+                    long start = System.nanoTime();
+                    return rateLimiterService.isAllowed(compositeKey, policy)
+                            .doFinally(signal -> timings.recordSince(Phase.RATE_LIMIT, start));
                 })
                 .flatMap(result -> {
                     ServerHttpResponse response = exchange.getResponse();
@@ -89,7 +117,23 @@ public class RateLimitFilter implements GlobalFilter, Ordered {
         return 2;
     }
 
-    private RateLimitPolicy resolvePolicy(String routeId) {
+    private RateLimitExceededException heavyHitterThrottled(RateLimitPolicy policy) {
+        long retryAfterSeconds = Math.max(1, heavyHitters.throttleRetryAfter().toSeconds());
+        return new RateLimitExceededException(
+                policy.getMaxRequests(),
+                0,
+                Instant.now().plusSeconds(retryAfterSeconds),
+                retryAfterSeconds
+        );
+    }
+
+    private RateLimitPolicy resolvePolicy(String routeId, String tier) {
+        if (tier != null) {
+            RateLimitProperties.PolicyConfig tierPolicy = properties.getTierPolicies().get(tier);
+            if (tierPolicy != null) {
+                return tierPolicy.toPolicy();
+            }
+        }
         RateLimitProperties.PolicyConfig routePolicy = properties.getRoutePolicies().get(routeId);
         if (routePolicy != null) {
             return routePolicy.toPolicy();
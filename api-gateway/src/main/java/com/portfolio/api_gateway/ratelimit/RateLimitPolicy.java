@@ -24,6 +24,10 @@ public class RateLimitPolicy {
     @Min(1)
     private long windowMs;
 
+    /** Backend que aplica a política. */
+    @Builder.Default
+    private RateLimitBackend backend = RateLimitBackend.REDIS;
+
     public long getWindowMillis() {
         return windowMs;
     }
@@ -4,7 +4,10 @@ import jakarta.validation.constraints.Min;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -22,6 +25,18 @@ import java.util.Map;
  *       orders-service:
  *         max-requests: 10
  *         window-ms: 60000
+ *       products-service:
+ *         max-requests: 1000
+ *         window-ms: 60000
+ *         backend: gossip
+ *     tier-policies:
+ *       partner-gold:
+ *         max-requests: 5000
+ *         window-ms: 60000
+ *     redis:
+ *       nodes: redis-rl-1:6379,redis-rl-2:6379,redis-rl-3:6379
+ *       connections: 4
+ *       timeout: 500ms
  */
 @Data
 @ConfigurationProperties(prefix = "gateway.rate-limit")
@@ -36,6 +51,13 @@ public class RateLimitProperties {
     /** Políticas especificas por route ID. */
     private Map<String, PolicyConfig> routePolicies = new HashMap<>();
 
+    /** Políticas por tier de API key; têm precedência sobre as políticas de rota. */
+    private Map<String, PolicyConfig> tierPolicies = new HashMap<>();
+
+    /** Cliente Redis dedicado ao rate limiting ({@link RateLimitRedisClient}). */
+    private Redis redis = new Redis();
+
+    @Data
     public static class PolicyConfig {
         @Min(1)
         private long maxRequests = 100;
@@ -43,11 +65,58 @@ public class RateLimitProperties {
         @Min(1)
         private long windowMs = 60000;
 
+        /** REDIS (exato) ou GOSSIP (aproximado, em memória; requer gateway.rate-limit.gossip.enabled). */
+        private RateLimitBackend backend = RateLimitBackend.REDIS;
+
         public RateLimitPolicy toPolicy() {
             return RateLimitPolicy.builder()
                     .maxRequests(maxRequests)
                     .windowMs(windowMs)
+                    .backend(backend)
                     .build();
         }
     }
+
+    @Data
+    public static class Redis {
+
+        /** Host do Redis do rate limiting quando {@code nodes} está vazio (padrão: spring.data.redis.host). */
+        private String host = "localhost";
+
+        private int port = 6379;
+
+        /**
+         * Nós Redis independentes ("host:port") entre os quais o estado é particionado por hash
+         * consistente da key. Vazio usa apenas host/port.
+         */
+        private List<String> nodes = new ArrayList<>();
+
+        /** Posições de cada nó no anel de hash consistente. */
+        @Min(1)
+        private int virtualNodes = 160;
+
+        /** Falhas consecutivas até o nó sair do anel. */
+        @Min(1)
+        private int failureThreshold = 3;
+
+        /** Intervalo do PING para nós fora do anel. */
+        private Duration probeInterval = Duration.ofSeconds(1);
+
+        private String password;
+
+        private int database;
+
+        /**
+         * Conexões multiplexadas por nó. Cada uma fica presa a uma thread de I/O própria e as
+         * requisições são distribuídas entre elas em round-robin.
+         */
+        @Min(1)
+        private int connections = 4;
+
+        /** Timeout por comando; em timeout o rate limit falha aberto. */
+        private Duration timeout = Duration.ofMillis(500);
+
+        /** Timeout de conexão. */
+        private Duration connectTimeout = Duration.ofSeconds(2);
+    }
 }
@@ -0,0 +1,378 @@
+package com.portfolio.api_gateway.ratelimit;
+
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisCommandExecutionException;
+import io.lettuce.core.RedisNoScriptException;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.output.CommandOutput;
+import io.lettuce.core.protocol.CommandArgs;
+import io.lettuce.core.protocol.CommandType;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Cliente Redis dedicado ao rate limiting, separado da conexão compartilhada do Spring Data.
+ *
+ * - Script Lua carregado (SCRIPT LOAD) em cada conexão ao conectar e chamado por EVALSHA;
+ *   NOSCRIPT (Redis reiniciado, SCRIPT FLUSH) recarrega o script e repete uma vez
+ * - Codec de bytes: a key é codificada uma vez em UTF-8 e os argumentos numéricos são escritos
+ *   como inteiros direto no buffer do comando, sem String.valueOf
+ * - Resposta {count, ttl, allowed} decodificada por um {@link CommandOutput} próprio em campos
+ *   primitivos, sem List&lt;Long&gt;
+ * - N conexões multiplexadas por nó, cada uma presa a uma thread de I/O própria do Lettuce,
+ *   escolhidas em round-robin
+ *
+ * Com mais de um nó ({@code gateway.rate-limit.redis.nodes}) o estado é particionado por
+ * {@link ConsistentHashRing} sobre a key (respeitando hash tags). Após {@code failure-threshold}
+ * falhas consecutivas o nó sai do anel e apenas as keys dele migram para os vizinhos; um PING
+ * periódico o devolve ao anel quando volta a responder. Keys migradas recomeçam a janela no nó
+ * novo (o rate limit fica mais permissivo por no máximo uma janela). Sem nenhum nó saudável os
+ * comandos seguem para o dono original e falham, e o rate limit falha aberto.
+ *
+ * Latência por conexão em {@code gateway.ratelimit.redis.duration{node,connection}} e estado dos
+ * nós em {@code gateway.ratelimit.redis.node.up{node}}.
+ * Conexões são abertas sob demanda: Redis indisponível no startup não impede a subida do gateway.
+ */
+@Slf4j
+@Component
+public class RateLimitRedisClient {
+
+    private final ClientResources clientResources;
+    private final RedisClient redisClient;
+    private final byte[] script;
+    private final String scriptSha;
+    private final int failureThreshold;
+    private final Duration probeInterval;
+    private final int virtualNodes;
+    private final List<Node> nodes = new ArrayList<>();
+
+    private volatile ConsistentHashRing<Node> ring;
+    private final ConsistentHashRing<Node> fullRing;
+    private ScheduledExecutorService scheduler;
+
+    public RateLimitRedisClient(RateLimitProperties properties,
+                                @Qualifier("rateLimitScript") RedisScript<List<Long>> rateLimitScript,
+                                MeterRegistry meterRegistry) {
+        RateLimitProperties.Redis config = properties.getRedis();
+        List<String> endpoints = config.getNodes().isEmpty()
+                ? List.of(config.getHost() + ":" + config.getPort())
+                : config.getNodes();
+
+        this.clientResources = DefaultClientResources.builder()
+                .ioThreadPoolSize(config.getConnections() * endpoints.size())
+                .computationThreadPoolSize(1)
+                .build();
+
+        this.redisClient = RedisClient.create(clientResources);
+        this.redisClient.setOptions(ClientOptions.builder()
+                .autoReconnect(true)
+                // comandos com a conexão caída falham na hora (contam como falha do nó) em vez de enfileirar
+                .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+                .timeoutOptions(TimeoutOptions.enabled(config.getTimeout()))
+                .socketOptions(SocketOptions.builder().connectTimeout(config.getConnectTimeout()).build())
+                .build());
+
+        this.script = rateLimitScript.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+        this.scriptSha = rateLimitScript.getSha1();
+        this.failureThreshold = config.getFailureThreshold();
+        this.probeInterval = config.getProbeInterval();
+        this.virtualNodes = config.getVirtualNodes();
+
+        for (String endpoint : endpoints) {
+            Node node = new Node(endpoint.trim(), redisUri(endpoint.trim(), config), config.getConnections(),
+                    meterRegistry);
+            Gauge.builder("gateway.ratelimit.redis.node.up", node, n -> n.up ? 1 : 0)
+                    .description("Nó Redis do rate limiting no anel (1) ou fora por falhas (0)")
+                    .tag("node", node.id)
+                    .register(meterRegistry);
+            nodes.add(node);
+        }
+        this.fullRing = ConsistentHashRing.of(nodes, n -> n.id, virtualNodes);
+        this.ring = fullRing;
+    }
+
+    @PostConstruct
+    void start() {
+        if (nodes.size() < 2) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "rate-limit-redis-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = probeInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::probeDownNodes, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Executa o script de sliding window para a key já prefixada, no nó dono da key.
+     */
+    public Mono<Reply> evalRateLimit(byte[] key, long now, long windowStart, long maxRequests, long windowMillis) {
+        ConsistentHashRing<Node> current = ring;
+        Node node = current.isEmpty() ? fullRing.locate(key) : current.locate(key);
+        Slot slot = node.nextSlot();
+        return slot.connection()
+                .flatMap(connection -> slot.timed(evalsha(connection, key, now, windowStart, maxRequests, windowMillis))
+                        .onErrorResume(RedisNoScriptException.class, e -> connection.reactive().scriptLoad(script)
+                                .then(slot.timed(evalsha(connection, key, now, windowStart, maxRequests, windowMillis)))))
+                .doOnNext(reply -> node.onSuccess())
+                .doOnError(e -> node.onFailure(e));
+    }
+
+    /**
+     * Nó responsável pela key no anel atual (apenas nós saudáveis).
+     */
+    String nodeFor(byte[] key) {
+        ConsistentHashRing<Node> current = ring;
+        return (current.isEmpty() ? fullRing : current).locate(key).id;
+    }
+
+    /**
+     * "prefix{key}" em UTF-8: a key vai numa hash tag para que as keys auxiliares do script
+     * ("gen_id:" + key) fiquem no mesmo nó do anel e no mesmo slot do Redis Cluster.
+     */
+    static byte[] encodeKey(String prefix, String key) {
+        return (prefix + '{' + key + '}').getBytes(StandardCharsets.UTF_8);
+    }
+
+    private Mono<Reply> evalsha(StatefulRedisConnection<byte[], byte[]> connection, byte[] key, long now,
+                                long windowStart, long maxRequests, long windowMillis) {
+        return Mono.defer(() -> {
+            CommandArgs<byte[], byte[]> args = new CommandArgs<>(ByteArrayCodec.INSTANCE)
+                    .add(scriptSha)
+                    .add(1)
+                    .addKey(key)
+                    .add(now)
+                    .add(windowStart)
+                    .add(maxRequests)
+                    .add(windowMillis);
+            return connection.reactive().dispatch(CommandType.EVALSHA, new ReplyOutput(), args).next();
+        });
+    }
+
+    private void probeDownNodes() {
+        for (Node node : nodes) {
+            if (node.up) {
+                continue;
+            }
+            node.slots[0].connection()
+                    .flatMap(connection -> connection.reactive().ping())
+                    .timeout(probeInterval)
+                    .subscribe(pong -> node.markUp(), e -> {
+                        // continua fora do anel
+                    });
+        }
+    }
+
+    private synchronized void rebuildRing() {
+        List<Node> healthy = nodes.stream().filter(n -> n.up).toList();
+        ring = ConsistentHashRing.of(healthy, n -> n.id, virtualNodes);
+        log.warn("Anel de nós Redis do rate limiting atualizado",
+                kv("healthy", healthy.stream().map(n -> n.id).toList()), kv("total", nodes.size()));
+    }
+
+    @PreDestroy
+    void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        for (Node node : nodes) {
+            for (Slot slot : node.slots) {
+                slot.close();
+            }
+        }
+        redisClient.shutdown();
+        clientResources.shutdown();
+    }
+
+    private static RedisURI redisUri(String endpoint, RateLimitProperties.Redis config) {
+        int colon = endpoint.lastIndexOf(':');
+        RedisURI.Builder uri = RedisURI.builder()
+                .withHost(colon > 0 ? endpoint.substring(0, colon) : endpoint)
+                .withPort(colon > 0 ? Integer.parseInt(endpoint.substring(colon + 1)) : 6379)
+                .withDatabase(config.getDatabase())
+                .withTimeout(config.getTimeout());
+        if (config.getPassword() != null && !config.getPassword().isEmpty()) {
+            uri.withPassword(config.getPassword().toCharArray());
+        }
+        return uri.build();
+    }
+
+    /**
+     * Resposta do script: requisições na janela, TTL da key (ms) e se a requisição foi aceita.
+     */
+    public record Reply(long count, long ttlMillis, boolean allowed) {
+    }
+
+    /**
+     * Decodifica o array de 3 inteiros do script sem boxing.
+     */
+    private static final class ReplyOutput extends CommandOutput<byte[], byte[], Reply> {
+
+        private int index;
+        private long count;
+        private long ttlMillis;
+        private long allowed;
+
+        ReplyOutput() {
+            super(ByteArrayCodec.INSTANCE, null);
+        }
+
+        @Override
+        public void set(long integer) {
+            switch (index++) {
+                case 0 -> count = integer;
+                case 1 -> ttlMillis = integer;
+                case 2 -> allowed = integer;
+                default -> {
+                    // campos extras ignorados
+                }
+            }
+        }
+
+        @Override
+        public Reply get() {
+            return new Reply(count, ttlMillis, allowed == 1);
+        }
+    }
+
+    private final class Node {
+
+        private final String id;
+        private final RedisURI uri;
+        private final Slot[] slots;
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile boolean up = true;
+
+        Node(String id, RedisURI uri, int connections, MeterRegistry meterRegistry) {
+            this.id = id;
+            this.uri = uri;
+            this.slots = new Slot[connections];
+            for (int i = 0; i < connections; i++) {
+                Timer timer = Timer.builder("gateway.ratelimit.redis.duration")
+                        .description("Latência dos comandos do rate limiting por conexão Redis")
+                        .tag("node", id)
+                        .tag("connection", String.valueOf(i))
+                        .publishPercentileHistogram()
+                        .register(meterRegistry);
+                slots[i] = new Slot(this, i, timer);
+            }
+        }
+
+        Slot nextSlot() {
+            return slots[(next.getAndIncrement() & Integer.MAX_VALUE) % slots.length];
+        }
+
+        void onSuccess() {
+            if (consecutiveFailures.get() != 0) {
+                consecutiveFailures.set(0);
+            }
+        }
+
+        void onFailure(Throwable e) {
+            if (e instanceof RedisCommandExecutionException) {
+                // erro do script, o nó está respondendo
+                return;
+            }
+            if (consecutiveFailures.incrementAndGet() >= failureThreshold && up && nodes.size() > 1) {
+                up = false;
+                log.warn("Nó Redis do rate limiting removido do anel", kv("node", id),
+                        kv("failures", consecutiveFailures.get()), kv("error", e.getMessage()));
+                rebuildRing();
+            }
+        }
+
+        void markUp() {
+            consecutiveFailures.set(0);
+            if (!up) {
+                up = true;
+                log.info("Nó Redis do rate limiting de volta ao anel", kv("node", id));
+                rebuildRing();
+            }
+        }
+    }
+
+    private final class Slot {
+
+        private final Node node;
+        private final int index;
+        private final Timer timer;
+        private final Mono<StatefulRedisConnection<byte[], byte[]>> connection;
+        private volatile StatefulRedisConnection<byte[], byte[]> current;
+
+        Slot(Node node, int index, Timer timer) {
+            this.node = node;
+            this.index = index;
+            this.timer = timer;
+            // erros não são cacheados: a próxima requisição tenta conectar de novo; depois de aberta,
+            // a reconexão fica a cargo do autoReconnect do Lettuce
+            this.connection = Mono.fromCompletionStage(() -> redisClient.connectAsync(ByteArrayCodec.INSTANCE, node.uri))
+                    .flatMap(conn -> conn.reactive().scriptLoad(script)
+                            .doOnNext(sha -> {
+                                if (!sha.equalsIgnoreCase(scriptSha)) {
+                                    log.warn("SHA do script de rate limit diverge do calculado localmente",
+                                            kv("expected", scriptSha), kv("actual", sha));
+                                }
+                            })
+                            .thenReturn(conn)
+                            .onErrorResume(e -> {
+                                conn.closeAsync();
+                                return Mono.error(e);
+                            }))
+                    .doOnNext(conn -> {
+                        current = conn;
+                        log.info("Conexão Redis do rate limiting aberta", kv("node", node.id),
+                                kv("connection", index));
+                    })
+                    .doOnError(e -> log.warn("Falha ao conectar Redis do rate limiting",
+                            kv("node", node.id), kv("connection", index), kv("error", e.getMessage())))
+                    .cacheInvalidateIf(conn -> false);
+        }
+
+        Mono<StatefulRedisConnection<byte[], byte[]>> connection() {
+            return connection;
+        }
+
+        <T> Mono<T> timed(Mono<T> command) {
+            return Mono.defer(() -> {
+                long start = System.nanoTime();
+                return command.doFinally(signal -> timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+            });
+        }
+
+        void close() {
+            StatefulRedisConnection<byte[], byte[]> conn = current;
+            if (conn != null) {
+                conn.close();
+            }
+        }
+    }
+}
@@ -2,13 +2,10 @@ package com.portfolio.api_gateway.ratelimit;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.ReactiveRedisTemplate;
-import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
 import java.time.Instant;
-import java.util.List;
 
 /**
  * Implementação do rate limiter distribuído usando Redis com algoritmo Sliding Window Log.
@@ -22,52 +19,37 @@ import java.util.List;
  * 2. Conta requisições na janela atual
  * 3. Adiciona nova entrada se dentro do limite
  * 4. Define TTL para limpeza automática
+ *
+ * O script é executado pelo {@link RateLimitRedisClient} (EVALSHA, codec de bytes, conexões dedicadas).
  */
 @Slf4j
 @Service("customRedisRateLimiter")
 @RequiredArgsConstructor
 public class RedisRateLimiter implements RateLimiterService {
 
-    private final ReactiveRedisTemplate<String, String> redisTemplate;
-    private final RedisScript<List<Long>> rateLimitScript;
+    private final RateLimitRedisClient redisClient;
 
     private static final String KEY_PREFIX = "rate_limit:";
 
     @Override
     public Mono<RateLimitResult> isAllowed(String key, RateLimitPolicy policy) {
         long now = Instant.now().toEpochMilli();
-        String redisKey = KEY_PREFIX + key;
+        byte[] redisKey = RateLimitRedisClient.encodeKey(KEY_PREFIX, key);
         long windowStart = now - policy.getWindowMillis();
 
-        return redisTemplate.execute(
-                rateLimitScript,
-                List.of(redisKey),
-                List.of(
-                        String.valueOf(now),
-                        String.valueOf(windowStart),
-                        String.valueOf(policy.getMaxRequests()),
-                        String.valueOf(policy.getWindowMillis())
-                )
-        )
-                .next()
-                .map(result -> {
-                    long currentCount = result.get(0);
-                    long ttl = result.get(1);
-                    boolean allowed = currentCount <= policy.getMaxRequests();
-
-                    return RateLimitResult.builder()
-                            .allowed(allowed)
-                            .limit(policy.getMaxRequests())
-                            .remaining(Math.max(0, policy.getMaxRequests() - currentCount))
-                            .resetAt(Instant.now().plusMillis(ttl))
-                            .build();
-                })
-                .doOnError(e -> log.error("Erro ao executar rate limiting para key={}: {}", redisKey, e.getMessage()))
+        return redisClient.evalRateLimit(redisKey, now, windowStart, policy.getMaxRequests(), policy.getWindowMillis())
+                .map(reply -> RateLimitResult.builder()
+                        .allowed(reply.allowed())
+                        .limit(policy.getMaxRequests())
+                        .remaining(Math.max(0, policy.getMaxRequests() - reply.count()))
+                        .resetAt(Instant.ofEpochMilli(now + reply.ttlMillis()))
+                        .build())
+                .doOnError(e -> log.error("Erro ao executar rate limiting para key={}: {}", key, e.getMessage()))
                 .onErrorReturn(RateLimitResult.builder()
                         .allowed(true)
                         .limit(policy.getMaxRequests())
                         .remaining(policy.getMaxRequests())
-                        .resetAt(Instant.now().plusMillis(policy.getWindowMillis()))
+                        .resetAt(Instant.ofEpochMilli(now + policy.getWindowMillis()))
                         .build());
     }
 }
@@ -0,0 +1,48 @@
+package com.portfolio.api_gateway.ratelimit;
+
+import com.portfolio.api_gateway.ratelimit.gossip.GossipRateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Escolhe o backend de cada política ({@link RateLimitPolicy#getBackend()}).
+ *
+ * Políticas GOSSIP com o backend desabilitado caem no Redis (com um aviso no log), para que
+ * habilitar o gossip em uma rota nunca desligue o rate limiting dela.
+ */
+@Slf4j
+@Primary
+@Service
+public class RoutingRateLimiterService implements RateLimiterService {
+
+    private final RedisRateLimiter redisRateLimiter;
+    private final GossipRateLimiter gossipRateLimiter;
+    private final AtomicBoolean gossipFallbackLogged = new AtomicBoolean();
+
+    public RoutingRateLimiterService(RedisRateLimiter redisRateLimiter,
+                                     ObjectProvider<GossipRateLimiter> gossipRateLimiter) {
+        this.redisRateLimiter = redisRateLimiter;
+        this.gossipRateLimiter = gossipRateLimiter.getIfAvailable();
+    }
+
+    @Override
+    public Mono<RateLimitResult> isAllowed(String key, RateLimitPolicy policy) {
+        if (policy.getBackend() == RateLimitBackend.GOSSIP) {
+            if (gossipRateLimiter != null) {
+                return gossipRateLimiter.isAllowed(key, policy);
+            }
+            if (gossipFallbackLogged.compareAndSet(false, true)) {
+                log.warn("Política com backend gossip, mas gateway.rate-limit.gossip.enabled=false; usando Redis",
+                        kv("key", key));
+            }
+        }
+        return redisRateLimiter.isAllowed(key, policy);
+    }
+}
@@ -0,0 +1,66 @@
+package com.portfolio.api_gateway.ratelimit.gossip;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.List;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Peers a partir das instâncias do próprio gateway no discovery (Consul).
+ *
+ * A porta UDP vem do metadata {@code gossip-port} de cada instância (padrão: a porta local).
+ * A lista é atualizada em background a cada {@code peer-refresh-interval}; falhas do discovery
+ * mantêm a última lista conhecida.
+ */
+@Slf4j
+class DiscoveryGossipPeerProvider implements GossipPeerProvider {
+
+    static final String GOSSIP_PORT_METADATA = "gossip-port";
+
+    private final ReactiveDiscoveryClient discoveryClient;
+    private final GossipRateLimitProperties properties;
+
+    private volatile List<InetSocketAddress> peers = List.of();
+
+    DiscoveryGossipPeerProvider(ReactiveDiscoveryClient discoveryClient, GossipRateLimitProperties properties) {
+        this.discoveryClient = discoveryClient;
+        this.properties = properties;
+    }
+
+    @Override
+    public List<InetSocketAddress> peers() {
+        return peers;
+    }
+
+    /**
+     * Consulta o discovery; chamado pelo agendador do {@link GossipRateLimiter}.
+     */
+    void refresh() {
+        Duration timeout = properties.getPeerRefreshInterval();
+        discoveryClient.getInstances(properties.getServiceId())
+                .map(this::address)
+                .collectList()
+                .timeout(timeout)
+                .subscribe(
+                        addresses -> {
+                            if (!addresses.equals(peers)) {
+                                log.info("Peers do rate limiting por gossip atualizados",
+                                        kv("service_id", properties.getServiceId()), kv("peers", addresses.size()));
+                            }
+                            peers = addresses;
+                        },
+                        e -> log.warn("Falha ao atualizar peers do gossip; mantendo a lista anterior",
+                                kv("error", e.getMessage())));
+    }
+
+    private InetSocketAddress address(ServiceInstance instance) {
+        String port = instance.getMetadata().get(GOSSIP_PORT_METADATA);
+        return new InetSocketAddress(instance.getHost(),
+                port != null ? Integer.parseInt(port) : properties.getPort());
+    }
+}
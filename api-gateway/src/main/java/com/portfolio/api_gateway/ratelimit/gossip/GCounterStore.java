@@ -0,0 +1,265 @@
+package com.portfolio.api_gateway.ratelimit.gossip;
+
+import com.portfolio.api_gateway.cache.BoundedCaches;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Contadores de rate limiting como G-counters por (key, janela fixa).
+ *
+ * Cada nó incrementa apenas a própria entrada; entradas de outros nós chegam por gossip e são
+ * combinadas por máximo, o que torna o merge comutativo, associativo e idempotente (pacotes
+ * duplicados, reordenados ou repetidos pela anti-entropia não alteram o resultado).
+ *
+ * A decisão usa a aproximação de sliding window com duas janelas fixas:
+ * {@code anterior * (1 - fração decorrida) + atual}, comparada ao limite da política.
+ *
+ * Memória limitada: no máximo {@code maxKeys} keys (merges remotos não criam keys acima do
+ * limite; keys locais despejam as menos usadas, via {@link BoundedCaches}) e
+ * {@code maxNodesPerWindow} nós remotos por janela.
+ */
+final class GCounterStore {
+
+    private final String nodeId;
+    private final LongSupplier clock;
+    private final int maxKeys;
+    private final int maxNodesPerWindow;
+    private final ConcurrentMap<String, KeyState> keys;
+    private final AtomicLong changes = new AtomicLong();
+
+    GCounterStore(String nodeId, LongSupplier clock, int maxKeys, int maxNodesPerWindow) {
+        this.nodeId = nodeId;
+        this.clock = clock;
+        this.maxKeys = maxKeys;
+        this.maxNodesPerWindow = maxNodesPerWindow;
+        this.keys = BoundedCaches.<String, KeyState>bounded(maxKeys, (key, state, cause) -> markRemoved(state)).asMap();
+    }
+
+    String nodeId() {
+        return nodeId;
+    }
+
+    int size() {
+        return keys.size();
+    }
+
+    /** Marca monotônica das alterações locais; usada para enviar apenas o que mudou. */
+    long changeStamp() {
+        return changes.get();
+    }
+
+    /**
+     * Consome uma permissão se a estimativa global estiver abaixo do limite.
+     */
+    Decision tryAcquire(String key, long maxRequests, long windowMs) {
+        long now = clock.getAsLong();
+        while (true) {
+            KeyState state = keys.computeIfAbsent(key, k -> new KeyState(windowMs));
+            synchronized (state) {
+                if (!state.removed) {
+                    return acquire(state, now, maxRequests);
+                }
+            }
+            // removida entre o lookup e o lock: a contagem iria para um estado órfão
+            keys.remove(key, state);
+        }
+    }
+
+    /** Chamado com o lock da key. */
+    private Decision acquire(KeyState state, long now, long maxRequests) {
+        state.roll(now);
+        double estimate = state.estimate(now);
+        boolean allowed = estimate < maxRequests;
+        if (allowed) {
+            state.current.local++;
+            state.version = changes.incrementAndGet();
+            estimate++;
+        }
+        long resetAt = (state.current.index + 1) * state.windowMs;
+        return new Decision(allowed, (long) Math.ceil(estimate), resetAt);
+    }
+
+    /**
+     * Estimativa global atual da key (sem consumir).
+     */
+    double estimate(String key) {
+        KeyState state = keys.get(key);
+        if (state == null) {
+            return 0;
+        }
+        long now = clock.getAsLong();
+        synchronized (state) {
+            state.roll(now);
+            return state.estimate(now);
+        }
+    }
+
+    /**
+     * Combina a contagem de um nó remoto para uma janela. Janelas que não são a atual nem a
+     * anterior (atrasadas ou de um relógio adiantado) são ignoradas, assim como keys novas com o
+     * store cheio e nós novos em janelas que já têm {@code maxNodesPerWindow} nós.
+     */
+    void merge(String key, long windowMs, long windowIndex, String node, long count) {
+        if (nodeId.equals(node)) {
+            return;
+        }
+        long now = clock.getAsLong();
+        KeyState state = keys.get(key);
+        if (state == null) {
+            if (keys.size() >= maxKeys) {
+                return;
+            }
+            state = keys.computeIfAbsent(key, k -> new KeyState(windowMs));
+        }
+        synchronized (state) {
+            if (state.removed || state.windowMs != windowMs) {
+                return;
+            }
+            state.roll(now);
+            Window window = state.current.index == windowIndex ? state.current
+                    : state.previous != null && state.previous.index == windowIndex ? state.previous
+                    : null;
+            if (window != null
+                    && (window.remote.containsKey(node) || window.remote.size() < maxNodesPerWindow)) {
+                window.remote.merge(node, count, Math::max);
+            }
+        }
+    }
+
+    /**
+     * Estado das keys alteradas localmente depois de {@code sinceStamp} (ou de todas, com -1),
+     * incluindo as entradas dos demais nós para propagação transitiva.
+     */
+    List<Entry> snapshot(long sinceStamp) {
+        long now = clock.getAsLong();
+        List<Entry> entries = new ArrayList<>();
+        keys.forEach((key, state) -> {
+            synchronized (state) {
+                if (state.version <= sinceStamp) {
+                    return;
+                }
+                state.roll(now);
+                state.current.addTo(entries, key, state.windowMs, nodeId);
+                if (state.previous != null) {
+                    state.previous.addTo(entries, key, state.windowMs, nodeId);
+                }
+            }
+        });
+        return entries;
+    }
+
+    /**
+     * Remove keys sem contagem nas duas últimas janelas.
+     */
+    void expire() {
+        long now = clock.getAsLong();
+        removeIf(state -> state.current.index < now / state.windowMs - 1);
+    }
+
+    /**
+     * Remove as keys que satisfazem a condição, avaliada sob o lock de cada key; o estado removido
+     * é marcado para que um {@link #tryAcquire} concorrente refaça o lookup. A remoção do mapa
+     * acontece fora do lock da key: o despejo do cache toma os locks na ordem inversa
+     * ({@link #markRemoved} roda durante a remoção da entrada).
+     */
+    private void removeIf(Predicate<KeyState> condition) {
+        for (Map.Entry<String, KeyState> entry : keys.entrySet()) {
+            KeyState state = entry.getValue();
+            boolean remove;
+            synchronized (state) {
+                remove = !state.removed && condition.test(state);
+                if (remove) {
+                    state.removed = true;
+                }
+            }
+            if (remove) {
+                keys.remove(entry.getKey(), state);
+            }
+        }
+    }
+
+    /** Chamado pelo cache ao despejar uma key pelo limite de tamanho. */
+    private static void markRemoved(KeyState state) {
+        synchronized (state) {
+            state.removed = true;
+        }
+    }
+
+    record Decision(boolean allowed, long count, long resetAtMillis) {
+    }
+
+    /**
+     * Contagens de uma key em uma janela, por nó.
+     */
+    record Entry(String key, long windowMs, long windowIndex, Map<String, Long> counts) {
+    }
+
+    private static final class KeyState {
+
+        private final long windowMs;
+        private Window current;
+        private Window previous;
+        private long version;
+        private boolean removed;
+
+        KeyState(long windowMs) {
+            this.windowMs = windowMs;
+        }
+
+        void roll(long now) {
+            long index = now / windowMs;
+            if (current == null) {
+                current = new Window(index);
+            } else if (index == current.index + 1) {
+                previous = current;
+                current = new Window(index);
+            } else if (index > current.index + 1) {
+                previous = null;
+                current = new Window(index);
+            }
+        }
+
+        double estimate(long now) {
+            double elapsed = (double) (now % windowMs) / windowMs;
+            double previousTotal = previous != null && previous.index == current.index - 1 ? previous.total() : 0;
+            return previousTotal * (1.0 - elapsed) + current.total();
+        }
+    }
+
+    private static final class Window {
+
+        private final long index;
+        private final Map<String, Long> remote = new HashMap<>();
+        private long local;
+
+        Window(long index) {
+            this.index = index;
+        }
+
+        long total() {
+            long total = local;
+            for (long count : remote.values()) {
+                total += count;
+            }
+            return total;
+        }
+
+        void addTo(List<Entry> entries, String key, long windowMs, String nodeId) {
+            if (local == 0 && remote.isEmpty()) {
+                return;
+            }
+            Map<String, Long> counts = new HashMap<>(remote);
+            if (local > 0) {
+                counts.put(nodeId, local);
+            }
+            entries.add(new Entry(key, windowMs, index, counts));
+        }
+    }
+}
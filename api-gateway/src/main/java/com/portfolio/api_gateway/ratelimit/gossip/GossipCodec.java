@@ -0,0 +1,158 @@
+package com.portfolio.api_gateway.ratelimit.gossip;
+
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Formato binário dos datagramas de gossip.
+ *
+ * <pre>
+ * int magic | byte version | utf sender | long sentAtMillis | short entries | entry* | byte[32] hmac
+ *   entry: utf key | long windowMs | long windowIndex | short nodes | (utf node | long count)*
+ * </pre>
+ *
+ * O HMAC-SHA256 (segredo compartilhado entre as instâncias) cobre todo o datagrama; datagramas
+ * sem assinatura válida são descartados antes do parse.
+ *
+ * Entradas são agrupadas em datagramas de até {@code maxPacketBytes}; uma entrada nunca é
+ * dividida entre datagramas.
+ */
+final class GossipCodec {
+
+    private static final int MAGIC = 0x47524C31; // "GRL1"
+    private static final byte VERSION = 2;
+    static final int MAC_BYTES = 32;
+
+    private GossipCodec() {
+    }
+
+    record Packet(String sender, long sentAtMillis, List<GCounterStore.Entry> entries) {
+    }
+
+    /**
+     * @param mac HMAC-SHA256 já inicializado com o segredo; não é thread-safe (um por thread)
+     */
+    static List<byte[]> encode(String sender, long sentAtMillis, List<GCounterStore.Entry> entries,
+                               int maxPacketBytes, Mac mac) {
+        byte[] header = header(sender, sentAtMillis);
+        List<byte[]> packets = new ArrayList<>();
+        int maxPayloadBytes = maxPacketBytes - MAC_BYTES;
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream(maxPacketBytes);
+        int count = 0;
+        for (GCounterStore.Entry entry : entries) {
+            byte[] encoded = encodeEntry(entry);
+            if (header.length + 2 + encoded.length > maxPayloadBytes) {
+                continue; // entrada maior que um datagrama (key muito longa ou muitos nós)
+            }
+            if (count > 0 && (header.length + 2 + body.size() + encoded.length > maxPayloadBytes
+                    || count == Short.MAX_VALUE)) {
+                packets.add(packet(header, count, body, mac));
+                body.reset();
+                count = 0;
+            }
+            body.writeBytes(encoded);
+            count++;
+        }
+        if (count > 0) {
+            packets.add(packet(header, count, body, mac));
+        }
+        return packets;
+    }
+
+    /**
+     * @throws IOException datagrama truncado, de outro protocolo ou com assinatura inválida
+     */
+    static Packet decode(byte[] data, int length, Mac mac) throws IOException {
+        int payloadLength = length - MAC_BYTES;
+        if (payloadLength <= 0) {
+            throw new IOException("Datagrama de gossip inválido");
+        }
+        mac.update(data, 0, payloadLength);
+        byte[] expected = mac.doFinal();
+        byte[] actual = new byte[MAC_BYTES];
+        System.arraycopy(data, payloadLength, actual, 0, MAC_BYTES);
+        if (!MessageDigest.isEqual(expected, actual)) {
+            throw new IOException("Assinatura do datagrama de gossip inválida");
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(data, 0, payloadLength));
+        if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+            throw new IOException("Datagrama de gossip inválido");
+        }
+        String sender = in.readUTF();
+        long sentAt = in.readLong();
+        int entryCount = in.readUnsignedShort();
+
+        List<GCounterStore.Entry> entries = new ArrayList<>(entryCount);
+        for (int i = 0; i < entryCount; i++) {
+            String key = in.readUTF();
+            long windowMs = in.readLong();
+            long windowIndex = in.readLong();
+            int nodes = in.readUnsignedShort();
+            Map<String, Long> counts = new HashMap<>(nodes * 2);
+            for (int n = 0; n < nodes; n++) {
+                counts.put(in.readUTF(), in.readLong());
+            }
+            entries.add(new GCounterStore.Entry(key, windowMs, windowIndex, counts));
+        }
+        return new Packet(sender, sentAt, entries);
+    }
+
+    private static byte[] header(String sender, long sentAtMillis) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeUTF(sender);
+            out.writeLong(sentAtMillis);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encodeEntry(GCounterStore.Entry entry) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + entry.counts().size() * 24);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(entry.key());
+            out.writeLong(entry.windowMs());
+            out.writeLong(entry.windowIndex());
+            out.writeShort(entry.counts().size());
+            for (Map.Entry<String, Long> count : entry.counts().entrySet()) {
+                out.writeUTF(count.getKey());
+                out.writeLong(count.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] packet(byte[] header, int count, ByteArrayOutputStream body, Mac mac) {
+        int payloadLength = header.length + 2 + body.size();
+        byte[] packet = new byte[payloadLength + MAC_BYTES];
+        System.arraycopy(header, 0, packet, 0, header.length);
+        packet[header.length] = (byte) (count >>> 8);
+        packet[header.length + 1] = (byte) count;
+        System.arraycopy(body.toByteArray(), 0, packet, header.length + 2, body.size());
+        mac.update(packet, 0, payloadLength);
+        try {
+            mac.doFinal(packet, payloadLength);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException(e);
+        }
+        return packet;
+    }
+}
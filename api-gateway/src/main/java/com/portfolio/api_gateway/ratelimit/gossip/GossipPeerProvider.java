@@ -0,0 +1,28 @@
+package com.portfolio.api_gateway.ratelimit.gossip;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+/**
+ * Fonte dos endereços UDP das demais instâncias do gateway. Chamado pela thread de gossip a
+ * cada rodada; implementações devem devolver uma lista já resolvida (sem I/O bloqueante).
+ */
+@FunctionalInterface
+public interface GossipPeerProvider {
+
+    List<InetSocketAddress> peers();
+
+    static GossipPeerProvider of(List<String> endpoints, int defaultPort) {
+        List<InetSocketAddress> peers = endpoints.stream()
+                .map(String::trim)
+                .filter(endpoint -> !endpoint.isEmpty())
+                .map(endpoint -> {
+                    int colon = endpoint.lastIndexOf(':');
+                    return colon > 0
+                            ? new InetSocketAddress(endpoint.substring(0, colon), Integer.parseInt(endpoint.substring(colon + 1)))
+                            : new InetSocketAddress(endpoint, defaultPort);
+                })
+                .toList();
+        return () -> peers;
+    }
+}
@@ -0,0 +1,76 @@
+package com.portfolio.api_gateway.ratelimit.gossip;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Propriedades do backend de rate limiting por gossip entre instâncias do gateway.
+ *
+ * Exemplo de configuração em application.yaml:
+ *
+ * gateway:
+ *   rate-limit:
+ *     gossip:
+ *       enabled: true
+ *       port: 7947
+ *       interval: 100ms
+ *       secret: ${GATEWAY_RATE_LIMIT_GOSSIP_SECRET}
+ *     route-policies:
+ *       products-service:
+ *         backend: gossip
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.rate-limit.gossip")
+public class GossipRateLimitProperties {
+
+    /** Habilita o backend (socket UDP e rodadas de gossip). */
+    private boolean enabled = false;
+
+    /** Endereço local do socket UDP. */
+    private String bindAddress = "0.0.0.0";
+
+    /** Porta UDP; publicada no Consul como metadata gossip-port. */
+    private int port = 7947;
+
+    /** Intervalo entre rodadas de gossip (contadores alterados desde a rodada anterior). */
+    private Duration interval = Duration.ofMillis(100);
+
+    /** Intervalo do envio completo do estado (anti-entropia, cobre pacotes UDP perdidos). */
+    private Duration fullSyncInterval = Duration.ofSeconds(5);
+
+    /** Peers por rodada; 0 envia para todos. */
+    @Min(0)
+    private int fanout = 0;
+
+    /** Peers estáticos ("host:port"). Vazio usa o discovery ({@code service-id}). */
+    private List<String> peers = new ArrayList<>();
+
+    /** Serviço do próprio gateway no discovery. */
+    private String serviceId = "api-gateway";
+
+    /** Intervalo de atualização da lista de peers a partir do discovery. */
+    private Duration peerRefreshInterval = Duration.ofSeconds(10);
+
+    /** Tamanho máximo de cada datagrama (abaixo do MTU evita fragmentação IP). */
+    @Min(256)
+    private int maxPacketBytes = 1400;
+
+    /**
+     * Segredo do HMAC-SHA256 dos datagramas, igual em todas as instâncias (mínimo de 32 bytes).
+     * Datagramas sem assinatura válida são descartados.
+     */
+    private String secret;
+
+    /** Máximo de keys em memória; merges remotos não criam keys acima disso. */
+    @Min(1)
+    private int maxKeys = 100_000;
+
+    /** Máximo de nós remotos rastreados por key e janela. */
+    @Min(1)
+    private int maxNodesPerWindow = 64;
+}
@@ -0,0 +1,351 @@
+package com.portfolio.api_gateway.ratelimit.gossip;
+
+import com.portfolio.api_gateway.ratelimit.RateLimitPolicy;
+import com.portfolio.api_gateway.ratelimit.RateLimitResult;
+import com.portfolio.api_gateway.ratelimit.RateLimiterService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Rate limiter sem Redis no caminho da requisição: cada instância decide em memória contra a
+ * visão combinada dos contadores de todas as instâncias, trocados por gossip UDP.
+ *
+ * - Estado em {@link GCounterStore}: G-counter por key e janela, merge por máximo por nó
+ * - A cada {@code interval} as keys alteradas localmente são enviadas aos peers ({@code fanout},
+ *   0 = todos); a cada {@code full-sync-interval} todo o estado é reenviado (anti-entropia)
+ * - Peers estáticos ({@code peers}) ou instâncias do gateway no discovery
+ *
+ * O limite é aproximado: requisições aceitas em instâncias diferentes dentro do mesmo intervalo
+ * de gossip não se enxergam, então o excesso máximo é da ordem de taxa × intervalo × instâncias.
+ * Sem peers (ou com a rede particionada) cada instância aplica o limite sozinha.
+ *
+ * Confiança: datagramas são assinados com HMAC-SHA256 ({@code secret}) e só são aceitos se
+ * vierem do endereço de um peer atual do {@link GossipPeerProvider}. O node id de cada peer é
+ * aprendido dos datagramas que ele envia; contagens de nós que não são peers conhecidos
+ * (inclusive as repassadas transitivamente) são ignoradas.
+ *
+ * Métricas: {@code gateway.ratelimit.gossip.packets{direction}}, {@code .keys}, {@code .peers}
+ * e {@code .propagation} (envio → recebimento, pelo relógio de parede).
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(GossipRateLimitProperties.class)
+@ConditionalOnProperty(prefix = "gateway.rate-limit.gossip", name = "enabled", havingValue = "true")
+public class GossipRateLimiter implements RateLimiterService {
+
+    private static final int RECEIVE_BUFFER_BYTES = 64 * 1024;
+    private static final int MIN_SECRET_BYTES = 32;
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final GossipRateLimitProperties properties;
+    private final GossipPeerProvider peerProvider;
+    private final GCounterStore store;
+    private final LongSupplier clock;
+    private final SecretKeySpec secretKey;
+    /** Usado apenas pela thread de gossip (Mac não é thread-safe); o receptor tem o próprio. */
+    private final Mac sendMac;
+
+    /** Node id atual de cada peer, aprendido do remetente dos datagramas vindos do endereço dele. */
+    private final Map<InetSocketAddress, String> peerNodes = new ConcurrentHashMap<>();
+
+    private final Counter packetsSent;
+    private final Counter packetsReceived;
+    private final Counter packetsInvalid;
+    private final Timer propagation;
+
+    private DatagramChannel channel;
+    private ScheduledExecutorService scheduler;
+    private Thread receiver;
+    private long lastSentStamp;
+    private long lastFullSync;
+    private volatile int peerCount;
+
+    @Autowired
+    public GossipRateLimiter(GossipRateLimitProperties properties,
+                             ObjectProvider<ReactiveDiscoveryClient> discoveryClient,
+                             MeterRegistry meterRegistry) {
+        this(properties, peerProvider(properties, discoveryClient), meterRegistry, System::currentTimeMillis);
+    }
+
+    GossipRateLimiter(GossipRateLimitProperties properties, GossipPeerProvider peerProvider,
+                      MeterRegistry meterRegistry, LongSupplier clock) {
+        this.properties = properties;
+        this.peerProvider = peerProvider;
+        this.clock = clock;
+        this.secretKey = secretKey(properties);
+        this.sendMac = mac();
+        this.store = new GCounterStore(UUID.randomUUID().toString().substring(0, 8), clock,
+                properties.getMaxKeys(), properties.getMaxNodesPerWindow());
+
+        this.packetsSent = Counter.builder("gateway.ratelimit.gossip.packets")
+                .description("Datagramas de gossip do rate limiting")
+                .tag("direction", "sent")
+                .register(meterRegistry);
+        this.packetsReceived = Counter.builder("gateway.ratelimit.gossip.packets")
+                .description("Datagramas de gossip do rate limiting")
+                .tag("direction", "received")
+                .register(meterRegistry);
+        this.packetsInvalid = Counter.builder("gateway.ratelimit.gossip.packets")
+                .description("Datagramas de gossip do rate limiting")
+                .tag("direction", "invalid")
+                .register(meterRegistry);
+        this.propagation = Timer.builder("gateway.ratelimit.gossip.propagation")
+                .description("Atraso entre o envio de um contador e o recebimento pelo peer")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("gateway.ratelimit.gossip.keys", store, GCounterStore::size)
+                .description("Keys com contadores ativos no backend gossip")
+                .register(meterRegistry);
+        Gauge.builder("gateway.ratelimit.gossip.peers", this, limiter -> limiter.peerCount)
+                .description("Peers conhecidos pelo backend gossip")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        channel = DatagramChannel.open();
+        channel.bind(new InetSocketAddress(properties.getBindAddress(), properties.getPort()));
+
+        receiver = new Thread(this::receiveLoop, "rate-limit-gossip-receiver");
+        receiver.setDaemon(true);
+        receiver.start();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "rate-limit-gossip");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::gossipRound, interval, interval, TimeUnit.MILLISECONDS);
+        if (peerProvider instanceof DiscoveryGossipPeerProvider discovery) {
+            long refresh = properties.getPeerRefreshInterval().toMillis();
+            scheduler.scheduleWithFixedDelay(discovery::refresh, 0, refresh, TimeUnit.MILLISECONDS);
+        }
+
+        log.info("Rate limiting por gossip iniciado", kv("node_id", store.nodeId()), kv("address", localAddress()));
+    }
+
+    @PreDestroy
+    void stop() throws IOException {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    @Override
+    public Mono<RateLimitResult> isAllowed(String key, RateLimitPolicy policy) {
+        return Mono.fromSupplier(() -> {
+            GCounterStore.Decision decision = store.tryAcquire(key, policy.getMaxRequests(), policy.getWindowMillis());
+            return RateLimitResult.builder()
+                    .allowed(decision.allowed())
+                    .limit(policy.getMaxRequests())
+                    .remaining(Math.max(0, policy.getMaxRequests() - decision.count()))
+                    .resetAt(Instant.ofEpochMilli(decision.resetAtMillis()))
+                    .build();
+        });
+    }
+
+    /** Endereço UDP efetivo (porta resolvida quando configurada como 0). */
+    InetSocketAddress localAddress() {
+        try {
+            SocketAddress address = channel.getLocalAddress();
+            return (InetSocketAddress) address;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /** Estimativa global da key nesta instância (sem consumir). */
+    double estimate(String key) {
+        return store.estimate(key);
+    }
+
+    private void gossipRound() {
+        try {
+            List<InetSocketAddress> peers = peerProvider.peers();
+            peerCount = peers.size();
+            peerNodes.keySet().removeIf(address -> !isPeer(address, peers));
+
+            long now = clock.getAsLong();
+            boolean fullSync = now - lastFullSync >= properties.getFullSyncInterval().toMillis();
+            long stamp = store.changeStamp();
+            List<GCounterStore.Entry> entries = store.snapshot(fullSync ? -1 : lastSentStamp);
+            lastSentStamp = stamp;
+            if (fullSync) {
+                lastFullSync = now;
+                store.expire();
+            }
+            if (entries.isEmpty() || peers.isEmpty()) {
+                return;
+            }
+
+            List<byte[]> packets = GossipCodec.encode(store.nodeId(), now, entries, properties.getMaxPacketBytes(), sendMac);
+            for (InetSocketAddress peer : targets(peers)) {
+                for (byte[] packet : packets) {
+                    channel.send(ByteBuffer.wrap(packet), peer);
+                    packetsSent.increment();
+                }
+            }
+        } catch (ClosedChannelException e) {
+            // encerrando
+        } catch (Exception e) {
+            log.warn("Falha na rodada de gossip do rate limiting", kv("error", e.getMessage()));
+        }
+    }
+
+    private List<InetSocketAddress> targets(List<InetSocketAddress> peers) {
+        InetSocketAddress self = localAddress();
+        List<InetSocketAddress> candidates = new ArrayList<>(peers.size());
+        for (InetSocketAddress peer : peers) {
+            if (!isSelf(peer, self)) {
+                candidates.add(peer);
+            }
+        }
+        int fanout = properties.getFanout();
+        if (fanout <= 0 || fanout >= candidates.size()) {
+            return candidates;
+        }
+        Collections.shuffle(candidates, ThreadLocalRandom.current());
+        return candidates.subList(0, fanout);
+    }
+
+    private static boolean isSelf(InetSocketAddress peer, InetSocketAddress self) {
+        return self != null && peer.getPort() == self.getPort() && peer.getAddress() != null
+                && (peer.getAddress().isLoopbackAddress() || peer.getAddress().equals(self.getAddress()));
+    }
+
+    private void receiveLoop() {
+        ByteBuffer buffer = ByteBuffer.allocate(RECEIVE_BUFFER_BYTES);
+        Mac receiveMac = mac();
+        while (channel.isOpen()) {
+            try {
+                buffer.clear();
+                SocketAddress source = channel.receive(buffer);
+                buffer.flip();
+
+                List<InetSocketAddress> peers = peerProvider.peers();
+                if (!(source instanceof InetSocketAddress address) || !isPeer(address, peers)) {
+                    packetsInvalid.increment();
+                    log.debug("Datagrama de gossip de endereço desconhecido descartado", kv("source", source));
+                    continue;
+                }
+                GossipCodec.Packet packet = GossipCodec.decode(buffer.array(), buffer.limit(), receiveMac);
+                packetsReceived.increment();
+                if (packet.sender().equals(store.nodeId())) {
+                    continue;
+                }
+                peerNodes.put(address, packet.sender());
+                propagation.record(Math.max(0, clock.getAsLong() - packet.sentAtMillis()), TimeUnit.MILLISECONDS);
+
+                Set<String> trusted = trustedNodes(peers);
+                for (GCounterStore.Entry entry : packet.entries()) {
+                    entry.counts().forEach((node, count) -> {
+                        if (trusted.contains(node)) {
+                            store.merge(entry.key(), entry.windowMs(), entry.windowIndex(), node, count);
+                        }
+                    });
+                }
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException | RuntimeException e) {
+                packetsInvalid.increment();
+                log.debug("Datagrama de gossip descartado", kv("error", e.getMessage()));
+            }
+        }
+    }
+
+    /** Node ids dos peers atuais que já enviaram datagramas válidos. */
+    private Set<String> trustedNodes(List<InetSocketAddress> peers) {
+        Set<String> trusted = new HashSet<>();
+        peerNodes.forEach((address, node) -> {
+            if (isPeer(address, peers)) {
+                trusted.add(node);
+            }
+        });
+        return trusted;
+    }
+
+    private static boolean isPeer(InetSocketAddress address, List<InetSocketAddress> peers) {
+        for (InetSocketAddress peer : peers) {
+            if (peer.getPort() == address.getPort() && peer.getAddress() != null
+                    && peer.getAddress().equals(address.getAddress())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Mac mac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(secretKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 indisponível", e);
+        }
+    }
+
+    private static SecretKeySpec secretKey(GossipRateLimitProperties properties) {
+        String secret = properties.getSecret();
+        if (secret == null || secret.getBytes(StandardCharsets.UTF_8).length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException(
+                    "gateway.rate-limit.gossip.secret deve ter ao menos " + MIN_SECRET_BYTES + " bytes");
+        }
+        return new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+    }
+
+    private static GossipPeerProvider peerProvider(GossipRateLimitProperties properties,
+                                                   ObjectProvider<ReactiveDiscoveryClient> discoveryClient) {
+        if (!properties.getPeers().isEmpty()) {
+            return GossipPeerProvider.of(properties.getPeers(), properties.getPort());
+        }
+        ReactiveDiscoveryClient client = discoveryClient.getIfAvailable();
+        if (client == null) {
+            log.warn("Gossip sem peers estáticos nem discovery: limites aplicados apenas localmente");
+            return List::of;
+        }
+        return new DiscoveryGossipPeerProvider(client, properties);
+    }
+}
@@ -0,0 +1,75 @@
+package com.portfolio.api_gateway.requestid;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Gerador de Request IDs no formato UUIDv7 (RFC 9562), ordenados por tempo.
+ *
+ * Layout:
+ * - 48 bits: timestamp Unix em milissegundos
+ * - 4 bits: versão (7)
+ * - 12 bits: contador monotônico por thread dentro do mesmo milissegundo (rand_a)
+ * - 2 bits: variante (10)
+ * - 62 bits: entropia de {@link ThreadLocalRandom}
+ *
+ * Sem estado compartilhado entre threads (ao contrário de {@code UUID.randomUUID()}, que
+ * usa um SecureRandom global): cada thread mantém o último timestamp e o contador, garantindo
+ * IDs estritamente crescentes por thread mesmo com o relógio retrocedendo.
+ * A unicidade entre threads vem dos 62 bits aleatórios.
+ */
+public final class RequestIdGenerator {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int COUNTER_MASK = 0xFFF;
+
+    private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+
+    private RequestIdGenerator() {
+    }
+
+    public static String next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        State state = STATE.get();
+
+        long now = System.currentTimeMillis();
+        if (now > state.lastMillis) {
+            state.lastMillis = now;
+            // semente aleatória com folga para incrementos no mesmo milissegundo
+            state.counter = random.nextInt(COUNTER_MASK >> 1);
+        } else if (++state.counter > COUNTER_MASK) {
+            // contador esgotado (ou relógio retrocedeu): avança o timestamp lógico
+            state.lastMillis++;
+            state.counter = random.nextInt(COUNTER_MASK >> 1);
+        }
+
+        long msb = (state.lastMillis << 16) | 0x7000L | state.counter;
+        long lsb = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return format(msb, lsb);
+    }
+
+    private static String format(long msb, long lsb) {
+        char[] chars = new char[36];
+        hex(chars, 0, msb >>> 32, 8);
+        chars[8] = '-';
+        hex(chars, 9, msb >>> 16, 4);
+        chars[13] = '-';
+        hex(chars, 14, msb, 4);
+        chars[18] = '-';
+        hex(chars, 19, lsb >>> 48, 4);
+        chars[23] = '-';
+        hex(chars, 24, lsb, 12);
+        return new String(chars);
+    }
+
+    private static void hex(char[] chars, int offset, long value, int digits) {
+        for (int i = digits - 1; i >= 0; i--) {
+            chars[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+
+    private static final class State {
+        private long lastMillis;
+        private int counter;
+    }
+}
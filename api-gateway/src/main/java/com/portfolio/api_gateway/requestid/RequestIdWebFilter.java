@@ -0,0 +1,31 @@
+package com.portfolio.api_gateway.requestid;
+
+import org.jspecify.annotations.NonNull;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFilter que resolve o Request ID antes de qualquer outro filtro (inclusive Spring Security),
+ * de modo que respostas 401/403, erros e logs usem o mesmo ID da requisição.
+ *
+ * Também devolve o ID no header X-Request-Id da resposta.
+ */
+@Component
+public class RequestIdWebFilter implements WebFilter, Ordered {
+
+    @Override
+    public @NonNull Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        String requestId = RequestIds.resolve(exchange);
+        exchange.getResponse().getHeaders().set(RequestIds.HEADER, requestId);
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+}
@@ -0,0 +1,51 @@
+package com.portfolio.api_gateway.requestid;
+
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Request ID único por requisição, armazenado como atributo da exchange.
+ *
+ * Resolvido uma única vez (pelo {@link RequestIdWebFilter}, antes de qualquer outro filtro):
+ * reaproveita o header X-Request-Id do cliente quando válido, senão gera um UUIDv7
+ * ({@link RequestIdGenerator}). Logging, tratamento de erros e handlers de segurança
+ * leem o mesmo valor.
+ */
+public final class RequestIds {
+
+    public static final String HEADER = "X-Request-Id";
+    public static final String REQUEST_ID_ATTR = "gatewayRequestId";
+
+    private static final int MAX_LENGTH = 128;
+
+    private RequestIds() {
+    }
+
+    public static String resolve(ServerWebExchange exchange) {
+        String requestId = exchange.getAttribute(REQUEST_ID_ATTR);
+        if (requestId != null) {
+            return requestId;
+        }
+
+        String header = exchange.getRequest().getHeaders().getFirst(HEADER);
+        requestId = isValid(header) ? header : RequestIdGenerator.next();
+        exchange.getAttributes().put(REQUEST_ID_ATTR, requestId);
+        return requestId;
+    }
+
+    /**
+     * Aceita IDs do cliente não vazios, de tamanho limitado e sem caracteres de controle
+     * (evita injeção de linhas nos logs).
+     */
+    private static boolean isValid(String requestId) {
+        if (requestId == null || requestId.isBlank() || requestId.length() > MAX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < requestId.length(); i++) {
+            char c = requestId.charAt(i);
+            if (c < 0x20 || c == 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,49 @@
+package com.portfolio.api_gateway.retry;
+
+/**
+ * Orçamento de retries de uma rota, compartilhado entre todas as requisições.
+ *
+ * Um retry só é permitido enquanto os retries da janela ficam abaixo de
+ * {@code ratio * sucessos da janela + minRetriesPerSecond * janela em segundos}.
+ * O piso garante que rotas de baixo volume ainda consigam repetir falhas esporádicas.
+ *
+ * A verificação e o registro do retry não são atômicos entre si: sob alta
+ * concorrência o orçamento pode ser excedido por poucas unidades, o que é aceitável.
+ */
+public class RetryBudget {
+
+    private final SlidingWindowCounter successes;
+    private final SlidingWindowCounter retries;
+    private final double ratio;
+    private final long minRetries;
+
+    public RetryBudget(long windowMillis, int buckets, double ratio, int minRetriesPerSecond) {
+        this.successes = new SlidingWindowCounter(windowMillis, buckets);
+        this.retries = new SlidingWindowCounter(windowMillis, buckets);
+        this.ratio = ratio;
+        this.minRetries = Math.max(0, (long) minRetriesPerSecond * windowMillis / 1000);
+    }
+
+    public void recordSuccess() {
+        successes.increment(System.currentTimeMillis());
+    }
+
+    /**
+     * Verifica se ainda há orçamento para um retry, sem consumi-lo.
+     */
+    public boolean hasBudget() {
+        long now = System.currentTimeMillis();
+        return retries.sum(now) < available(now);
+    }
+
+    /**
+     * Consome uma unidade do orçamento (retry já decidido).
+     */
+    public void recordRetry() {
+        retries.increment(System.currentTimeMillis());
+    }
+
+    private long available(long now) {
+        return minRetries + (long) (ratio * successes.sum(now));
+    }
+}
@@ -0,0 +1,128 @@
+package com.portfolio.api_gateway.retry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.filter.factory.RetryGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Filtro global que aplica o orçamento de retries ({@link RetryBudget}) por rota.
+ *
+ * Posição na cadeia de filtros: imediatamente antes do load balancer. O filtro Retry
+ * reexecuta a cadeia a partir da sua posição, portanto cada tentativa passa por aqui.
+ *
+ * Fluxo:
+ * 1. Tentativa sem 5xx: registra sucesso no orçamento
+ * 2. Tentativa com 5xx ou erro: se o orçamento estiver esgotado, marca o atributo
+ *    retry_iteration como esgotado antes do predicate do filtro Retry, que então não repete;
+ *    o cliente recebe a resposta (ou o erro) real do downstream, com o header
+ *    X-Retry-Budget-Exhausted
+ * 3. Retry (atributo retry_iteration presente): consome uma unidade do orçamento
+ *
+ * O orçamento só interrompe retries, nunca altera o resultado da tentativa. O número fixo de
+ * retries configurado no filtro Retry continua valendo como teto por requisição.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@EnableConfigurationProperties(RetryBudgetProperties.class)
+public class RetryBudgetFilter implements GlobalFilter, Ordered {
+
+    static final String RETRY_BUDGET_EXHAUSTED_HEADER = "X-Retry-Budget-Exhausted";
+
+    /**
+     * Valor de retry_iteration que excede qualquer número de retries configurado; o filtro Retry
+     * ainda soma 1 ao fim da tentativa, daí a folga para não estourar o int.
+     */
+    static final int RETRIES_STOPPED = Integer.MAX_VALUE / 2;
+
+    private final RetryBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, RetryBudget> budgets = new ConcurrentHashMap<>();
+
+    @Override
+    public @NonNull Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull GatewayFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+
+        String routeId = route.getId();
+        RetryBudget budget = budgets.computeIfAbsent(routeId, this::createBudget);
+
+        boolean isRetry = exchange.getAttribute(RetryGatewayFilterFactory.RETRY_ITERATION_KEY) != null;
+        if (isRetry) {
+            budget.recordRetry();
+            counter("gateway.retry.budget.retries", routeId).increment();
+        }
+
+        return chain.filter(exchange)
+                .doOnSuccess(v -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (status == null || !status.is5xxServerError()) {
+                        budget.recordSuccess();
+                    } else {
+                        stopRetriesIfExhausted(exchange, budget, routeId);
+                    }
+                })
+                .doOnError(e -> stopRetriesIfExhausted(exchange, budget, routeId));
+    }
+
+    /**
+     * Executado ao fim de uma tentativa com falha, antes do predicate do filtro Retry.
+     */
+    private void stopRetriesIfExhausted(ServerWebExchange exchange, RetryBudget budget, String routeId) {
+        if (budget.hasBudget()) {
+            return;
+        }
+        exchange.getAttributes().put(RetryGatewayFilterFactory.RETRY_ITERATION_KEY, RETRIES_STOPPED);
+        exchange.getResponse().getHeaders().set(RETRY_BUDGET_EXHAUSTED_HEADER, "true");
+        counter("gateway.retry.budget.exhausted", routeId).increment();
+        log.debug("Retry suprimido pelo orçamento",
+                kv("event", "retry_budget_exhausted"),
+                kv("route_id", routeId));
+    }
+
+    @Override
+    public int getOrder() {
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+    }
+
+    private RetryBudget createBudget(String routeId) {
+        double ratio = properties.getRouteRatios().getOrDefault(routeId, properties.getRatio());
+        return new RetryBudget(
+                properties.getWindow().toMillis(),
+                properties.getBuckets(),
+                ratio,
+                properties.getMinRetriesPerSecond());
+    }
+
+    private Counter counter(String name, String routeId) {
+        return Counter.builder(name)
+                .tag("route", routeId)
+                .register(meterRegistry);
+    }
+}
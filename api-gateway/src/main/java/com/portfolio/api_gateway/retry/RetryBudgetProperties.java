@@ -0,0 +1,52 @@
+package com.portfolio.api_gateway.retry;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Propriedades do orçamento de retries por rota.
+ *
+ * Exemplo de configuração em application.yaml:
+ *
+ * gateway:
+ *   retry-budget:
+ *     enabled: true
+ *     ratio: 0.2
+ *     min-retries-per-second: 3
+ *     window: 10s
+ *     route-ratios:
+ *       products-service: 0.1
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.retry-budget")
+public class RetryBudgetProperties {
+
+    /** Habilita o orçamento (desabilitado, vale apenas o número fixo de retries do filtro Retry). */
+    private boolean enabled = true;
+
+    /** Fração dos sucessos recentes que pode ser gasta em retries. */
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    private double ratio = 0.2;
+
+    /** Piso de retries por segundo, independente do volume de sucessos. */
+    @Min(0)
+    private int minRetriesPerSecond = 3;
+
+    /** Janela deslizante de contagem. */
+    private Duration window = Duration.ofSeconds(10);
+
+    /** Número de buckets da janela. */
+    @Min(1)
+    private int buckets = 10;
+
+    /** Ratio específico por route ID. */
+    private Map<String, Double> routeRatios = new HashMap<>();
+}
@@ -0,0 +1,72 @@
+package com.portfolio.api_gateway.retry;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Contador lock-free de eventos em uma janela deslizante dividida em buckets.
+ *
+ * Cada bucket é um único long que empacota a época do bucket (bits altos) e a contagem
+ * (24 bits baixos), de modo que "virar" o bucket e incrementar é um único CAS,
+ * sem perda de incrementos concorrentes.
+ */
+public final class SlidingWindowCounter {
+
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final long bucketMillis;
+    private final int buckets;
+    private final AtomicLongArray slots;
+
+    public SlidingWindowCounter(long windowMillis, int buckets) {
+        this.buckets = buckets;
+        this.bucketMillis = Math.max(1, windowMillis / buckets);
+        this.slots = new AtomicLongArray(buckets);
+    }
+
+    public void increment(long nowMillis) {
+        add(nowMillis, 1);
+    }
+
+    /**
+     * Soma {@code delta} eventos ao bucket corrente (satura no limite de 24 bits do bucket).
+     */
+    public void add(long nowMillis, long delta) {
+        if (delta <= 0) {
+            return;
+        }
+        long epoch = nowMillis / bucketMillis;
+        int index = (int) (epoch % buckets);
+
+        while (true) {
+            long current = slots.get(index);
+            long next;
+            if ((current >>> COUNT_BITS) == epoch) {
+                if ((current & COUNT_MASK) == COUNT_MASK) {
+                    return; // bucket saturado
+                }
+                next = (epoch << COUNT_BITS) | Math.min(COUNT_MASK, (current & COUNT_MASK) + delta);
+            } else {
+                next = (epoch << COUNT_BITS) | Math.min(COUNT_MASK, delta);
+            }
+            if (slots.compareAndSet(index, current, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Soma dos eventos dos buckets ainda dentro da janela.
+     */
+    public long sum(long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        long total = 0;
+        for (int i = 0; i < buckets; i++) {
+            long slot = slots.get(i);
+            if (epoch - (slot >>> COUNT_BITS) < buckets) {
+                total += slot & COUNT_MASK;
+            }
+        }
+        return total;
+    }
+}
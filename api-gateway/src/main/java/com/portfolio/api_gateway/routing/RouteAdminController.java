@@ -1,19 +1,26 @@
 package com.portfolio.api_gateway.routing;
 
+import com.portfolio.api_gateway.aggregation.AggregationDefinition;
+import com.portfolio.api_gateway.aggregation.AggregationRegistry;
 import com.portfolio.api_gateway.dto.RouteDefinitionDTO;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cloud.gateway.route.RouteDefinition;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.net.URI;
+import java.util.Map;
 
 /**
  * API REST para gestão de rotas dinâmicas em runtime.
  * Permite CRUD de rotas sem necessidade de restart do gateway.
+ *
+ * Rotas de agregação (fan-out paralelo para várias rotas lb://) em /admin/routes/aggregations.
  */
 @RestController
 @RequestMapping("/admin/routes")
@@ -21,6 +28,7 @@ import java.net.URI;
 public class RouteAdminController {
 
     private final DynamicRouteService dynamicRouteService;
+    private final AggregationRegistry aggregationRegistry;
 
     @GetMapping
     public Flux<RouteDefinition> listRoutes() {
@@ -49,4 +57,27 @@ public class RouteAdminController {
         return dynamicRouteService.deleteRoute(routeId)
                 .then(Mono.just(ResponseEntity.noContent().<Void>build()));
     }
+
+    @GetMapping("/aggregations")
+    public Mono<Map<String, AggregationDefinition>> listAggregations() {
+        return Mono.fromSupplier(aggregationRegistry::list);
+    }
+
+    @PutMapping("/aggregations/{aggregationId}")
+    public Mono<ResponseEntity<Void>> saveAggregation(
+            @PathVariable String aggregationId,
+            @RequestBody @Valid AggregationDefinition definition) {
+        return Mono.fromRunnable(() -> aggregationRegistry.save(aggregationId, definition))
+                .onErrorMap(IllegalArgumentException.class,
+                        e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage()))
+                .then(Mono.just(ResponseEntity.ok().<Void>build()));
+    }
+
+    @DeleteMapping("/aggregations/{aggregationId}")
+    public Mono<ResponseEntity<Void>> deleteAggregation(@PathVariable String aggregationId) {
+        return Mono.fromSupplier(() -> aggregationRegistry.delete(aggregationId))
+                .map(deleted -> deleted
+                        ? ResponseEntity.noContent().<Void>build()
+                        : ResponseEntity.notFound().<Void>build());
+    }
 }
@@ -0,0 +1,149 @@
+package com.portfolio.api_gateway.runtime;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.util.concurrent.EventExecutor;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import reactor.netty.http.HttpResources;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o atraso de agendamento (lag) dos event loops Netty do servidor.
+ *
+ * A cada intervalo uma tarefa vazia é submetida a cada event loop; o lag é o tempo entre
+ * a submissão e a execução. Enquanto a sonda anterior não executa, nenhuma nova é submetida
+ * e o lag corrente passa a ser a idade da sonda pendente (cresce durante um travamento).
+ *
+ * Os event loops são os recursos globais do Reactor Netty ({@link HttpResources}),
+ * compartilhados pelo servidor e pelo HttpClient padrão do gateway.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(RuntimeProperties.class)
+public class EventLoopLagMonitor {
+
+    private final RuntimeProperties properties;
+    private final List<LoopProbe> probes = new ArrayList<>();
+
+    private ScheduledExecutorService scheduler;
+
+    public EventLoopLagMonitor(RuntimeProperties properties) {
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    void start() {
+        EventLoopGroup group = HttpResources.get().onServer(true);
+        for (EventExecutor executor : group) {
+            probes.add(new LoopProbe(executor));
+        }
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "event-loop-lag-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long intervalMs = properties.getEventLoopProbeInterval().toMillis();
+        scheduler.scheduleAtFixedRate(this::probe, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Maior lag corrente entre todos os event loops, em milissegundos.
+     */
+    public long maxLagMillis() {
+        long now = System.nanoTime();
+        long max = 0;
+        for (LoopProbe probe : probes) {
+            max = Math.max(max, probe.currentLagNanos(now));
+        }
+        return max / 1_000_000;
+    }
+
+    public List<LoopProbe> probes() {
+        return probes;
+    }
+
+    private void probe() {
+        long now = System.nanoTime();
+        for (LoopProbe probe : probes) {
+            probe.submit(now);
+        }
+    }
+
+    /**
+     * Estado da sonda de um event loop.
+     */
+    public static final class LoopProbe {
+
+        private final EventExecutor executor;
+        private volatile long pendingSince;
+        private volatile long lastLagNanos;
+        private volatile Thread thread;
+
+        LoopProbe(EventExecutor executor) {
+            this.executor = executor;
+        }
+
+        void submit(long now) {
+            if (pendingSince != 0) {
+                return;
+            }
+            pendingSince = now;
+            try {
+                executor.execute(this::run);
+            } catch (RejectedExecutionException e) {
+                pendingSince = 0;
+            }
+        }
+
+        private void run() {
+            if (thread == null) {
+                thread = Thread.currentThread();
+            }
+            lastLagNanos = System.nanoTime() - pendingSince;
+            pendingSince = 0;
+        }
+
+        long currentLagNanos(long now) {
+            long pending = pendingSince;
+            return pending != 0 ? Math.max(lastLagNanos, now - pending) : lastLagNanos;
+        }
+
+        /** Instante (nanoTime) em que a sonda pendente foi submetida, 0 se não houver sonda pendente. */
+        public long pendingSinceNanos() {
+            return pendingSince;
+        }
+
+        /** Milissegundos desde que a sonda pendente foi submetida (0 se não houver sonda pendente). */
+        public long pendingMillis(long now) {
+            long pending = pendingSince;
+            return pending != 0 ? (now - pending) / 1_000_000 : 0;
+        }
+
+        public EventExecutor executor() {
+            return executor;
+        }
+
+        /** Thread do event loop (conhecida após a primeira execução da sonda). */
+        public Thread thread() {
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.portfolio.api_gateway.runtime;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Detecta event loops travados e registra a stack da thread do loop no momento do travamento.
+ *
+ * Usa as sondas do {@link EventLoopLagMonitor}: se a sonda de um loop está pendente há mais que
+ * {@code gateway.runtime.stall-detection.threshold}, o loop está executando algo bloqueante.
+ * Cada travamento é registrado uma única vez (identificado pelo instante da sonda pendente).
+ *
+ * Métrica: gateway.runtime.event_loop.stalls
+ */
+@Slf4j
+public class EventLoopStallDetector {
+
+    private final EventLoopLagMonitor lagMonitor;
+    private final RuntimeProperties.StallDetection properties;
+    private final Counter stalls;
+
+    /** Sonda -> pendingSince do último travamento registrado (acessado só pela thread do detector). */
+    private final Map<EventLoopLagMonitor.LoopProbe, Long> reported = new IdentityHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+    public EventLoopStallDetector(EventLoopLagMonitor lagMonitor,
+                                  RuntimeProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.properties = properties.getStallDetection();
+        this.stalls = Counter.builder("gateway.runtime.event_loop.stalls")
+                .description("Travamentos de event loop acima do limite configurado")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "event-loop-stall-detector");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMs = properties.getCheckInterval().toMillis();
+        scheduler.scheduleAtFixedRate(this::check, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void check() {
+        long now = System.nanoTime();
+        long thresholdMs = properties.getThreshold().toMillis();
+
+        for (EventLoopLagMonitor.LoopProbe probe : lagMonitor.probes()) {
+            long pendingSince = probe.pendingSinceNanos();
+            long pendingMs = probe.pendingMillis(now);
+            if (pendingSince == 0 || pendingMs < thresholdMs) {
+                continue;
+            }
+            Long last = reported.get(probe);
+            if (last != null && last == pendingSince) {
+                continue;
+            }
+            reported.put(probe, pendingSince);
+            stalls.increment();
+            logStall(probe, pendingMs);
+        }
+    }
+
+    private void logStall(EventLoopLagMonitor.LoopProbe probe, long pendingMs) {
+        Thread thread = probe.thread();
+        if (thread == null) {
+            log.warn("Event loop travado (thread ainda desconhecida)",
+                    kv("event", "event_loop_stall"),
+                    kv("blocked_ms", pendingMs));
+            return;
+        }
+
+        StackTraceElement[] stack = thread.getStackTrace();
+        StringBuilder sb = new StringBuilder(1024);
+        int depth = Math.min(stack.length, properties.getMaxStackDepth());
+        for (int i = 0; i < depth; i++) {
+            sb.append("\n\tat ").append(stack[i]);
+        }
+        if (stack.length > depth) {
+            sb.append("\n\t... ").append(stack.length - depth).append(" more");
+        }
+
+        log.warn("Event loop travado",
+                kv("event", "event_loop_stall"),
+                kv("thread", thread.getName()),
+                kv("blocked_ms", pendingMs),
+                kv("stack", sb.toString()));
+    }
+}
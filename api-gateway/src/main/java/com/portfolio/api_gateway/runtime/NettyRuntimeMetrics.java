@@ -0,0 +1,108 @@
+package com.portfolio.api_gateway.runtime;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufAllocatorMetric;
+import io.netty.buffer.ByteBufAllocatorMetricProvider;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocatorMetric;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import io.netty.util.internal.PlatformDependent;
+import org.jspecify.annotations.NonNull;
+
+import java.util.List;
+
+/**
+ * Métricas internas do Netty que o Reactor Netty não publica por conta própria.
+ *
+ * Event loops (compartilhados pelo servidor e pelos HttpClients upstream, via HttpResources):
+ * - gateway.runtime.event_loop.pending_tasks{loop} - tarefas na fila do event loop
+ * - gateway.runtime.event_loop.lag{loop} - lag de agendamento medido pelo {@link EventLoopLagMonitor}
+ *
+ * Alocador pooled padrão ({@link ByteBufAllocator#DEFAULT}):
+ * - gateway.runtime.netty.memory.used{area=direct|heap}
+ * - gateway.runtime.netty.arenas{area}, gateway.runtime.netty.thread_local_caches
+ *
+ * Memória direta do processo (contabilizada pelo Netty quando sem Cleaner):
+ * - gateway.runtime.netty.direct_memory.reserved / .max
+ */
+public class NettyRuntimeMetrics implements MeterBinder {
+
+    private final EventLoopLagMonitor lagMonitor;
+
+    public NettyRuntimeMetrics(EventLoopLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        bindEventLoops(registry);
+        bindAllocator(registry);
+
+        Gauge.builder("gateway.runtime.netty.direct_memory.reserved", PlatformDependent::usedDirectMemory)
+                .description("Memória direta reservada pelo Netty (-1 quando não contabilizada)")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("gateway.runtime.netty.direct_memory.max", PlatformDependent::maxDirectMemory)
+                .description("Limite de memória direta do Netty")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private void bindEventLoops(MeterRegistry registry) {
+        List<EventLoopLagMonitor.LoopProbe> probes = lagMonitor.probes();
+        for (int i = 0; i < probes.size(); i++) {
+            EventLoopLagMonitor.LoopProbe probe = probes.get(i);
+            String loop = String.valueOf(i);
+
+            if (probe.executor() instanceof SingleThreadEventExecutor executor) {
+                Gauge.builder("gateway.runtime.event_loop.pending_tasks", executor, SingleThreadEventExecutor::pendingTasks)
+                        .description("Tarefas pendentes na fila do event loop")
+                        .tag("loop", loop)
+                        .register(registry);
+            }
+            Gauge.builder("gateway.runtime.event_loop.lag", probe, p -> p.currentLagNanos(System.nanoTime()) / 1_000_000.0)
+                    .description("Lag de agendamento do event loop")
+                    .tag("loop", loop)
+                    .baseUnit("milliseconds")
+                    .register(registry);
+        }
+    }
+
+    private void bindAllocator(MeterRegistry registry) {
+        if (!(ByteBufAllocator.DEFAULT instanceof ByteBufAllocatorMetricProvider provider)) {
+            return;
+        }
+        ByteBufAllocatorMetric metric = provider.metric();
+
+        Gauge.builder("gateway.runtime.netty.memory.used", metric, ByteBufAllocatorMetric::usedDirectMemory)
+                .description("Memória usada pelo alocador de ByteBuf do Netty")
+                .tag("area", "direct")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("gateway.runtime.netty.memory.used", metric, ByteBufAllocatorMetric::usedHeapMemory)
+                .description("Memória usada pelo alocador de ByteBuf do Netty")
+                .tag("area", "heap")
+                .baseUnit("bytes")
+                .register(registry);
+
+        if (metric instanceof PooledByteBufAllocatorMetric pooled) {
+            Gauge.builder("gateway.runtime.netty.arenas", pooled, PooledByteBufAllocatorMetric::numDirectArenas)
+                    .tag("area", "direct")
+                    .register(registry);
+            Gauge.builder("gateway.runtime.netty.arenas", pooled, PooledByteBufAllocatorMetric::numHeapArenas)
+                    .tag("area", "heap")
+                    .register(registry);
+            Gauge.builder("gateway.runtime.netty.thread_local_caches", pooled,
+                            PooledByteBufAllocatorMetric::numThreadLocalCaches)
+                    .register(registry);
+            Gauge.builder("gateway.runtime.netty.pinned_memory", (PooledByteBufAllocator) ByteBufAllocator.DEFAULT,
+                            PooledByteBufAllocator::pinnedDirectMemory)
+                    .description("Memória direta em buffers ainda não liberados")
+                    .baseUnit("bytes")
+                    .register(registry);
+        }
+    }
+}
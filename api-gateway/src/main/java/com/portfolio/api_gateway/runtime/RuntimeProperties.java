@@ -0,0 +1,45 @@
+package com.portfolio.api_gateway.runtime;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Propriedades de monitoramento do runtime Netty/Reactor.
+ *
+ * Exemplo de configuração em application.yaml:
+ *
+ * gateway:
+ *   runtime:
+ *     event-loop-probe-interval: 100ms
+ *     stall-detection:
+ *       enabled: true
+ *       threshold: 500ms
+ *       check-interval: 100ms
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.runtime")
+public class RuntimeProperties {
+
+    /** Intervalo entre sondas de latência de agendamento nos event loops. */
+    private Duration eventLoopProbeInterval = Duration.ofMillis(100);
+
+    private StallDetection stallDetection = new StallDetection();
+
+    @Data
+    public static class StallDetection {
+
+        /** Habilita o log da stack de event loops travados. */
+        private boolean enabled = true;
+
+        /** Tempo com a sonda pendente a partir do qual o event loop é considerado travado. */
+        private Duration threshold = Duration.ofMillis(500);
+
+        /** Intervalo de verificação das sondas pendentes. */
+        private Duration checkInterval = Duration.ofMillis(100);
+
+        /** Máximo de frames da stack registrados no log. */
+        private int maxStackDepth = 64;
+    }
+}
@@ -0,0 +1,93 @@
+package com.portfolio.api_gateway.runtime;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.jspecify.annotations.NonNull;
+import reactor.core.Scannable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.ToIntFunction;
+
+/**
+ * Saturação dos Schedulers do Reactor (parallel, boundedElastic, single).
+ *
+ * Registra um decorator em {@link Schedulers#addExecutorServiceDecorator} que apenas guarda
+ * os executores criados por cada Scheduler (sem embrulhá-los); os gauges agregam por Scheduler:
+ * - reactor.scheduler.workers{scheduler} - executores vivos
+ * - reactor.scheduler.active{scheduler} - tarefas em execução
+ * - reactor.scheduler.queued{scheduler} - tarefas aguardando na fila
+ *
+ * Executores criados antes do registro do decorator (Schedulers usados durante o
+ * bootstrap) não são vistos; boundedElastic cria workers sob demanda e é coberto.
+ */
+public class SchedulerMetrics implements MeterBinder {
+
+    private static final String DECORATOR_KEY = "gateway-scheduler-metrics";
+
+    private final Map<String, Set<ThreadPoolExecutor>> executors = new ConcurrentHashMap<>();
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        Schedulers.addExecutorServiceDecorator(DECORATOR_KEY, (scheduler, service) -> {
+            if (service instanceof ThreadPoolExecutor executor) {
+                track(registry, schedulerName(scheduler), executor);
+            }
+            return service;
+        });
+    }
+
+    /**
+     * Remove o decorator; executores já rastreados continuam nos gauges até terminarem.
+     */
+    public void close() {
+        Schedulers.removeExecutorServiceDecorator(DECORATOR_KEY);
+    }
+
+    private void track(MeterRegistry registry, String scheduler, ThreadPoolExecutor executor) {
+        executors.computeIfAbsent(scheduler, name -> {
+            Set<ThreadPoolExecutor> set = ConcurrentHashMap.newKeySet();
+            register(registry, name, set);
+            return set;
+        }).add(executor);
+    }
+
+    private void register(MeterRegistry registry, String scheduler, Set<ThreadPoolExecutor> set) {
+        Gauge.builder("reactor.scheduler.workers", set, s -> sum(s, e -> 1))
+                .description("Executores vivos do Scheduler")
+                .tag("scheduler", scheduler)
+                .register(registry);
+        Gauge.builder("reactor.scheduler.active", set, s -> sum(s, ThreadPoolExecutor::getActiveCount))
+                .description("Tarefas em execução no Scheduler")
+                .tag("scheduler", scheduler)
+                .register(registry);
+        Gauge.builder("reactor.scheduler.queued", set, s -> sum(s, e -> e.getQueue().size()))
+                .description("Tarefas aguardando execução no Scheduler")
+                .tag("scheduler", scheduler)
+                .register(registry);
+    }
+
+    private static double sum(Set<ThreadPoolExecutor> set, ToIntFunction<ThreadPoolExecutor> value) {
+        set.removeIf(ThreadPoolExecutor::isTerminated);
+        long total = 0;
+        for (ThreadPoolExecutor executor : set) {
+            total += value.applyAsInt(executor);
+        }
+        return total;
+    }
+
+    private static String schedulerName(Scheduler scheduler) {
+        String name = Scannable.from(scheduler).scan(Scannable.Attr.NAME);
+        if (name == null) {
+            return "unknown";
+        }
+        // "parallel(8,\"parallel\")" -> "parallel"
+        int paren = name.indexOf('(');
+        return paren > 0 ? name.substring(0, paren) : name;
+    }
+}
@@ -0,0 +1,27 @@
+package com.portfolio.api_gateway.security.apikey;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.authentication.ServerAuthenticationConverter;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Extrai a API key do header configurado; sem o header a requisição segue para o JWT.
+ */
+public class ApiKeyAuthenticationConverter implements ServerAuthenticationConverter {
+
+    private final String header;
+
+    public ApiKeyAuthenticationConverter(String header) {
+        this.header = header;
+    }
+
+    @Override
+    public Mono<Authentication> convert(ServerWebExchange exchange) {
+        String apiKey = exchange.getRequest().getHeaders().getFirst(header);
+        if (apiKey == null || apiKey.isBlank()) {
+            return Mono.empty();
+        }
+        return Mono.just(ApiKeyAuthenticationToken.unauthenticated(apiKey.trim()));
+    }
+}
@@ -0,0 +1,27 @@
+package com.portfolio.api_gateway.security.apikey;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.core.Authentication;
+import reactor.core.publisher.Mono;
+
+/**
+ * Valida a API key recebida via {@link ApiKeyResolver}; key inexistente resulta em 401.
+ *
+ * Não é um bean: um ReactiveAuthenticationManager no contexto substituiria o usado pelo
+ * Spring Security nos demais mecanismos de autenticação.
+ */
+@RequiredArgsConstructor
+public class ApiKeyAuthenticationManager implements ReactiveAuthenticationManager {
+
+    private final ApiKeyResolver apiKeyResolver;
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        String apiKey = (String) authentication.getCredentials();
+        return apiKeyResolver.resolve(apiKey)
+                .<Authentication>map(ApiKeyAuthenticationToken::authenticated)
+                .switchIfEmpty(Mono.error(() -> new BadCredentialsException("API key inválida")));
+    }
+}
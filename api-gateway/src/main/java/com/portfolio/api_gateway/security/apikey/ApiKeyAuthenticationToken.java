@@ -0,0 +1,76 @@
+package com.portfolio.api_gateway.security.apikey;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.Serial;
+import java.util.List;
+
+/**
+ * Autenticação por API key.
+ *
+ * Antes da validação carrega apenas a key recebida (credentials); depois, o principal e os
+ * scopes resolvidos (SCOPE_xxx, mesmas authorities do JWT). O nome é o principal da key, usado
+ * pelo KeyResolver do rate limiting e pelas quotas.
+ */
+public class ApiKeyAuthenticationToken extends AbstractAuthenticationToken {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /** Atributo da exchange com o tier da key autenticada (seleção da política de rate limiting). */
+    public static final String TIER_ATTRIBUTE = ApiKeyAuthenticationToken.class.getName() + ".tier";
+
+    private transient Object apiKey;
+    private final ApiKeyDetails apiKeyDetails;
+
+    private ApiKeyAuthenticationToken(String apiKey) {
+        super(List.of());
+        this.apiKey = apiKey;
+        this.apiKeyDetails = null;
+        setAuthenticated(false);
+    }
+
+    private ApiKeyAuthenticationToken(ApiKeyDetails details, List<GrantedAuthority> authorities) {
+        super(authorities);
+        this.apiKeyDetails = details;
+        setAuthenticated(true);
+    }
+
+    static ApiKeyAuthenticationToken unauthenticated(String apiKey) {
+        return new ApiKeyAuthenticationToken(apiKey);
+    }
+
+    static ApiKeyAuthenticationToken authenticated(ApiKeyDetails details) {
+        List<GrantedAuthority> authorities = details.scopes().stream()
+                .<GrantedAuthority>map(scope -> new SimpleGrantedAuthority("SCOPE_" + scope))
+                .toList();
+        return new ApiKeyAuthenticationToken(details, authorities);
+    }
+
+    @Override
+    public Object getCredentials() {
+        return apiKey;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return apiKeyDetails != null ? apiKeyDetails.principal() : null;
+    }
+
+    @Override
+    public String getName() {
+        return apiKeyDetails != null ? apiKeyDetails.principal() : "";
+    }
+
+    public String getTier() {
+        return apiKeyDetails != null ? apiKeyDetails.tier() : null;
+    }
+
+    @Override
+    public void eraseCredentials() {
+        super.eraseCredentials();
+        apiKey = null;
+    }
+}
@@ -0,0 +1,9 @@
+package com.portfolio.api_gateway.security.apikey;
+
+import java.util.Set;
+
+/**
+ * Dados associados a uma API key: principal, scopes concedidos e tier de rate limiting.
+ */
+public record ApiKeyDetails(String principal, Set<String> scopes, String tier) {
+}
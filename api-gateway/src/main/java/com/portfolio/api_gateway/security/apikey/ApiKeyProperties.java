@@ -0,0 +1,52 @@
+package com.portfolio.api_gateway.security.apikey;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Propriedades da autenticação por API key (clientes máquina sem JWT do Keycloak).
+ *
+ * Cada key é guardada no Redis como hash em {@code key-prefix + sha256(key)}, com os campos
+ * {@code principal}, {@code scopes} (separados por espaço) e {@code tier}.
+ *
+ * Exemplo de configuração em application.yaml:
+ *
+ * gateway:
+ *   api-key:
+ *     enabled: true
+ *     header: X-API-Key
+ *     positive-ttl: 5m
+ *     negative-ttl: 30s
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.api-key")
+public class ApiKeyProperties {
+
+    /** Habilita a autenticação por API key (o JWT continua aceito). */
+    private boolean enabled = false;
+
+    /** Header com a API key. */
+    private String header = "X-API-Key";
+
+    /** Prefixo das keys no Redis (seguido do SHA-256 hexadecimal da API key). */
+    private String keyPrefix = "api_key:";
+
+    /** Canal pub/sub de invalidação: mensagem com o SHA-256 da key, ou "*" para limpar o cache. */
+    private String invalidationChannel = "gateway:api-keys:invalidate";
+
+    /** Tempo de vida de uma key válida no cache local. */
+    private Duration positiveTtl = Duration.ofMinutes(5);
+
+    /** Tempo de vida de uma key inexistente no cache local (evita consultar o Redis a cada tentativa). */
+    private Duration negativeTtl = Duration.ofSeconds(30);
+
+    /** Máximo de entradas no cache local; acima disso saem as menos usadas (Caffeine, W-TinyLFU). */
+    @Min(1)
+    private int maximumSize = 100_000;
+
+    /** Timeout da consulta ao Redis em cache miss. */
+    private Duration lookupTimeout = Duration.ofMillis(200);
+}
@@ -0,0 +1,242 @@
+package com.portfolio.api_gateway.security.apikey;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.portfolio.api_gateway.cache.BoundedCaches;
+import com.portfolio.api_gateway.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Resolve API keys em dois níveis: cache local em memória e Redis (fonte das keys).
+ *
+ * - A key nunca é guardada em claro: cache e Redis usam o SHA-256 hexadecimal
+ * - Cache local com entradas positivas ({@code positive-ttl}) e negativas ({@code negative-ttl}),
+ *   de modo que tentativas repetidas com keys inválidas também não chegam ao Redis
+ * - Cache local limitado a {@code maximum-size} entradas ({@link BoundedCaches}), cada uma
+ *   expirando no fim do próprio TTL
+ * - Misses concorrentes da mesma key compartilham uma única consulta ao Redis
+ * - Revogações e alterações são publicadas no canal {@code invalidation-channel} (SHA-256 da key
+ *   ou "*"); consultas em andamento durante uma invalidação não populam o cache
+ * - Se a assinatura do canal cair, o cache é esvaziado (invalidações podem ter sido perdidas)
+ *
+ * Falha do Redis em cache miss resulta em 503 (a key não é tratada como inválida).
+ *
+ * Métricas: {@code gateway.apikey.cache{result=hit|negative_hit|miss}},
+ * {@code gateway.apikey.cache.hit.ratio}, {@code gateway.apikey.cache.size} e
+ * {@code gateway.apikey.lookup.duration{source=local|redis}}.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(ApiKeyProperties.class)
+public class ApiKeyResolver {
+
+    private static final List<String> FIELDS = List.of("principal", "scopes", "tier");
+    private static final Duration RESUBSCRIBE_BACKOFF = Duration.ofSeconds(1);
+    private static final Duration MAX_RESUBSCRIBE_BACKOFF = Duration.ofSeconds(30);
+
+    private final ApiKeyProperties properties;
+    private final ReactiveStringRedisTemplate redisTemplate;
+
+    private final Cache<String, CacheEntry> cache;
+    private final Map<String, Mono<Optional<ApiKeyDetails>>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Counter hits;
+    private final Counter negativeHits;
+    private final Counter misses;
+    private final Timer localLookup;
+    private final Timer redisLookup;
+
+    private Disposable subscription;
+
+    public ApiKeyResolver(ApiKeyProperties properties,
+                          ReactiveStringRedisTemplate redisTemplate,
+                          MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.cache = BoundedCaches.expiringAt(properties.getMaximumSize(), CacheEntry::expiresAt);
+
+        this.hits = cacheCounter(meterRegistry, "hit");
+        this.negativeHits = cacheCounter(meterRegistry, "negative_hit");
+        this.misses = cacheCounter(meterRegistry, "miss");
+        this.localLookup = lookupTimer(meterRegistry, "local");
+        this.redisLookup = lookupTimer(meterRegistry, "redis");
+        Gauge.builder("gateway.apikey.cache.hit.ratio", this, ApiKeyResolver::hitRatio)
+                .description("Fração das resoluções de API key atendidas pelo cache local (positivas e negativas)")
+                .register(meterRegistry);
+        Gauge.builder("gateway.apikey.cache.size", cache, Cache::estimatedSize)
+                .description("Entradas no cache local de API keys")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        subscription = redisTemplate.listenToChannel(properties.getInvalidationChannel())
+                .doOnError(e -> {
+                    invalidateAll();
+                    log.warn("Assinatura do canal de invalidação de API keys falhou; cache local esvaziado",
+                            kv("event", "api_key_invalidation_disconnected"),
+                            kv("error", e.getMessage()));
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, RESUBSCRIBE_BACKOFF).maxBackoff(MAX_RESUBSCRIBE_BACKOFF))
+                .subscribe(message -> invalidate(message.getMessage()));
+    }
+
+    @PreDestroy
+    void stop() {
+        if (subscription != null) {
+            subscription.dispose();
+        }
+    }
+
+    /**
+     * Dados da key, ou vazio se ela não existir.
+     */
+    public Mono<ApiKeyDetails> resolve(String apiKey) {
+        long start = System.nanoTime();
+        String hash = sha256(apiKey);
+
+        CacheEntry entry = cache.getIfPresent(hash);
+        if (entry != null && entry.expiresAt() > System.currentTimeMillis()) {
+            (entry.details() != null ? hits : negativeHits).increment();
+            localLookup.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return Mono.justOrEmpty(entry.details());
+        }
+
+        misses.increment();
+        return inFlight.computeIfAbsent(hash, this::load)
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    /**
+     * Tier da key se ela estiver válida no cache local; senão null. Não consulta o Redis nem
+     * conta nas métricas de cache: usado pelo admission control, antes da autenticação.
+     */
+    public String cachedTier(String apiKey) {
+        CacheEntry entry = cache.getIfPresent(sha256(apiKey));
+        return entry != null && entry.details() != null && entry.expiresAt() > System.currentTimeMillis()
+                ? entry.details().tier()
+                : null;
+    }
+
+    private Mono<Optional<ApiKeyDetails>> load(String hash) {
+        long observedGeneration = generation.get();
+        long start = System.nanoTime();
+
+        return redisTemplate.<String, String>opsForHash()
+                .multiGet(properties.getKeyPrefix() + hash, FIELDS)
+                .timeout(properties.getLookupTimeout())
+                .map(values -> Optional.ofNullable(parse(values)))
+                .defaultIfEmpty(Optional.empty())
+                .doOnNext(details -> {
+                    if (generation.get() == observedGeneration) {
+                        put(hash, details.orElse(null));
+                    }
+                })
+                .doFinally(signal -> {
+                    redisLookup.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    inFlight.remove(hash);
+                })
+                .onErrorMap(e -> new ServiceUnavailableException("api-key-store", e))
+                .cache();
+    }
+
+    private static ApiKeyDetails parse(List<String> values) {
+        String principal = values.get(0);
+        if (principal == null || principal.isBlank()) {
+            return null;
+        }
+        String scopes = values.get(1);
+        Set<String> scopeSet = scopes == null
+                ? Set.of()
+                : Arrays.stream(scopes.trim().split("\\s+"))
+                        .filter(scope -> !scope.isEmpty())
+                        .collect(Collectors.toUnmodifiableSet());
+        return new ApiKeyDetails(principal, scopeSet, values.get(2));
+    }
+
+    private void put(String hash, ApiKeyDetails details) {
+        long ttl = (details != null ? properties.getPositiveTtl() : properties.getNegativeTtl()).toMillis();
+        cache.put(hash, new CacheEntry(details, System.currentTimeMillis() + ttl));
+    }
+
+    private void invalidate(String message) {
+        generation.incrementAndGet();
+        if ("*".equals(message)) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidate(message.trim().toLowerCase());
+        }
+        log.debug("API key invalidada", kv("event", "api_key_invalidated"), kv("key_hash", message));
+    }
+
+    private void invalidateAll() {
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private double hitRatio() {
+        double cached = hits.count() + negativeHits.count();
+        double total = cached + misses.count();
+        return total == 0 ? 0 : cached / total;
+    }
+
+    static String sha256(String apiKey) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(apiKey.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Counter cacheCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("gateway.apikey.cache")
+                .description("Resoluções de API key por resultado no cache local")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Timer lookupTimer(MeterRegistry meterRegistry, String source) {
+        return Timer.builder("gateway.apikey.lookup.duration")
+                .description("Latência da resolução de API key por origem")
+                .tag("source", source)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /** {@code details} nulo = entrada negativa (key inexistente). */
+    private record CacheEntry(ApiKeyDetails details, long expiresAt) {
+    }
+}
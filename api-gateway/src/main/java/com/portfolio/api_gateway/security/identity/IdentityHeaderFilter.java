@@ -0,0 +1,217 @@
+package com.portfolio.api_gateway.security.identity;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.portfolio.api_gateway.cache.BoundedCaches;
+import com.portfolio.api_gateway.security.apikey.ApiKeyProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jspecify.annotations.NonNull;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Filtro global que substitui o bearer token por um header de identidade compacto assinado pelo
+ * gateway ({@link IdentityHeaderSigner}: subject, scopes, roles e expiração, HMAC-SHA256).
+ *
+ * Posição na cadeia de filtros: order=4 (após rate limiting e quotas, antes do roteamento).
+ *
+ * - Requisições autenticadas (JWT ou API key): Authorization / X-API-Key removidos e o header
+ *   de identidade adicionado; o downstream deixa de receber e revalidar o JWT de 2–4 KB
+ * - Rotas com metadata {@code forward-bearer-token: true} recebem também a credencial original
+ * - O header de identidade vindo do cliente é sempre removido (não pode ser forjado)
+ *
+ * O header assinado é cacheado por token até a expiração do JWT (ou metade do {@code ttl} para
+ * API keys), então o HMAC é calculado uma vez por token e não por requisição. A chave do cache
+ * é o SHA-256 do token (32 bytes em vez dos 2–4 KB do JWT). Cada entrada expira junto com o
+ * token e o cache é limitado a {@code cache-size} entradas ({@link BoundedCaches}).
+ *
+ * Métricas: {@code gateway.identity.cache{result=hit|miss}} e {@code gateway.identity.cache.size}.
+ */
+@Component
+@EnableConfigurationProperties(IdentityHeaderProperties.class)
+public class IdentityHeaderFilter implements GlobalFilter, Ordered {
+
+    /** Metadata de rota que mantém a credencial original na requisição ao downstream. */
+    public static final String FORWARD_TOKEN_METADATA = "forward-bearer-token";
+
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private static final Base64.Encoder KEY_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(IdentityHeaderFilter::sha256);
+
+    private final IdentityHeaderProperties properties;
+    private final ApiKeyProperties apiKeyProperties;
+    private final IdentityHeaderSigner signer;
+    private final Cache<String, SignedHeader> cache;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public IdentityHeaderFilter(IdentityHeaderProperties properties,
+                                ApiKeyProperties apiKeyProperties,
+                                MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.apiKeyProperties = apiKeyProperties;
+        this.signer = properties.isEnabled() ? createSigner(properties) : null;
+        this.cache = BoundedCaches.expiringAt(properties.getCacheSize(), SignedHeader::validUntil);
+
+        this.hits = Counter.builder("gateway.identity.cache")
+                .description("Headers de identidade servidos do cache (hit) ou assinados (miss)")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("gateway.identity.cache")
+                .description("Headers de identidade servidos do cache (hit) ou assinados (miss)")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("gateway.identity.cache.size", cache, Cache::estimatedSize)
+                .description("Headers de identidade assinados em cache")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public @NonNull Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull GatewayFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        boolean forwardToken = forwardsToken(exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR));
+
+        return exchange.getPrincipal()
+                .filter(Authentication.class::isInstance)
+                .map(principal -> rewrite(exchange.getRequest(), identityHeader((Authentication) principal), forwardToken))
+                .switchIfEmpty(Mono.fromSupplier(() -> stripSpoofed(exchange.getRequest())))
+                .flatMap(request -> chain.filter(exchange.mutate().request(request).build()));
+    }
+
+    @Override
+    public int getOrder() {
+        return 4;
+    }
+
+    private ServerHttpRequest rewrite(ServerHttpRequest request, String identity, boolean forwardToken) {
+        return request.mutate()
+                .headers(headers -> {
+                    if (!forwardToken) {
+                        headers.remove(HttpHeaders.AUTHORIZATION);
+                        headers.remove(apiKeyProperties.getHeader());
+                    }
+                    headers.set(properties.getHeader(), identity);
+                })
+                .build();
+    }
+
+    private ServerHttpRequest stripSpoofed(ServerHttpRequest request) {
+        if (!request.getHeaders().containsHeader(properties.getHeader())) {
+            return request;
+        }
+        return request.mutate()
+                .headers(headers -> headers.remove(properties.getHeader()))
+                .build();
+    }
+
+    private String identityHeader(Authentication authentication) {
+        long now = System.currentTimeMillis();
+        String cacheKey = cacheKey(authentication);
+
+        SignedHeader cached = cache.getIfPresent(cacheKey);
+        if (cached != null && cached.validUntil() > now) {
+            hits.increment();
+            return cached.value();
+        }
+        misses.increment();
+
+        long issuedAt = now / 1000;
+        long expiresAt;
+        long validUntil;
+        if (authentication instanceof JwtAuthenticationToken jwt && jwt.getToken().getExpiresAt() != null) {
+            Instant exp = jwt.getToken().getExpiresAt();
+            expiresAt = exp.getEpochSecond();
+            validUntil = exp.toEpochMilli();
+        } else {
+            long ttl = properties.getTtl().toMillis();
+            expiresAt = (now + ttl) / 1000;
+            validUntil = now + ttl / 2;
+        }
+
+        List<String> scopes = new ArrayList<>();
+        List<String> roles = new ArrayList<>();
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (name == null) {
+                continue;
+            }
+            if (name.startsWith("SCOPE_")) {
+                scopes.add(name.substring(6));
+            } else if (name.startsWith("ROLE_")) {
+                roles.add(name.substring(5));
+            }
+        }
+
+        String value = signer.sign(new IdentityHeaderSigner.Identity(
+                authentication.getName(), scopes, roles, issuedAt, expiresAt));
+        cache.put(cacheKey, new SignedHeader(value, validUntil));
+        return value;
+    }
+
+    /**
+     * SHA-256 do JWT; demais autenticações: SHA-256 de principal + authorities.
+     */
+    private static String cacheKey(Authentication authentication) {
+        MessageDigest digest = SHA256.get();
+        if (authentication instanceof JwtAuthenticationToken jwt) {
+            digest.update(jwt.getToken().getTokenValue().getBytes(StandardCharsets.US_ASCII));
+        } else {
+            digest.update(("@" + authentication.getName()).getBytes(StandardCharsets.UTF_8));
+            for (GrantedAuthority authority : authentication.getAuthorities()) {
+                digest.update((byte) '|');
+                digest.update(String.valueOf(authority.getAuthority()).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return KEY_ENCODER.encodeToString(digest.digest());
+    }
+
+    private static boolean forwardsToken(Route route) {
+        return route != null && Boolean.parseBoolean(String.valueOf(route.getMetadata().get(FORWARD_TOKEN_METADATA)));
+    }
+
+    private static IdentityHeaderSigner createSigner(IdentityHeaderProperties properties) {
+        String secret = properties.getSecret();
+        if (secret == null || secret.getBytes(StandardCharsets.UTF_8).length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException(
+                    "gateway.identity-header.secret deve ter ao menos " + MIN_SECRET_BYTES + " bytes");
+        }
+        return new IdentityHeaderSigner(properties.getKeyId(), secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    private record SignedHeader(String value, long validUntil) {
+    }
+}
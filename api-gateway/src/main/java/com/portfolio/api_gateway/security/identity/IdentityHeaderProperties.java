@@ -0,0 +1,45 @@
+package com.portfolio.api_gateway.security.identity;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Propriedades do header de identidade interno assinado pelo gateway.
+ *
+ * Exemplo de configuração em application.yaml:
+ *
+ * gateway:
+ *   identity-header:
+ *     enabled: true
+ *     header: X-Gateway-Identity
+ *     key-id: v1
+ *     secret: ${GATEWAY_IDENTITY_SECRET}
+ *
+ * Rotas que precisam do token original declaram no metadata: {@code forward-bearer-token: true}.
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.identity-header")
+public class IdentityHeaderProperties {
+
+    /** Habilita a substituição do bearer token pelo header de identidade. */
+    private boolean enabled = false;
+
+    /** Header enviado ao downstream (removido se vier do cliente). */
+    private String header = "X-Gateway-Identity";
+
+    /** Identificador da chave, prefixo do header (permite rotação nos serviços downstream). */
+    private String keyId = "v1";
+
+    /** Segredo do HMAC-SHA256 compartilhado com os serviços downstream (mínimo de 32 bytes). */
+    private String secret;
+
+    /** Validade do header para autenticações sem expiração própria (API key). */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /** Máximo de headers assinados em cache (por token). */
+    @Min(1)
+    private int cacheSize = 50_000;
+}
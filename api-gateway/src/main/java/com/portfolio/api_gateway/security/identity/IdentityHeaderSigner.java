@@ -0,0 +1,102 @@
+package com.portfolio.api_gateway.security.identity;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.Collection;
+
+/**
+ * Monta e assina o header de identidade interno.
+ *
+ * <pre>
+ * keyId "." base64url(payload) "." base64url(HMAC-SHA256(keyId "." base64url(payload)))
+ * payload: {"sub":"...","scp":["..."],"rol":["..."],"iat":epochSeconds,"exp":epochSeconds}
+ * </pre>
+ *
+ * Os serviços downstream validam com o mesmo segredo: recalculam o MAC (comparação em tempo
+ * constante) e rejeitam {@code exp} vencido. O gateway só assina; a verificação de referência
+ * fica nos testes ({@code IdentityHeaderVerifier}).
+ */
+final class IdentityHeaderSigner {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final String keyId;
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+
+    IdentityHeaderSigner(String keyId, byte[] secret) {
+        this.keyId = keyId;
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+        newMac(); // falha na inicialização, não na primeira requisição
+    }
+
+    record Identity(String subject, Collection<String> scopes, Collection<String> roles,
+                    long issuedAt, long expiresAt) {
+    }
+
+    String sign(Identity identity) {
+        String signingInput = keyId + "." + ENCODER.encodeToString(payload(identity).getBytes(StandardCharsets.UTF_8));
+        byte[] mac = macs.get().doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + "." + ENCODER.encodeToString(mac);
+    }
+
+    private static String payload(Identity identity) {
+        StringBuilder json = new StringBuilder(128);
+        json.append("{\"sub\":");
+        appendString(json, identity.subject());
+        json.append(",\"scp\":");
+        appendArray(json, identity.scopes());
+        json.append(",\"rol\":");
+        appendArray(json, identity.roles());
+        json.append(",\"iat\":").append(identity.issuedAt());
+        json.append(",\"exp\":").append(identity.expiresAt());
+        return json.append('}').toString();
+    }
+
+    private static void appendArray(StringBuilder json, Collection<String> values) {
+        json.append('[');
+        boolean first = true;
+        for (String value : values) {
+            if (!first) {
+                json.append(',');
+            }
+            appendString(json, value);
+            first = false;
+        }
+        json.append(']');
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 indisponível", e);
+        }
+    }
+}
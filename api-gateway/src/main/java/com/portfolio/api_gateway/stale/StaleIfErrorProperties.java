@@ -0,0 +1,55 @@
+package com.portfolio.api_gateway.stale;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Propriedades do fallback stale-if-error (última resposta boa conhecida).
+ *
+ * A gravação é opt-in por rota via metadata "max-staleness" (ms): apenas rotas que o declaram
+ * têm respostas GET 200 armazenadas. Habilite somente em rotas cuja resposta não depende
+ * do usuário autenticado (ex.: catálogo de produtos), pois a chave não inclui o principal.
+ *
+ * Exemplo de configuração em application.yaml:
+ *
+ * gateway:
+ *   stale-if-error:
+ *     enabled: true
+ *     max-entries: 10000
+ *     max-body-size: 256KB
+ *     redis:
+ *       enabled: true
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.stale-if-error")
+public class StaleIfErrorProperties {
+
+    /** Habilita a gravação e o uso de respostas stale no fallback. */
+    private boolean enabled = true;
+
+    /** Máximo de respostas mantidas em memória; acima dele saem as menos usadas. */
+    @Min(1)
+    private int maxEntries = 10_000;
+
+    /** Respostas maiores que este tamanho não são armazenadas. */
+    private DataSize maxBodySize = DataSize.ofKilobytes(256);
+
+    /** Intervalo mínimo entre regravações da mesma chave (evita reescrever chaves quentes a cada requisição). */
+    private Duration minRefreshInterval = Duration.ofSeconds(1);
+
+    private Redis redis = new Redis();
+
+    @Data
+    public static class Redis {
+
+        /** Replica as respostas no Redis: sobrevivem a restarts e são compartilhadas entre instâncias. */
+        private boolean enabled = false;
+
+        /** Prefixo das chaves no Redis. */
+        private String keyPrefix = "stale:";
+    }
+}
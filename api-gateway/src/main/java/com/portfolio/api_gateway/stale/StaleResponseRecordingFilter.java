@@ -0,0 +1,153 @@
+package com.portfolio.api_gateway.stale;
+
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NonNull;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Filtro global que grava respostas GET 200 das rotas com metadata "max-staleness"
+ * no {@link StaleResponseStore}, para uso do fallback stale-if-error.
+ *
+ * Posição na cadeia de filtros: antes do NettyWriteResponseFilter, para que o decorator
+ * do corpo esteja instalado quando a resposta do downstream for escrita.
+ *
+ * O corpo é copiado à medida que passa (sem atrasar o streaming ao cliente) e descartado
+ * se ultrapassar max-body-size. Também registra na exchange a chave da requisição,
+ * lida pelo fallback após o forward do CircuitBreaker.
+ */
+@Component
+@RequiredArgsConstructor
+public class StaleResponseRecordingFilter implements GlobalFilter, Ordered {
+
+    public static final String STALE_RESPONSE_HEADER = "X-Stale-Response";
+
+    private static final List<String> STORED_HEADERS = List.of(
+            HttpHeaders.CONTENT_TYPE,
+            HttpHeaders.CONTENT_ENCODING,
+            HttpHeaders.ETAG,
+            HttpHeaders.LAST_MODIFIED);
+
+    private final StaleIfErrorProperties properties;
+    private final StaleResponseStore store;
+
+    @Override
+    public @NonNull Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull GatewayFilterChain chain) {
+        if (!properties.isEnabled() || exchange.getRequest().getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        Long maxStaleness = StaleResponseStore.maxStaleness(route);
+        if (maxStaleness == null) {
+            return chain.filter(exchange);
+        }
+
+        String key = StaleResponseStore.cacheKey(route, exchange.getRequest());
+        exchange.getAttributes().put(StaleResponseStore.CACHE_KEY_ATTR, key);
+        exchange.getAttributes().put(StaleResponseStore.MAX_STALENESS_ATTR, maxStaleness);
+
+        if (!store.shouldRefresh(key, System.currentTimeMillis())) {
+            return chain.filter(exchange);
+        }
+
+        RecordingResponse response = new RecordingResponse(exchange.getResponse(), key, maxStaleness);
+        return chain.filter(exchange.mutate().response(response).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    private class RecordingResponse extends ServerHttpResponseDecorator {
+
+        private final String key;
+        private final long maxStaleness;
+
+        RecordingResponse(ServerHttpResponse delegate, String key, long maxStaleness) {
+            super(delegate);
+            this.key = key;
+            this.maxStaleness = maxStaleness;
+        }
+
+        @Override
+        public @NonNull Mono<Void> writeWith(@NonNull Publisher<? extends DataBuffer> body) {
+            long maxBodySize = properties.getMaxBodySize().toBytes();
+            // respostas de fallback (inclusive stale) passam por este decorator após o forward
+            if (!HttpStatus.OK.equals(getStatusCode())
+                    || getHeaders().containsHeader(STALE_RESPONSE_HEADER)
+                    || getHeaders().getContentLength() > maxBodySize) {
+                return super.writeWith(body);
+            }
+
+            BodyCapture capture = new BodyCapture(maxBodySize);
+            Flux<? extends DataBuffer> recorded = Flux.from(body)
+                    .doOnNext(capture::append)
+                    .doOnComplete(() -> {
+                        if (!capture.overflowed) {
+                            store.put(key, new StoredResponse(
+                                    storedHeaders(), capture.bytes.toByteArray(), System.currentTimeMillis()),
+                                    maxStaleness);
+                        }
+                    });
+            return super.writeWith(recorded);
+        }
+
+        private Map<String, String> storedHeaders() {
+            Map<String, String> headers = new LinkedHashMap<>();
+            for (String name : STORED_HEADERS) {
+                String value = getHeaders().getFirst(name);
+                if (value != null) {
+                    headers.put(name, value);
+                }
+            }
+            return headers;
+        }
+    }
+
+    private static final class BodyCapture {
+
+        private final long limit;
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private boolean overflowed;
+
+        private BodyCapture(long limit) {
+            this.limit = limit;
+        }
+
+        private void append(DataBuffer buffer) {
+            int readable = buffer.readableByteCount();
+            if (overflowed || bytes.size() + (long) readable > limit) {
+                overflowed = true;
+                return;
+            }
+            // copia sem consumir: o buffer segue intacto para a escrita ao cliente
+            int position = buffer.readPosition();
+            byte[] chunk = new byte[readable];
+            buffer.read(chunk);
+            buffer.readPosition(position);
+            bytes.writeBytes(chunk);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.portfolio.api_gateway.stale;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.portfolio.api_gateway.cache.BoundedCaches;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Armazém das últimas respostas boas conhecidas por chave (rota + path + query).
+ *
+ * - Memória: cache limitado a max-entries ({@link BoundedCaches}), consultado primeiro. Leituras
+ *   não tomam lock; acima do limite saem as chaves menos usadas
+ * - Redis (opcional): cópia com TTL igual ao max-staleness da rota, consultada em miss local
+ *   (sobrevive a restarts e permite que uma instância sirva o que outra gravou)
+ *
+ * Falhas do Redis nunca propagam: gravação é fire-and-forget e leitura com erro vira miss.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(StaleIfErrorProperties.class)
+public class StaleResponseStore {
+
+    /** Metadata da rota com a idade máxima (ms) de uma resposta stale servida no fallback. */
+    public static final String MAX_STALENESS_METADATA = "max-staleness";
+
+    /** Atributo da exchange com a chave da requisição, lido pelo fallback após o forward. */
+    public static final String CACHE_KEY_ATTR = "gatewayStaleCacheKey";
+
+    /** Atributo da exchange com o max-staleness da rota. */
+    public static final String MAX_STALENESS_ATTR = "gatewayStaleMaxStaleness";
+
+    private final StaleIfErrorProperties properties;
+    private final ReactiveStringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final Cache<String, StoredResponse> entries;
+
+    public StaleResponseStore(StaleIfErrorProperties properties,
+                              ReactiveStringRedisTemplate redisTemplate,
+                              ObjectMapper objectMapper,
+                              MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.entries = BoundedCaches.bounded(properties.getMaxEntries());
+
+        Gauge.builder("gateway.stale.entries", entries, Cache::estimatedSize)
+                .description("Respostas armazenadas em memória para stale-if-error")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Max-staleness declarado pela rota em ms, ou null se a rota não usa stale-if-error.
+     */
+    public static Long maxStaleness(Route route) {
+        if (route == null) {
+            return null;
+        }
+        Object value = route.getMetadata().get(MAX_STALENESS_METADATA);
+        if (value == null) {
+            return null;
+        }
+        try {
+            long millis = Long.parseLong(value.toString());
+            return millis > 0 ? millis : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public static String cacheKey(Route route, ServerHttpRequest request) {
+        String query = request.getURI().getRawQuery();
+        String path = request.getURI().getRawPath();
+        return route.getId() + ":" + (query != null ? path + "?" + query : path);
+    }
+
+    /**
+     * Indica se a chave deve ser regravada (ausente ou gravada há mais de min-refresh-interval).
+     */
+    public boolean shouldRefresh(String key, long nowMillis) {
+        StoredResponse current = entries.getIfPresent(key);
+        return current == null || current.ageMillis(nowMillis) >= properties.getMinRefreshInterval().toMillis();
+    }
+
+    public void put(String key, StoredResponse response, long maxStalenessMillis) {
+        entries.put(key, response);
+
+        if (!properties.getRedis().isEnabled()) {
+            return;
+        }
+
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            log.error("Erro ao serializar resposta stale", e);
+            return;
+        }
+
+        redisTemplate.opsForValue()
+                .set(properties.getRedis().getKeyPrefix() + key, payload, Duration.ofMillis(maxStalenessMillis))
+                .subscribe(
+                        ok -> { },
+                        e -> log.debug("Falha ao gravar resposta stale no Redis",
+                                kv("event", "stale_store_write_failed"),
+                                kv("key", key),
+                                kv("error", e.getMessage())));
+    }
+
+    /**
+     * Resposta armazenada para a chave com idade até maxStalenessMillis.
+     */
+    public Mono<StoredResponse> get(String key, long maxStalenessMillis) {
+        long now = System.currentTimeMillis();
+        StoredResponse local = entries.getIfPresent(key);
+        if (local != null && local.ageMillis(now) <= maxStalenessMillis) {
+            return Mono.just(local);
+        }
+
+        if (!properties.getRedis().isEnabled()) {
+            return Mono.empty();
+        }
+
+        return redisTemplate.opsForValue().get(properties.getRedis().getKeyPrefix() + key)
+                .flatMap(payload -> {
+                    try {
+                        return Mono.just(objectMapper.readValue(payload, StoredResponse.class));
+                    } catch (JsonProcessingException e) {
+                        return Mono.empty();
+                    }
+                })
+                .filter(stored -> stored.ageMillis(System.currentTimeMillis()) <= maxStalenessMillis)
+                .doOnNext(stored -> entries.asMap().putIfAbsent(key, stored))
+                .onErrorResume(e -> {
+                    log.debug("Falha ao ler resposta stale do Redis",
+                            kv("event", "stale_store_read_failed"),
+                            kv("key", key),
+                            kv("error", e.getMessage()));
+                    return Mono.empty();
+                });
+    }
+}
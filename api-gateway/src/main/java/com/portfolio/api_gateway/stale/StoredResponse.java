@@ -0,0 +1,21 @@
+package com.portfolio.api_gateway.stale;
+
+import java.util.Map;
+
+/**
+ * Resposta GET 200 armazenada para uso no fallback stale-if-error.
+ *
+ * @param headers  headers de representação do downstream (Content-Type, Content-Encoding, ETag, Last-Modified)
+ * @param body     corpo da resposta
+ * @param storedAt instante da gravação em epoch millis
+ */
+public record StoredResponse(
+        Map<String, String> headers,
+        byte[] body,
+        long storedAt
+) {
+
+    public long ageMillis(long nowMillis) {
+        return Math.max(0, nowMillis - storedAt);
+    }
+}
@@ -0,0 +1,34 @@
+package com.portfolio.api_gateway.timing;
+
+/**
+ * Fases do caminho de uma requisição medidas individualmente.
+ *
+ * O nome é usado tanto na tag "phase" da métrica quanto na entrada do header Server-Timing.
+ */
+public enum Phase {
+
+    /** Decodificação e validação do JWT (inclui busca do JWKS quando não está em cache). */
+    JWT("jwt"),
+
+    /** Chamada ao Redis do rate limiter. */
+    RATE_LIMIT("rate_limit"),
+
+    /** Seleção da instância pelo load balancer. */
+    LOAD_BALANCER("lb"),
+
+    /** Aquisição da conexão upstream no pool (inclui connect/TLS quando a conexão é nova). */
+    CONNECTION_ACQUIRE("conn"),
+
+    /** Tempo entre o envio da requisição e a chegada dos headers da resposta upstream. */
+    UPSTREAM_TTFB("ttfb");
+
+    private final String tagValue;
+
+    Phase(String tagValue) {
+        this.tagValue = tagValue;
+    }
+
+    public String tagValue() {
+        return tagValue;
+    }
+}
@@ -0,0 +1,67 @@
+package com.portfolio.api_gateway.timing;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Mede a seleção de instância do ReactiveLoadBalancerClientFilter ({@link Phase#LOAD_BALANCER}).
+ *
+ * O filtro do gateway chama onStart antes do choose e onStartRequest logo depois, com os
+ * atributos da exchange no {@link RequestDataContext}. Os lifecycles são buscados nos contextos
+ * filhos do LoadBalancer incluindo o contexto pai, por isso basta um bean global.
+ */
+@Component
+public class PhaseTimingLoadBalancerLifecycle
+        implements LoadBalancerLifecycle<RequestDataContext, ResponseData, ServiceInstance> {
+
+    private static final String LB_START_ATTR = "gatewayPhaseTimingLbStart";
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return RequestDataContext.class.isAssignableFrom(requestContextClass)
+                && ResponseData.class.isAssignableFrom(responseClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<RequestDataContext> request) {
+        Map<String, Object> attributes = attributes(request);
+        if (attributes != null && attributes.get(PhaseTimings.PHASE_TIMINGS_ATTR) != null) {
+            attributes.put(LB_START_ATTR, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void onStartRequest(Request<RequestDataContext> request, Response<ServiceInstance> lbResponse) {
+        Map<String, Object> attributes = attributes(request);
+        if (attributes == null) {
+            return;
+        }
+        Object timings = attributes.get(PhaseTimings.PHASE_TIMINGS_ATTR);
+        Object start = attributes.remove(LB_START_ATTR);
+        if (timings instanceof PhaseTimings phaseTimings && start instanceof Long startNanos) {
+            phaseTimings.recordSince(Phase.LOAD_BALANCER, startNanos);
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<ResponseData, ServiceInstance, RequestDataContext> completionContext) {
+        // Duração upstream é medida pelos hooks do HttpClient
+    }
+
+    private static Map<String, Object> attributes(Request<RequestDataContext> request) {
+        RequestDataContext context = request.getContext();
+        if (context == null || context.getClientRequest() == null) {
+            return null;
+        }
+        return context.getClientRequest().getAttributes();
+    }
+}
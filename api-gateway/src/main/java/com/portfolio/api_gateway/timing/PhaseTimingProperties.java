@@ -0,0 +1,56 @@
+package com.portfolio.api_gateway.timing;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Propriedades da medição de latência por fase.
+ *
+ * Exemplo de configuração em application.yaml:
+ *
+ * gateway:
+ *   phase-timing:
+ *     enabled: true
+ *     server-timing: DEBUG
+ *     debug-header: X-Debug-Timing
+ *     sample-rate: 0.01
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.phase-timing")
+public class PhaseTimingProperties {
+
+    /** Habilita a medição por fase e a métrica gateway.phase.duration. */
+    private boolean enabled = true;
+
+    /** Quando devolver o header Server-Timing ao cliente. */
+    private ServerTimingMode serverTiming = ServerTimingMode.DEBUG;
+
+    /** Header de requisição que pede o Server-Timing (valor "true" ou "1"). */
+    private String debugHeader = "X-Debug-Timing";
+
+    /** Fração das requisições que recebe o header no modo SAMPLED (além das de debug). */
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    private double sampleRate = 0.01;
+
+    /** Menor valor esperado do histograma (limita o número de buckets exportados). */
+    private Duration minimumExpected = Duration.ofNanos(50_000);
+
+    /** Maior valor esperado do histograma. */
+    private Duration maximumExpected = Duration.ofSeconds(30);
+
+    public enum ServerTimingMode {
+        /** Nunca devolve o header. */
+        OFF,
+        /** Apenas quando o cliente envia o header de debug. */
+        DEBUG,
+        /** Requisições de debug e uma amostra aleatória das demais. */
+        SAMPLED,
+        /** Todas as requisições. */
+        ALWAYS
+    }
+}
@@ -0,0 +1,124 @@
+package com.portfolio.api_gateway.timing;
+
+import com.portfolio.api_gateway.timing.PhaseTimingProperties.ServerTimingMode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.jspecify.annotations.NonNull;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WebFilter que abre o {@link PhaseTimings} da requisição e, ao final, registra cada fase
+ * no histograma {@code gateway.phase.duration{route, phase}}.
+ *
+ * Posição: logo após o RequestIdWebFilter, antes do Spring Security, para que a fase JWT
+ * seja capturada. O PhaseTimings é publicado no Reactor Context da cadeia inteira.
+ *
+ * Pontos de medição:
+ * - JWT: {@link TimedReactiveJwtDecoder}
+ * - Rate limit: RateLimitFilter
+ * - Load balancer: {@link PhaseTimingLoadBalancerLifecycle}
+ * - Conexão e TTFB: hooks do HttpClient do UpstreamConnectionPoolRegistry
+ *
+ * O header Server-Timing é devolvido conforme {@link ServerTimingMode}.
+ */
+@Component
+@EnableConfigurationProperties(PhaseTimingProperties.class)
+public class PhaseTimingWebFilter implements WebFilter, Ordered {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private static final String NO_ROUTE = "none";
+    private static final Phase[] PHASES = Phase.values();
+
+    private final PhaseTimingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer[]> timersByRoute = new ConcurrentHashMap<>();
+
+    public PhaseTimingWebFilter(PhaseTimingProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public @NonNull Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        if (!properties.isEnabled()) {
+            return chain.filter(exchange);
+        }
+
+        PhaseTimings timings = new PhaseTimings(System.nanoTime());
+        exchange.getAttributes().put(PhaseTimings.PHASE_TIMINGS_ATTR, timings);
+
+        if (shouldEmitHeader(exchange)) {
+            exchange.getResponse().beforeCommit(() -> {
+                exchange.getResponse().getHeaders()
+                        .set(SERVER_TIMING_HEADER, timings.toServerTiming(System.nanoTime()));
+                return Mono.empty();
+            });
+        }
+
+        return chain.filter(exchange)
+                .doFinally(signal -> record(exchange, timings))
+                .contextWrite(ctx -> ctx.put(PhaseTimings.class, timings));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+
+    private boolean shouldEmitHeader(ServerWebExchange exchange) {
+        ServerTimingMode mode = properties.getServerTiming();
+        return switch (mode) {
+            case OFF -> false;
+            case ALWAYS -> true;
+            case DEBUG -> isDebugRequest(exchange);
+            case SAMPLED -> isDebugRequest(exchange)
+                    || ThreadLocalRandom.current().nextDouble() < properties.getSampleRate();
+        };
+    }
+
+    private boolean isDebugRequest(ServerWebExchange exchange) {
+        String value = exchange.getRequest().getHeaders().getFirst(properties.getDebugHeader());
+        return "true".equalsIgnoreCase(value) || "1".equals(value);
+    }
+
+    private void record(ServerWebExchange exchange, PhaseTimings timings) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        Timer[] timers = timersByRoute.computeIfAbsent(route != null ? route.getId() : NO_ROUTE, this::createTimers);
+
+        for (Phase phase : PHASES) {
+            long nanos = timings.duration(phase);
+            if (nanos >= 0) {
+                timers[phase.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private Timer[] createTimers(String routeId) {
+        Timer[] timers = new Timer[PHASES.length];
+        for (Phase phase : PHASES) {
+            timers[phase.ordinal()] = Timer.builder("gateway.phase.duration")
+                    .description("Latência por fase do processamento da requisição")
+                    .tag("route", routeId)
+                    .tag("phase", phase.tagValue())
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(properties.getMinimumExpected())
+                    .maximumExpectedValue(properties.getMaximumExpected())
+                    .register(meterRegistry);
+        }
+        return timers;
+    }
+}
@@ -0,0 +1,116 @@
+package com.portfolio.api_gateway.timing;
+
+import org.springframework.web.server.ServerWebExchange;
+import reactor.util.context.ContextView;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Durações por fase de uma única requisição, em nanos.
+ *
+ * Criado pelo {@link PhaseTimingWebFilter} e disponível tanto como atributo da exchange
+ * quanto no Reactor Context (chave {@code PhaseTimings.class}) para os pontos que não
+ * recebem a exchange (decoder JWT, hooks do HttpClient).
+ *
+ * Retries somam a duração de todas as tentativas na mesma fase.
+ */
+public final class PhaseTimings {
+
+    public static final String PHASE_TIMINGS_ATTR = "gatewayPhaseTimings";
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final long NOT_RECORDED = -1L;
+
+    private final long startNanos;
+    private final AtomicLongArray durations = new AtomicLongArray(PHASES.length);
+
+    private volatile long upstreamStartNanos;
+    private volatile long requestSentNanos;
+
+    PhaseTimings(long startNanos) {
+        this.startNanos = startNanos;
+        for (int i = 0; i < PHASES.length; i++) {
+            durations.set(i, NOT_RECORDED);
+        }
+    }
+
+    public static PhaseTimings of(ServerWebExchange exchange) {
+        return exchange.getAttribute(PHASE_TIMINGS_ATTR);
+    }
+
+    public static PhaseTimings of(ContextView context) {
+        return context.getOrDefault(PhaseTimings.class, null);
+    }
+
+    /**
+     * Soma {@code nanos} à fase.
+     */
+    public void record(Phase phase, long nanos) {
+        long value = Math.max(0, nanos);
+        durations.getAndUpdate(phase.ordinal(), current -> current == NOT_RECORDED ? value : current + value);
+    }
+
+    /**
+     * Registra a fase como o tempo decorrido desde {@code startNanos}.
+     */
+    public void recordSince(Phase phase, long startNanos) {
+        record(phase, System.nanoTime() - startNanos);
+    }
+
+    /** Duração da fase em nanos ou -1 quando a fase não ocorreu nesta requisição. */
+    public long duration(Phase phase) {
+        return durations.get(phase.ordinal());
+    }
+
+    public long startNanos() {
+        return startNanos;
+    }
+
+    /** Início de uma tentativa upstream, antes de pedir a conexão ao pool. */
+    public void markUpstreamStart() {
+        upstreamStartNanos = System.nanoTime();
+        requestSentNanos = 0;
+    }
+
+    /** Conexão adquirida e requisição prestes a ser escrita. */
+    public void markRequestSent() {
+        long now = System.nanoTime();
+        long upstreamStart = upstreamStartNanos;
+        if (upstreamStart != 0) {
+            record(Phase.CONNECTION_ACQUIRE, now - upstreamStart);
+        }
+        requestSentNanos = now;
+    }
+
+    /** Headers da resposta upstream recebidos. */
+    public void markResponseReceived() {
+        long requestSent = requestSentNanos;
+        if (requestSent != 0) {
+            recordSince(Phase.UPSTREAM_TTFB, requestSent);
+        }
+    }
+
+    /**
+     * Valor do header Server-Timing (W3C Server Timing), com durações em milissegundos.
+     * Ex.: {@code jwt;dur=0.84, rate_limit;dur=1.20, lb;dur=0.03, conn;dur=0.11, ttfb;dur=12.70, total;dur=15.32}
+     */
+    public String toServerTiming(long nowNanos) {
+        StringBuilder sb = new StringBuilder(128);
+        for (Phase phase : PHASES) {
+            long nanos = duration(phase);
+            if (nanos != NOT_RECORDED) {
+                appendEntry(sb, phase.tagValue(), nanos);
+            }
+        }
+        appendEntry(sb, "total", nowNanos - startNanos);
+        return sb.toString();
+    }
+
+    private static void appendEntry(StringBuilder sb, String name, long nanos) {
+        if (!sb.isEmpty()) {
+            sb.append(", ");
+        }
+        sb.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0));
+    }
+}
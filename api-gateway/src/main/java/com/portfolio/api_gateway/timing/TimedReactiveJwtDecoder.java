@@ -0,0 +1,33 @@
+package com.portfolio.api_gateway.timing;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+/**
+ * Decorator de {@link ReactiveJwtDecoder} que registra a fase {@link Phase#JWT}
+ * no {@link PhaseTimings} encontrado no Reactor Context.
+ *
+ * Sem PhaseTimings no contexto (medição desabilitada) apenas delega.
+ */
+public class TimedReactiveJwtDecoder implements ReactiveJwtDecoder {
+
+    private final ReactiveJwtDecoder delegate;
+
+    public TimedReactiveJwtDecoder(ReactiveJwtDecoder delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) {
+        return Mono.deferContextual(context -> {
+            PhaseTimings timings = PhaseTimings.of(context);
+            if (timings == null) {
+                return delegate.decode(token);
+            }
+            long start = System.nanoTime();
+            return delegate.decode(token)
+                    .doFinally(signal -> timings.recordSince(Phase.JWT, start));
+        });
+    }
+}
@@ -0,0 +1,122 @@
+package com.portfolio.api_gateway.tracing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Fila limitada de spans já decididos, exportados em lotes por uma thread dedicada.
+ *
+ * {@link #offer(Collection)} nunca bloqueia: com a fila cheia os spans são descartados
+ * e contabilizados em gateway.tracing.export.dropped.
+ */
+@Slf4j
+class SpanExportQueue {
+
+    private final SpanExporter exporter;
+    private final BlockingQueue<SpanData> queue;
+    private final int batchSize;
+    private final long scheduleDelayNanos;
+    private final long timeoutNanos;
+    private final Counter droppedCounter;
+    private final Counter exportedCounter;
+    private final Counter failedCounter;
+    private final Thread worker;
+
+    private volatile boolean running = true;
+
+    SpanExportQueue(SpanExporter exporter, TailSamplingProperties.Export properties, MeterRegistry meterRegistry) {
+        this.exporter = exporter;
+        this.queue = new ArrayBlockingQueue<>(properties.getMaxQueueSize());
+        this.batchSize = properties.getBatchSize();
+        this.scheduleDelayNanos = properties.getScheduleDelay().toNanos();
+        this.timeoutNanos = properties.getTimeout().toNanos();
+
+        this.droppedCounter = Counter.builder("gateway.tracing.export.dropped")
+                .description("Spans mantidos descartados com a fila de exportação cheia")
+                .register(meterRegistry);
+        this.exportedCounter = Counter.builder("gateway.tracing.export.spans")
+                .tag("result", "success")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("gateway.tracing.export.spans")
+                .tag("result", "failure")
+                .register(meterRegistry);
+        Gauge.builder("gateway.tracing.export.queue.size", queue, BlockingQueue::size)
+                .description("Spans aguardando exportação")
+                .register(meterRegistry);
+
+        this.worker = new Thread(this::run, "span-export");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    void offer(Collection<SpanData> spans) {
+        for (SpanData span : spans) {
+            if (!queue.offer(span)) {
+                droppedCounter.increment();
+            }
+        }
+    }
+
+    CompletableResultCode shutdown() {
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.NANOSECONDS.toMillis(timeoutNanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return exporter.shutdown();
+    }
+
+    private void run() {
+        List<SpanData> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                SpanData first = running
+                        ? queue.poll(scheduleDelayNanos, TimeUnit.NANOSECONDS)
+                        : queue.poll();
+                if (first == null) {
+                    if (!running) {
+                        break;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                export(batch);
+            } catch (InterruptedException e) {
+                // shutdown: drena o restante na próxima volta sem esperar
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void export(List<SpanData> batch) {
+        CompletableResultCode result = exporter.export(List.copyOf(batch))
+                .join(timeoutNanos, TimeUnit.NANOSECONDS);
+        if (result.isSuccess()) {
+            exportedCounter.increment(batch.size());
+        } else {
+            failedCounter.increment(batch.size());
+            log.debug("Falha ao exportar lote de spans",
+                    kv("event", "span_export_failed"),
+                    kv("spans", batch.size()));
+        }
+    }
+}
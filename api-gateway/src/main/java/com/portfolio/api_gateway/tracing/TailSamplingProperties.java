@@ -0,0 +1,85 @@
+package com.portfolio.api_gateway.tracing;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Propriedades do tail sampling de traces e da exportação OTLP.
+ *
+ * Exemplo de configuração em application.yaml:
+ *
+ * gateway:
+ *   tracing:
+ *     tail-sampling:
+ *       enabled: true
+ *       sample-rate: 0.05
+ *       default-latency-threshold: 1s
+ *       route-latency-thresholds:
+ *         products-service: 2s
+ *     export:
+ *       endpoint: http://localhost:4318/v1/traces
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.tracing")
+public class TailSamplingProperties {
+
+    private TailSampling tailSampling = new TailSampling();
+    private Export export = new Export();
+
+    @Data
+    public static class TailSampling {
+
+        /** Habilita a decisão por trace (desabilitado, todos os spans são exportados). */
+        private boolean enabled = true;
+
+        /** Probabilidade de manter traces sem erro, sem 429, sem fallback e dentro do limite de latência. */
+        @DecimalMin("0.0")
+        @DecimalMax("1.0")
+        private double sampleRate = 0.05;
+
+        /** Limite de latência padrão: traces mais lentos são sempre mantidos. */
+        private Duration defaultLatencyThreshold = Duration.ofSeconds(1);
+
+        /** Limite de latência por route ID. */
+        private Map<String, Duration> routeLatencyThresholds = new HashMap<>();
+
+        /** Tempo máximo de um trace no buffer sem o span raiz terminar; depois disso é decidido com o que houver. */
+        private Duration decisionWait = Duration.ofSeconds(10);
+
+        /** Máximo de traces simultâneos no buffer; acima disso novos spans são descartados. */
+        @Min(1)
+        private int maxTraces = 10_000;
+
+        /** Máximo de spans armazenados por trace. */
+        @Min(1)
+        private int maxSpansPerTrace = 256;
+    }
+
+    @Data
+    public static class Export {
+
+        /** Endpoint OTLP/HTTP de traces. Vazio desabilita a exportação. */
+        private String endpoint = "http://localhost:4318/v1/traces";
+
+        /** Capacidade da fila de exportação; cheia, spans mantidos são descartados. */
+        @Min(1)
+        private int maxQueueSize = 8192;
+
+        /** Máximo de spans por requisição de exportação. */
+        @Min(1)
+        private int batchSize = 512;
+
+        /** Espera máxima por spans antes de exportar um lote incompleto. */
+        private Duration scheduleDelay = Duration.ofSeconds(1);
+
+        /** Timeout de cada exportação. */
+        private Duration timeout = Duration.ofSeconds(10);
+    }
+}
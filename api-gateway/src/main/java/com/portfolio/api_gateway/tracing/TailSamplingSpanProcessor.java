@@ -0,0 +1,324 @@
+package com.portfolio.api_gateway.tracing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * SpanProcessor de tail sampling: a decisão de exportar é tomada por trace, depois do resultado conhecido.
+ *
+ * Fluxo:
+ * 1. Spans finalizados ficam no buffer do seu trace (memória limitada por max-traces e max-spans-per-trace)
+ * 2. O {@code RequestLoggingFilter} registra o resultado da requisição ({@link #recordOutcome})
+ * 3. Ao terminar o span raiz local (pai remoto ou inexistente) o trace é decidido:
+ *    - sempre mantido: span com status ERROR, 5xx, 429, fallback do CircuitBreaker,
+ *      duração acima do limite de latência da rota
+ *    - demais: mantido com probabilidade sample-rate
+ * 4. Traces mantidos seguem para a {@link SpanExportQueue} (exportação assíncrona em lotes)
+ *
+ * Traces cujo span raiz não termina em decision-wait são decididos com o que houver no buffer.
+ * Spans que chegam depois da decisão seguem a decisão já tomada.
+ */
+public class TailSamplingSpanProcessor implements SpanProcessor {
+
+    private static final AttributeKey<String> STATUS_ATTR = AttributeKey.stringKey("status");
+    private static final AttributeKey<Long> HTTP_STATUS_ATTR = AttributeKey.longKey("http.response.status_code");
+    private static final List<String> KEEP_REASONS =
+            List.of("error", "server_error", "rate_limited", "fallback", "slow", "sampled");
+
+    private final TailSamplingProperties.TailSampling properties;
+    private final SpanExportQueue exportQueue;
+
+    private final Map<String, TraceBuffer> buffers = new ConcurrentHashMap<>();
+    private final Map<String, Decision> decided = new ConcurrentHashMap<>();
+    private final AtomicInteger bufferedSpans = new AtomicInteger();
+    private final AtomicLong keptTraces = new AtomicLong();
+    private final AtomicLong decidedTraces = new AtomicLong();
+    private final Counter bufferFullCounter;
+    private final Counter traceTooLargeCounter;
+    private final Map<String, Counter> keepCounters = new HashMap<>();
+    private final Counter dropCounter;
+    private final ScheduledExecutorService sweeper;
+
+    public TailSamplingSpanProcessor(TailSamplingProperties properties,
+                                     SpanExporter exporter,
+                                     MeterRegistry meterRegistry) {
+        this.properties = properties.getTailSampling();
+        this.exportQueue = new SpanExportQueue(exporter, properties.getExport(), meterRegistry);
+
+        this.bufferFullCounter = Counter.builder("gateway.tracing.tail.dropped_spans")
+                .tag("reason", "buffer_full")
+                .register(meterRegistry);
+        this.traceTooLargeCounter = Counter.builder("gateway.tracing.tail.dropped_spans")
+                .tag("reason", "trace_too_large")
+                .register(meterRegistry);
+        for (String reason : KEEP_REASONS) {
+            keepCounters.put(reason, decisionCounter("keep", reason, meterRegistry));
+        }
+        this.dropCounter = decisionCounter("drop", "not_sampled", meterRegistry);
+        Gauge.builder("gateway.tracing.tail.buffered_traces", buffers, Map::size)
+                .description("Traces aguardando decisão no buffer")
+                .register(meterRegistry);
+        Gauge.builder("gateway.tracing.tail.buffered_spans", bufferedSpans, AtomicInteger::get)
+                .description("Spans aguardando decisão no buffer")
+                .register(meterRegistry);
+        Gauge.builder("gateway.tracing.tail.buffer_usage", buffers, b -> (double) b.size() / this.properties.getMaxTraces())
+                .description("Ocupação do buffer de traces (0-1)")
+                .register(meterRegistry);
+        Gauge.builder("gateway.tracing.tail.keep_ratio", this, TailSamplingSpanProcessor::keepRatio)
+                .description("Fração dos traces decididos que foram mantidos")
+                .register(meterRegistry);
+
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "tail-sampling-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sweeper.scheduleAtFixedRate(this::sweep, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Registra o resultado da requisição do gateway para a decisão do trace.
+     */
+    public void recordOutcome(String traceId, String routeId, int status, long durationMs,
+                              boolean fallback, boolean error) {
+        if (!properties.isEnabled() || traceId == null || traceId.isEmpty()) {
+            return;
+        }
+        TraceBuffer buffer = buffer(traceId);
+        if (buffer != null) {
+            buffer.outcome = new Outcome(routeId, status, durationMs, fallback, error);
+        }
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return false;
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        SpanData data = span.toSpanData();
+
+        if (!properties.isEnabled()) {
+            exportQueue.offer(List.of(data));
+            return;
+        }
+
+        String traceId = data.getTraceId();
+        Decision previous = decided.get(traceId);
+        if (previous != null) {
+            if (previous.keep()) {
+                exportQueue.offer(List.of(data));
+            }
+            return;
+        }
+
+        TraceBuffer buffer = buffer(traceId);
+        if (buffer == null) {
+            bufferFullCounter.increment();
+            return;
+        }
+
+        synchronized (buffer) {
+            if (buffer.spans.size() >= properties.getMaxSpansPerTrace()) {
+                traceTooLargeCounter.increment();
+            } else {
+                buffer.spans.add(data);
+                bufferedSpans.incrementAndGet();
+            }
+            if (data.getStatus().getStatusCode() == StatusCode.ERROR) {
+                buffer.error = true;
+            }
+            int httpStatus = httpStatus(data);
+            if (httpStatus > buffer.httpStatus) {
+                buffer.httpStatus = httpStatus;
+            }
+        }
+
+        if (isLocalRoot(span.getParentSpanContext())) {
+            decide(traceId);
+        }
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        sweeper.shutdownNow();
+        buffers.keySet().forEach(this::decide);
+        return exportQueue.shutdown();
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    private TraceBuffer buffer(String traceId) {
+        TraceBuffer existing = buffers.get(traceId);
+        if (existing != null) {
+            return existing;
+        }
+        if (buffers.size() >= properties.getMaxTraces()) {
+            return null;
+        }
+        return buffers.computeIfAbsent(traceId, id -> new TraceBuffer(System.nanoTime()));
+    }
+
+    private boolean isLocalRoot(SpanContext parent) {
+        return !parent.isValid() || parent.isRemote();
+    }
+
+    private void decide(String traceId) {
+        TraceBuffer buffer = buffers.remove(traceId);
+        if (buffer == null) {
+            return;
+        }
+
+        List<SpanData> spans;
+        String reason;
+        synchronized (buffer) {
+            spans = new ArrayList<>(buffer.spans);
+            reason = keepReason(buffer);
+        }
+        bufferedSpans.addAndGet(-spans.size());
+
+        boolean keep = reason != null;
+        if (!keep && ThreadLocalRandom.current().nextDouble() < properties.getSampleRate()) {
+            reason = "sampled";
+            keep = true;
+        }
+
+        decided.put(traceId, new Decision(keep, System.nanoTime()));
+        decidedTraces.incrementAndGet();
+        (keep ? keepCounters.get(reason) : dropCounter).increment();
+
+        if (keep) {
+            keptTraces.incrementAndGet();
+            exportQueue.offer(spans);
+        }
+    }
+
+    private static Counter decisionCounter(String decision, String reason, MeterRegistry meterRegistry) {
+        return Counter.builder("gateway.tracing.tail.decisions")
+                .tag("decision", decision)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Motivo para manter o trace independentemente da amostragem (um de {@link #KEEP_REASONS}), ou null.
+     */
+    private String keepReason(TraceBuffer buffer) {
+        Outcome outcome = buffer.outcome;
+        int status = outcome != null ? Math.max(outcome.status(), buffer.httpStatus) : buffer.httpStatus;
+
+        if (buffer.error || (outcome != null && outcome.error())) {
+            return "error";
+        }
+        if (status >= 500) {
+            return "server_error";
+        }
+        if (status == 429) {
+            return "rate_limited";
+        }
+        if (outcome != null && outcome.fallback()) {
+            return "fallback";
+        }
+        if (outcome != null && outcome.durationMs() > latencyThreshold(outcome.routeId()).toMillis()) {
+            return "slow";
+        }
+        return null;
+    }
+
+    private Duration latencyThreshold(String routeId) {
+        return properties.getRouteLatencyThresholds()
+                .getOrDefault(routeId, properties.getDefaultLatencyThreshold());
+    }
+
+    private int httpStatus(SpanData data) {
+        Long status = data.getAttributes().get(HTTP_STATUS_ATTR);
+        if (status != null) {
+            return status.intValue();
+        }
+        String tag = data.getAttributes().get(STATUS_ATTR);
+        if (tag == null) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(tag);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private double keepRatio() {
+        long total = decidedTraces.get();
+        return total == 0 ? 0.0 : (double) keptTraces.get() / total;
+    }
+
+    /**
+     * Decide traces cujo span raiz não terminou a tempo e expira decisões antigas.
+     */
+    private void sweep() {
+        long now = System.nanoTime();
+        long waitNanos = properties.getDecisionWait().toNanos();
+
+        buffers.forEach((traceId, buffer) -> {
+            if (now - buffer.createdAt > waitNanos) {
+                decide(traceId);
+            }
+        });
+        decided.entrySet().removeIf(entry -> now - entry.getValue().decidedAt() > waitNanos);
+    }
+
+    private static final class TraceBuffer {
+
+        private final long createdAt;
+        private final List<SpanData> spans = new ArrayList<>();
+        private boolean error;
+        private int httpStatus;
+        private volatile Outcome outcome;
+
+        private TraceBuffer(long createdAt) {
+            this.createdAt = createdAt;
+        }
+    }
+
+    private record Outcome(String routeId, int status, long durationMs, boolean fallback, boolean error) {
+    }
+
+    private record Decision(boolean keep, long decidedAt) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.portfolio.api_gateway.upstream;
+
+import com.portfolio.api_gateway.timing.PhaseTimings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
+import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.netty.http.client.HttpClient;
+
+import java.util.List;
+
+/**
+ * NettyRoutingFilter que encaminha cada rota pelo HttpClient do seu pool isolado
+ * ({@link UpstreamConnectionPoolRegistry}) em vez do HttpClient único do gateway.
+ *
+ * Executa imediatamente antes do NettyRoutingFilter padrão; como marca a exchange
+ * como roteada, o filtro padrão apenas repassa a cadeia.
+ */
+public class PooledNettyRoutingFilter extends NettyRoutingFilter {
+
+    private final UpstreamConnectionPoolRegistry poolRegistry;
+
+    public PooledNettyRoutingFilter(HttpClient httpClient,
+                                    ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider,
+                                    HttpClientProperties properties,
+                                    UpstreamConnectionPoolRegistry poolRegistry) {
+        super(httpClient, headersFiltersProvider, properties);
+        this.poolRegistry = poolRegistry;
+    }
+
+    @Override
+    protected HttpClient getHttpClient(Route route, ServerWebExchange exchange) {
+        // Chamado a cada tentativa, imediatamente antes de pedir a conexão ao pool
+        PhaseTimings timings = PhaseTimings.of(exchange);
+        if (timings != null) {
+            timings.markUpstreamStart();
+        }
+        return poolRegistry.clientFor(route);
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyRoutingFilter.ORDER - 1;
+    }
+}
@@ -0,0 +1,209 @@
+package com.portfolio.api_gateway.upstream;
+
+import com.portfolio.api_gateway.timing.PhaseTimings;
+import com.portfolio.api_gateway.upstream.UpstreamPoolProperties.PoolConfig;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.cloud.gateway.config.HttpClientSslConfigurer;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.context.event.EventListener;
+import org.springframework.util.StringUtils;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.transport.ProxyProvider;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Registro dos HttpClients isolados por pool de conexões.
+ *
+ * Cada pool tem seu próprio {@link ConnectionProvider} (max conexões, fila de aquisição,
+ * remoção de ociosas), de modo que um downstream lento esgota apenas as próprias conexões.
+ *
+ * O HttpClient de cada pool recebe a mesma configuração do HttpClient padrão do gateway
+ * (spring.cloud.gateway.httpclient: connect-timeout, SSL, proxy, wiretap, compressão e limites
+ * de header) e os {@link HttpClientCustomizer} registrados; só o pool de conexões é próprio.
+ *
+ * Métricas do Reactor Netty habilitadas por pool:
+ * - reactor.netty.connection.provider.* (tag name=gateway-{pool})
+ * - reactor.netty.http.client.* (tag uri={pool})
+ *
+ * Os hooks doOnRequest/doOnResponse alimentam as fases de conexão e TTFB do
+ * {@link PhaseTimings} publicado no Reactor Context da requisição.
+ */
+@Slf4j
+public class UpstreamConnectionPoolRegistry {
+
+    private static final String LB_SCHEME = "lb";
+
+    private final UpstreamPoolProperties properties;
+    private final HttpClientProperties httpClientProperties;
+    private final HttpClientSslConfigurer sslConfigurer;
+    private final List<HttpClientCustomizer> customizers;
+
+    private final Map<String, Pool> pools = new ConcurrentHashMap<>();
+    private final Map<String, HttpClient> routeClients = new ConcurrentHashMap<>();
+
+    public UpstreamConnectionPoolRegistry(UpstreamPoolProperties properties,
+                                          HttpClientProperties httpClientProperties,
+                                          HttpClientSslConfigurer sslConfigurer,
+                                          List<HttpClientCustomizer> customizers) {
+        this.properties = properties;
+        this.httpClientProperties = httpClientProperties;
+        this.sslConfigurer = sslConfigurer;
+        this.customizers = customizers;
+    }
+
+    /**
+     * HttpClient do pool da rota, já com o connect-timeout do metadata da rota aplicado.
+     */
+    public HttpClient clientFor(Route route) {
+        return routeClients.computeIfAbsent(route.getId(), id -> {
+            HttpClient client = pool(poolKey(route)).client();
+            Object connectTimeout = route.getMetadata().get(RouteMetadataUtils.CONNECT_TIMEOUT_ATTR);
+            if (connectTimeout != null) {
+                client = client.option(ChannelOption.CONNECT_TIMEOUT_MILLIS,
+                        Integer.parseInt(connectTimeout.toString()));
+            }
+            return client;
+        });
+    }
+
+    public String poolKey(Route route) {
+        if (properties.getGroupBy() == UpstreamPoolProperties.GroupBy.SERVICE && serviceId(route) != null) {
+            return serviceId(route);
+        }
+        return route.getId();
+    }
+
+    public PoolConfig configFor(String poolKey) {
+        PoolConfig base = properties.getDefaults().mergedWith(PoolConfig.withDefaults());
+        PoolConfig override = properties.getPools().get(poolKey);
+        return override != null ? override.mergedWith(base) : base;
+    }
+
+    /**
+     * Service ID de rotas lb://, ou null para rotas com URI fixa.
+     */
+    public static String serviceId(Route route) {
+        return LB_SCHEME.equals(route.getUri().getScheme()) ? route.getUri().getHost() : null;
+    }
+
+    @EventListener
+    public void onRoutesRefreshed(RefreshRoutesResultEvent event) {
+        // Metadata (connect-timeout) pode ter mudado; os pools são mantidos
+        routeClients.clear();
+    }
+
+    @PreDestroy
+    public void dispose() {
+        pools.values().forEach(pool -> pool.provider().disposeLater().subscribe());
+    }
+
+    private Pool pool(String key) {
+        return pools.computeIfAbsent(key, this::createPool);
+    }
+
+    private Pool createPool(String key) {
+        PoolConfig config = configFor(key);
+
+        ConnectionProvider provider = ConnectionProvider.builder("gateway-" + key)
+                .maxConnections(config.getMaxConnections())
+                .pendingAcquireMaxCount(config.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(config.getPendingAcquireTimeout())
+                .maxIdleTime(config.getMaxIdleTime())
+                .maxLifeTime(config.getMaxLifeTime())
+                .evictInBackground(config.getEvictionInterval())
+                .metrics(true)
+                .build();
+
+        // metrics depois dos customizers: o customizer de métricas do HttpClient padrão usa uri=default
+        HttpClient client = configure(HttpClient.create(provider))
+                .metrics(true, uri -> key)
+                .doOnRequest((request, connection) -> {
+                    PhaseTimings timings = PhaseTimings.of(request.currentContextView());
+                    if (timings != null) {
+                        timings.markRequestSent();
+                    }
+                })
+                .doOnResponse((response, connection) -> {
+                    PhaseTimings timings = PhaseTimings.of(response.currentContextView());
+                    if (timings != null) {
+                        timings.markResponseReceived();
+                    }
+                });
+
+        if (Boolean.TRUE.equals(config.getHttp2())) {
+            client = client.protocol(HttpProtocol.H2C);
+        }
+
+        log.info("Pool de conexões upstream criado",
+                kv("event", "upstream_pool_created"),
+                kv("pool", key),
+                kv("max_connections", config.getMaxConnections()),
+                kv("pending_acquire_max", config.getPendingAcquireMaxCount()),
+                kv("http2", config.getHttp2()));
+
+        return new Pool(provider, client);
+    }
+
+    /**
+     * Aplica spring.cloud.gateway.httpclient e os customizers, como o HttpClientFactory do gateway.
+     */
+    private HttpClient configure(HttpClient client) {
+        HttpClientProperties http = httpClientProperties;
+        client = client.httpResponseDecoder(spec -> {
+            if (http.getMaxHeaderSize() != null) {
+                spec.maxHeaderSize((int) http.getMaxHeaderSize().toBytes());
+            }
+            if (http.getMaxInitialLineLength() != null) {
+                spec.maxInitialLineLength((int) http.getMaxInitialLineLength().toBytes());
+            }
+            return spec;
+        });
+        if (http.getConnectTimeout() != null) {
+            client = client.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, http.getConnectTimeout());
+        }
+
+        HttpClientProperties.Proxy proxy = http.getProxy();
+        if (StringUtils.hasText(proxy.getHost())) {
+            client = client.proxy(spec -> {
+                ProxyProvider.Builder builder = spec.type(ProxyProvider.Proxy.HTTP).host(proxy.getHost());
+                if (proxy.getPort() != null) {
+                    builder.port(proxy.getPort());
+                }
+                if (StringUtils.hasText(proxy.getUsername())) {
+                    builder.username(proxy.getUsername()).password(user -> proxy.getPassword());
+                }
+                if (StringUtils.hasText(proxy.getNonProxyHostsPattern())) {
+                    builder.nonProxyHosts(proxy.getNonProxyHostsPattern());
+                }
+            });
+        }
+
+        client = sslConfigurer.configureSsl(client);
+        if (http.isWiretap()) {
+            client = client.wiretap(true);
+        }
+        if (http.isCompression()) {
+            client = client.compress(true);
+        }
+        for (HttpClientCustomizer customizer : customizers) {
+            client = customizer.customize(client);
+        }
+        return client;
+    }
+
+    private record Pool(ConnectionProvider provider, HttpClient client) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.portfolio.api_gateway.upstream;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Propriedades dos pools de conexão isolados por rota ou por serviço downstream.
+ *
+ * Exemplo de configuração em application.yaml:
+ *
+ * gateway:
+ *   upstream-pools:
+ *     enabled: true
+ *     group-by: SERVICE
+ *     defaults:
+ *       max-connections: 100
+ *       pending-acquire-max-count: 200
+ *     pools:
+ *       products-service:
+ *         max-connections: 50
+ *         http2: true
+ *         min-connections: 4
+ *
+ * As entradas de "pools" sobrescrevem apenas os campos informados; os demais vêm de "defaults".
+ */
+@Data
+@ConfigurationProperties(prefix = "gateway.upstream-pools")
+public class UpstreamPoolProperties {
+
+    /** Habilita os pools isolados (desabilitado, todas as rotas usam o HttpClient padrão do gateway). */
+    private boolean enabled = true;
+
+    /** Granularidade do isolamento. */
+    private GroupBy groupBy = GroupBy.SERVICE;
+
+    /** Valores padrão de todos os pools. */
+    private PoolConfig defaults = PoolConfig.withDefaults();
+
+    /** Sobrescritas por chave do pool (route ID ou service ID, conforme group-by). */
+    private Map<String, PoolConfig> pools = new HashMap<>();
+
+    public enum GroupBy {
+        /** Um pool por serviço lb:// (rotas do mesmo serviço compartilham conexões). */
+        SERVICE,
+        /** Um pool por route ID. */
+        ROUTE
+    }
+
+    /**
+     * Configuração de um pool. Campos nulos herdam de "defaults".
+     */
+    @Data
+    public static class PoolConfig {
+
+        /** Conexões máximas do pool (com HTTP/2, conexões multiplexadas). */
+        private Integer maxConnections;
+
+        /** Máximo de aquisições pendentes aguardando conexão livre. */
+        private Integer pendingAcquireMaxCount;
+
+        /** Tempo máximo aguardando uma conexão livre. */
+        private Duration pendingAcquireTimeout;
+
+        /** Conexões ociosas por mais tempo que isso são fechadas. */
+        private Duration maxIdleTime;
+
+        /** Tempo de vida máximo de uma conexão. */
+        private Duration maxLifeTime;
+
+        /** Intervalo da remoção de conexões ociosas em background. */
+        private Duration evictionInterval;
+
+        /** Usa HTTP/2 cleartext (h2c, prior knowledge) com o downstream. */
+        private Boolean http2;
+
+        /** Conexões abertas por instância no startup e quando novas instâncias aparecem no discovery. */
+        private Integer minConnections;
+
+        /** Path requisitado para abrir as conexões de pré-aquecimento. */
+        private String warmupPath;
+
+        static PoolConfig withDefaults() {
+            PoolConfig config = new PoolConfig();
+            config.setMaxConnections(100);
+            config.setPendingAcquireMaxCount(200);
+            config.setPendingAcquireTimeout(Duration.ofSeconds(1));
+            config.setMaxIdleTime(Duration.ofSeconds(30));
+            config.setMaxLifeTime(Duration.ofMinutes(5));
+            config.setEvictionInterval(Duration.ofSeconds(10));
+            config.setHttp2(false);
+            config.setMinConnections(0);
+            config.setWarmupPath("/actuator/health");
+            return config;
+        }
+
+        PoolConfig mergedWith(PoolConfig defaults) {
+            PoolConfig merged = new PoolConfig();
+            merged.setMaxConnections(maxConnections != null ? maxConnections : defaults.getMaxConnections());
+            merged.setPendingAcquireMaxCount(pendingAcquireMaxCount != null
+                    ? pendingAcquireMaxCount : defaults.getPendingAcquireMaxCount());
+            merged.setPendingAcquireTimeout(pendingAcquireTimeout != null
+                    ? pendingAcquireTimeout : defaults.getPendingAcquireTimeout());
+            merged.setMaxIdleTime(maxIdleTime != null ? maxIdleTime : defaults.getMaxIdleTime());
+            merged.setMaxLifeTime(maxLifeTime != null ? maxLifeTime : defaults.getMaxLifeTime());
+            merged.setEvictionInterval(evictionInterval != null ? evictionInterval : defaults.getEvictionInterval());
+            merged.setHttp2(http2 != null ? http2 : defaults.getHttp2());
+            merged.setMinConnections(minConnections != null ? minConnections : defaults.getMinConnections());
+            merged.setWarmupPath(warmupPath != null ? warmupPath : defaults.getWarmupPath());
+            return merged;
+        }
+    }
+}
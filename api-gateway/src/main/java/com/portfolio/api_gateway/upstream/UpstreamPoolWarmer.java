@@ -0,0 +1,83 @@
+package com.portfolio.api_gateway.upstream;
+
+import com.portfolio.api_gateway.discovery.DiscoverySnapshotChangedEvent;
+import com.portfolio.api_gateway.upstream.UpstreamPoolProperties.PoolConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.ReactiveDiscoveryClient;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.event.EventListener;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Pré-aquecimento dos pools de conexão upstream.
+ *
+ * Abre min-connections conexões por instância (requisições concorrentes ao warmup-path)
+ * no startup e sempre que o discovery reporta novas instâncias, evitando que as primeiras
+ * requisições reais paguem o handshake TCP.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class UpstreamPoolWarmer {
+
+    private static final Duration WARMUP_TIMEOUT = Duration.ofSeconds(5);
+
+    private final UpstreamConnectionPoolRegistry poolRegistry;
+    private final RouteLocator routeLocator;
+    private final ReactiveDiscoveryClient discoveryClient;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpOnStartup() {
+        routeLocator.getRoutes()
+                .filter(route -> UpstreamConnectionPoolRegistry.serviceId(route) != null)
+                .flatMap(route -> discoveryClient.getInstances(UpstreamConnectionPoolRegistry.serviceId(route))
+                        .collectList()
+                        .flatMap(instances -> warmUp(route, instances)))
+                .subscribe();
+    }
+
+    @EventListener
+    public void warmUpNewInstances(DiscoverySnapshotChangedEvent event) {
+        if (event.getAdded().isEmpty()) {
+            return;
+        }
+
+        routeLocator.getRoutes()
+                .filter(route -> event.getServiceId().equals(UpstreamConnectionPoolRegistry.serviceId(route)))
+                .flatMap(route -> warmUp(route, event.getAdded()))
+                .subscribe();
+    }
+
+    private Mono<Void> warmUp(Route route, List<ServiceInstance> instances) {
+        PoolConfig config = poolRegistry.configFor(poolRegistry.poolKey(route));
+        int connections = config.getMinConnections();
+        if (connections <= 0 || instances.isEmpty()) {
+            return Mono.empty();
+        }
+
+        return Flux.fromIterable(instances)
+                .flatMap(instance -> Flux.range(0, connections)
+                        // Requisições concorrentes forçam a abertura de conexões distintas no pool
+                        .flatMap(i -> poolRegistry.clientFor(route)
+                                .get()
+                                .uri(instance.getUri() + config.getWarmupPath())
+                                .responseSingle((response, body) -> body.then())
+                                .timeout(WARMUP_TIMEOUT)
+                                .onErrorResume(e -> Mono.empty()), connections)
+                        .then(Mono.fromRunnable(() -> log.debug("Pool pré-aquecido",
+                                kv("event", "upstream_pool_warmed"),
+                                kv("route_id", route.getId()),
+                                kv("instance", instance.getUri()),
+                                kv("connections", connections)))))
+                .then();
+    }
+}
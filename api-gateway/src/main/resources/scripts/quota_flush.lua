@@ -0,0 +1,24 @@
+-- Flush em lote dos contadores de quota.
+-- KEYS[i]: contador (consumidor + período); ARGV[2i-1]: delta local acumulado; ARGV[2i]: TTL em segundos
+-- Retorna o total global de cada contador após o incremento (delta 0 apenas lê).
+local totals = {}
+
+for i, key in ipairs(KEYS) do
+    local delta = tonumber(ARGV[2 * i - 1])
+    local ttl = tonumber(ARGV[2 * i])
+    local total
+
+    if delta > 0 then
+        total = redis.call('INCRBY', key, delta)
+        -- TTL definido na criação: o contador expira após o fim do período
+        if redis.call('TTL', key) < 0 then
+            redis.call('EXPIRE', key, ttl)
+        end
+    else
+        total = tonumber(redis.call('GET', key) or '0')
+    end
+
+    totals[i] = total
+end
+
+return totals
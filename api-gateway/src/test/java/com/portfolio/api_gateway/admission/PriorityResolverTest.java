@@ -0,0 +1,101 @@
+package com.portfolio.api_gateway.admission;
+
+import com.portfolio.api_gateway.security.apikey.ApiKeyProperties;
+import com.portfolio.api_gateway.security.apikey.ApiKeyResolver;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Classificação antes da cadeia de segurança: rotas com metadata "priority" e tier lido do
+ * Bearer (sem validação) ou do cache local de API keys.
+ */
+class PriorityResolverTest {
+
+    private final AdmissionControlProperties properties = new AdmissionControlProperties();
+    private final ApiKeyProperties apiKeyProperties = new ApiKeyProperties();
+    private final ApiKeyResolver apiKeyResolver = mock(ApiKeyResolver.class);
+    private final RouteLocator routeLocator = mock(RouteLocator.class);
+
+    private PriorityResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        properties.setClaimPriorities(Map.of("premium", Priority.HIGH, "free", Priority.LOW));
+        apiKeyProperties.setEnabled(true);
+
+        // rota Java DSL: sem RouteDefinition, só o predicate e o metadata
+        Route internal = Route.async()
+                .id("orders-service-internal")
+                .uri("lb://orders-service")
+                .predicate(exchange -> exchange.getRequest().getPath().value().startsWith("/api/v1/orders/internal/"))
+                .metadata(PriorityResolver.PRIORITY_METADATA, "HIGH")
+                .build();
+        Route products = Route.async()
+                .id("products-service")
+                .uri("lb://products-service")
+                .predicate(exchange -> exchange.getRequest().getPath().value().startsWith("/api/v1/products/"))
+                .metadata(PriorityResolver.PRIORITY_METADATA, "LOW")
+                .build();
+        when(routeLocator.getRoutes()).thenReturn(Flux.just(internal, products));
+
+        resolver = new PriorityResolver(properties, routeLocator, apiKeyResolver, apiKeyProperties);
+        resolver.refresh();
+    }
+
+    @Test
+    void criticalPathsAndRouteMetadata() {
+        assertThat(resolve(MockServerHttpRequest.get("/actuator/health/liveness"))).isEqualTo(Priority.CRITICAL);
+        assertThat(resolve(MockServerHttpRequest.get("/api/v1/orders/internal/42"))).isEqualTo(Priority.HIGH);
+        assertThat(resolve(MockServerHttpRequest.get("/api/v1/products/1"))).isEqualTo(Priority.LOW);
+        assertThat(resolve(MockServerHttpRequest.get("/api/v1/users/1"))).isEqualTo(Priority.NORMAL);
+    }
+
+    @Test
+    void bearerTierIsReadWithoutVerification() {
+        String token = jwt("{\"sub\":\"ana\",\"scope\":{\"nested\":\"x\"},\"tier\":\"premium\"}");
+
+        assertThat(resolve(MockServerHttpRequest.get("/api/v1/products/1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))).isEqualTo(Priority.HIGH);
+        assertThat(resolve(MockServerHttpRequest.get("/api/v1/products/1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer not-a-jwt"))).isEqualTo(Priority.LOW);
+        assertThat(PriorityResolver.unverifiedClaim(jwt("{\"tier\":7}"), "tier")).isNull();
+    }
+
+    @Test
+    void apiKeyTierComesFromLocalCacheOnly() {
+        when(apiKeyResolver.cachedTier("sk_live_gold")).thenReturn("premium");
+
+        assertThat(resolve(MockServerHttpRequest.get("/api/v1/products/1")
+                .header("X-API-Key", "sk_live_gold"))).isEqualTo(Priority.HIGH);
+        // key ainda não resolvida: prioridade da rota, mesmo com um Bearer premium junto
+        assertThat(resolve(MockServerHttpRequest.get("/api/v1/products/1")
+                .header("X-API-Key", "sk_live_unknown")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwt("{\"tier\":\"premium\"}"))))
+                .isEqualTo(Priority.LOW);
+    }
+
+    private Priority resolve(MockServerHttpRequest.BaseBuilder<?> request) {
+        return resolver.resolve(MockServerWebExchange.from(request)).block();
+    }
+
+    private static String jwt(String payload) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"RS256\"}".getBytes(StandardCharsets.UTF_8))
+                + "." + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+                + ".c2ln";
+    }
+}
@@ -0,0 +1,227 @@
+package com.portfolio.api_gateway.aggregation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.api_gateway.bulkhead.CoDelBulkheadGatewayFilterFactory;
+import com.portfolio.api_gateway.bulkhead.CoDelBulkheadProperties;
+import com.portfolio.api_gateway.exception.AggregationFailedException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Execução das rotas de agregação contra um downstream embutido (Reactor Netty).
+ */
+class AggregationExecutorTest {
+
+    private static final String[] ALL_SCOPES = {"SCOPE_users:read", "SCOPE_orders:read", "SCOPE_products:read"};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, LongAdder> calls = new ConcurrentHashMap<>();
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DisposableServer downstream;
+    private AggregationExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        downstream = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle((request, response) -> {
+                    String path = request.uri().split("\\?")[0];
+                    calls.computeIfAbsent(path, p -> new LongAdder()).increment();
+                    return switch (path) {
+                        case "/users/ana" -> response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                .sendString(Mono.just("{\"name\":\"Ana\"}")).then();
+                        case "/orders" -> response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                .sendString(Mono.just("[{\"id\":1}]")).then();
+                        case "/slow" -> Mono.delay(Duration.ofMillis(200))
+                                .then(response.header(HttpHeaderNames.CONTENT_TYPE, "application/vnd.api+json")
+                                        .sendString(Mono.just("{\"slow\":true}")).then());
+                        case "/text" -> response.header(HttpHeaderNames.CONTENT_TYPE, "text/html")
+                                .sendString(Mono.just("<html>login</html>")).then();
+                        case "/missing" -> response.status(HttpResponseStatus.NOT_FOUND).send().then();
+                        default -> response.status(HttpResponseStatus.SERVICE_UNAVAILABLE).send().then();
+                    };
+                })
+                .bindNow();
+
+        executor = new AggregationExecutor(
+                WebClient.builder().build(),
+                circuitBreakerRegistry,
+                new CoDelBulkheadGatewayFilterFactory(BulkheadRegistry.ofDefaults(), new CoDelBulkheadProperties(), meterRegistry),
+                new AggregationProperties(),
+                meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        downstream.disposeNow();
+    }
+
+    @Test
+    void nullFieldPolicyWritesNullAndDescribesFailures() throws Exception {
+        AggregationDefinition definition = definition(PartialPolicy.NULL_FIELD,
+                leg("user", "/users/{principal}", "SCOPE_users:read", true),
+                leg("orders", "/orders?userId={principal}", "SCOPE_orders:read", false),
+                leg("broken", "/broken", "SCOPE_orders:read", false),
+                leg("page", "/text", "SCOPE_products:read", false),
+                leg("slow", "/slow", "SCOPE_products:read", false));
+
+        JsonNode body = execute(definition, ALL_SCOPES);
+
+        assertThat(body.get("user").get("name").asText()).isEqualTo("Ana");
+        assertThat(body.get("orders").get(0).get("id").asInt()).isEqualTo(1);
+        assertThat(body.get("slow").get("slow").asBoolean()).isTrue();
+        assertThat(body.get("broken").isNull()).isTrue();
+        assertThat(body.get("page").isNull()).isTrue();
+        assertThat(body.get("_errors").get("broken").asText()).isEqualTo("status_503");
+        assertThat(body.get("_errors").get("page").asText()).isEqualTo("not_json");
+        assertThat(body.get("_errors")).hasSize(2);
+    }
+
+    @Test
+    void omitPolicyDropsFailedLegsAndSkipsErrorsWhenAllSucceed() throws Exception {
+        JsonNode partial = execute(definition(PartialPolicy.OMIT,
+                leg("user", "/users/{principal}", "SCOPE_users:read", false),
+                leg("broken", "/broken", "SCOPE_orders:read", false)), ALL_SCOPES);
+
+        assertThat(partial.has("broken")).isFalse();
+        assertThat(partial.get("user").get("name").asText()).isEqualTo("Ana");
+        assertThat(partial.get("_errors").get("broken").asText()).isEqualTo("status_503");
+
+        JsonNode complete = execute(definition(PartialPolicy.OMIT,
+                leg("user", "/users/{principal}", "SCOPE_users:read", false)), ALL_SCOPES);
+
+        assertThat(complete.has("_errors")).isFalse();
+    }
+
+    @Test
+    void requiredLegFailureRejectsBeforeWritingBody() {
+        MockServerWebExchange exchange = exchange(ALL_SCOPES);
+        AggregationDefinition definition = definition(PartialPolicy.NULL_FIELD,
+                leg("user", "/users/{principal}", "SCOPE_users:read", false),
+                leg("page", "/text", "SCOPE_products:read", true));
+
+        StepVerifier.create(executor.execute(exchange, "home", definition))
+                .expectErrorSatisfies(e -> {
+                    assertThat(e).isInstanceOf(AggregationFailedException.class);
+                    assertThat(((AggregationFailedException) e).getLeg()).isEqualTo("page");
+                    assertThat(((AggregationFailedException) e).getReason()).isEqualTo("not_json");
+                })
+                .verify(Duration.ofSeconds(5));
+        assertThat(exchange.getResponse().isCommitted()).isFalse();
+    }
+
+    @Test
+    void failPolicyTreatsEveryLegAsRequired() {
+        AggregationDefinition definition = definition(PartialPolicy.FAIL,
+                leg("user", "/users/{principal}", "SCOPE_users:read", false),
+                leg("broken", "/broken", "SCOPE_orders:read", false));
+
+        StepVerifier.create(executor.execute(exchange(ALL_SCOPES), "home", definition))
+                .expectErrorSatisfies(e -> assertThat(((AggregationFailedException) e).getLeg()).isEqualTo("broken"))
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void legsWithoutAuthorityAreNotCalled() throws Exception {
+        AggregationDefinition optional = definition(PartialPolicy.NULL_FIELD,
+                leg("user", "/users/{principal}", "SCOPE_users:read", true),
+                leg("orders", "/orders", "SCOPE_orders:read", false));
+
+        JsonNode body = execute(optional, "SCOPE_users:read");
+
+        assertThat(body.get("orders").isNull()).isTrue();
+        assertThat(body.get("_errors").get("orders").asText()).isEqualTo("forbidden");
+        assertThat(calls).doesNotContainKey("/orders");
+
+        AggregationDefinition required = definition(PartialPolicy.NULL_FIELD,
+                leg("user", "/users/{principal}", "SCOPE_users:read", false),
+                leg("orders", "/orders", "SCOPE_orders:read", true));
+        calls.clear();
+
+        StepVerifier.create(executor.execute(exchange("SCOPE_users:read"), "home", required))
+                .expectError(AccessDeniedException.class)
+                .verify(Duration.ofSeconds(5));
+        assertThat(calls).isEmpty();
+    }
+
+    @Test
+    void clientErrorsFailTheLegWithoutCountingAgainstTheCircuit() throws Exception {
+        JsonNode body = execute(definition(PartialPolicy.NULL_FIELD,
+                leg("missing", "/missing", "SCOPE_orders:read", false),
+                leg("page", "/text", "SCOPE_products:read", false),
+                leg("broken", "/broken", "SCOPE_orders:read", false)), ALL_SCOPES);
+
+        assertThat(body.get("_errors").get("missing").asText()).isEqualTo("status_404");
+        assertThat(failedCalls("stub-missing")).isZero();
+        assertThat(failedCalls("stub-page")).isZero();
+        assertThat(failedCalls("stub-broken")).isEqualTo(1);
+        assertThat(meterRegistry.get("gateway.bulkhead.sojourn").tag("route", "stub-missing").timer().count())
+                .isEqualTo(1);
+    }
+
+    private int failedCalls(String route) {
+        return circuitBreakerRegistry.circuitBreaker(route).getMetrics().getNumberOfFailedCalls();
+    }
+
+    private JsonNode execute(AggregationDefinition definition, String... authorities) throws Exception {
+        MockServerWebExchange exchange = exchange(authorities);
+        executor.execute(exchange, "home", definition).block(Duration.ofSeconds(5));
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+        String body = exchange.getResponse().getBodyAsString().block(Duration.ofSeconds(5));
+        return objectMapper.readTree(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MockServerWebExchange exchange(String... authorities) {
+        return MockServerWebExchange.builder(MockServerHttpRequest.get("/api/v1/bff/home"))
+                .principal(new TestingAuthenticationToken("ana", null, authorities))
+                .build();
+    }
+
+    private static AggregationDefinition definition(PartialPolicy policy, AggregationDefinition.Leg... legs) {
+        AggregationDefinition definition = new AggregationDefinition();
+        definition.setPath("/api/v1/bff/home");
+        definition.setPartialPolicy(policy);
+        definition.setLegs(List.of(legs));
+        return definition;
+    }
+
+    private AggregationDefinition.Leg leg(String name, String path, String authority, boolean required) {
+        AggregationDefinition.Leg leg = new AggregationDefinition.Leg();
+        leg.setName(name);
+        leg.setUri("http://127.0.0.1:" + downstream.port() + path);
+        leg.setAuthority(authority);
+        leg.setRequired(required);
+        leg.setRoute("stub-" + name);
+        return leg;
+    }
+}
@@ -0,0 +1,125 @@
+package com.portfolio.api_gateway.filter.error;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portfolio.api_gateway.dto.ErrorResponse;
+import com.portfolio.api_gateway.exception.RateLimitExceededException;
+import com.portfolio.api_gateway.exception.ServiceUnavailableException;
+import io.netty.buffer.PooledByteBufAllocator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.http.HttpStatus;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ErrorResponseWriterTest {
+
+    private static final String PATH = "/api/v1/orders/42";
+    private static final String REQUEST_ID = "01928f4e-7b3a-7c1d-9e2f-123456789abc";
+
+    private final ErrorResponseWriter writer = new ErrorResponseWriter();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void producesSameFieldsAsErrorResponse() throws Exception {
+        RateLimitExceededException ex = new RateLimitExceededException(100, 0, Instant.now(), 7);
+
+        JsonNode json = encode(HttpStatus.TOO_MANY_REQUESTS, ex.getErrorCode(), ex.getMessage(), PATH, REQUEST_ID, ex);
+
+        assertThat(json.get("status").asInt()).isEqualTo(429);
+        assertThat(json.get("error").asText()).isEqualTo("Too Many Requests");
+        assertThat(json.get("errorCode").asText()).isEqualTo("RATE_LIMIT_EXCEEDED");
+        assertThat(json.get("message").asText()).isEqualTo(ex.getMessage());
+        assertThat(json.get("path").asText()).isEqualTo(PATH);
+        assertThat(json.get("requestId").asText()).isEqualTo(REQUEST_ID);
+        assertThat(Instant.parse(json.get("timestamp").asText())).isCloseTo(Instant.now(), within(5, ChronoUnit.SECONDS));
+        assertThat(json.get("details").get("limit").asLong()).isEqualTo(100);
+        assertThat(json.get("details").get("remaining").asLong()).isZero();
+        assertThat(json.get("details").get("retryAfterSeconds").asLong()).isEqualTo(7);
+    }
+
+    @Test
+    void escapesVariableFields() throws Exception {
+        String path = "/api/v1/\"quoted\"\\ação\n\u0001😀";
+
+        JsonNode json = encode(HttpStatus.UNAUTHORIZED, "UNAUTHORIZED", "Autenticação necessária.", path, null,
+                new ServiceUnavailableException("orders"));
+
+        assertThat(json.get("path").asText()).isEqualTo(path);
+        assertThat(json.get("message").asText()).isEqualTo("Autenticação necessária.");
+        assertThat(json.has("requestId")).isFalse();
+        assertThat(json.get("details").get("service").asText()).isEqualTo("orders");
+    }
+
+    /**
+     * Bytes alocados na heap por resposta rejeitada: Jackson + ErrorResponse vs templates pré-codificados.
+     * Executado apenas com o profile benchmark (mvn test -Pbenchmark).
+     */
+    @Test
+    @Tag("benchmark")
+    void benchmarkAllocatedBytesPerRejection() throws Exception {
+        int iterations = 200_000;
+        RateLimitExceededException ex = new RateLimitExceededException(100, 0, Instant.now(), 7);
+        DataBufferFactory pooled = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+
+        Runnable jackson = () -> {
+            ErrorResponse response = ErrorResponse.of(HttpStatus.TOO_MANY_REQUESTS, ex.getErrorCode(),
+                    ex.getMessage(), PATH, REQUEST_ID);
+            response.setDetails(Map.of(
+                    "limit", ex.getLimit(),
+                    "remaining", ex.getRemaining(),
+                    "retryAfterSeconds", ex.getRetryAfterSeconds()));
+            try {
+                DataBuffer buffer = pooled.wrap(objectMapper.writeValueAsBytes(response));
+                DataBufferUtils.release(buffer);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+        Runnable template = () -> DataBufferUtils.release(writer.encode(pooled, HttpStatus.TOO_MANY_REQUESTS,
+                ex.getErrorCode(), ex.getMessage(), PATH, REQUEST_ID, ex));
+
+        // aquecimento do JIT
+        allocatedBytesPerCall(jackson, iterations / 4);
+        allocatedBytesPerCall(template, iterations / 4);
+
+        double jacksonBytes = allocatedBytesPerCall(jackson, iterations);
+        double templateBytes = allocatedBytesPerCall(template, iterations);
+
+        System.out.printf("Jackson + ErrorResponse:  %,.0f bytes/rejeição%n", jacksonBytes);
+        System.out.printf("ErrorResponseWriter:      %,.0f bytes/rejeição%n", templateBytes);
+
+        assertThat(templateBytes).isLessThan(jacksonBytes);
+    }
+
+    private JsonNode encode(HttpStatus status, String errorCode, String message, String path, String requestId,
+                            Throwable cause) throws Exception {
+        DataBuffer buffer = writer.encode(DefaultDataBufferFactory.sharedInstance, status, errorCode, message,
+                path, requestId, cause);
+        String body = buffer.toString(StandardCharsets.UTF_8);
+        DataBufferUtils.release(buffer);
+        return objectMapper.readTree(body);
+    }
+
+    private static double allocatedBytesPerCall(Runnable task, int iterations) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            task.run();
+        }
+        return (double) (threads.getCurrentThreadAllocatedBytes() - before) / iterations;
+    }
+}
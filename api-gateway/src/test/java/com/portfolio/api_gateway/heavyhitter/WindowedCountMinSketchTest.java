@@ -0,0 +1,97 @@
+package com.portfolio.api_gateway.heavyhitter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WindowedCountMinSketchTest {
+
+    @Test
+    void estimateStaysWithinErrorBound() {
+        int width = 1024;
+        int depth = 4;
+        WindowedCountMinSketch sketch = new WindowedCountMinSketch(width, depth, 1);
+        Map<String, Long> exact = new HashMap<>();
+        Random random = new Random(42);
+
+        int events = 200_000;
+        for (int i = 0; i < events; i++) {
+            // distribuição enviesada: poucas chaves quentes, cauda longa
+            int rank = (int) Math.floor(Math.pow(20_000, random.nextDouble()));
+            String key = "10.0." + (rank / 256) + "." + (rank % 256);
+            sketch.add(key);
+            exact.merge(key, 1L, Long::sum);
+        }
+
+        double bound = Math.E / width * events;
+        long violations = 0;
+        for (Map.Entry<String, Long> entry : exact.entrySet()) {
+            long estimate = sketch.estimate(entry.getKey(), 1);
+            assertThat(estimate).isGreaterThanOrEqualTo(entry.getValue());
+            if (estimate - entry.getValue() > bound) {
+                violations++;
+            }
+        }
+        // garantia por consulta: erro <= e/width * total com probabilidade 1 - e^-depth (~98%)
+        assertThat((double) violations / exact.size()).isLessThan(Math.exp(-depth) * 2);
+        assertThat(sketch.total(1)).isEqualTo(events);
+    }
+
+    @Test
+    void rotationDropsOldestBucket() {
+        WindowedCountMinSketch sketch = new WindowedCountMinSketch(256, 4, 3);
+
+        add(sketch, "consumer-a", 10);
+        sketch.advance();
+        add(sketch, "consumer-a", 5);
+
+        assertThat(sketch.estimate("consumer-a", 1)).isEqualTo(5);
+        assertThat(sketch.estimate("consumer-a", 2)).isEqualTo(15);
+        assertThat(sketch.total(3)).isEqualTo(15);
+
+        sketch.advance();
+        sketch.advance(); // o bucket com as 10 primeiras contagens é reutilizado e zerado
+
+        assertThat(sketch.estimate("consumer-a", 3)).isEqualTo(5);
+        assertThat(sketch.estimate("consumer-a", 1)).isZero();
+        assertThat(sketch.total(3)).isEqualTo(5);
+    }
+
+    @Test
+    void stringHashCodeCollisionsDoNotShareCounters() {
+        // "Aa" e "BB" têm o mesmo String.hashCode(); concatenações produzem 2^n chaves colidentes
+        String victim = "AaAaAaAa";
+        String[] colliding = {"BBBBBBBB", "AaBBAaBB", "BBAaBBAa", "AaAaBBBB", "BBBBAaAa"};
+        WindowedCountMinSketch sketch = new WindowedCountMinSketch(1 << 16, 4, 1);
+
+        for (String key : colliding) {
+            assertThat(key.hashCode()).isEqualTo(victim.hashCode());
+            add(sketch, key, 10_000);
+        }
+
+        assertThat(sketch.estimate(victim, 1)).isLessThan(10_000);
+    }
+
+    @Test
+    void sipHashMatchesReferenceVectors() {
+        long k0 = 0x0706050403020100L;
+        long k1 = 0x0f0e0d0c0b0a0908L;
+        byte[] message = new byte[15];
+        for (int i = 0; i < message.length; i++) {
+            message[i] = (byte) i;
+        }
+
+        assertThat(SipHash.hash(k0, k1, new byte[0])).isEqualTo(0x726fdb47dd0e0e31L);
+        assertThat(SipHash.hash(k0, k1, message)).isEqualTo(0xa129ca6149be45e5L);
+    }
+
+    private static void add(WindowedCountMinSketch sketch, String key, int times) {
+        for (int i = 0; i < times; i++) {
+            sketch.add(key);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.portfolio.api_gateway.loadtest;
+
+import com.portfolio.api_gateway.ApiGatewayEscalavelApplication;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load test do gateway contra dependências locais: downstreams stub, Redis stub (RESP) e emissor
+ * JWT estático. Nada externo é necessário, então o resultado é reproduzível e comparável entre
+ * commits.
+ *
+ * Executado apenas com o profile load-test:
+ * <pre>
+ * mvn test -Pload-test -Dloadtest.scenario=ramp:from=100,to=2000,duration=120s \
+ *          -Dloadtest.stub.latency=20ms -Dloadtest.stub.error-rate=0.01 \
+ *          -Dloadtest.label=candidate -Dloadtest.baseline=target/load-test/baseline.json
+ * </pre>
+ *
+ * Relatório JSON e histograma por intervalo (.hlog) em target/load-test/{label}.*
+ */
+@Tag("load-test")
+class GatewayLoadTest {
+
+    private static final List<String> SERVICES = List.of("orders-service", "products-service", "users-service");
+
+    private static LoadTestSettings settings;
+    private static final Map<String, StubDownstream> downstreams = new LinkedHashMap<>();
+    private static RespServerStub redis;
+    private static JwksStub jwks;
+    private static ConfigurableApplicationContext gateway;
+
+    @BeforeAll
+    static void startEnvironment() throws Exception {
+        settings = LoadTestSettings.fromSystemProperties();
+        for (String service : SERVICES) {
+            downstreams.put(service, StubDownstream.start(service));
+        }
+        redis = RespServerStub.start();
+        jwks = JwksStub.start();
+
+        gateway = new SpringApplicationBuilder(ApiGatewayEscalavelApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .properties(gatewayProperties())
+                .run();
+    }
+
+    @AfterAll
+    static void stopEnvironment() throws Exception {
+        if (gateway != null) {
+            gateway.close();
+        }
+        for (StubDownstream downstream : downstreams.values()) {
+            downstream.close();
+        }
+        if (redis != null) {
+            redis.close();
+        }
+        if (jwks != null) {
+            jwks.close();
+        }
+    }
+
+    @Test
+    void runScenario() throws Exception {
+        int port = Integer.parseInt(gateway.getEnvironment().getRequiredProperty("local.server.port"));
+        List<String> tokens = jwks.mintTokens(settings.users(), Duration.ofHours(1));
+
+        try (LoadGenerator generator = new LoadGenerator("http://127.0.0.1:" + port, settings.paths(), tokens,
+                settings.connections(), settings.maxInFlight())) {
+
+            if (!settings.warmup().isZero()) {
+                LoadScenario warmup = LoadScenario.parse("constant:rate=200,duration=" + settings.warmup().toMillis() + "ms");
+                generator.run(warmup, null);
+            }
+
+            Path hlog = settings.outputDir().resolve(settings.label() + ".hlog");
+            Files.createDirectories(settings.outputDir());
+            LoadGenerator.Result result = generator.run(settings.scenario(), hlog);
+
+            LoadReport report = LoadReport.of(settings, stubDescription(), result);
+            report.write(settings.outputDir().resolve(settings.label() + ".json"));
+            System.out.println("Load test " + settings.label() + ":");
+            System.out.print(report.summary());
+            System.out.println("  redis stub: " + redis.commands() + " comandos");
+
+            assertThat(report.completed()).as("requisições completas").isPositive();
+
+            if (settings.baseline() != null) {
+                LoadReport baseline = LoadReport.read(settings.baseline());
+                List<LoadReportComparison.Delta> deltas =
+                        LoadReportComparison.compare(baseline, report, settings.maxRegression());
+                System.out.print(LoadReportComparison.render(baseline, report, deltas));
+                assertThat(deltas).filteredOn(LoadReportComparison.Delta::regression)
+                        .as("regressões acima de %.0f%% contra %s", settings.maxRegression() * 100, settings.baseline())
+                        .isEmpty();
+            }
+        }
+    }
+
+    private static Map<String, Object> gatewayProperties() {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.cloud.consul.enabled", false);
+        properties.put("spring.cloud.config.enabled", false);
+        properties.put("spring.cloud.gateway.discovery.locator.enabled", false);
+        properties.put("gateway.discovery.watch.enabled", false);
+        downstreams.forEach((service, stub) ->
+                properties.put("spring.cloud.discovery.client.simple.instances." + service + "[0].uri", stub.uri()));
+
+        properties.put("spring.data.redis.host", "127.0.0.1");
+        properties.put("spring.data.redis.port", redis.port());
+        properties.put("spring.security.oauth2.resourceserver.jwt.issuer-uri", jwks.issuerUri());
+        properties.put("spring.security.oauth2.resourceserver.jwt.jwk-set-uri", jwks.jwkSetUri());
+
+        // sem collector OTLP local
+        properties.put("gateway.tracing.tail-sampling.enabled", false);
+
+        if (!settings.enforceRateLimit()) {
+            // o rate limit continua passando pelo Redis stub, mas sem rejeitar a carga do teste
+            properties.put("gateway.rate-limit.default-policy.max-requests", Integer.MAX_VALUE);
+            for (String service : SERVICES) {
+                properties.put("gateway.rate-limit.route-policies." + service + ".max-requests", Integer.MAX_VALUE);
+            }
+        }
+        return properties;
+    }
+
+    private static Map<String, Object> stubDescription() {
+        Map<String, Object> stubs = new LinkedHashMap<>();
+        downstreams.forEach((service, stub) -> stubs.put(service, Map.of(
+                "latencyMs", stub.profile().latency().toMillis(),
+                "jitterMs", stub.profile().jitter().toMillis(),
+                "errorRate", stub.profile().errorRate(),
+                "bodyBytes", stub.profile().bodyBytes(),
+                "requests", stub.requests())));
+        stubs.put("enforceRateLimit", settings.enforceRateLimit());
+        return stubs;
+    }
+}
@@ -0,0 +1,89 @@
+package com.portfolio.api_gateway.loadtest;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Emissor JWT estático: publica o JWKS de uma chave RSA gerada no startup e assina tokens
+ * RS256 com os scopes de leitura das rotas.
+ */
+final class JwksStub implements AutoCloseable {
+
+    private static final String REALM_PATH = "/realms/loadtest";
+    private static final String CERTS_PATH = REALM_PATH + "/protocol/openid-connect/certs";
+    private static final String SCOPES = "orders:read products:read users:read";
+
+    private final RSAKey key;
+    private final DisposableServer server;
+
+    private JwksStub() throws JOSEException {
+        this.key = new RSAKeyGenerator(2048).keyID("loadtest").generate();
+        String jwks = new JWKSet(key.toPublicJWK()).toString();
+
+        this.server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes.get(CERTS_PATH, (request, response) -> response
+                        .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                        .sendString(Mono.just(jwks))))
+                .bindNow();
+    }
+
+    static JwksStub start() throws JOSEException {
+        return new JwksStub();
+    }
+
+    String issuerUri() {
+        return "http://127.0.0.1:" + server.port() + REALM_PATH;
+    }
+
+    String jwkSetUri() {
+        return "http://127.0.0.1:" + server.port() + CERTS_PATH;
+    }
+
+    /**
+     * Um token por usuário sintético (loadtest-user-0..n-1), válidos por {@code validity}.
+     * Usuários distintos espalham a carga pelas chaves do rate limit como em produção.
+     */
+    List<String> mintTokens(int users, Duration validity) throws JOSEException {
+        RSASSASigner signer = new RSASSASigner(key);
+        Instant now = Instant.now();
+        List<String> tokens = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                    .issuer(issuerUri())
+                    .subject("loadtest-user-" + i)
+                    .claim("scope", SCOPES)
+                    .issueTime(Date.from(now))
+                    .expirationTime(Date.from(now.plus(validity)))
+                    .build();
+            SignedJWT jwt = new SignedJWT(
+                    new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+            jwt.sign(signer);
+            tokens.add(jwt.serialize());
+        }
+        return tokens;
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+}
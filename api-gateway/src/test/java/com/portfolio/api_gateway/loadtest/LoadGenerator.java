@@ -0,0 +1,184 @@
+package com.portfolio.api_gateway.loadtest;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gerador de carga em modelo aberto.
+ *
+ * Uma thread de plataforma agenda os envios nos instantes planejados pelo {@link LoadScenario},
+ * independente das respostas. A latência é medida a partir do instante planejado (não do envio
+ * efetivo), o que evita coordinated omission: se o gerador ou o gateway atrasarem, o atraso
+ * aparece no histograma.
+ *
+ * Latências em microssegundos num {@link Recorder} HdrHistogram (3 dígitos significativos);
+ * um intervalo por segundo é gravado no arquivo .hlog, legível pelo HistogramLogAnalyzer.
+ * Requisições acima de {@code maxInFlight} são descartadas e contadas à parte.
+ */
+final class LoadGenerator implements AutoCloseable {
+
+    /** Abaixo disso a espera é ativa: parkNanos tem granularidade de ~50-100µs. */
+    private static final long SPIN_THRESHOLD_NANOS = 100_000;
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final ConnectionProvider connectionProvider;
+    private final HttpClient httpClient;
+    private final List<String> paths;
+    private final List<String> tokens;
+    private final int maxInFlight;
+
+    LoadGenerator(String baseUrl, List<String> paths, List<String> tokens, int connections, int maxInFlight) {
+        this.connectionProvider = ConnectionProvider.builder("load-generator")
+                .maxConnections(connections)
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(Duration.ofSeconds(60))
+                .build();
+        this.httpClient = HttpClient.create(connectionProvider)
+                .baseUrl(baseUrl)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 5000)
+                .responseTimeout(Duration.ofSeconds(30));
+        this.paths = paths;
+        this.tokens = tokens;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Executa o cenário e devolve o resultado agregado. Com {@code hlogFile} nulo nada é gravado
+     * (aquecimento).
+     */
+    Result run(LoadScenario scenario, Path hlogFile) throws IOException, InterruptedException {
+        Recorder recorder = new Recorder(3);
+        Histogram total = new Histogram(3);
+        Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+        AtomicInteger inFlight = new AtomicInteger();
+        LongAdder dropped = new LongAdder();
+        long sent = 0;
+
+        PrintStream log = hlogFile != null ? new PrintStream(Files.newOutputStream(hlogFile)) : null;
+        HistogramLogWriter writer = log != null ? new HistogramLogWriter(log) : null;
+        long startMillis = System.currentTimeMillis();
+        if (writer != null) {
+            writer.outputComment("scenario: " + scenario.spec());
+            writer.outputStartTime(startMillis);
+            writer.setBaseTime(startMillis);
+            writer.outputLegend();
+        }
+
+        LoadScenario.Arrivals arrivals = scenario.arrivals();
+        long start = System.nanoTime();
+        long nextInterval = start + TimeUnit.SECONDS.toNanos(1);
+        Histogram interval = null;
+
+        for (long offset = arrivals.next(); offset >= 0; offset = arrivals.next()) {
+            long intended = start + offset;
+            waitUntil(intended);
+
+            long now = System.nanoTime();
+            if (now >= nextInterval) {
+                interval = recorder.getIntervalHistogram(interval);
+                flushInterval(writer, interval, total);
+                nextInterval += TimeUnit.SECONDS.toNanos(1);
+            }
+
+            if (inFlight.get() >= maxInFlight) {
+                dropped.increment();
+                continue;
+            }
+            inFlight.incrementAndGet();
+            send(sent++, intended, recorder, statuses, inFlight);
+        }
+
+        long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        interval = recorder.getIntervalHistogram(interval);
+        flushInterval(writer, interval, total);
+        if (log != null) {
+            log.close();
+        }
+
+        Map<String, Long> statusCounts = new TreeMap<>();
+        statuses.forEach((status, count) -> statusCounts.put(status, count.sum()));
+        return new Result(total, statusCounts, sent, dropped.sum(), inFlight.get(), elapsed);
+    }
+
+    private void send(long sequence, long intended, Recorder recorder, Map<String, LongAdder> statuses,
+                      AtomicInteger inFlight) {
+        String path = paths.get((int) (sequence % paths.size()));
+        String token = tokens.get((int) (sequence % tokens.size()));
+
+        httpClient.headers(headers -> headers.set(HttpHeaderNames.AUTHORIZATION, "Bearer " + token))
+                .get()
+                .uri(path)
+                .responseSingle((response, body) -> body.then(Mono.just(String.valueOf(response.status().code()))))
+                .onErrorResume(e -> Mono.just("error"))
+                .subscribe(status -> {
+                    recorder.recordValue(Math.max(1, (System.nanoTime() - intended) / 1000));
+                    statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+                    inFlight.decrementAndGet();
+                });
+    }
+
+    private static void flushInterval(HistogramLogWriter writer, Histogram interval, Histogram total) {
+        total.add(interval);
+        if (writer != null && interval.getTotalCount() > 0) {
+            writer.outputIntervalHistogram(interval);
+        }
+    }
+
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        connectionProvider.disposeLater().block(Duration.ofSeconds(10));
+    }
+
+    /**
+     * @param latencyMicros histograma total (µs, a partir do instante planejado)
+     * @param statuses      contagem por status HTTP ("error" para falhas de transporte)
+     * @param unfinished    requisições sem resposta ao fim do prazo de drenagem
+     */
+    record Result(Histogram latencyMicros, Map<String, Long> statuses, long sent, long dropped,
+                  long unfinished, long elapsedNanos) {
+
+        long completed() {
+            return statuses.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        double elapsedSeconds() {
+            return elapsedNanos / 1e9;
+        }
+    }
+}
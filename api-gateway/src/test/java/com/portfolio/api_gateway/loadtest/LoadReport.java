@@ -0,0 +1,128 @@
+package com.portfolio.api_gateway.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resumo de uma execução do load test, gravado em JSON para comparação entre commits
+ * ({@link LoadReportComparison}).
+ *
+ * Latências em milissegundos, medidas a partir do instante planejado de envio.
+ */
+record LoadReport(
+        String label,
+        String commit,
+        Instant timestamp,
+        String scenario,
+        Map<String, Object> stubs,
+        double durationSeconds,
+        long sent,
+        long completed,
+        long dropped,
+        long unfinished,
+        double throughput,
+        double successRate,
+        Map<String, Long> statuses,
+        Latency latencyMs) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .enable(SerializationFeature.INDENT_OUTPUT);
+
+    record Latency(double p50, double p90, double p99, double p999, double max, double mean) {
+
+        static Latency of(Histogram micros) {
+            return new Latency(
+                    millis(micros.getValueAtPercentile(50.0)),
+                    millis(micros.getValueAtPercentile(90.0)),
+                    millis(micros.getValueAtPercentile(99.0)),
+                    millis(micros.getValueAtPercentile(99.9)),
+                    millis(micros.getMaxValue()),
+                    Math.round(micros.getMean()) / 1000.0);
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+
+    static LoadReport of(LoadTestSettings settings, Map<String, Object> stubs, LoadGenerator.Result result) {
+        long completed = result.completed();
+        long success = result.statuses().entrySet().stream()
+                .filter(e -> e.getKey().startsWith("2"))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+        return new LoadReport(
+                settings.label(),
+                gitCommit(),
+                Instant.now(),
+                settings.scenario().spec(),
+                stubs,
+                result.elapsedSeconds(),
+                result.sent(),
+                completed,
+                result.dropped(),
+                result.unfinished(),
+                completed / result.elapsedSeconds(),
+                completed > 0 ? (double) success / completed : 0.0,
+                result.statuses(),
+                Latency.of(result.latencyMicros()));
+    }
+
+    static LoadReport read(Path file) throws IOException {
+        return MAPPER.readValue(file.toFile(), LoadReport.class);
+    }
+
+    void write(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        MAPPER.writeValue(file.toFile(), this);
+    }
+
+    String summary() {
+        Map<String, Object> lines = new LinkedHashMap<>();
+        lines.put("cenário", scenario);
+        lines.put("commit", commit);
+        lines.put("enviadas/completas/descartadas", sent + "/" + completed + "/" + dropped);
+        lines.put("throughput", String.format("%.1f req/s", throughput));
+        lines.put("sucesso", String.format("%.2f%%", successRate * 100));
+        lines.put("status", statuses);
+        lines.put("latência (ms)", String.format("p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f",
+                latencyMs.p50(), latencyMs.p90(), latencyMs.p99(), latencyMs.p999(), latencyMs.max()));
+        StringBuilder sb = new StringBuilder();
+        lines.forEach((key, value) -> sb.append(String.format("  %-32s %s%n", key, value)));
+        return sb.toString();
+    }
+
+    /**
+     * Hash curto do HEAD (ou loadtest.commit), para identificar o build medido.
+     */
+    private static String gitCommit() {
+        String configured = System.getProperty("loadtest.commit");
+        if (configured != null) {
+            return configured;
+        }
+        try {
+            Process process = new ProcessBuilder("git", "rev-parse", "--short", "HEAD")
+                    .redirectErrorStream(true)
+                    .start();
+            String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+            return process.waitFor(5, TimeUnit.SECONDS) && process.exitValue() == 0 ? output : "unknown";
+        } catch (IOException e) {
+            return "unknown";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "unknown";
+        }
+    }
+}
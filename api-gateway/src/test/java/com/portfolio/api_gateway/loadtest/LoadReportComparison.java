@@ -0,0 +1,89 @@
+package com.portfolio.api_gateway.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Compara dois relatórios do load test (baseline x candidato).
+ *
+ * Uma métrica regride quando piora mais que {@code maxRegression} (fração, ex.: 0.10 = 10%):
+ * throughput e taxa de sucesso para baixo, percentis de latência para cima.
+ *
+ * Uso direto: {@code java ... LoadReportComparison baseline.json candidate.json [0.10]}
+ * (exit code 1 em caso de regressão).
+ */
+final class LoadReportComparison {
+
+    private LoadReportComparison() {
+    }
+
+    record Delta(String metric, double baseline, double candidate, double change, boolean regression) {
+
+        @Override
+        public String toString() {
+            return String.format("%-12s %12.2f %12.2f %+8.1f%%%s",
+                    metric, baseline, candidate, change * 100, regression ? "  << REGRESSÃO" : "");
+        }
+    }
+
+    static List<Delta> compare(LoadReport baseline, LoadReport candidate, double maxRegression) {
+        List<Delta> deltas = new ArrayList<>();
+        deltas.add(higherIsBetter("throughput", baseline, candidate, LoadReport::throughput, maxRegression));
+        deltas.add(higherIsBetter("success", baseline, candidate, LoadReport::successRate, maxRegression));
+        deltas.add(lowerIsBetter("p50", baseline, candidate, r -> r.latencyMs().p50(), maxRegression));
+        deltas.add(lowerIsBetter("p90", baseline, candidate, r -> r.latencyMs().p90(), maxRegression));
+        deltas.add(lowerIsBetter("p99", baseline, candidate, r -> r.latencyMs().p99(), maxRegression));
+        deltas.add(lowerIsBetter("p99.9", baseline, candidate, r -> r.latencyMs().p999(), maxRegression));
+        deltas.add(lowerIsBetter("max", baseline, candidate, r -> r.latencyMs().max(), Double.MAX_VALUE));
+        return deltas;
+    }
+
+    static String render(LoadReport baseline, LoadReport candidate, List<Delta> deltas) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-12s %12s %12s %9s%n", "métrica",
+                baseline.label() + "@" + baseline.commit(), candidate.label() + "@" + candidate.commit(), "Δ"));
+        if (!baseline.scenario().equals(candidate.scenario())) {
+            sb.append(String.format("ATENÇÃO: cenários diferentes (%s x %s)%n",
+                    baseline.scenario(), candidate.scenario()));
+        }
+        deltas.forEach(delta -> sb.append(delta).append(System.lineSeparator()));
+        return sb.toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("uso: LoadReportComparison <baseline.json> <candidate.json> [max-regression]");
+            System.exit(2);
+        }
+        LoadReport baseline = LoadReport.read(Path.of(args[0]));
+        LoadReport candidate = LoadReport.read(Path.of(args[1]));
+        double maxRegression = args.length > 2 ? Double.parseDouble(args[2]) : 0.10;
+
+        List<Delta> deltas = compare(baseline, candidate, maxRegression);
+        System.out.print(render(baseline, candidate, deltas));
+        System.exit(deltas.stream().anyMatch(Delta::regression) ? 1 : 0);
+    }
+
+    private static Delta higherIsBetter(String metric, LoadReport baseline, LoadReport candidate,
+                                        ToDoubleFunction<LoadReport> value, double maxRegression) {
+        double before = value.applyAsDouble(baseline);
+        double after = value.applyAsDouble(candidate);
+        double change = relativeChange(before, after);
+        return new Delta(metric, before, after, change, change < -maxRegression);
+    }
+
+    private static Delta lowerIsBetter(String metric, LoadReport baseline, LoadReport candidate,
+                                       ToDoubleFunction<LoadReport> value, double maxRegression) {
+        double before = value.applyAsDouble(baseline);
+        double after = value.applyAsDouble(candidate);
+        double change = relativeChange(before, after);
+        return new Delta(metric, before, after, change, change > maxRegression);
+    }
+
+    private static double relativeChange(double before, double after) {
+        return before == 0 ? 0 : (after - before) / before;
+    }
+}
@@ -0,0 +1,132 @@
+package com.portfolio.api_gateway.loadtest;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Cenário de carga em modelo aberto: a taxa de chegada é função do tempo e não depende
+ * das respostas (requisições lentas não freiam o gerador).
+ *
+ * Especificação textual (loadtest.scenario):
+ * - {@code constant:rate=500,duration=60s}
+ * - {@code ramp:from=100,to=2000,duration=120s}
+ * - {@code burst:base=200,peak=2000,every=10s,length=1s,duration=60s}
+ *
+ * Parâmetros comuns: {@code arrivals=uniform|poisson} e {@code seed} (poisson), para que
+ * a sequência de chegadas seja reproduzível entre execuções.
+ */
+final class LoadScenario {
+
+    interface RateFunction {
+        /** Requisições por segundo no instante {@code seconds} desde o início. */
+        double rateAt(double seconds);
+    }
+
+    private final String spec;
+    private final Duration duration;
+    private final RateFunction rate;
+    private final boolean poisson;
+    private final long seed;
+
+    private LoadScenario(String spec, Duration duration, RateFunction rate, boolean poisson, long seed) {
+        this.spec = spec;
+        this.duration = duration;
+        this.rate = rate;
+        this.poisson = poisson;
+        this.seed = seed;
+    }
+
+    static LoadScenario parse(String spec) {
+        int colon = spec.indexOf(':');
+        String type = (colon < 0 ? spec : spec.substring(0, colon)).trim().toLowerCase(Locale.ROOT);
+        Map<String, String> params = new HashMap<>();
+        if (colon >= 0) {
+            for (String pair : spec.substring(colon + 1).split(",")) {
+                String[] kv = pair.split("=", 2);
+                if (kv.length == 2) {
+                    params.put(kv[0].trim().toLowerCase(Locale.ROOT), kv[1].trim());
+                }
+            }
+        }
+
+        Duration duration = LoadTestSettings.parseDuration(params.getOrDefault("duration", "60s"));
+        boolean poisson = "poisson".equalsIgnoreCase(params.getOrDefault("arrivals", "uniform"));
+        long seed = Long.parseLong(params.getOrDefault("seed", "42"));
+
+        RateFunction rate = switch (type) {
+            case "constant" -> {
+                double value = Double.parseDouble(params.getOrDefault("rate", "500"));
+                yield t -> value;
+            }
+            case "ramp" -> {
+                double from = Double.parseDouble(params.getOrDefault("from", "100"));
+                double to = Double.parseDouble(params.getOrDefault("to", "2000"));
+                double seconds = duration.toNanos() / 1e9;
+                yield t -> from + (to - from) * Math.min(1.0, t / seconds);
+            }
+            case "burst" -> {
+                double base = Double.parseDouble(params.getOrDefault("base", "200"));
+                double peak = Double.parseDouble(params.getOrDefault("peak", "2000"));
+                double every = LoadTestSettings.parseDuration(params.getOrDefault("every", "10s")).toNanos() / 1e9;
+                double length = LoadTestSettings.parseDuration(params.getOrDefault("length", "1s")).toNanos() / 1e9;
+                yield t -> (t % every) < length ? peak : base;
+            }
+            default -> throw new IllegalArgumentException("Cenário desconhecido: " + type);
+        };
+
+        return new LoadScenario(spec, duration, rate, poisson, seed);
+    }
+
+    String spec() {
+        return spec;
+    }
+
+    Duration duration() {
+        return duration;
+    }
+
+    double rateAt(double seconds) {
+        return rate.rateAt(seconds);
+    }
+
+    /**
+     * Gerador dos instantes planejados de envio (nanos desde o início).
+     */
+    Arrivals arrivals() {
+        return new Arrivals();
+    }
+
+    /**
+     * Chegadas pela taxa acumulada: a próxima ocorre quando a integral de rate(t) avança 1
+     * (uniform) ou uma amostra exponencial de média 1 (poisson). Integração em passos de 1ms,
+     * o que mantém rampas a partir de zero e bordas de burst corretas.
+     */
+    final class Arrivals {
+
+        private static final double STEP_NANOS = 1_000_000;
+
+        private final SplittableRandom random = new SplittableRandom(seed);
+        private final double end = duration.toNanos();
+        private double now;
+
+        /** Próximo instante planejado ou -1 quando o cenário terminou. */
+        long next() {
+            double needed = poisson ? -Math.log(1.0 - random.nextDouble()) : 1.0;
+            while (now < end) {
+                double currentRate = rate.rateAt(now / 1e9);
+                double step = Math.min(STEP_NANOS - now % STEP_NANOS, end - now);
+                double expected = currentRate * step / 1e9;
+                if (currentRate > 0 && expected >= needed) {
+                    now += needed / currentRate * 1e9;
+                    return (long) now;
+                }
+                needed -= expected;
+                now += step;
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.portfolio.api_gateway.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parâmetros do load test, lidos de system properties (mvn -Pload-test -Dloadtest.scenario=...).
+ *
+ * Propriedades gateway.* passadas na linha de comando chegam ao gateway normalmente
+ * (ex.: -Dgateway.access-log.success-sample-rate=0).
+ */
+record LoadTestSettings(
+        LoadScenario scenario,
+        List<String> paths,
+        int users,
+        int connections,
+        int maxInFlight,
+        Duration warmup,
+        boolean enforceRateLimit,
+        String label,
+        Path outputDir,
+        Path baseline,
+        double maxRegression) {
+
+    static LoadTestSettings fromSystemProperties() {
+        String baseline = System.getProperty("loadtest.baseline");
+        return new LoadTestSettings(
+                LoadScenario.parse(System.getProperty("loadtest.scenario", "constant:rate=500,duration=60s")),
+                Arrays.stream(System.getProperty("loadtest.paths",
+                                "/api/v1/orders/1,/api/v1/products/1,/api/v1/users/1").split(","))
+                        .map(String::trim)
+                        .filter(path -> !path.isEmpty())
+                        .toList(),
+                integer("loadtest.users", 1000),
+                integer("loadtest.connections", 512),
+                integer("loadtest.max-in-flight", 20_000),
+                duration("loadtest.warmup", Duration.ofSeconds(10)),
+                Boolean.parseBoolean(System.getProperty("loadtest.enforce-rate-limit", "false")),
+                System.getProperty("loadtest.label",
+                        LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"))),
+                Path.of(System.getProperty("loadtest.output-dir", "target/load-test")),
+                baseline != null && !baseline.isBlank() ? Path.of(baseline) : null,
+                decimal("loadtest.max-regression", 0.10));
+    }
+
+    static Duration duration(String property, Duration defaultValue) {
+        String value = System.getProperty(property);
+        return value != null ? parseDuration(value) : defaultValue;
+    }
+
+    static double decimal(String property, double defaultValue) {
+        String value = System.getProperty(property);
+        return value != null ? Double.parseDouble(value) : defaultValue;
+    }
+
+    static int integer(String property, int defaultValue) {
+        String value = System.getProperty(property);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+
+    /**
+     * Aceita "250ms", "10s", "2m" ou ISO-8601 ("PT10S").
+     */
+    static Duration parseDuration(String value) {
+        String v = value.trim().toLowerCase(Locale.ROOT);
+        if (v.startsWith("pt")) {
+            return Duration.parse(value.trim().toUpperCase(Locale.ROOT));
+        }
+        if (v.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(v.substring(0, v.length() - 2)));
+        }
+        if (v.endsWith("s")) {
+            return Duration.ofMillis((long) (Double.parseDouble(v.substring(0, v.length() - 1)) * 1000));
+        }
+        if (v.endsWith("m")) {
+            return Duration.ofSeconds(Long.parseLong(v.substring(0, v.length() - 1)) * 60);
+        }
+        return Duration.ofMillis(Long.parseLong(v));
+    }
+}
@@ -0,0 +1,273 @@
+package com.portfolio.api_gateway.loadtest;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Stand-in do Redis falando RESP2, suficiente para o gateway sob carga.
+ *
+ * Comandos suportados: PING, ECHO, SELECT, CLIENT, INFO, QUIT, SCRIPT LOAD/EXISTS, EVAL e EVALSHA.
+ * HELLO responde erro, o que faz o Lettuce cair para RESP2.
+ *
+ * Scripts não são interpretados: qualquer script com 1 key e 4 args é emulado como o sliding window
+ * de scripts/rate_limit.lua (em memória, por key), devolvendo {count, ttl, allowed}.
+ *
+ * Uma virtual thread por conexão; respostas são enviadas quando não há mais comandos
+ * pipelined disponíveis na entrada.
+ *
+ * Público para os testes do cliente Redis do rate limiting (vários nós locais).
+ */
+public final class RespServerStub implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Set<String> scripts = ConcurrentHashMap.newKeySet();
+    private final Map<String, ArrayDeque<Long>> windows = new ConcurrentHashMap<>();
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final LongAdder commands = new LongAdder();
+
+    private volatile boolean running = true;
+
+    private RespServerStub() throws IOException {
+        this.serverSocket = new ServerSocket(0, 512, InetAddress.getLoopbackAddress());
+        executor.submit(this::acceptLoop);
+    }
+
+    public static RespServerStub start() throws IOException {
+        return new RespServerStub();
+    }
+
+    public int port() {
+        return serverSocket.getLocalPort();
+    }
+
+    public long commands() {
+        return commands.sum();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+        for (Socket socket : connections) {
+            socket.close();
+        }
+        executor.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                connections.add(socket);
+                executor.submit(() -> serve(socket));
+            } catch (IOException e) {
+                if (running) {
+                    System.err.println("RESP stub: falha no accept: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+             InputStream in = new BufferedInputStream(socket.getInputStream(), 16 * 1024);
+             OutputStream out = new BufferedOutputStream(socket.getOutputStream(), 16 * 1024)) {
+            while (running) {
+                List<String> command = readCommand(in);
+                if (command == null) {
+                    return;
+                }
+                commands.increment();
+                boolean keepOpen = execute(command, out);
+                if (!keepOpen) {
+                    out.flush();
+                    return;
+                }
+                if (in.available() == 0) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            // conexão encerrada pelo cliente
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    private boolean execute(List<String> command, OutputStream out) throws IOException {
+        if (command.isEmpty()) {
+            writeError(out, "ERR empty command");
+            return true;
+        }
+        String name = command.get(0).toUpperCase(Locale.ROOT);
+        switch (name) {
+            case "PING" -> writeSimple(out, command.size() > 1 ? command.get(1) : "PONG");
+            case "ECHO" -> writeBulk(out, command.get(1));
+            case "SELECT", "CLIENT", "READONLY" -> writeSimple(out, "OK");
+            case "INFO" -> writeBulk(out, "# Server\r\nredis_version:7.2.0\r\nredis_mode:standalone\r\n");
+            case "QUIT" -> {
+                writeSimple(out, "OK");
+                return false;
+            }
+            case "SCRIPT" -> script(command, out);
+            case "EVAL" -> {
+                String sha = sha1(command.get(1));
+                scripts.add(sha);
+                evalRateLimit(command, out);
+            }
+            case "EVALSHA" -> {
+                if (!scripts.contains(command.get(1).toLowerCase(Locale.ROOT))) {
+                    writeError(out, "NOSCRIPT No matching script. Please use EVAL.");
+                } else {
+                    evalRateLimit(command, out);
+                }
+            }
+            default -> writeError(out, "ERR unknown command '" + command.get(0) + "'");
+        }
+        return true;
+    }
+
+    private void script(List<String> command, OutputStream out) throws IOException {
+        String sub = command.size() > 1 ? command.get(1).toUpperCase(Locale.ROOT) : "";
+        switch (sub) {
+            case "LOAD" -> {
+                String sha = sha1(command.get(2));
+                scripts.add(sha);
+                writeBulk(out, sha);
+            }
+            case "EXISTS" -> {
+                out.write(('*' + String.valueOf(command.size() - 2) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                for (int i = 2; i < command.size(); i++) {
+                    writeInteger(out, scripts.contains(command.get(i).toLowerCase(Locale.ROOT)) ? 1 : 0);
+                }
+            }
+            case "FLUSH" -> {
+                scripts.clear();
+                writeSimple(out, "OK");
+            }
+            default -> writeError(out, "ERR unknown SCRIPT subcommand");
+        }
+    }
+
+    /**
+     * EVAL/EVALSHA script numkeys key now window_start max_requests window_ms
+     */
+    private void evalRateLimit(List<String> command, OutputStream out) throws IOException {
+        if (command.size() < 8 || !"1".equals(command.get(2))) {
+            writeError(out, "ERR stub only emulates the rate limit script");
+            return;
+        }
+        String key = command.get(3);
+        long now = Long.parseLong(command.get(4));
+        long windowStart = Long.parseLong(command.get(5));
+        long maxRequests = Long.parseLong(command.get(6));
+        long windowMs = Long.parseLong(command.get(7));
+
+        ArrayDeque<Long> window = windows.computeIfAbsent(key, k -> new ArrayDeque<>());
+        long count;
+        boolean allowed;
+        synchronized (window) {
+            while (!window.isEmpty() && window.peekFirst() <= windowStart) {
+                window.pollFirst();
+            }
+            count = window.size();
+            allowed = count < maxRequests;
+            if (allowed) {
+                window.addLast(now);
+                count++;
+            }
+        }
+
+        out.write("*3\r\n".getBytes(StandardCharsets.US_ASCII));
+        writeInteger(out, count);
+        writeInteger(out, windowMs);
+        writeInteger(out, allowed ? 1 : 0);
+    }
+
+    private static List<String> readCommand(InputStream in) throws IOException {
+        int type = in.read();
+        if (type == -1) {
+            return null;
+        }
+        if (type != '*') {
+            // inline command (ex.: "PING\r\n" via telnet)
+            String line = (char) type + readLine(in);
+            return List.of(line.trim().split("\\s+"));
+        }
+        int count = Integer.parseInt(readLine(in));
+        List<String> args = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            if (in.read() != '$') {
+                throw new IOException("RESP inválido: bulk string esperada");
+            }
+            int length = Integer.parseInt(readLine(in));
+            byte[] data = in.readNBytes(length);
+            in.skipNBytes(2);
+            args.add(new String(data, StandardCharsets.UTF_8));
+        }
+        return args;
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder sb = new StringBuilder(16);
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c == '\r') {
+                in.read();
+                break;
+            }
+            sb.append((char) c);
+        }
+        return sb.toString();
+    }
+
+    private static void writeSimple(OutputStream out, String value) throws IOException {
+        out.write(('+' + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeError(OutputStream out, String message) throws IOException {
+        out.write(('-' + message + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void writeInteger(OutputStream out, long value) throws IOException {
+        out.write((':' + String.valueOf(value) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void writeBulk(OutputStream out, String value) throws IOException {
+        byte[] data = value.getBytes(StandardCharsets.UTF_8);
+        out.write(('$' + String.valueOf(data.length) + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(data);
+        out.write("\r\n".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static String sha1(String script) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(script.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.portfolio.api_gateway.loadtest;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Downstream embutido (Reactor Netty) com perfil de latência e erro configurável.
+ *
+ * Latência = base + exponencial(média = jitter). Uma fração {@code errorRate} das respostas é 503.
+ */
+final class StubDownstream implements AutoCloseable {
+
+    /**
+     * Perfil do stub. Lido de loadtest.stub.{latency,jitter,error-rate,body-bytes}, com override
+     * por serviço em loadtest.stub.{serviceId}.{...}.
+     */
+    record Profile(Duration latency, Duration jitter, double errorRate, int bodyBytes) {
+
+        static Profile forService(String serviceId) {
+            return new Profile(
+                    LoadTestSettings.duration(stubKey(serviceId, "latency"), Duration.ofMillis(20)),
+                    LoadTestSettings.duration(stubKey(serviceId, "jitter"), Duration.ofMillis(5)),
+                    LoadTestSettings.decimal(stubKey(serviceId, "error-rate"), 0.0),
+                    LoadTestSettings.integer(stubKey(serviceId, "body-bytes"), 512));
+        }
+
+        private static String stubKey(String serviceId, String name) {
+            String specific = "loadtest.stub." + serviceId + "." + name;
+            return System.getProperty(specific) != null ? specific : "loadtest.stub." + name;
+        }
+    }
+
+    private final String serviceId;
+    private final Profile profile;
+    private final DisposableServer server;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+
+    private StubDownstream(String serviceId, Profile profile) {
+        this.serviceId = serviceId;
+        this.profile = profile;
+
+        byte[] body = jsonBody(serviceId, profile.bodyBytes());
+        byte[] errorBody = "{\"error\":\"stub failure\"}".getBytes(StandardCharsets.UTF_8);
+
+        this.server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle((request, response) -> {
+                    requests.increment();
+                    boolean fail = ThreadLocalRandom.current().nextDouble() < profile.errorRate();
+                    if (fail) {
+                        errors.increment();
+                    }
+                    return request.receive().then()
+                            .then(Mono.delay(nextLatency()))
+                            .then(fail
+                                    ? response.status(HttpResponseStatus.SERVICE_UNAVAILABLE)
+                                        .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                        .sendByteArray(Mono.just(errorBody)).then()
+                                    : response.status(HttpResponseStatus.OK)
+                                        .header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                                        .sendByteArray(Mono.just(body)).then());
+                })
+                .bindNow();
+    }
+
+    static StubDownstream start(String serviceId) {
+        return new StubDownstream(serviceId, Profile.forService(serviceId));
+    }
+
+    String serviceId() {
+        return serviceId;
+    }
+
+    Profile profile() {
+        return profile;
+    }
+
+    String uri() {
+        return "http://127.0.0.1:" + server.port();
+    }
+
+    long requests() {
+        return requests.sum();
+    }
+
+    long errors() {
+        return errors.sum();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+
+    private Duration nextLatency() {
+        long base = profile.latency().toNanos();
+        long jitterMean = profile.jitter().toNanos();
+        long jitter = jitterMean > 0
+                ? (long) (-Math.log(1.0 - ThreadLocalRandom.current().nextDouble()) * jitterMean)
+                : 0;
+        return Duration.ofNanos(base + jitter);
+    }
+
+    private static byte[] jsonBody(String serviceId, int size) {
+        String prefix = "{\"service\":\"" + serviceId + "\",\"padding\":\"";
+        String suffix = "\"}";
+        int padding = Math.max(0, size - prefix.length() - suffix.length());
+        char[] fill = new char[padding];
+        Arrays.fill(fill, 'x');
+        return (prefix + new String(fill) + suffix).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,206 @@
+package com.portfolio.api_gateway.projection;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.portfolio.api_gateway.exception.InvalidFieldSelectionException;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonFieldProjectorTest {
+
+    private static final String ORDER = """
+            {"id":42,"status":"PAID","total":1234.5600000000000001,
+             "customer":{"name":"Ana \\"Ç\\"","email":"ana@example.com"},
+             "items":[{"sku":"A1","qty":2,"attrs":{"tags":[1,2]}},{"sku":"B2","qty":1}],
+             "notes":null}""";
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void projectsSelectedFieldsRegardlessOfChunkBoundaries() throws Exception {
+        String expected = "{\"id\":42,\"total\":1234.5600000000000001,\"customer\":{\"name\":\"Ana \\\"Ç\\\"\"},"
+                + "\"items\":[{\"sku\":\"A1\"},{\"sku\":\"B2\"}]}";
+
+        for (int chunkSize : new int[]{1, 3, 7, 64, 4096}) {
+            assertThat(project(ORDER, "id, total, customer.name, items.sku", chunkSize)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void appliesSelectionToEachElementOfRootArray() throws Exception {
+        String projected = project("[" + ORDER + "," + ORDER + "]", "id,items.attrs,customer", 5);
+
+        JsonNode json = objectMapper.readTree(projected);
+        assertThat(json).hasSize(2);
+        assertThat(json.get(1).get("id").asInt()).isEqualTo(42);
+        assertThat(json.get(1).get("customer").get("email").asText()).isEqualTo("ana@example.com");
+        assertThat(json.get(1).get("items").get(0).get("attrs").get("tags")).hasSize(2);
+        assertThat(json.get(1).get("items").get(1).isEmpty()).isTrue();
+        assertThat(json.get(1).has("status")).isFalse();
+    }
+
+    @Test
+    void rejectsInvalidSelectionAndTruncatedDocument() {
+        assertThatThrownBy(() -> FieldSelection.parse("id,items..sku", 50, 8))
+                .isInstanceOf(InvalidFieldSelectionException.class);
+        assertThatThrownBy(() -> FieldSelection.parse("a,b,c", 2, 8))
+                .isInstanceOf(InvalidFieldSelectionException.class);
+        assertThatThrownBy(() -> project("{\"id\":42,\"items\":[", "id", 4))
+                .isInstanceOf(IOException.class);
+    }
+
+    /**
+     * Vazão e alocação em payloads de vários MB: projeção em streaming (pedaços de 16 KB, como os
+     * DataBuffers do Reactor Netty) vs parse completo em árvore + serialização da árvore filtrada.
+     * Executado apenas com o profile benchmark (mvn test -Pbenchmark).
+     */
+    @Test
+    @Tag("benchmark")
+    void benchmarkThroughputOnMultiMegabytePayloads() throws Exception {
+        int chunkSize = 16 * 1024;
+        String fields = "id,status,items.sku";
+
+        for (int orders : new int[]{5_000, 20_000}) {
+            byte[] payload = objectMapper.writeValueAsBytes(orders(orders));
+            FieldSelection selection = FieldSelection.parse(fields, 50, 8);
+
+            // aquecimento do JIT
+            for (int i = 0; i < 5; i++) {
+                streaming(payload, selection, chunkSize);
+                tree(payload);
+            }
+
+            int iterations = 20;
+            Result streaming = measure(payload, iterations, () -> streaming(payload, selection, chunkSize));
+            Result tree = measure(payload, iterations, () -> tree(payload));
+
+            System.out.printf("Payload %.1f MB -> %,d bytes projetados%n",
+                    payload.length / 1_048_576.0, streaming.outputBytes);
+            System.out.printf("  JsonFieldProjector: %,8.1f MB/s  %,12.0f bytes alocados/resposta%n",
+                    streaming.megabytesPerSecond, streaming.allocatedBytes);
+            System.out.printf("  Árvore (readTree):  %,8.1f MB/s  %,12.0f bytes alocados/resposta%n",
+                    tree.megabytesPerSecond, tree.allocatedBytes);
+
+            assertThat(streaming.outputBytes).isEqualTo(tree.outputBytes);
+            // memória limitada: alocação por resposta bem abaixo do tamanho do payload
+            assertThat(streaming.allocatedBytes).isLessThan(payload.length);
+        }
+    }
+
+    private String project(String json, String fields, int chunkSize) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        try (JsonFieldProjector projector = new JsonFieldProjector(
+                jsonFactory, FieldSelection.parse(fields, 50, 8), out)) {
+            for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+                projector.feed(ByteBuffer.wrap(bytes, offset, Math.min(chunkSize, bytes.length - offset)));
+            }
+            projector.finish();
+        }
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private long streaming(byte[] payload, FieldSelection selection, int chunkSize) throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        try (JsonFieldProjector projector = new JsonFieldProjector(jsonFactory, selection, out)) {
+            for (int offset = 0; offset < payload.length; offset += chunkSize) {
+                projector.feed(ByteBuffer.wrap(payload, offset, Math.min(chunkSize, payload.length - offset)));
+            }
+            projector.finish();
+        }
+        return out.count;
+    }
+
+    private long tree(byte[] payload) throws IOException {
+        JsonNode root = objectMapper.readTree(payload);
+        ArrayNode projected = objectMapper.createArrayNode();
+        for (JsonNode order : root) {
+            ObjectNode copy = projected.addObject();
+            copy.set("id", order.get("id"));
+            copy.set("status", order.get("status"));
+            ArrayNode items = copy.putArray("items");
+            for (JsonNode item : order.get("items")) {
+                items.addObject().set("sku", item.get("sku"));
+            }
+        }
+        return objectMapper.writeValueAsBytes(projected).length;
+    }
+
+    private static Result measure(byte[] payload, int iterations, ThrowingTask task) throws Exception {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long outputBytes = 0;
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            outputBytes = task.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        double megabytes = (double) payload.length * iterations / 1_048_576.0;
+        return new Result(megabytes / (elapsed / 1_000_000_000.0), (double) allocated / iterations, outputBytes);
+    }
+
+    private ArrayNode orders(int count) {
+        ArrayNode orders = objectMapper.createArrayNode();
+        for (int i = 0; i < count; i++) {
+            ObjectNode order = orders.addObject();
+            order.put("id", i);
+            order.put("status", i % 3 == 0 ? "PAID" : "PENDING");
+            order.put("total", i * 10.25);
+            order.put("createdAt", "2026-01-15T10:15:30Z");
+            ObjectNode customer = order.putObject("customer");
+            customer.put("id", "c-" + i);
+            customer.put("name", "Cliente " + i);
+            customer.put("email", "cliente" + i + "@example.com");
+            customer.putObject("address").put("street", "Rua das Flores, " + i).put("city", "São Paulo");
+            ArrayNode items = order.putArray("items");
+            for (int j = 0; j < 4; j++) {
+                ObjectNode item = items.addObject();
+                item.put("sku", "SKU-" + i + "-" + j);
+                item.put("description", "Produto de exemplo com uma descrição razoavelmente longa " + j);
+                item.put("quantity", j + 1);
+                item.put("price", 19.9 + j);
+            }
+        }
+        return orders;
+    }
+
+    @FunctionalInterface
+    private interface ThrowingTask {
+        long run() throws Exception;
+    }
+
+    private record Result(double megabytesPerSecond, double allocatedBytes, long outputBytes) {
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
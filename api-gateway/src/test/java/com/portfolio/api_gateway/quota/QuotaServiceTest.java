@@ -0,0 +1,210 @@
+package com.portfolio.api_gateway.quota;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Quotas com write-behind contra um Redis simulado (o script de flush emulado em memória).
+ */
+class QuotaServiceTest {
+
+    private static final String CONSUMER = "acme";
+    private static final String MARCH_31 = "quota:{acme}:daily:2026-03-31";
+    private static final String APRIL_1 = "quota:{acme}:daily:2026-04-01";
+
+    @SuppressWarnings("unchecked")
+    private final RedisScript<List<Long>> flushScript = mock(RedisScript.class);
+    private final ReactiveStringRedisTemplate redisTemplate = mock(ReactiveStringRedisTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong(Instant.parse("2026-03-31T23:58:00Z").toEpochMilli());
+
+    /** Conteúdo do "Redis": total de cada key. */
+    private final Map<String, Long> redis = new ConcurrentHashMap<>();
+    /** Keys do último EVAL de flush. */
+    private volatile List<String> lastFlushKeys = List.of();
+    private volatile boolean redisDown;
+
+    private QuotaService service;
+
+    @AfterEach
+    void tearDown() {
+        if (service != null) {
+            service.stop();
+        }
+    }
+
+    @Test
+    void flushesEarlyWhenUnflushedUsageReachesTolerance() throws Exception {
+        service = start(1_000, 0.01);
+        service.start();
+
+        consume(9);
+        assertThat(redis).isEmpty();
+
+        consume(1); // 10 pendentes = 1% de 1000
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!redis.containsKey(MARCH_31) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(redis).containsEntry(MARCH_31, 10L);
+    }
+
+    @Test
+    void failedFlushKeepsDeltasForNextCycle() {
+        service = start(1_000, 0.5);
+        consume(5);
+
+        redisDown = true;
+        service.flush();
+        assertThat(redis).isEmpty();
+        assertThat(meterRegistry.get("gateway.quota.flush.failures").counter().count()).isEqualTo(1);
+        // a visão local continua contando os deltas não enviados
+        assertThat(service.tryConsume(CONSUMER).remaining()).isEqualTo(1_000 - 6);
+
+        redisDown = false;
+        service.flush();
+        assertThat(redis).containsEntry(MARCH_31, 6L);
+    }
+
+    @Test
+    void periodRolloverStartsNewCounterAndFlushesRetiredOne() {
+        service = start(1_000, 0.5);
+        consume(3);
+
+        clock.set(Instant.parse("2026-04-01T00:00:01Z").toEpochMilli());
+        QuotaService.QuotaDecision decision = service.tryConsume(CONSUMER);
+        assertThat(decision.remaining()).isEqualTo(999);
+        assertThat(decision.resetAt()).isEqualTo(Instant.parse("2026-04-02T00:00:00Z"));
+        consume(1);
+
+        service.flush();
+        assertThat(redis).containsEntry(MARCH_31, 3L).containsEntry(APRIL_1, 2L);
+
+        // sem deltas, o contador aposentado não volta a ser enviado
+        service.flush();
+        assertThat(lastFlushKeys).containsExactly(APRIL_1);
+    }
+
+    @Test
+    void idleConsumerIsEvictedAndItsDeltasStillFlushed() {
+        service = start(1_000, 0.5);
+        consume(2);
+
+        clock.addAndGet(Duration.ofMinutes(9).toMillis());
+        service.flush();
+        assertThat(redis).containsEntry(MARCH_31, 2L);
+        assertThat(consumers()).isEqualTo(1);
+
+        consume(1); // pendente quando o consumidor fica ocioso
+        clock.addAndGet(Duration.ofMinutes(11).toMillis());
+        service.flush();
+        assertThat(redis).containsEntry(MARCH_31, 3L);
+        assertThat(consumers()).isZero();
+
+        consume(1);
+        service.flush();
+        assertThat(redis).containsEntry(MARCH_31, 4L);
+        assertThat(consumers()).isEqualTo(1);
+    }
+
+    @Test
+    void evictionRacingWithConsumersLosesNoUsage() throws Exception {
+        QuotaProperties properties = properties(10_000_000, 0.5);
+        properties.setIdleEviction(Duration.ZERO); // consumidor removido a cada flush, mesmo em uso
+        service = new QuotaService(properties, redisTemplate, flushScript, meterRegistry, clock::get);
+        stubRedis();
+
+        int threads = 4;
+        int perThread = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        try {
+            for (int t = 0; t < threads; t++) {
+                executor.execute(() -> {
+                    try {
+                        consume(perThread);
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            while (done.getCount() > 0) {
+                service.flush();
+            }
+            assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        service.flush();
+        assertThat(redis).containsEntry(MARCH_31, (long) threads * perThread);
+    }
+
+    private QuotaService start(long dailyLimit, double overshootTolerance) {
+        QuotaService created = new QuotaService(properties(dailyLimit, overshootTolerance),
+                redisTemplate, flushScript, meterRegistry, clock::get);
+        stubRedis();
+        return created;
+    }
+
+    private static QuotaProperties properties(long dailyLimit, double overshootTolerance) {
+        QuotaProperties properties = new QuotaProperties();
+        properties.setEnabled(true);
+        properties.setFlushInterval(Duration.ofHours(1)); // flushes só explícitos ou antecipados
+        properties.setOvershootTolerance(overshootTolerance);
+        properties.getDefaultLimits().setDaily(dailyLimit);
+        properties.getDefaultLimits().setMonthly(0);
+        return properties;
+    }
+
+    /** Emula scripts/quota_flush.lua: INCRBY de cada delta e devolução dos totais. */
+    private void stubRedis() {
+        when(redisTemplate.execute(eq(flushScript), anyList(), anyList())).thenAnswer(invocation -> {
+            if (redisDown) {
+                return Flux.error(new RedisConnectionFailureException("redis indisponível"));
+            }
+            List<String> keys = invocation.getArgument(1);
+            List<String> args = invocation.getArgument(2);
+            lastFlushKeys = List.copyOf(keys);
+            List<Long> totals = new ArrayList<>(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                long delta = Long.parseLong(args.get(2 * i));
+                totals.add(delta > 0 ? redis.merge(keys.get(i), delta, Long::sum) : redis.getOrDefault(keys.get(i), 0L));
+            }
+            return Flux.just(totals);
+        });
+    }
+
+    private void consume(int times) {
+        for (int i = 0; i < times; i++) {
+            assertThat(service.tryConsume(CONSUMER).allowed()).isTrue();
+        }
+    }
+
+    private double consumers() {
+        return meterRegistry.get("gateway.quota.consumers").gauge().value();
+    }
+}
@@ -0,0 +1,67 @@
+package com.portfolio.api_gateway.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 20_000;
+    private static final List<String> NODES = List.of("redis-1:6379", "redis-2:6379", "redis-3:6379", "redis-4:6379");
+
+    @Test
+    void distributesKeysEvenlyWithVirtualNodes() {
+        ConsistentHashRing<String> ring = ConsistentHashRing.of(NODES, Function.identity(), 160);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(ring.locate(key("orders-service:user-" + i)), 1, Integer::sum);
+        }
+
+        assertThat(counts).hasSize(NODES.size());
+        int expected = KEYS / NODES.size();
+        assertThat(counts.values()).allSatisfy(count -> assertThat(count).isBetween(expected * 3 / 4, expected * 5 / 4));
+    }
+
+    @Test
+    void removingANodeOnlyMovesItsKeys() {
+        ConsistentHashRing<String> full = ConsistentHashRing.of(NODES, Function.identity(), 160);
+        ConsistentHashRing<String> reduced = ConsistentHashRing.of(
+                List.of("redis-1:6379", "redis-2:6379", "redis-4:6379"), Function.identity(), 160);
+
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            byte[] key = key("orders-service:user-" + i);
+            String before = full.locate(key);
+            String after = reduced.locate(key);
+            if (!before.equals(after)) {
+                assertThat(before).isEqualTo("redis-3:6379");
+                moved++;
+            }
+        }
+
+        assertThat((double) moved / KEYS).isBetween(0.15, 0.35);
+    }
+
+    @Test
+    void hashTagKeepsRelatedKeysOnSameNode() {
+        ConsistentHashRing<String> ring = ConsistentHashRing.of(NODES, Function.identity(), 160);
+
+        for (int i = 0; i < 1000; i++) {
+            String tag = "{orders-service:user-" + i + "}";
+            assertThat(ring.locate(key("gen_id:rate_limit:" + tag))).isEqualTo(ring.locate(key("rate_limit:" + tag)));
+        }
+        // tag vazia: a key inteira é usada
+        assertThat(ConsistentHashRing.hashKey(key("a{}b"))).isEqualTo(ConsistentHashRing.hash(key("a{}b"), 0, 4));
+    }
+
+    private static byte[] key(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,122 @@
+package com.portfolio.api_gateway.ratelimit;
+
+import com.portfolio.api_gateway.loadtest.RespServerStub;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scripting.support.ResourceScriptSource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+/**
+ * Cliente do rate limiting contra vários Redis stand-in locais (RESP, emulando o script de sliding window).
+ */
+class RateLimitRedisClientTest {
+
+    private static final long WINDOW_MS = 60_000;
+    private static final Duration BLOCK = Duration.ofSeconds(5);
+
+    private final List<RespServerStub> servers = new ArrayList<>();
+    private RateLimitRedisClient client;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (client != null) {
+            client.close();
+        }
+        for (RespServerStub server : servers) {
+            server.close();
+        }
+    }
+
+    @Test
+    void shardsKeysAcrossNodesAndEnforcesLimitPerKey() throws Exception {
+        client = startClient(3);
+
+        Map<String, Integer> keysPerNode = new HashMap<>();
+        for (int i = 0; i < 300; i++) {
+            byte[] key = RateLimitRedisClient.encodeKey("rate_limit:", "orders-service:user-" + i);
+            assertThat(eval(key, 10).allowed()).isTrue();
+            keysPerNode.merge(client.nodeFor(key), 1, Integer::sum);
+        }
+        assertThat(keysPerNode).hasSize(3);
+        assertThat(keysPerNode.values()).allSatisfy(count -> assertThat(count).isGreaterThan(50));
+
+        byte[] key = RateLimitRedisClient.encodeKey("rate_limit:", "orders-service:limited");
+        assertThat(eval(key, 2).allowed()).isTrue();
+        assertThat(eval(key, 2).allowed()).isTrue();
+        RateLimitRedisClient.Reply rejected = eval(key, 2);
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.count()).isEqualTo(2);
+    }
+
+    @Test
+    void failedNodeLeavesRingAndOnlyItsKeysMove() throws Exception {
+        client = startClient(3);
+
+        List<byte[]> keys = new ArrayList<>();
+        Map<Integer, String> owners = new HashMap<>();
+        for (int i = 0; i < 300; i++) {
+            byte[] key = RateLimitRedisClient.encodeKey("rate_limit:", "users-service:user-" + i);
+            keys.add(key);
+            owners.put(i, client.nodeFor(key));
+            eval(key, 10);
+        }
+
+        String failed = "127.0.0.1:" + servers.get(1).port();
+        servers.get(1).close();
+
+        // a primeira chamada ao nó caído falha (failure-threshold=1) e o tira do anel
+        int failedKey = owners.entrySet().stream().filter(e -> e.getValue().equals(failed))
+                .map(Map.Entry::getKey).findFirst().orElseThrow();
+        catchThrowable(() -> eval(keys.get(failedKey), 10));
+
+        for (int i = 0; i < keys.size(); i++) {
+            String owner = client.nodeFor(keys.get(i));
+            if (owners.get(i).equals(failed)) {
+                assertThat(owner).isNotEqualTo(failed);
+            } else {
+                assertThat(owner).isEqualTo(owners.get(i));
+            }
+            assertThat(eval(keys.get(i), 10).allowed()).isTrue();
+        }
+    }
+
+    private RateLimitRedisClient startClient(int nodes) throws Exception {
+        RateLimitProperties properties = new RateLimitProperties();
+        for (int i = 0; i < nodes; i++) {
+            RespServerStub server = RespServerStub.start();
+            servers.add(server);
+            properties.getRedis().getNodes().add("127.0.0.1:" + server.port());
+        }
+        properties.getRedis().setConnections(2);
+        properties.getRedis().setFailureThreshold(1);
+        properties.getRedis().setProbeInterval(Duration.ofMillis(100));
+
+        RateLimitRedisClient redisClient = new RateLimitRedisClient(properties, rateLimitScript(),
+                new SimpleMeterRegistry());
+        redisClient.start();
+        return redisClient;
+    }
+
+    private RateLimitRedisClient.Reply eval(byte[] key, long maxRequests) {
+        long now = System.currentTimeMillis();
+        return client.evalRateLimit(key, now, now - WINDOW_MS, maxRequests, WINDOW_MS).block(BLOCK);
+    }
+
+    private static RedisScript<List<Long>> rateLimitScript() {
+        DefaultRedisScript<List<Long>> script = new DefaultRedisScript<>();
+        script.setScriptSource(new ResourceScriptSource(new ClassPathResource("scripts/rate_limit.lua")));
+        return script;
+    }
+}
@@ -0,0 +1,207 @@
+package com.portfolio.api_gateway.ratelimit.gossip;
+
+import com.portfolio.api_gateway.ratelimit.RateLimitBackend;
+import com.portfolio.api_gateway.ratelimit.RateLimitPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Três instâncias locais trocando contadores por UDP em loopback: convergência, limite combinado
+ * e autenticação dos datagramas. A medição de atraso e erro da visão global sob carga roda só no
+ * profile benchmark.
+ */
+class GossipRateLimiterTest {
+
+    private static final int NODES = 3;
+    private static final String KEY = "products-service:user-1";
+    private static final long WINDOW_MS = 3_600_000;
+    private static final Duration CONVERGENCE_TIMEOUT = Duration.ofSeconds(2);
+    /** Prazo generoso das esperas com polling; os testes terminam assim que a condição vale. */
+    private static final Duration AWAIT_TIMEOUT = Duration.ofSeconds(10);
+    private static final String SECRET = "gossip-test-secret-with-at-least-32-bytes";
+
+    /** Relógio alinhado ao início de uma janela: o teste nunca cruza a virada de janela. */
+    private final long origin = System.currentTimeMillis();
+    private final LongSupplier clock = () -> 1_000L * WINDOW_MS + (System.currentTimeMillis() - origin);
+
+    private final List<InetSocketAddress> addresses = new CopyOnWriteArrayList<>();
+    private final List<GossipRateLimiter> nodes = new ArrayList<>();
+    private final List<SimpleMeterRegistry> registries = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (GossipRateLimiter node : nodes) {
+            node.stop();
+        }
+    }
+
+    @Test
+    void convergesToGlobalCountAndEnforcesMergedLimit() throws Exception {
+        startNodes();
+        RateLimitPolicy policy = policy(300);
+
+        for (int i = 0; i < 100; i++) {
+            for (GossipRateLimiter node : nodes) {
+                assertThat(node.isAllowed(KEY, policy).block().isAllowed()).isTrue();
+            }
+        }
+
+        await(() -> nodes.stream().allMatch(node -> node.estimate(KEY) == 300));
+
+        // visão combinada atingiu o limite: todas as instâncias rejeitam
+        for (GossipRateLimiter node : nodes) {
+            assertThat(node.isAllowed(KEY, policy).block().isAllowed()).isFalse();
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void globalViewErrorStaysBoundedUnderLoad() throws Exception {
+        startNodes();
+        RateLimitPolicy policy = policy(1_000_000);
+
+        long sent = 0;
+        double maxError = 0;
+        double errorSum = 0;
+        int samples = 0;
+        for (int round = 0; round < 100; round++) {
+            for (GossipRateLimiter node : nodes) {
+                for (int i = 0; i < 10; i++) {
+                    node.isAllowed(KEY, policy).block();
+                    sent++;
+                }
+            }
+            for (GossipRateLimiter node : nodes) {
+                double error = (sent - node.estimate(KEY)) / sent;
+                maxError = Math.max(maxError, error);
+                errorSum += error;
+                samples++;
+            }
+            Thread.sleep(10);
+        }
+        long lagMillis = awaitConvergence(sent);
+
+        System.out.printf("Erro relativo da visão global: médio %.1f%%, máximo %.1f%%; convergência final %d ms%n",
+                errorSum / samples * 100, maxError * 100, lagMillis);
+        // cada nó sempre enxerga pelo menos as próprias contagens (1/3 do total)
+        assertThat(maxError).isLessThan(1.0 - 1.0 / NODES + 0.01);
+        assertThat(lagMillis).isLessThan(CONVERGENCE_TIMEOUT.toMillis());
+    }
+
+    @Test
+    void dropsUnsignedDatagramsAndCountsFromUnknownNodes() throws Exception {
+        startNodes();
+        GossipRateLimiter victim = nodes.get(0);
+        long windowIndex = clock.getAsLong() / WINDOW_MS;
+
+        // contagens distintas por datagrama: se um dos rejeitados fosse combinado, o máximo passaria de 5
+        try (DatagramChannel attacker = DatagramChannel.open()) {
+            attacker.bind(new InetSocketAddress("127.0.0.1", 0));
+
+            // endereço que não é peer, ainda que com a assinatura correta
+            send(attacker, victim, entry(windowIndex, 7), SECRET);
+            await(() -> invalidPackets(0) == 1);
+            assertThat(victim.estimate(KEY)).isZero();
+
+            // peer com segredo errado
+            addresses.add((InetSocketAddress) attacker.getLocalAddress());
+            send(attacker, victim, entry(windowIndex, 9), "another-secret-with-at-least-32-bytes!!");
+            await(() -> invalidPackets(0) == 2);
+            assertThat(victim.estimate(KEY)).isZero();
+
+            // peer autenticado: apenas a contagem do próprio remetente é aceita
+            send(attacker, victim, entry(windowIndex, 5), SECRET);
+            await(() -> victim.estimate(KEY) > 0);
+            assertThat(victim.estimate(KEY)).isEqualTo(5);
+        }
+    }
+
+    private static GCounterStore.Entry entry(long windowIndex, long count) {
+        return new GCounterStore.Entry(KEY, WINDOW_MS, windowIndex, Map.of("intruder", count, "ghost", 1_000_000L));
+    }
+
+    private void send(DatagramChannel from, GossipRateLimiter to, GCounterStore.Entry entry, String secret)
+            throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        for (byte[] packet : GossipCodec.encode("intruder", clock.getAsLong(), List.of(entry), 1400, mac)) {
+            from.send(ByteBuffer.wrap(packet), to.localAddress());
+        }
+    }
+
+    private void startNodes() throws Exception {
+        GossipRateLimitProperties properties = new GossipRateLimitProperties();
+        properties.setEnabled(true);
+        properties.setBindAddress("127.0.0.1");
+        properties.setPort(0);
+        properties.setInterval(Duration.ofMillis(20));
+        properties.setSecret(SECRET);
+
+        for (int i = 0; i < NODES; i++) {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            GossipRateLimiter node = new GossipRateLimiter(properties, () -> addresses, registry, clock);
+            node.start();
+            nodes.add(node);
+            registries.add(registry);
+            addresses.add(node.localAddress());
+        }
+    }
+
+    private double invalidPackets(int node) {
+        return registries.get(node).get("gateway.ratelimit.gossip.packets").tag("direction", "invalid").counter().count();
+    }
+
+    /**
+     * Aguarda a condição com polling até {@link #AWAIT_TIMEOUT}.
+     */
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + AWAIT_TIMEOUT.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() >= deadline) {
+                throw new AssertionError("Condição não atingida em " + AWAIT_TIMEOUT);
+            }
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Tempo até todas as instâncias estimarem {@code expected} para a key.
+     */
+    private long awaitConvergence(long expected) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + CONVERGENCE_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (nodes.stream().allMatch(node -> node.estimate(KEY) == expected)) {
+                return (System.nanoTime() - start) / 1_000_000;
+            }
+            Thread.sleep(1);
+        }
+        return CONVERGENCE_TIMEOUT.toMillis();
+    }
+
+    private static RateLimitPolicy policy(long maxRequests) {
+        return RateLimitPolicy.builder()
+                .maxRequests(maxRequests)
+                .windowMs(WINDOW_MS)
+                .backend(RateLimitBackend.GOSSIP)
+                .build();
+    }
+}
@@ -0,0 +1,120 @@
+package com.portfolio.api_gateway.requestid;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class RequestIdGeneratorTest {
+
+    private static final int THREADS = 32;
+
+    @Test
+    void generatesUuidV7() {
+        UUID uuid = UUID.fromString(RequestIdGenerator.next());
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(uuid.getMostSignificantBits() >>> 16)
+                .isCloseTo(System.currentTimeMillis(), within(5_000L));
+    }
+
+    @Test
+    void idsAreStrictlyIncreasingWithinThread() {
+        String previous = RequestIdGenerator.next();
+        for (int i = 0; i < 100_000; i++) {
+            String current = RequestIdGenerator.next();
+            assertThat(current).isGreaterThan(previous);
+            previous = current;
+        }
+    }
+
+    @Test
+    void idsAreUniqueAcrossThreads() throws Exception {
+        int perThread = 20_000;
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < perThread; i++) {
+                ids.add(RequestIdGenerator.next());
+            }
+            return null;
+        });
+
+        assertThat(ids).hasSize(THREADS * perThread);
+    }
+
+    /**
+     * Microbenchmark com 32 threads: RequestIdGenerator vs UUID.randomUUID().
+     * Executado apenas com o profile benchmark (mvn test -Pbenchmark).
+     */
+    @Test
+    @Tag("benchmark")
+    void benchmarkAgainstRandomUuid() throws Exception {
+        int perThread = 200_000;
+
+        // aquecimento do JIT
+        measure(() -> UUID.randomUUID().toString(), perThread / 4);
+        measure(RequestIdGenerator::next, perThread / 4);
+
+        double randomUuidOps = measure(() -> UUID.randomUUID().toString(), perThread);
+        double generatorOps = measure(RequestIdGenerator::next, perThread);
+
+        System.out.printf("UUID.randomUUID():    %,.0f ops/s (%d threads)%n", randomUuidOps, THREADS);
+        System.out.printf("RequestIdGenerator:   %,.0f ops/s (%d threads)%n", generatorOps, THREADS);
+        System.out.printf("Speedup:              %.1fx%n", generatorOps / randomUuidOps);
+
+        assertThat(generatorOps).isPositive();
+    }
+
+    private double measure(Supplier<String> generator, int perThread) throws Exception {
+        long start = System.nanoTime();
+        List<Long> sinks = runConcurrently(() -> {
+            long sink = 0;
+            for (int i = 0; i < perThread; i++) {
+                sink += generator.get().length();
+            }
+            return sink;
+        });
+        long elapsed = System.nanoTime() - start;
+
+        assertThat(sinks).allMatch(sink -> sink == 36L * perThread);
+        return (double) THREADS * perThread / (elapsed / 1_000_000_000.0);
+    }
+
+    private <T> List<T> runConcurrently(Callable<T> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+
+            List<T> results = new ArrayList<>();
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
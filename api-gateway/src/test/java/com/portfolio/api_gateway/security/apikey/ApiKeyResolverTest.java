@@ -0,0 +1,129 @@
+package com.portfolio.api_gateway.security.apikey;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.ReactiveSubscription;
+import org.springframework.data.redis.core.ReactiveHashOperations;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cache local de API keys com o Redis simulado (hash da key e canal de invalidação).
+ */
+class ApiKeyResolverTest {
+
+    private static final String KEY = "sk_live_0123456789";
+    private static final String REDIS_KEY = "api_key:" + ApiKeyResolver.sha256(KEY);
+    private static final List<String> ACME = List.of("partner-acme", "orders:read products:read", "gold");
+
+    private final ReactiveStringRedisTemplate redisTemplate = mock(ReactiveStringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ReactiveHashOperations<String, String, String> hashOperations = mock(ReactiveHashOperations.class);
+    private final Sinks.Many<ReactiveSubscription.Message<String, String>> channel =
+            Sinks.many().multicast().onBackpressureBuffer();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ApiKeyResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        ApiKeyProperties properties = new ApiKeyProperties();
+        properties.setEnabled(true);
+        properties.setLookupTimeout(Duration.ofSeconds(5));
+
+        when(redisTemplate.<String, String>opsForHash()).thenReturn(hashOperations);
+        doReturn(channel.asFlux()).when(redisTemplate).listenToChannel(anyString());
+
+        resolver = new ApiKeyResolver(properties, redisTemplate, meterRegistry);
+        resolver.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        resolver.stop();
+    }
+
+    @Test
+    void unknownKeyIsCachedNegatively() {
+        redisReturns(Mono.just(Arrays.asList(null, null, null)));
+
+        assertThat(resolver.resolve(KEY).blockOptional()).isEmpty();
+        assertThat(resolver.resolve(KEY).blockOptional()).isEmpty();
+
+        verify(hashOperations, times(1)).multiGet(eq(REDIS_KEY), anyCollection());
+        assertThat(meterRegistry.get("gateway.apikey.cache").tag("result", "negative_hit").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void concurrentMissesShareOneRedisLookup() {
+        Sinks.One<List<String>> reply = Sinks.one();
+        redisReturns(reply.asMono());
+
+        CompletableFuture<ApiKeyDetails> first = resolver.resolve(KEY).toFuture();
+        CompletableFuture<ApiKeyDetails> second = resolver.resolve(KEY).toFuture();
+        reply.tryEmitValue(ACME);
+
+        assertThat(first.join().principal()).isEqualTo("partner-acme");
+        assertThat(second.join().scopes()).containsExactlyInAnyOrder("orders:read", "products:read");
+        verify(hashOperations, times(1)).multiGet(eq(REDIS_KEY), anyCollection());
+
+        // a consulta compartilhada populou o cache
+        assertThat(resolver.resolve(KEY).block().tier()).isEqualTo("gold");
+        verify(hashOperations, times(1)).multiGet(eq(REDIS_KEY), anyCollection());
+    }
+
+    @Test
+    void invalidationDuringLookupKeepsResultOutOfCache() {
+        Sinks.One<List<String>> reply = Sinks.one();
+        redisReturns(reply.asMono());
+
+        CompletableFuture<ApiKeyDetails> pending = resolver.resolve(KEY).toFuture();
+        // revogação publicada enquanto a consulta ao Redis ainda não respondeu
+        channel.tryEmitNext(new ReactiveSubscription.ChannelMessage<>(
+                "gateway:api-keys:invalidate", ApiKeyResolver.sha256(KEY)));
+        reply.tryEmitValue(ACME);
+        assertThat(pending.join().principal()).isEqualTo("partner-acme");
+
+        redisReturns(Mono.just(Arrays.asList(null, null, null)));
+        assertThat(resolver.resolve(KEY).blockOptional()).isEmpty();
+        verify(hashOperations, times(2)).multiGet(eq(REDIS_KEY), anyCollection());
+    }
+
+    @Test
+    void lostSubscriptionClearsCache() {
+        redisReturns(Mono.just(ACME));
+        assertThat(resolver.resolve(KEY).block()).isNotNull();
+        assertThat(resolver.resolve(KEY).block()).isNotNull();
+        verify(hashOperations, times(1)).multiGet(eq(REDIS_KEY), anyCollection());
+
+        channel.tryEmitError(new RedisConnectionFailureException("conexão perdida"));
+
+        assertThat(resolver.resolve(KEY).block()).isNotNull();
+        verify(hashOperations, times(2)).multiGet(eq(REDIS_KEY), anyCollection());
+        assertThat(meterRegistry.get("gateway.apikey.cache.size").gauge().value()).isEqualTo(1);
+    }
+
+    private void redisReturns(Mono<List<String>> reply) {
+        when(hashOperations.multiGet(eq(REDIS_KEY), anyCollection())).thenReturn(reply);
+    }
+}
@@ -0,0 +1,181 @@
+package com.portfolio.api_gateway.security.identity;
+
+import com.portfolio.api_gateway.security.apikey.ApiKeyAuthenticationConverter;
+import com.portfolio.api_gateway.security.apikey.ApiKeyAuthenticationManager;
+import com.portfolio.api_gateway.security.apikey.ApiKeyDetails;
+import com.portfolio.api_gateway.security.apikey.ApiKeyProperties;
+import com.portfolio.api_gateway.security.apikey.ApiKeyResolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Headers repassados pelo filtro à cadeia: credencial removida, header de identidade assinado
+ * e cacheado por token, e header de identidade do cliente descartado em requisições anônimas.
+ */
+class IdentityHeaderFilterTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+    private static final String IDENTITY = "X-Gateway-Identity";
+    private static final String API_KEY = "sk_live_0123456789";
+
+    private final IdentityHeaderVerifier verifier =
+            new IdentityHeaderVerifier("v1", SECRET.getBytes(StandardCharsets.UTF_8));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicReference<HttpHeaders> forwarded = new AtomicReference<>();
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.set(exchange.getRequest().getHeaders());
+        return Mono.empty();
+    };
+
+    private IdentityHeaderFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        IdentityHeaderProperties properties = new IdentityHeaderProperties();
+        properties.setEnabled(true);
+        properties.setSecret(SECRET);
+        filter = new IdentityHeaderFilter(properties, new ApiKeyProperties(), meterRegistry);
+    }
+
+    @Test
+    void jwtIsReplacedBySignedIdentity() {
+        Instant expiresAt = Instant.now().plusSeconds(300);
+        HttpHeaders headers = filter(request("Bearer token-a"), jwt("token-a", expiresAt), null);
+
+        assertThat(headers.containsHeader(HttpHeaders.AUTHORIZATION)).isFalse();
+        String payload = verifier.verify(headers.getFirst(IDENTITY), Instant.now().getEpochSecond());
+        assertThat(payload)
+                .contains("\"sub\":\"ana\"", "\"scp\":[\"orders:read\"]", "\"rol\":[\"ADMIN\"]")
+                .endsWith("\"exp\":" + expiresAt.getEpochSecond() + "}");
+    }
+
+    @Test
+    void apiKeyIsReplacedBySignedIdentity() {
+        HttpHeaders headers = filter(
+                MockServerHttpRequest.get("/api/v1/orders").header("X-API-Key", API_KEY), apiKey(), null);
+
+        assertThat(headers.containsHeader("X-API-Key")).isFalse();
+        assertThat(verifier.verify(headers.getFirst(IDENTITY), Instant.now().getEpochSecond()))
+                .contains("\"sub\":\"partner-acme\"", "\"scp\":[\"orders:read\"]");
+    }
+
+    @Test
+    void forwardBearerTokenRouteKeepsOriginalCredential() {
+        Route route = Route.async()
+                .id("legacy-service")
+                .uri("http://legacy")
+                .predicate(exchange -> true)
+                .metadata(IdentityHeaderFilter.FORWARD_TOKEN_METADATA, true)
+                .build();
+
+        HttpHeaders headers = filter(request("Bearer token-a"), jwt("token-a", Instant.now().plusSeconds(300)), route);
+
+        assertThat(headers.getFirst(HttpHeaders.AUTHORIZATION)).isEqualTo("Bearer token-a");
+        assertThat(headers.getFirst(IDENTITY)).isNotNull();
+    }
+
+    @Test
+    void clientSentIdentityIsRemovedFromAnonymousRequests() {
+        HttpHeaders headers = filter(
+                MockServerHttpRequest.get("/api/v1/auth/login").header(IDENTITY, "v1.forjado.assinatura"), null, null);
+
+        assertThat(headers.containsHeader(IDENTITY)).isFalse();
+    }
+
+    @Test
+    void clientSentIdentityIsReplacedOnAuthenticatedRequests() {
+        HttpHeaders headers = filter(request("Bearer token-a").header(IDENTITY, "v1.forjado.assinatura"),
+                jwt("token-a", Instant.now().plusSeconds(300)), null);
+
+        assertThat(headers.get(IDENTITY)).hasSize(1);
+        assertThat(verifier.verify(headers.getFirst(IDENTITY), Instant.now().getEpochSecond())).isNotNull();
+    }
+
+    @Test
+    void signedHeaderIsCachedPerTokenUntilExpiry() {
+        Instant expiresAt = Instant.now().plusSeconds(300);
+        String first = filter(request("Bearer token-a"), jwt("token-a", expiresAt), null).getFirst(IDENTITY);
+        String second = filter(request("Bearer token-a"), jwt("token-a", expiresAt), null).getFirst(IDENTITY);
+        filter(request("Bearer token-b"), jwt("token-b", expiresAt), null);
+
+        assertThat(second).isEqualTo(first);
+        assertThat(cache("hit")).isEqualTo(1);
+        assertThat(cache("miss")).isEqualTo(2);
+
+        // token vencido: a entrada em cache não é reutilizada
+        Instant expired = Instant.now().minusSeconds(1);
+        filter(request("Bearer token-c"), jwt("token-c", expired), null);
+        filter(request("Bearer token-c"), jwt("token-c", expired), null);
+        assertThat(cache("hit")).isEqualTo(1);
+        assertThat(cache("miss")).isEqualTo(4);
+    }
+
+    private HttpHeaders filter(MockServerHttpRequest.BaseBuilder<?> request, Authentication principal, Route route) {
+        MockServerWebExchange.Builder builder = MockServerWebExchange.builder(request);
+        if (principal != null) {
+            builder.principal(principal);
+        }
+        ServerWebExchange exchange = builder.build();
+        if (route != null) {
+            exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        }
+        forwarded.set(null);
+        filter.filter(exchange, chain).block();
+        return forwarded.get();
+    }
+
+    private double cache(String result) {
+        return meterRegistry.get("gateway.identity.cache").tag("result", result).counter().count();
+    }
+
+    private static MockServerHttpRequest.BaseBuilder<?> request(String authorization) {
+        return MockServerHttpRequest.get("/api/v1/orders").header(HttpHeaders.AUTHORIZATION, authorization);
+    }
+
+    private static JwtAuthenticationToken jwt(String tokenValue, Instant expiresAt) {
+        Jwt jwt = Jwt.withTokenValue(tokenValue)
+                .header("alg", "RS256")
+                .subject("ana")
+                .issuedAt(expiresAt.minusSeconds(600))
+                .expiresAt(expiresAt)
+                .build();
+        return new JwtAuthenticationToken(jwt,
+                List.of(new SimpleGrantedAuthority("SCOPE_orders:read"), new SimpleGrantedAuthority("ROLE_ADMIN")),
+                "ana");
+    }
+
+    /** Principal produzido pela autenticação por API key real (converter + manager). */
+    private static Authentication apiKey() {
+        ApiKeyResolver resolver = mock(ApiKeyResolver.class);
+        when(resolver.resolve(API_KEY)).thenReturn(Mono.just(new ApiKeyDetails("partner-acme", Set.of("orders:read"), "gold")));
+
+        MockServerWebExchange exchange = MockServerWebExchange.from(
+                MockServerHttpRequest.get("/").header("X-API-Key", API_KEY));
+        return new ApiKeyAuthenticationConverter("X-API-Key").convert(exchange)
+                .flatMap(new ApiKeyAuthenticationManager(resolver)::authenticate)
+                .block();
+    }
+}
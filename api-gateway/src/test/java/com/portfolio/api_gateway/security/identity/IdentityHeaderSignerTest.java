@@ -0,0 +1,48 @@
+package com.portfolio.api_gateway.security.identity;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdentityHeaderSignerTest {
+
+    private static final byte[] SECRET = "0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+
+    private final IdentityHeaderSigner signer = new IdentityHeaderSigner("v1", SECRET);
+    private final IdentityHeaderVerifier verifier = new IdentityHeaderVerifier("v1", SECRET);
+
+    @Test
+    void signedHeaderVerifiesUntilExpiry() {
+        String header = signer.sign(new IdentityHeaderSigner.Identity(
+                "ana", List.of("orders:read", "orders:write"), List.of("ADMIN"), 1_000, 2_000));
+
+        assertThat(header).startsWith("v1.");
+        assertThat(verifier.verify(header, 1_500))
+                .isEqualTo("{\"sub\":\"ana\",\"scp\":[\"orders:read\",\"orders:write\"],\"rol\":[\"ADMIN\"],"
+                        + "\"iat\":1000,\"exp\":2000}");
+        assertThat(verifier.verify(header, 2_000)).isNull();
+    }
+
+    @Test
+    void rejectsTamperedPayloadAndOtherKeys() {
+        String header = signer.sign(new IdentityHeaderSigner.Identity("ana", List.of(), List.of(), 1_000, 2_000));
+        String forged = signer.sign(new IdentityHeaderSigner.Identity("admin", List.of(), List.of(), 1_000, 2_000));
+        String[] parts = header.split("\\.");
+        String[] forgedParts = forged.split("\\.");
+
+        assertThat(verifier.verify(parts[0] + "." + forgedParts[1] + "." + parts[2], 1_500)).isNull();
+        assertThat(new IdentityHeaderVerifier("v1", "another-secret-another-secret-123".getBytes(StandardCharsets.UTF_8))
+                .verify(header, 1_500)).isNull();
+        assertThat(new IdentityHeaderVerifier("v2", SECRET).verify(header, 1_500)).isNull();
+    }
+
+    @Test
+    void escapesSubjectInPayload() {
+        String header = signer.sign(new IdentityHeaderSigner.Identity("a\"b\\c", List.of(), List.of(), 1, 2));
+
+        assertThat(verifier.verify(header, 1)).contains("\"sub\":\"a\\\"b\\\\c\"");
+    }
+}
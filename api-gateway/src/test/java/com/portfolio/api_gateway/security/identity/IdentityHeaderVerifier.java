@@ -0,0 +1,52 @@
+package com.portfolio.api_gateway.security.identity;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Verificação de referência do header de identidade, equivalente à feita pelos serviços
+ * downstream: MAC recalculado com comparação em tempo constante e {@code exp} vencido rejeitado.
+ */
+final class IdentityHeaderVerifier {
+
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final String keyId;
+    private final SecretKeySpec key;
+
+    IdentityHeaderVerifier(String keyId, byte[] secret) {
+        this.keyId = keyId;
+        this.key = new SecretKeySpec(secret, "HmacSHA256");
+    }
+
+    /**
+     * Payload JSON se a assinatura for válida e o header não estiver vencido; senão null.
+     */
+    String verify(String header, long nowEpochSeconds) {
+        int lastDot = header.lastIndexOf('.');
+        int firstDot = header.indexOf('.');
+        if (firstDot <= 0 || lastDot == firstDot || !header.substring(0, firstDot).equals(keyId)) {
+            return null;
+        }
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            byte[] expected = mac.doFinal(header.substring(0, lastDot).getBytes(StandardCharsets.US_ASCII));
+            if (!MessageDigest.isEqual(expected, DECODER.decode(header.substring(lastDot + 1)))) {
+                return null;
+            }
+            String payload = new String(DECODER.decode(header.substring(firstDot + 1, lastDot)), StandardCharsets.UTF_8);
+            int exp = payload.lastIndexOf("\"exp\":");
+            long expiresAt = Long.parseLong(payload.substring(exp + 6, payload.length() - 1));
+            return expiresAt > nowEpochSeconds ? payload : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}